@@ -27,7 +27,8 @@ public class ClientConfiguration {
 
     @Bean
     public Client nakadiClient(final EventReceiverRegistryConfiguration eventReceiverConfig) {
-        final ClientImpl.Builder builder = new ClientImpl.Builder(nakadiSettings.getDefaults().getNakadiUrl());
+        final ClientImpl.Builder builder = new ClientImpl.Builder(nakadiSettings.getDefaults().getNakadiUrl())
+                .withHttpClientConfig(eventReceiverConfig.getHttpClientConfig());
         if (null != authorizationValueProvider) {
             builder.withAuthorization(authorizationValueProvider);
         }
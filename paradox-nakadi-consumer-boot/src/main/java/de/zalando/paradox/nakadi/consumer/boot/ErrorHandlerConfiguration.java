@@ -1,5 +1,9 @@
 package de.zalando.paradox.nakadi.consumer.boot;
 
+import java.nio.file.Paths;
+
+import org.apache.commons.lang3.StringUtils;
+
 import org.springframework.beans.factory.annotation.Qualifier;
 
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,6 +16,7 @@ import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import de.zalando.paradox.nakadi.consumer.sqserrorhandler.FileOverflowStore;
 import de.zalando.paradox.nakadi.consumer.sqserrorhandler.SQSConfig;
 import de.zalando.paradox.nakadi.consumer.sqserrorhandler.SQSErrorHandler;
 import de.zalando.paradox.nakadi.consumer.sqserrorhandler.SQSFailedEventSource;
@@ -27,7 +32,34 @@ public class ErrorHandlerConfiguration {
 
     @Bean
     public SQSConfig sqsConfig(final SQSConfiguration sqsConfiguration) {
-        return new SQSConfig.Builder().queueUrl(sqsConfiguration.getQueueUrl()).build();
+        final SQSConfig.Builder builder = new SQSConfig.Builder().queueUrl(sqsConfiguration.getQueueUrl())
+                                                                 .asyncBatching(sqsConfiguration.isAsyncBatching())
+                                                                 .compactEncoding(sqsConfiguration.isCompactEncoding());
+        if (null != sqsConfiguration.getBatchLingerMillis()) {
+            builder.batchLingerMillis(sqsConfiguration.getBatchLingerMillis());
+        }
+
+        if (null != sqsConfiguration.getBatchQueueCapacity()) {
+            builder.batchQueueCapacity(sqsConfiguration.getBatchQueueCapacity());
+        }
+
+        if (null != sqsConfiguration.getBatchMaxRetries()) {
+            builder.batchMaxRetries(sqsConfiguration.getBatchMaxRetries());
+        }
+
+        if (null != sqsConfiguration.getMaxStackTraceLength()) {
+            builder.maxStackTraceLength(sqsConfiguration.getMaxStackTraceLength());
+        }
+
+        if (null != sqsConfiguration.getStackTraceDedupMillis()) {
+            builder.stackTraceDedupMillis(sqsConfiguration.getStackTraceDedupMillis());
+        }
+
+        if (StringUtils.isNotEmpty(sqsConfiguration.getOverflowDirectory())) {
+            builder.overflowStore(new FileOverflowStore(Paths.get(sqsConfiguration.getOverflowDirectory())));
+        }
+
+        return builder.build();
     }
 
     @Bean
@@ -1,8 +1,16 @@
 package de.zalando.paradox.nakadi.consumer.boot;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.StringUtils;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 
@@ -15,6 +23,11 @@ import de.zalando.paradox.nakadi.consumer.boot.components.ConsumerEventConfigLis
 import de.zalando.paradox.nakadi.consumer.boot.components.ConsumerPartitionCoordinatorProvider;
 import de.zalando.paradox.nakadi.consumer.boot.components.EventReceiverRegistry;
 import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpTransport;
+import de.zalando.paradox.nakadi.consumer.core.http.ReceiverSchedulers;
+import de.zalando.paradox.nakadi.consumer.core.http.SchedulerFactory;
+import de.zalando.paradox.nakadi.consumer.core.http.requests.SharedPartitionsPoller;
 
 @Configuration
 public class EventReceiverRegistryConfiguration {
@@ -33,10 +46,21 @@ public class EventReceiverRegistryConfiguration {
     @Autowired(required = false)
     private AuthorizationValueProvider authorizationValueProvider;
 
+    @Autowired(required = false)
+    private HttpTransport httpTransport;
+
     @Autowired(required = false)
     @Qualifier("nakadiObjectMapper")
     private ObjectMapper objectMapper;
 
+    @Autowired(required = false)
+    @Qualifier("nakadiDispatchExecutor")
+    private Executor dispatchExecutor;
+
+    private SchedulerFactory schedulerFactory;
+
+    private SharedPartitionsPoller partitionsPoller;
+
     @Bean
     public EventReceiverRegistry eventReceiverRegistry(final EventReceiverRegistryConfiguration eventReceiverConfig) {
         return new EventReceiverRegistry(eventReceiverConfig, objectMapper);
@@ -54,6 +78,14 @@ public class EventReceiverRegistryConfiguration {
         return authorizationValueProvider;
     }
 
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    public Executor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
     public String getNakadiUrl() {
         return nakadiSettings.getDefaults().getNakadiUrl();
     }
@@ -70,6 +102,10 @@ public class EventReceiverRegistryConfiguration {
         return nakadiSettings.getDefaults().getPartitionsRetryRandomMillis();
     }
 
+    public Long getPartitionsRetryMaxMillis() {
+        return nakadiSettings.getDefaults().getPartitionsRetryMaxMillis();
+    }
+
     public Long getPartitionsTimeoutMillis() {
         return nakadiSettings.getDefaults().getPartitionsTimeoutMillis();
     }
@@ -117,6 +153,87 @@ public class EventReceiverRegistryConfiguration {
                 nakadiSettings.getDefaults().getEventsBatchLimit()).filter(Objects::nonNull).findFirst().orElse(null);
     }
 
+    public Integer getEventsMaxInFlightBatches() {
+        return nakadiSettings.getDefaults().getEventsMaxInFlightBatches();
+    }
+
+    public Integer getEventsDispatchLanes() {
+        return nakadiSettings.getDefaults().getEventsDispatchLanes();
+    }
+
+    public Integer getEventsPrefetchBatches() {
+        return nakadiSettings.getDefaults().getEventsPrefetchBatches();
+    }
+
+    public HttpClientConfig getHttpClientConfig() {
+        final NakadiConsumerDefaults defaults = nakadiSettings.getDefaults();
+        final HttpClientConfig.Builder builder = HttpClientConfig.Builder.of();
+        if (null != defaults.getHttpMaxIdleConnections()) {
+            builder.withMaxIdleConnections(defaults.getHttpMaxIdleConnections());
+        }
+
+        if (null != defaults.getHttpKeepAliveDurationMillis()) {
+            builder.withKeepAliveDurationMillis(defaults.getHttpKeepAliveDurationMillis());
+        }
+
+        if (null != defaults.getHttpConnectTimeoutMillis()) {
+            builder.withConnectTimeoutMillis(defaults.getHttpConnectTimeoutMillis());
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @return  configured scheduler factory or null for the default of the transport
+     */
+    @Nullable
+    public synchronized SchedulerFactory getSchedulerFactory() {
+        if (null == schedulerFactory) {
+            schedulerFactory = createSchedulerFactory(nakadiSettings.getDefaults());
+        }
+
+        return schedulerFactory;
+    }
+
+    /**
+     * @return  poller shared by all consumers or null if every consumer polls the partitions itself
+     */
+    @Nullable
+    public synchronized SharedPartitionsPoller getPartitionsPoller() {
+        final NakadiConsumerDefaults defaults = nakadiSettings.getDefaults();
+        if (null == partitionsPoller && defaults.isPartitionsSharedPolling()) {
+            partitionsPoller = new SharedPartitionsPoller(Optional.ofNullable(
+                        defaults.getPartitionsMaxRequestsPerMinute()).orElse(0));
+        }
+
+        return partitionsPoller;
+    }
+
+    @Nullable
+    private static SchedulerFactory createSchedulerFactory(final NakadiConsumerDefaults defaults) {
+        final String scheduler = defaults.getReceiverScheduler();
+        if (StringUtils.isEmpty(scheduler)) {
+            return null;
+        }
+
+        switch (scheduler) {
+
+            case "io" :
+                return ReceiverSchedulers.io();
+
+            case "virtual" :
+                return ReceiverSchedulers.virtualThreads();
+
+            case "bounded" :
+                checkArgument(null != defaults.getReceiverSchedulerThreads(),
+                    "receiverSchedulerThreads must be set for bounded receiver scheduler");
+                return ReceiverSchedulers.boundedPool(defaults.getReceiverSchedulerThreads());
+
+            default :
+                throw new IllegalArgumentException("Unknown receiverScheduler [" + scheduler + "]");
+        }
+    }
+
     private NakadiConsumerSettings getConsumerSetting(final String consumer) {
         return nakadiSettings.getConsumers().getOrDefault(consumer, EMPTY_CONSUMER_SETTINGS);
     }
@@ -9,6 +9,8 @@ import static com.google.common.base.Preconditions.checkState;
 
 import java.lang.reflect.Method;
 
+import java.nio.file.Paths;
+
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -50,10 +52,18 @@ import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
 import de.zalando.paradox.nakadi.consumer.core.EventHandler;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.FileOffsetStore;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.SimplePartitionCoordinator;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.AbstractZKConsumerPartitionCoordinator;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ConsumerPartitionRebalanceStrategy;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKConsistentHashConsumerPartitionRebalanceStrategy;
 import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKHolder;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKLagConsumerPartitionRebalanceStrategy;
 import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKLeaderConsumerPartitionCoordinator;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKLeaderConsumerPartitionRebalanceStrategy;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKMember;
 import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKSimpleConsumerPartitionCoordinator;
+import de.zalando.paradox.nakadi.consumer.partitioned.zk.ZKStickyConsumerPartitionRebalanceStrategy;
 
 @Configuration
 @AutoConfigureAfter(AccessTokensBeanAutoConfiguration.class)
@@ -82,6 +92,14 @@ public class NakadiConsumerConfiguration {
                 nakadiHandler = AnnotationUtils.findAnnotation(method, NakadiHandler.class);
             }
 
+            if (null == nakadiHandler) {
+                final Method asyncMethod = ReflectionUtils.findMethod(beanType, "onEventAsync", EventTypeCursor.class,
+                        Object.class);
+                if (null != asyncMethod) {
+                    nakadiHandler = AnnotationUtils.findAnnotation(asyncMethod, NakadiHandler.class);
+                }
+            }
+
             if (null == nakadiHandler) {
                 nakadiHandler = AnnotationUtils.findAnnotation(beanType, NakadiHandler.class);
             }
@@ -159,6 +177,35 @@ public class NakadiConsumerConfiguration {
         };
     }
 
+    @Bean
+    @ConditionalOnProperty(
+        value = "partitionCoordinatorProvider", prefix = DEFAULT_PROPERTIES_PREFIX, havingValue = "file"
+    )
+    public FileOffsetStore fileOffsetStore() {
+        final String directory = nakadiConsumerProperties.getDefaults().getOffsetStoreDirectory();
+        checkArgument(isNotEmpty(directory), "offsetStoreDirectory must not be empty");
+        return new FileOffsetStore(Paths.get(directory),
+                nakadiConsumerProperties.getDefaults().isOffsetStoreForceWrites());
+    }
+
+    @Bean
+    @ConditionalOnProperty(
+        value = "partitionCoordinatorProvider", prefix = DEFAULT_PROPERTIES_PREFIX, havingValue = "file"
+    )
+    public ConsumerPartitionCoordinatorProvider filePartitionCoordinatorProvider(final FileOffsetStore offsetStore,
+            final Optional<List<EventErrorHandler>> eventErrorHandlerList) {
+        return
+            consumerName -> {
+            final SimplePartitionCoordinator coordinator = new SimplePartitionCoordinator(consumerName, offsetStore,
+                    eventErrorHandlerList.orElse(Collections.emptyList()));
+
+            coordinator.setStartNewestAvailableOffset(nakadiConsumerProperties.getDefaults()
+                    .isStartNewestAvailableOffset());
+
+            return coordinator;
+        };
+    }
+
     @Bean
     @ConditionalOnProperty(
         value = "partitionCoordinatorProvider", prefix = DEFAULT_PROPERTIES_PREFIX, havingValue = "zk"
@@ -168,17 +215,66 @@ public class NakadiConsumerConfiguration {
         return
             consumerName -> {
             final ZKLeaderConsumerPartitionCoordinator coordinator = new ZKLeaderConsumerPartitionCoordinator(zkHolder,
-                    consumerName, eventErrorHandlerList.orElse(Collections.emptyList()));
+                    consumerName, eventErrorHandlerList.orElse(Collections.emptyList()),
+                    getRebalanceStrategyFactory(nakadiConsumerProperties.getDefaults()));
 
             coordinator.setStartNewestAvailableOffset(nakadiConsumerProperties.getDefaults()
                     .isStartNewestAvailableOffset());
             coordinator.setDeleteUnavailableCursors(nakadiConsumerProperties.getDefaults()
                     .isDeleteUnavailableCursors());
+            coordinator.setStrictOffsetSync(nakadiConsumerProperties.getDefaults().isOffsetStrictSync());
+            coordinator.setCooperativeRebalance(nakadiConsumerProperties.getDefaults().isRebalanceCooperative());
+            setAsyncCommit(coordinator);
 
             return coordinator;
         };
     }
 
+    private static Function<ZKMember, ConsumerPartitionRebalanceStrategy> getRebalanceStrategyFactory(
+            final NakadiConsumerDefaults defaults) {
+        final String rebalanceStrategy = defaults.getRebalanceStrategy();
+        if (null == rebalanceStrategy) {
+            return ZKLeaderConsumerPartitionRebalanceStrategy::new;
+        }
+
+        switch (rebalanceStrategy) {
+
+            case "modulo" :
+                return ZKLeaderConsumerPartitionRebalanceStrategy::new;
+
+            case "sticky" :
+                return ZKStickyConsumerPartitionRebalanceStrategy::new;
+
+            case "lag" :
+                return ZKLagConsumerPartitionRebalanceStrategy::new;
+
+            case "consistent-hash" : {
+                final int virtualNodes = null != defaults.getRebalanceVirtualNodes()
+                    ? defaults.getRebalanceVirtualNodes()
+                    : ZKConsistentHashConsumerPartitionRebalanceStrategy.DEFAULT_VIRTUAL_NODES;
+                return member -> new ZKConsistentHashConsumerPartitionRebalanceStrategy(member, virtualNodes);
+            }
+
+            default :
+                throw new IllegalArgumentException("Unknown rebalanceStrategy [" + rebalanceStrategy + "]");
+        }
+    }
+
+    private void setAsyncCommit(final AbstractZKConsumerPartitionCoordinator coordinator) {
+        final Long commitIntervalMillis = nakadiConsumerProperties.getDefaults().getOffsetCommitIntervalMillis();
+        if (null != commitIntervalMillis && commitIntervalMillis > 0) {
+            final Integer maxPending = nakadiConsumerProperties.getDefaults().getOffsetCommitMaxPending();
+            coordinator.setAsyncCommit(commitIntervalMillis, null != maxPending ? maxPending : 0,
+                nakadiConsumerProperties.getDefaults().isOffsetCommitMultiPartition());
+
+            final String journalDirectory = nakadiConsumerProperties.getDefaults().getOffsetJournalDirectory();
+            if (isNotEmpty(journalDirectory)) {
+                coordinator.setJournalCommit(Paths.get(journalDirectory),
+                    nakadiConsumerProperties.getDefaults().isOffsetJournalForceWrites());
+            }
+        }
+    }
+
     @Bean(initMethod = "init")
     @ConditionalOnProperty(
         value = "partitionCoordinatorProvider", prefix = DEFAULT_PROPERTIES_PREFIX, havingValue = "zk"
@@ -204,6 +300,8 @@ public class NakadiConsumerConfiguration {
                     .isStartNewestAvailableOffset());
             coordinator.setDeleteUnavailableCursors(nakadiConsumerProperties.getDefaults()
                     .isDeleteUnavailableCursors());
+            coordinator.setStrictOffsetSync(nakadiConsumerProperties.getDefaults().isOffsetStrictSync());
+            setAsyncCommit(coordinator);
 
             return coordinator;
         };
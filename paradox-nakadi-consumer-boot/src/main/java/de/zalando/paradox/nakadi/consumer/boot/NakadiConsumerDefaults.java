@@ -40,10 +40,54 @@ public class NakadiConsumerDefaults {
 
     private Integer eventsBatchLimit;
 
+    private Integer eventsMaxInFlightBatches;
+
+    private Integer eventsDispatchLanes;
+
+    private Integer eventsPrefetchBatches;
+
+    private Integer httpMaxIdleConnections;
+
+    private Long httpKeepAliveDurationMillis;
+
+    private Long httpConnectTimeoutMillis;
+
+    private String receiverScheduler;
+
+    private Integer receiverSchedulerThreads;
+
     private boolean startNewestAvailableOffset = true;
 
     private boolean deleteUnavailableCursors;
 
+    private Long offsetCommitIntervalMillis;
+
+    private Integer offsetCommitMaxPending;
+
+    private boolean offsetCommitMultiPartition;
+
+    private boolean offsetStrictSync;
+
+    private String offsetJournalDirectory;
+
+    private boolean offsetJournalForceWrites;
+
+    private String offsetStoreDirectory;
+
+    private boolean offsetStoreForceWrites;
+
+    private String rebalanceStrategy;
+
+    private Integer rebalanceVirtualNodes;
+
+    private boolean rebalanceCooperative;
+
+    private boolean partitionsSharedPolling;
+
+    private Integer partitionsMaxRequestsPerMinute;
+
+    private Long partitionsRetryMaxMillis;
+
     private boolean eventTypePartitionCoordinator = true;
 
     public String getZookeeperBrokers() {
@@ -221,4 +265,180 @@ public class NakadiConsumerDefaults {
     public void setEventTypePartitionCoordinator(final boolean eventTypePartitionCoordinator) {
         this.eventTypePartitionCoordinator = eventTypePartitionCoordinator;
     }
+
+    public Integer getHttpMaxIdleConnections() {
+        return httpMaxIdleConnections;
+    }
+
+    public void setHttpMaxIdleConnections(final Integer httpMaxIdleConnections) {
+        this.httpMaxIdleConnections = httpMaxIdleConnections;
+    }
+
+    public Long getHttpKeepAliveDurationMillis() {
+        return httpKeepAliveDurationMillis;
+    }
+
+    public void setHttpKeepAliveDurationMillis(final Long httpKeepAliveDurationMillis) {
+        this.httpKeepAliveDurationMillis = httpKeepAliveDurationMillis;
+    }
+
+    public Long getHttpConnectTimeoutMillis() {
+        return httpConnectTimeoutMillis;
+    }
+
+    public void setHttpConnectTimeoutMillis(final Long httpConnectTimeoutMillis) {
+        this.httpConnectTimeoutMillis = httpConnectTimeoutMillis;
+    }
+
+    public String getReceiverScheduler() {
+        return receiverScheduler;
+    }
+
+    public void setReceiverScheduler(final String receiverScheduler) {
+        this.receiverScheduler = receiverScheduler;
+    }
+
+    public Integer getReceiverSchedulerThreads() {
+        return receiverSchedulerThreads;
+    }
+
+    public void setReceiverSchedulerThreads(final Integer receiverSchedulerThreads) {
+        this.receiverSchedulerThreads = receiverSchedulerThreads;
+    }
+
+    public Integer getEventsMaxInFlightBatches() {
+        return eventsMaxInFlightBatches;
+    }
+
+    public void setEventsMaxInFlightBatches(final Integer eventsMaxInFlightBatches) {
+        this.eventsMaxInFlightBatches = eventsMaxInFlightBatches;
+    }
+
+    public Integer getEventsDispatchLanes() {
+        return eventsDispatchLanes;
+    }
+
+    public void setEventsDispatchLanes(final Integer eventsDispatchLanes) {
+        this.eventsDispatchLanes = eventsDispatchLanes;
+    }
+
+    public Integer getEventsPrefetchBatches() {
+        return eventsPrefetchBatches;
+    }
+
+    public void setEventsPrefetchBatches(final Integer eventsPrefetchBatches) {
+        this.eventsPrefetchBatches = eventsPrefetchBatches;
+    }
+
+    public Long getOffsetCommitIntervalMillis() {
+        return offsetCommitIntervalMillis;
+    }
+
+    public void setOffsetCommitIntervalMillis(final Long offsetCommitIntervalMillis) {
+        this.offsetCommitIntervalMillis = offsetCommitIntervalMillis;
+    }
+
+    public Integer getOffsetCommitMaxPending() {
+        return offsetCommitMaxPending;
+    }
+
+    public void setOffsetCommitMaxPending(final Integer offsetCommitMaxPending) {
+        this.offsetCommitMaxPending = offsetCommitMaxPending;
+    }
+
+    public boolean isOffsetCommitMultiPartition() {
+        return offsetCommitMultiPartition;
+    }
+
+    public void setOffsetCommitMultiPartition(final boolean offsetCommitMultiPartition) {
+        this.offsetCommitMultiPartition = offsetCommitMultiPartition;
+    }
+
+    public boolean isOffsetStrictSync() {
+        return offsetStrictSync;
+    }
+
+    public void setOffsetStrictSync(final boolean offsetStrictSync) {
+        this.offsetStrictSync = offsetStrictSync;
+    }
+
+    public String getOffsetJournalDirectory() {
+        return offsetJournalDirectory;
+    }
+
+    public void setOffsetJournalDirectory(final String offsetJournalDirectory) {
+        this.offsetJournalDirectory = offsetJournalDirectory;
+    }
+
+    public boolean isOffsetJournalForceWrites() {
+        return offsetJournalForceWrites;
+    }
+
+    public void setOffsetJournalForceWrites(final boolean offsetJournalForceWrites) {
+        this.offsetJournalForceWrites = offsetJournalForceWrites;
+    }
+
+    public String getOffsetStoreDirectory() {
+        return offsetStoreDirectory;
+    }
+
+    public void setOffsetStoreDirectory(final String offsetStoreDirectory) {
+        this.offsetStoreDirectory = offsetStoreDirectory;
+    }
+
+    public boolean isOffsetStoreForceWrites() {
+        return offsetStoreForceWrites;
+    }
+
+    public void setOffsetStoreForceWrites(final boolean offsetStoreForceWrites) {
+        this.offsetStoreForceWrites = offsetStoreForceWrites;
+    }
+
+    public String getRebalanceStrategy() {
+        return rebalanceStrategy;
+    }
+
+    public void setRebalanceStrategy(final String rebalanceStrategy) {
+        this.rebalanceStrategy = rebalanceStrategy;
+    }
+
+    public Integer getRebalanceVirtualNodes() {
+        return rebalanceVirtualNodes;
+    }
+
+    public void setRebalanceVirtualNodes(final Integer rebalanceVirtualNodes) {
+        this.rebalanceVirtualNodes = rebalanceVirtualNodes;
+    }
+
+    public boolean isRebalanceCooperative() {
+        return rebalanceCooperative;
+    }
+
+    public void setRebalanceCooperative(final boolean rebalanceCooperative) {
+        this.rebalanceCooperative = rebalanceCooperative;
+    }
+
+    public boolean isPartitionsSharedPolling() {
+        return partitionsSharedPolling;
+    }
+
+    public void setPartitionsSharedPolling(final boolean partitionsSharedPolling) {
+        this.partitionsSharedPolling = partitionsSharedPolling;
+    }
+
+    public Integer getPartitionsMaxRequestsPerMinute() {
+        return partitionsMaxRequestsPerMinute;
+    }
+
+    public void setPartitionsMaxRequestsPerMinute(final Integer partitionsMaxRequestsPerMinute) {
+        this.partitionsMaxRequestsPerMinute = partitionsMaxRequestsPerMinute;
+    }
+
+    public Long getPartitionsRetryMaxMillis() {
+        return partitionsRetryMaxMillis;
+    }
+
+    public void setPartitionsRetryMaxMillis(final Long partitionsRetryMaxMillis) {
+        this.partitionsRetryMaxMillis = partitionsRetryMaxMillis;
+    }
 }
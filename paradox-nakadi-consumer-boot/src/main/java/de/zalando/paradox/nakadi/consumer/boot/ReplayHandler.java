@@ -18,6 +18,10 @@ import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventResponseBu
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventResponseHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentResponseHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferBulkHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferResponseBulkHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferResponseHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventResponseBulkHandler;
@@ -71,6 +75,12 @@ class ReplayHandler {
         } else if (handler instanceof RawEventBulkHandler) {
             new RawEventResponseBulkHandler(consumerName, eventTypePartition, OBJECT_MAPPER, THROWING_COORDINATOR,
                 (RawEventBulkHandler) handler).onResponse(content);
+        } else if (handler instanceof RawEventBufferHandler) {
+            new RawEventBufferResponseHandler(consumerName, eventTypePartition, OBJECT_MAPPER, THROWING_COORDINATOR,
+                (RawEventBufferHandler) handler).onResponse(content);
+        } else if (handler instanceof RawEventBufferBulkHandler) {
+            new RawEventBufferResponseBulkHandler(consumerName, eventTypePartition, OBJECT_MAPPER,
+                THROWING_COORDINATOR, (RawEventBufferBulkHandler) handler).onResponse(content);
         } else if (handler instanceof JsonEventHandler) {
             new JsonEventResponseHandler(consumerName, eventTypePartition, OBJECT_MAPPER, THROWING_COORDINATOR,
                 (JsonEventHandler) handler).onResponse(content);
@@ -33,6 +33,46 @@ public class SQSConfiguration {
      */
     private boolean enabled;
 
+    /**
+     * Switch for sending failed events in batches from a background thread.
+     */
+    private boolean asyncBatching;
+
+    /**
+     * Time a batch waits for further failed events.
+     */
+    private Long batchLingerMillis;
+
+    /**
+     * Failed events waiting to be sent before the error handler blocks.
+     */
+    private Integer batchQueueCapacity;
+
+    /**
+     * Doublings of the backoff between attempts to send rejected failed events again.
+     */
+    private Integer batchMaxRetries;
+
+    /**
+     * Switch for sending failed events gzipped and base64 encoded.
+     */
+    private boolean compactEncoding;
+
+    /**
+     * Stack traces are truncated to this length.
+     */
+    private Integer maxStackTraceLength;
+
+    /**
+     * A stack trace repeated within this time is sent as hash only.
+     */
+    private Long stackTraceDedupMillis;
+
+    /**
+     * Directory storing failed events exceeding the SQS message size.
+     */
+    private String overflowDirectory;
+
     public String getQueueUrl() {
         return queueUrl;
     }
@@ -57,4 +97,68 @@ public class SQSConfiguration {
         this.enabled = enabled;
     }
 
+    public boolean isAsyncBatching() {
+        return asyncBatching;
+    }
+
+    public void setAsyncBatching(final boolean asyncBatching) {
+        this.asyncBatching = asyncBatching;
+    }
+
+    public Long getBatchLingerMillis() {
+        return batchLingerMillis;
+    }
+
+    public void setBatchLingerMillis(final Long batchLingerMillis) {
+        this.batchLingerMillis = batchLingerMillis;
+    }
+
+    public Integer getBatchQueueCapacity() {
+        return batchQueueCapacity;
+    }
+
+    public void setBatchQueueCapacity(final Integer batchQueueCapacity) {
+        this.batchQueueCapacity = batchQueueCapacity;
+    }
+
+    public Integer getBatchMaxRetries() {
+        return batchMaxRetries;
+    }
+
+    public void setBatchMaxRetries(final Integer batchMaxRetries) {
+        this.batchMaxRetries = batchMaxRetries;
+    }
+
+    public boolean isCompactEncoding() {
+        return compactEncoding;
+    }
+
+    public void setCompactEncoding(final boolean compactEncoding) {
+        this.compactEncoding = compactEncoding;
+    }
+
+    public Integer getMaxStackTraceLength() {
+        return maxStackTraceLength;
+    }
+
+    public void setMaxStackTraceLength(final Integer maxStackTraceLength) {
+        this.maxStackTraceLength = maxStackTraceLength;
+    }
+
+    public Long getStackTraceDedupMillis() {
+        return stackTraceDedupMillis;
+    }
+
+    public void setStackTraceDedupMillis(final Long stackTraceDedupMillis) {
+        this.stackTraceDedupMillis = stackTraceDedupMillis;
+    }
+
+    public String getOverflowDirectory() {
+        return overflowDirectory;
+    }
+
+    public void setOverflowDirectory(final String overflowDirectory) {
+        this.overflowDirectory = overflowDirectory;
+    }
+
 }
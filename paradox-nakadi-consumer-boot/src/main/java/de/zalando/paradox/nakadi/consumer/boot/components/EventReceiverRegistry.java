@@ -37,6 +37,8 @@ import de.zalando.paradox.nakadi.consumer.core.http.handlers.BatchEventsHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferBulkHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.requests.HttpGetPartitionsHandler;
@@ -125,6 +127,38 @@ public class EventReceiverRegistry {
             builder = builder.withPartitionsRetryRandomMillis(config.getPartitionsRetryRandomMillis());
         }
 
+        if (null != config.getPartitionsRetryMaxMillis()) {
+            builder = builder.withPartitionsRetryMaxMillis(config.getPartitionsRetryMaxMillis());
+        }
+
+        if (null != config.getEventsMaxInFlightBatches()) {
+            builder = builder.withMaxInFlightBatches(config.getEventsMaxInFlightBatches());
+        }
+
+        if (null != config.getEventsDispatchLanes()) {
+            builder = builder.withDispatchLanes(config.getEventsDispatchLanes());
+        }
+
+        if (null != config.getDispatchExecutor()) {
+            builder = builder.withDispatchExecutor(config.getDispatchExecutor());
+        }
+
+        if (null != config.getEventsPrefetchBatches()) {
+            builder = builder.withEventsPrefetchBatches(config.getEventsPrefetchBatches());
+        }
+
+        builder = builder.withHttpClientConfig(config.getHttpClientConfig());
+        if (null != config.getHttpTransport()) {
+            builder = builder.withHttpTransport(config.getHttpTransport());
+        }
+
+        if (null != config.getSchedulerFactory()) {
+            builder = builder.withSchedulerFactory(config.getSchedulerFactory());
+        }
+        if (null != config.getPartitionsPoller()) {
+            builder = builder.withPartitionsPoller(config.getPartitionsPoller());
+        }
+
         //J-
         builder.withEventStreamConfig(EventStreamConfig.Builder.of().
                 withBatchLimit(config.getEventsBatchLimit(consumerName)).
@@ -136,7 +170,8 @@ public class EventReceiverRegistry {
 
         final EventTypeConsumer eventTypeConsumer = new EventTypeConsumer(eventName, consumerName);
         final ConsumerConfig config = withEventHandler(builder, handler).build();
-        final HttpReactiveReceiver partitionsReceiver = new HttpReactiveReceiver(new HttpGetPartitionsHandler(config));
+        final HttpReactiveReceiver partitionsReceiver = new HttpReactiveReceiver(new HttpGetPartitionsHandler(config),
+                config.getSchedulerFactory().getScheduler());
         checkState(null == eventTypeToPartitionsReceiver.putIfAbsent(eventTypeConsumer, partitionsReceiver),
             "Duplicated configuration for [%s]", eventTypeConsumer);
         handlerMap.putIfAbsent(eventTypeConsumer, handler);
@@ -169,6 +204,14 @@ public class EventReceiverRegistry {
             builder.withRawEventBulkHandler((RawEventBulkHandler) handler);
         }
 
+        if (handler instanceof RawEventBufferHandler) {
+            builder.withRawEventBufferHandler((RawEventBufferHandler) handler);
+        }
+
+        if (handler instanceof RawEventBufferBulkHandler) {
+            builder.withRawEventBufferBulkHandler((RawEventBufferBulkHandler) handler);
+        }
+
         if (handler instanceof JsonEventHandler) {
             builder.withJsonEventHandler((JsonEventHandler) handler);
         }
@@ -0,0 +1,6 @@
+package de.zalando.paradox.nakadi.consumer.boot.handlers;
+
+import de.zalando.paradox.nakadi.consumer.boot.NakadiEventHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferBulkHandler;
+
+public interface NakadiRawEventBufferBulkHandler extends RawEventBufferBulkHandler, NakadiEventHandler { }
@@ -1,5 +1,7 @@
 package de.zalando.paradox.nakadi.consumer.boot;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.assertj.core.api.Java6Assertions.assertThat;
 
 import static org.assertj.core.api.Java6Assertions.assertThatThrownBy;
@@ -8,6 +10,8 @@ import static org.mockito.Mockito.when;
 
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import java.nio.ByteBuffer;
+
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -34,6 +38,7 @@ import de.zalando.paradox.nakadi.consumer.core.http.handlers.BatchEventsHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventHandler;
 
@@ -104,6 +109,9 @@ public class ReplayHandlerTest {
     @Captor
     private ArgumentCaptor<List<String>> stringsCaptor;
 
+    @Captor
+    private ArgumentCaptor<ByteBuffer> bufferCaptor;
+
     @Captor
     private ArgumentCaptor<OrderReceived> orderCaptor;
 
@@ -171,6 +179,14 @@ public class ReplayHandlerTest {
         assertThat(stringsCaptor.getValue().get(0)).startsWith("{\"metadata\":{");
     }
 
+    @Test
+    public void testRawEventBufferHandler() {
+        final RawEventBufferHandler handler = Mockito.mock(RawEventBufferHandler.class);
+        replayHandler.handle(CONSUMER_NAME,handler, PARTITION, CONTENT);
+        verify(handler, times(1)).onEvent(eventCursorCaptor.capture(), bufferCaptor.capture());
+        assertThat(UTF_8.decode(bufferCaptor.getValue()).toString()).startsWith("{\"metadata\":{");
+    }
+
     @Test
     public void testJsonEventHandler() {
         final JsonEventHandler handler = Mockito.mock(JsonEventHandler.class);
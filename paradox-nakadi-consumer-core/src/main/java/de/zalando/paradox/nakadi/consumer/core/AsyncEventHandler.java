@@ -0,0 +1,19 @@
+package de.zalando.paradox.nakadi.consumer.core;
+
+import java.util.concurrent.CompletionStage;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+
+/**
+ * Handler completing asynchronously. Several batches of a partition may be in flight, the cursor is committed once all
+ * batches up to it have completed.
+ */
+public interface AsyncEventHandler<T> extends EventHandler<T> {
+
+    CompletionStage<Void> onEventAsync(final EventTypeCursor cursor, final T t);
+
+    @Override
+    default void onEvent(final EventTypeCursor cursor, final T t) {
+        onEventAsync(cursor, t).toCompletableFuture().join();
+    }
+}
@@ -3,13 +3,19 @@ package de.zalando.paradox.nakadi.consumer.core;
 import static java.util.Objects.isNull;
 import static java.util.Objects.requireNonNull;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.google.common.base.Preconditions;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpTransport;
+import de.zalando.paradox.nakadi.consumer.core.http.ReceiverSchedulers;
+import de.zalando.paradox.nakadi.consumer.core.http.SchedulerFactory;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.BatchEventsBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.BatchEventsHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.BatchEventsResponseBulkHandler;
@@ -20,11 +26,18 @@ import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventResponseBu
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.JsonEventResponseHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawContentResponseHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferBulkHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferResponseBulkHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBufferResponseHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventHandler;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventMode;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventResponseBulkHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.RawEventResponseHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.ResponseHandlerFactory;
+import de.zalando.paradox.nakadi.consumer.core.http.okhttp.OkHttpTransport;
+import de.zalando.paradox.nakadi.consumer.core.http.requests.SharedPartitionsPoller;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
 
 public class ConsumerConfig {
@@ -49,6 +62,8 @@ public class ConsumerConfig {
 
     private final long partitionsRetryAfterMillis;
 
+    private final long partitionsRetryMaxMillis;
+
     private final AuthorizationValueProvider authorizationValueProvider;
 
     private final PartitionCoordinator partitionCoordinator;
@@ -57,6 +72,22 @@ public class ConsumerConfig {
 
     private final String consumerName;
 
+    private final HttpClientConfig httpClientConfig;
+
+    private final HttpTransport httpTransport;
+
+    private final SchedulerFactory schedulerFactory;
+
+    private final int maxInFlightBatches;
+
+    private final int dispatchLanes;
+
+    private final Executor dispatchExecutor;
+
+    private final int eventsPrefetchBatches;
+
+    private final SharedPartitionsPoller partitionsPoller;
+
     private ConsumerConfig(final Builder builder) {
         this.nakadiUrl = requireNonNull(builder.nakadiUrl, "nakadiUrl must not be null");
         this.eventType = requireNonNull(builder.eventType, "eventType must not be null");
@@ -68,12 +99,27 @@ public class ConsumerConfig {
         this.partitionsTimeoutMillis = builder.partitionsTimeoutMillis;
         this.partitionsRetryAfterMillis = builder.partitionsRetryAfterMillis;
         this.partitionsRetryRandomMillis = builder.partitionsRetryRandomMillis;
+        this.partitionsRetryMaxMillis = builder.partitionsRetryMaxMillis;
+        Preconditions.checkArgument(partitionsRetryMaxMillis == 0
+                || partitionsRetryMaxMillis >= partitionsRetryAfterMillis,
+            "partitionsRetryMaxMillis must not be less than partitionsRetryAfterMillis");
         this.authorizationValueProvider = builder.authorizationValueProvider;
         this.partitionCoordinator = requireNonNull(builder.partitionCoordinator,
                 "partitionCoordinator must not be null");
         this.responseHandlerFactory = requireNonNull(builder.responseHandlerFactory,
                 "responseHandlerFactory must not be null");
         this.consumerName = requireNonNull(builder.consumerName, "consumerName must not be null");
+        this.httpClientConfig = requireNonNull(builder.httpClientConfig, "httpClientConfig must not be null");
+        this.httpTransport = null != builder.httpTransport ? builder.httpTransport
+                                                           : new OkHttpTransport(this.httpClientConfig);
+        this.schedulerFactory = null != builder.schedulerFactory
+            ? builder.schedulerFactory
+            : (this.httpTransport.isNonBlocking() ? ReceiverSchedulers.sharedPool() : ReceiverSchedulers.io());
+        this.maxInFlightBatches = builder.maxInFlightBatches;
+        this.dispatchLanes = builder.dispatchLanes;
+        this.dispatchExecutor = builder.dispatchExecutor;
+        this.eventsPrefetchBatches = builder.eventsPrefetchBatches;
+        this.partitionsPoller = builder.partitionsPoller;
     }
 
     public String getNakadiUrl() {
@@ -112,6 +158,10 @@ public class ConsumerConfig {
         return partitionsRetryRandomMillis;
     }
 
+    public long getPartitionsRetryMaxMillis() {
+        return partitionsRetryMaxMillis;
+    }
+
     public AuthorizationValueProvider getAuthorizationValueProvider() {
         return authorizationValueProvider;
     }
@@ -132,6 +182,43 @@ public class ConsumerConfig {
         return consumerName;
     }
 
+    public HttpClientConfig getHttpClientConfig() {
+        return httpClientConfig;
+    }
+
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    public SchedulerFactory getSchedulerFactory() {
+        return schedulerFactory;
+    }
+
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    public int getDispatchLanes() {
+        return dispatchLanes;
+    }
+
+    /**
+     * @return  executor of the dispatch lanes or null for the default executor shared by all consumers
+     */
+    @Nullable
+    public Executor getDispatchExecutor() {
+        return dispatchExecutor;
+    }
+
+    public int getEventsPrefetchBatches() {
+        return eventsPrefetchBatches;
+    }
+
+    @Nullable
+    public SharedPartitionsPoller getPartitionsPoller() {
+        return partitionsPoller;
+    }
+
     public static class Builder {
 
         private final String nakadiUrl;
@@ -154,6 +241,8 @@ public class ConsumerConfig {
 
         private long partitionsRetryRandomMillis = TimeUnit.SECONDS.toMillis(5);
 
+        private long partitionsRetryMaxMillis = 0;
+
         private AuthorizationValueProvider authorizationValueProvider;
 
         private final PartitionCoordinator partitionCoordinator;
@@ -162,6 +251,22 @@ public class ConsumerConfig {
 
         private final String consumerName;
 
+        private HttpClientConfig httpClientConfig = HttpClientConfig.DEFAULT;
+
+        private HttpTransport httpTransport;
+
+        private SchedulerFactory schedulerFactory;
+
+        private int maxInFlightBatches = 1;
+
+        private int dispatchLanes = 1;
+
+        private Executor dispatchExecutor;
+
+        private int eventsPrefetchBatches = 0;
+
+        private SharedPartitionsPoller partitionsPoller;
+
         public Builder(final String nakadiUrl, final String eventName, final PartitionCoordinator partitionCoordinator,
                 final String consumerName) {
             this.nakadiUrl = nakadiUrl;
@@ -220,6 +325,83 @@ public class ConsumerConfig {
             return this;
         }
 
+        /**
+         * Upper bound of an adaptive partitions poll interval. The interval starts at partitionsRetryAfterMillis and
+         * doubles on every poll finding the same partitions, a changed partition set, a rejected cursor or a dead
+         * receiver resets it. The default 0 polls at the fixed partitionsRetryAfterMillis.
+         */
+        public Builder withPartitionsRetryMaxMillis(final long partitionsRetryMaxMillis) {
+            Preconditions.checkArgument(partitionsRetryMaxMillis >= 0, "partitionsRetryMaxMillis must not be negative");
+            this.partitionsRetryMaxMillis = partitionsRetryMaxMillis;
+            return this;
+        }
+
+        public Builder withHttpClientConfig(final HttpClientConfig httpClientConfig) {
+            this.httpClientConfig = httpClientConfig;
+            return this;
+        }
+
+        public Builder withHttpTransport(final HttpTransport httpTransport) {
+            this.httpTransport = httpTransport;
+            return this;
+        }
+
+        /**
+         * Scheduler of the receivers, by default {@link ReceiverSchedulers#io()} for blocking transports and
+         * {@link ReceiverSchedulers#sharedPool()} for non-blocking transports.
+         */
+        public Builder withSchedulerFactory(final SchedulerFactory schedulerFactory) {
+            this.schedulerFactory = schedulerFactory;
+            return this;
+        }
+
+        /**
+         * Maximum number of batches per partition handled concurrently by an asynchronous bulk handler.
+         */
+        public Builder withMaxInFlightBatches(final int maxInFlightBatches) {
+            Preconditions.checkArgument(maxInFlightBatches > 0, "maxInFlightBatches must be positive");
+            this.maxInFlightBatches = maxInFlightBatches;
+            return this;
+        }
+
+        /**
+         * Number of lanes the events of a batch are dispatched to if the handler is a {@link KeyedEventHandler}. Events
+         * with equal keys keep their order, the cursor is committed once all lanes have finished the batch.
+         */
+        public Builder withDispatchLanes(final int dispatchLanes) {
+            Preconditions.checkArgument(dispatchLanes > 0, "dispatchLanes must be positive");
+            this.dispatchLanes = dispatchLanes;
+            return this;
+        }
+
+        /**
+         * Executor running the dispatch lanes. By default the lanes of all consumers share a pool with one thread per
+         * processor. The lanes of a batch wait for each other, the executor should be bounded but not reject tasks.
+         */
+        public Builder withDispatchExecutor(final Executor dispatchExecutor) {
+            this.dispatchExecutor = dispatchExecutor;
+            return this;
+        }
+
+        /**
+         * Number of batches per partition read ahead while the handler processes the current batch. The default 0
+         * handles batches on the reading thread.
+         */
+        public Builder withEventsPrefetchBatches(final int eventsPrefetchBatches) {
+            Preconditions.checkArgument(eventsPrefetchBatches >= 0, "eventsPrefetchBatches must not be negative");
+            this.eventsPrefetchBatches = eventsPrefetchBatches;
+            return this;
+        }
+
+        /**
+         * Poller sharing the partition requests with the other consumers of the event type, by default every consumer
+         * requests the partitions itself.
+         */
+        public Builder withPartitionsPoller(final SharedPartitionsPoller partitionsPoller) {
+            this.partitionsPoller = partitionsPoller;
+            return this;
+        }
+
         public Builder withResponseHandlerFactory(final ResponseHandlerFactory responseHandlerFactory) {
             Preconditions.checkState(isNull(this.responseHandlerFactory),
                 "responseHandlerFactory is already initialized");
@@ -230,13 +412,13 @@ public class ConsumerConfig {
         public <T> Builder withBatchEventsHandler(final BatchEventsHandler<T> handler) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new BatchEventsResponseHandler<>(consumerName, eventTypePartition, jsonMapper,
-                            partitionCoordinator, handler));
+                            partitionCoordinator, handler, dispatchLanes, dispatchExecutor));
         }
 
         public <T> Builder withBatchEventsBulkHandler(final BatchEventsBulkHandler<T> handler) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new BatchEventsResponseBulkHandler<>(consumerName, eventTypePartition, jsonMapper,
-                            partitionCoordinator, handler));
+                            partitionCoordinator, handler, maxInFlightBatches));
         }
 
         public Builder withRawContentHandler(final RawContentHandler handler) {
@@ -246,27 +428,47 @@ public class ConsumerConfig {
         }
 
         public Builder withRawEventHandler(final RawEventHandler handler) {
+            return withRawEventHandler(handler, RawEventMode.COMPACT);
+        }
+
+        public Builder withRawEventHandler(final RawEventHandler handler, final RawEventMode mode) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new RawEventResponseHandler(consumerName, eventTypePartition, jsonMapper, partitionCoordinator,
-                            handler));
+                            handler, mode, dispatchLanes, dispatchExecutor));
         }
 
         public Builder withRawEventBulkHandler(final RawEventBulkHandler handler) {
+            return withRawEventBulkHandler(handler, RawEventMode.COMPACT);
+        }
+
+        public Builder withRawEventBulkHandler(final RawEventBulkHandler handler, final RawEventMode mode) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new RawEventResponseBulkHandler(consumerName, eventTypePartition, jsonMapper,
+                            partitionCoordinator, handler, mode, maxInFlightBatches));
+        }
+
+        public Builder withRawEventBufferHandler(final RawEventBufferHandler handler) {
+            return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
+                        new RawEventBufferResponseHandler(consumerName, eventTypePartition, jsonMapper,
+                            partitionCoordinator, handler, dispatchLanes, dispatchExecutor));
+        }
+
+        public Builder withRawEventBufferBulkHandler(final RawEventBufferBulkHandler handler) {
+            return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
+                        new RawEventBufferResponseBulkHandler(consumerName, eventTypePartition, jsonMapper,
                             partitionCoordinator, handler));
         }
 
         public Builder withJsonEventHandler(final JsonEventHandler handler) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new JsonEventResponseHandler(consumerName, eventTypePartition, jsonMapper, partitionCoordinator,
-                            handler));
+                            handler, dispatchLanes, dispatchExecutor));
         }
 
         public Builder withJsonEventBulkHandler(final JsonEventBulkHandler handler) {
             return withResponseHandlerFactory((eventTypePartition, jsonMapper) ->
                         new JsonEventResponseBulkHandler(consumerName, eventTypePartition, jsonMapper,
-                            partitionCoordinator, handler));
+                            partitionCoordinator, handler, maxInFlightBatches));
         }
 
         public static ObjectMapper defaultObjectMapper() {
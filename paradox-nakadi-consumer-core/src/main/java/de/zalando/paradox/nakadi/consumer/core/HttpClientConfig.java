@@ -0,0 +1,99 @@
+package de.zalando.paradox.nakadi.consumer.core;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.MoreObjects;
+
+/**
+ * Settings of the pooled http client shared by all receivers using an equal configuration. The receivers execute their
+ * requests synchronously, so the request limits of the client dispatcher do not apply.
+ */
+public class HttpClientConfig {
+
+    public static final HttpClientConfig DEFAULT = Builder.of().build();
+
+    private final int maxIdleConnections;
+    private final long keepAliveDurationMillis;
+    private final long connectTimeoutMillis;
+
+    private HttpClientConfig(final Builder builder) {
+        checkArgument(builder.maxIdleConnections >= 0, "maxIdleConnections must not be negative");
+        checkArgument(builder.keepAliveDurationMillis > 0, "keepAliveDurationMillis must be positive");
+        checkArgument(builder.connectTimeoutMillis >= 0, "connectTimeoutMillis must not be negative");
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAliveDurationMillis = builder.keepAliveDurationMillis;
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long getKeepAliveDurationMillis() {
+        return keepAliveDurationMillis;
+    }
+
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final HttpClientConfig that = (HttpClientConfig) o;
+        return maxIdleConnections == that.maxIdleConnections
+                && keepAliveDurationMillis == that.keepAliveDurationMillis
+                && connectTimeoutMillis == that.connectTimeoutMillis;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxIdleConnections, keepAliveDurationMillis, connectTimeoutMillis);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxIdleConnections", maxIdleConnections)
+                          .add("keepAliveDurationMillis", keepAliveDurationMillis)
+                          .add("connectTimeoutMillis", connectTimeoutMillis).toString();
+    }
+
+    public static class Builder {
+        private int maxIdleConnections = 5;
+        private long keepAliveDurationMillis = TimeUnit.MINUTES.toMillis(5);
+        private long connectTimeoutMillis = TimeUnit.SECONDS.toMillis(10);
+
+        public static Builder of() {
+            return new Builder();
+        }
+
+        public Builder withMaxIdleConnections(final int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        public Builder withKeepAliveDurationMillis(final long keepAliveDurationMillis) {
+            this.keepAliveDurationMillis = keepAliveDurationMillis;
+            return this;
+        }
+
+        public Builder withConnectTimeoutMillis(final long connectTimeoutMillis) {
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            return this;
+        }
+
+        public HttpClientConfig build() {
+            return new HttpClientConfig(this);
+        }
+    }
+}
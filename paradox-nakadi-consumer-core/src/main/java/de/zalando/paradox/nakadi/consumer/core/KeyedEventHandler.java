@@ -0,0 +1,17 @@
+package de.zalando.paradox.nakadi.consumer.core;
+
+import javax.annotation.Nullable;
+
+/**
+ * Handler whose events may be dispatched to parallel lanes. Events with equal keys are handled in order by the same
+ * lane, events with different keys may be handled concurrently.
+ */
+public interface KeyedEventHandler<T> extends EventHandler<T> {
+
+    /**
+     * @return  ordering key of the event, e.g. the partition compaction key or a business id. Events without key are
+     *          handled in order by the same lane.
+     */
+    @Nullable
+    Object getEventKey(final T t);
+}
@@ -27,6 +27,7 @@ import com.google.common.collect.Iterables;
 import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
 import de.zalando.paradox.nakadi.consumer.core.DefaultObjectMapper;
 import de.zalando.paradox.nakadi.consumer.core.EventStreamConfig;
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
 import de.zalando.paradox.nakadi.consumer.core.client.Client;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
@@ -36,6 +37,7 @@ import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
 import de.zalando.paradox.nakadi.consumer.core.exceptions.InvalidEventTypeException;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventUtils;
+import de.zalando.paradox.nakadi.consumer.core.http.okhttp.OkHttpClientRegistry;
 import de.zalando.paradox.nakadi.consumer.core.http.okhttp.RxHttpRequest;
 import de.zalando.paradox.nakadi.consumer.core.http.requests.HttpGetEvents;
 import de.zalando.paradox.nakadi.consumer.core.http.requests.HttpGetPartitions;
@@ -69,7 +71,9 @@ public class ClientImpl implements Client {
 
     private final long eventsTimeoutMillis;
 
-    private final OkHttpClient okHttpClient = initHttpClient();
+    private final HttpClientConfig httpClientConfig;
+
+    private final OkHttpClient okHttpClient;
 
     private ClientImpl(final ClientImpl.Builder builder) {
         this.nakadiUrl = requireNonNull(builder.nakadiUrl, "nakadiUrl must not be null");
@@ -77,12 +81,14 @@ public class ClientImpl implements Client {
         this.authorizationValueProvider = builder.authorizationValueProvider;
         this.partitionsTimeoutMillis = builder.partitionsTimeoutMillis;
         this.eventsTimeoutMillis = builder.eventsTimeoutMillis;
+        this.httpClientConfig = requireNonNull(builder.httpClientConfig, "httpClientConfig must not be null");
+        this.okHttpClient = initHttpClient();
     }
 
     @Override
     public Single<List<NakadiPartition>> getPartitions(final EventType eventType) {
         final HttpGetPartitions httpGetPartitions = new HttpGetPartitions(nakadiUrl, eventType);
-        final Observable<HttpResponseChunk> request = new RxHttpRequest(partitionsTimeoutMillis,
+        final Observable<HttpResponseChunk> request = new RxHttpRequest(httpClientConfig, partitionsTimeoutMillis,
                 authorizationValueProvider).createRequest(httpGetPartitions);
         return request.filter(chunk -> {
                           checkArgument(chunk.getStatusCode() == 200,
@@ -152,8 +158,8 @@ public class ClientImpl implements Client {
         final EventStreamConfig eventStreamConfig = new EventStreamConfig.Builder().withStreamLimit(streamLimit)
                                                                                    .build();
         final HttpGetEvents httpGetEvents = new HttpGetEvents(nakadiUrl, cursor, eventStreamConfig);
-        return new RxHttpRequest(eventsTimeoutMillis, authorizationValueProvider).createRequest(httpGetEvents).filter(
-                chunk -> {
+        return new RxHttpRequest(httpClientConfig, eventsTimeoutMillis, authorizationValueProvider).createRequest(
+                httpGetEvents).filter(chunk -> {
                     checkArgument(chunk.getStatusCode() == 200, "Get for cursor [%s] , result [%s / %s]", cursor,
                         chunk.getStatusCode(), chunk.getContent());
                     checkArgument(StringUtils.isNotEmpty(chunk.getContent()), "Event not found for cursor [%s]", cursor);
@@ -179,6 +185,8 @@ public class ClientImpl implements Client {
 
         private AuthorizationValueProvider authorizationValueProvider;
 
+        private HttpClientConfig httpClientConfig = HttpClientConfig.DEFAULT;
+
         public Builder(final String nakadiUrl) {
             this.nakadiUrl = nakadiUrl;
         }
@@ -207,6 +215,11 @@ public class ClientImpl implements Client {
             return this;
         }
 
+        public Builder withHttpClientConfig(final HttpClientConfig httpClientConfig) {
+            this.httpClientConfig = httpClientConfig;
+            return this;
+        }
+
         public ClientImpl build() {
             return new ClientImpl(this);
         }
@@ -218,7 +231,8 @@ public class ClientImpl implements Client {
 
     @VisibleForTesting
     OkHttpClient initHttpClient() {
-        return new OkHttpClient.Builder().addInterceptor(getAuthorizationInterceptor()).build();
+        return OkHttpClientRegistry.getClient(httpClientConfig).newBuilder().addInterceptor(
+                getAuthorizationInterceptor()).build();
     }
 
     private Interceptor getAuthorizationInterceptor() {
@@ -1,5 +1,7 @@
 package de.zalando.paradox.nakadi.consumer.core.http;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import org.slf4j.Logger;
 
 import rx.Observable;
@@ -14,6 +16,10 @@ public interface HttpReactiveHandler {
 
     void onResponse(String content);
 
+    default void onResponse(final byte[] content, final int offset, final int length) {
+        onResponse(new String(content, offset, length, UTF_8));
+    }
+
     void onErrorResponse(int statusCode, String content);
 
     void onStarted();
@@ -22,5 +28,20 @@ public interface HttpReactiveHandler {
 
     long getRetryAfterMillis();
 
+    /**
+     * @return  emits when a pending restart should be scheduled again with the current
+     *          {@link #getRetryAfterMillis()}, e.g. because the retry time was shortened
+     */
+    default Observable<?> getRetryRescheduled() {
+        return Observable.never();
+    }
+
     Observable<HttpResponseChunk> createRequest();
+
+    /**
+     * @return  true if the request emits chunks on threads shared with other requests
+     */
+    default boolean isNonBlocking() {
+        return false;
+    }
 }
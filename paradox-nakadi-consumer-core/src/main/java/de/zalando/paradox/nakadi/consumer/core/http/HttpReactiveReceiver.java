@@ -9,11 +9,11 @@ import java.io.IOException;
 
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 
-import com.google.common.annotations.VisibleForTesting;
-
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
 import rx.Observable;
@@ -30,23 +30,37 @@ public class HttpReactiveReceiver implements Closeable {
 
     private final AtomicBoolean running = new AtomicBoolean(false);
 
+    // held while a chunk is handled, so the handler finishes after the last chunk
+    private final Lock handling = new ReentrantLock();
+
     private Subscription subscription;
 
     private final HttpReactiveHandler httpReactiveHandler;
 
     private final Scheduler scheduler;
 
+    private final int prefetchChunks;
+
     public HttpReactiveReceiver(final HttpReactiveHandler httpReactiveHandler) {
-        this.httpReactiveHandler = httpReactiveHandler;
-        this.log = httpReactiveHandler.getLogger(this.getClass());
-        this.scheduler = Schedulers.io();
+        this(httpReactiveHandler, Schedulers.io());
+    }
+
+    public HttpReactiveReceiver(final HttpReactiveHandler httpReactiveHandler, final Scheduler scheduler) {
+        this(httpReactiveHandler, scheduler, 0);
     }
 
-    @VisibleForTesting
-    HttpReactiveReceiver(final HttpReactiveHandler httpReactiveHandler, final Scheduler scheduler) {
+    /**
+     * @param  prefetchChunks  number of chunks read ahead while the previous chunk is handled on a second worker of
+     *                         the scheduler, 0 handles chunks on the reading thread unless the handler is
+     *                         non-blocking
+     */
+    public HttpReactiveReceiver(final HttpReactiveHandler httpReactiveHandler, final Scheduler scheduler,
+            final int prefetchChunks) {
+        checkArgument(prefetchChunks >= 0, "prefetchChunks must not be negative");
         this.httpReactiveHandler = httpReactiveHandler;
         this.log = httpReactiveHandler.getLogger(this.getClass());
         this.scheduler = scheduler;
+        this.prefetchChunks = prefetchChunks;
     }
 
     public void init() {
@@ -61,6 +75,9 @@ public class HttpReactiveReceiver implements Closeable {
 
         Observable<HttpResponseChunk> responses = httpReactiveHandler.createRequest();
         responses = responses.subscribeOn(scheduler);
+
+        // before unsubscribeOn, which does not pass requests upstream
+        responses = handlePrefetch(responses);
         responses = responses.unsubscribeOn(scheduler);
         responses = handleSubscription(responses);
         responses = handleRestart(responses);
@@ -73,13 +90,31 @@ public class HttpReactiveReceiver implements Closeable {
         subscription = responses.subscribe(getAction(), onError, onCompleted);
     }
 
+    /**
+     * Hands the chunks over to a second worker through a bounded queue. The reader requests new chunks only while
+     * there is space in the queue, errors are delivered after the queued chunks have been handled. Chunks of a
+     * non-blocking handler are always handed over, one at a time without prefetch, to keep the shared threads free.
+     */
+    private <T> Observable<T> handlePrefetch(final Observable<T> observable) {
+        if (prefetchChunks > 0) {
+            return observable.observeOn(scheduler, true, prefetchChunks);
+        }
+
+        return httpReactiveHandler.isNonBlocking() ? observable.observeOn(scheduler, true, 1) : observable;
+    }
+
     private <T> Observable<T> handleSubscription(final Observable<T> observable) {
         return observable.doOnSubscribe(() -> {
                              log.debug("Handler subscription started");
                              httpReactiveHandler.onStarted();
                          }).doOnUnsubscribe(() -> {
                              log.debug("Handler subscription finished");
-                             httpReactiveHandler.onFinished();
+                             handling.lock();
+                             try {
+                                 httpReactiveHandler.onFinished();
+                             } finally {
+                                 handling.unlock();
+                             }
                          });
     }
 
@@ -99,36 +134,57 @@ public class HttpReactiveReceiver implements Closeable {
                                 log.warn("Exception [{}]", getMessage((Throwable)t));
                             }
                             return repeatAttempt;
-                        }).flatMap(repeatAttempt -> {
-                            final long retryAfterMillis = httpReactiveHandler.getRetryAfterMillis();
-                            checkArgument(retryAfterMillis > 0, "RetryAfterMillis must be greater than 0");
-                            log.debug("Restart after [{}] ms running [{}] reason [{}] attempt : [{}]", retryAfterMillis,
-                                    running.get(), reason, repeatAttempt);
-                            return Observable.timer(retryAfterMillis, TimeUnit.MILLISECONDS);
-                          }).takeUntil((stopPredicate) -> !running.get());
+                        }).flatMap(repeatAttempt ->
+                            // the pending restart is scheduled again with the current retry time on every reschedule
+                            httpReactiveHandler.getRetryRescheduled().map(signal -> repeatAttempt)
+                                    .startWith(repeatAttempt).switchMap(attempt -> {
+                                final long retryAfterMillis = httpReactiveHandler.getRetryAfterMillis();
+                                checkArgument(retryAfterMillis > 0, "RetryAfterMillis must be greater than 0");
+                                log.debug("Restart after [{}] ms running [{}] reason [{}] attempt : [{}]",
+                                        retryAfterMillis, running.get(), reason, attempt);
+                                return Observable.timer(retryAfterMillis, TimeUnit.MILLISECONDS);
+                            }).take(1)
+                          ).takeUntil((stopPredicate) -> !running.get());
     }
     //J+
 
     private Action1<HttpResponseChunk> getAction() {
         return
             (chunk) -> {
-            if (running.get()) {
-                try {
-                    if (chunk.getStatusCode() == 200) {
+            handling.lock();
+            try {
+                handle(chunk);
+            } finally {
+                handling.unlock();
+            }
+        };
+    }
+
+    private void handle(final HttpResponseChunk chunk) {
+        if (running.get()) {
+            try {
+                if (chunk.getStatusCode() == 200) {
+                    if (log.isTraceEnabled()) {
                         log.trace("Chunk response event [{}]", chunk.getContent());
-                        httpReactiveHandler.onResponse(chunk.getContent());
+                    }
+
+                    if (chunk.hasContentBytes()) {
+                        final byte[] content = chunk.getContentBytes();
+                        httpReactiveHandler.onResponse(content, 0, content.length);
                     } else {
-                        log.error("Chunk response error [{}] / [{}]", chunk.getStatusCode(), chunk.getContent());
-                        httpReactiveHandler.onErrorResponse(chunk.getStatusCode(), chunk.getContent());
+                        httpReactiveHandler.onResponse(chunk.getContent());
                     }
-                } catch (Throwable t) {
-                    log.error("Unexpected handler error [{}]", getMessage(t));
-                    ThrowableUtils.throwException(t);
+                } else {
+                    log.error("Chunk response error [{}] / [{}]", chunk.getStatusCode(), chunk.getContent());
+                    httpReactiveHandler.onErrorResponse(chunk.getStatusCode(), chunk.getContent());
                 }
-            } else {
-                log.error("Receiving payload but not running");
+            } catch (Throwable t) {
+                log.error("Unexpected handler error [{}]", getMessage(t));
+                ThrowableUtils.throwException(t);
             }
-        };
+        } else {
+            log.error("Receiving payload but not running");
+        }
     }
 
     @Override
@@ -1,20 +1,46 @@
 package de.zalando.paradox.nakadi.consumer.core.http;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public class HttpResponseChunk {
 
+    private static final byte[] EMPTY = new byte[0];
+
     private final int statusCode;
-    private final String content;
+    private byte[] contentBytes;
+    private String content;
 
     public HttpResponseChunk(final int statusCode, final String content) {
         this.statusCode = statusCode;
         this.content = content;
     }
 
+    public HttpResponseChunk(final int statusCode, final byte[] contentBytes) {
+        this.statusCode = statusCode;
+        this.contentBytes = contentBytes;
+    }
+
     public int getStatusCode() {
         return statusCode;
     }
 
     public String getContent() {
+        if (null == content && null != contentBytes) {
+            content = new String(contentBytes, UTF_8);
+        }
+
         return content;
     }
+
+    public boolean hasContentBytes() {
+        return null != contentBytes;
+    }
+
+    public byte[] getContentBytes() {
+        if (null == contentBytes) {
+            contentBytes = null != content ? content.getBytes(UTF_8) : EMPTY;
+        }
+
+        return contentBytes;
+    }
 }
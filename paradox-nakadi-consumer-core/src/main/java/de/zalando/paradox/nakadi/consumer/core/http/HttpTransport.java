@@ -0,0 +1,23 @@
+package de.zalando.paradox.nakadi.consumer.core.http;
+
+import javax.annotation.Nullable;
+
+import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
+
+import rx.Observable;
+
+/**
+ * Executes streaming GET requests. Every line of the response body is emitted as one chunk.
+ */
+public interface HttpTransport {
+
+    Observable<HttpResponseChunk> createRequest(HttpGetRequest request, long readTimeoutMillis,
+            @Nullable AuthorizationValueProvider authorizationValueProvider);
+
+    /**
+     * @return  true if chunks are emitted on threads shared by all requests, which must not be blocked by handlers
+     */
+    default boolean isNonBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,95 @@
+package de.zalando.paradox.nakadi.consumer.core.http;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.lang.reflect.Method;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import rx.Scheduler;
+
+import rx.schedulers.Schedulers;
+
+/**
+ * Built-in {@link SchedulerFactory} implementations.
+ */
+public final class ReceiverSchedulers {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReceiverSchedulers.class);
+
+    private ReceiverSchedulers() { }
+
+    /**
+     * Unbounded RxJava io scheduler, one platform thread per open stream.
+     */
+    public static SchedulerFactory io() {
+        return Schedulers::io;
+    }
+
+    /**
+     * One virtual thread per stream. Falls back to {@link #io()} on JDKs without virtual threads.
+     */
+    public static SchedulerFactory virtualThreads() {
+        return () -> VirtualThreadsHolder.SCHEDULER;
+    }
+
+    /**
+     * Fixed pool of twice the available processors platform threads shared by all receivers of the application. The
+     * default of non-blocking transports, whose streams only occupy a thread while a batch is handled.
+     */
+    public static SchedulerFactory sharedPool() {
+        return () -> SharedPoolHolder.SCHEDULER;
+    }
+
+    /**
+     * Fixed pool of platform threads shared by all receivers using the returned factory. With a blocking transport the
+     * pool must be larger than the number of consumed partitions, otherwise streams wait for a free thread.
+     */
+    public static SchedulerFactory boundedPool(final int maxThreads) {
+        checkArgument(maxThreads > 0, "maxThreads must be positive");
+
+        final Scheduler scheduler = Schedulers.from(Executors.newFixedThreadPool(maxThreads,
+                    daemonThreadFactory("nakadi-receiver-")));
+        return () -> scheduler;
+    }
+
+    static boolean isVirtualThreadsSupported() {
+        return null != VirtualThreadsHolder.EXECUTOR;
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String prefix) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class SharedPoolHolder {
+        private static final Scheduler SCHEDULER = Schedulers.from(Executors.newFixedThreadPool(
+                    2 * Runtime.getRuntime().availableProcessors(), daemonThreadFactory("nakadi-receiver-shared-")));
+    }
+
+    private static final class VirtualThreadsHolder {
+        private static final ExecutorService EXECUTOR = newVirtualThreadPerTaskExecutor();
+        private static final Scheduler SCHEDULER = null != EXECUTOR ? Schedulers.from(EXECUTOR) : Schedulers.io();
+
+        // resolved reflectively, the library is compiled for Java 8
+        private static ExecutorService newVirtualThreadPerTaskExecutor() {
+            try {
+                final Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+                LOGGER.warn("Virtual threads are not supported by this JVM, falling back to io scheduler [{}]",
+                    e.toString());
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.zalando.paradox.nakadi.consumer.core.http;
+
+import rx.Scheduler;
+
+/**
+ * Provides the scheduler a {@link HttpReactiveReceiver} subscribes its request on. With a blocking transport the
+ * scheduler thread is occupied for the whole lifetime of the stream.
+ */
+@FunctionalInterface
+public interface SchedulerFactory {
+
+    Scheduler getScheduler();
+}
@@ -1,11 +1,19 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
+import de.zalando.paradox.nakadi.consumer.core.AsyncEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.EventHandler;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
@@ -15,14 +23,29 @@ import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
 
 abstract class AbstractEventsResponseBulkHandler<T> extends AbstractResponseHandler {
 
+    static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 1;
+
+    static final long DRAIN_TIMEOUT_MILLIS = 10000;
+
     private final EventHandler<List<T>> delegate;
 
+    private final InFlightBatches inFlightBatches;
+
     AbstractEventsResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final PartitionCoordinator coordinator, final Class<?> loggerClazz, final ObjectMapper jsonMapper,
             final EventHandler<List<T>> delegate) {
+        this(consumerName, eventTypePartition, coordinator, loggerClazz, jsonMapper, delegate,
+            DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    AbstractEventsResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final PartitionCoordinator coordinator, final Class<?> loggerClazz, final ObjectMapper jsonMapper,
+            final EventHandler<List<T>> delegate, final int maxInFlightBatches) {
         super(consumerName, eventTypePartition, coordinator, LoggingUtils.getLogger(loggerClazz, eventTypePartition),
             jsonMapper);
         this.delegate = delegate;
+        this.inFlightBatches = delegate instanceof AsyncEventHandler
+            ? new InFlightBatches(maxInFlightBatches, coordinator::commit) : null;
     }
 
     @Override
@@ -31,17 +54,34 @@ abstract class AbstractEventsResponseBulkHandler<T> extends AbstractResponseHand
         for (final String event : events) {
             final NakadiEventBatch<T> nakadiEventBatch = getEventBatchSafe(event);
             if (nakadiEventBatch != null) {
-                final EventTypeCursor cursor = EventTypeCursor.of(eventTypePartition,
-                        nakadiEventBatch.getCursor().getOffset());
+                onEventBatch(nakadiEventBatch, () -> content);
+            }
+        }
+    }
 
-                final List<T> batchEvents = nakadiEventBatch.getEvents();
+    @Override
+    public void onResponse(final byte[] content, final int offset, final int length) {
 
-                if (batchEvents == null || batchEvents.isEmpty()) {
-                    log.info("Keep alive offset [{}]", cursor.getOffset());
-                } else {
-                    handleEvents(cursor, batchEvents, content);
-                }
+        // content is decoded only if needed for error reporting
+        final Supplier<String> contentSupplier = Suppliers.memoize(() -> new String(content, offset, length, UTF_8));
+        forEachEvent(content, offset, length, (eventOffset, eventLength) -> {
+            final NakadiEventBatch<T> nakadiEventBatch = getEventBatchSafe(content, eventOffset, eventLength);
+            if (nakadiEventBatch != null) {
+                onEventBatch(nakadiEventBatch, contentSupplier);
             }
+        });
+    }
+
+    private void onEventBatch(final NakadiEventBatch<T> nakadiEventBatch, final Supplier<String> content) {
+        final EventTypeCursor cursor = EventTypeCursor.of(eventTypePartition,
+                nakadiEventBatch.getCursor().getOffset());
+
+        final List<T> batchEvents = nakadiEventBatch.getEvents();
+
+        if (batchEvents == null || batchEvents.isEmpty()) {
+            log.info("Keep alive offset [{}]", cursor.getOffset());
+        } else {
+            handleEvents(cursor, batchEvents, content);
         }
     }
 
@@ -56,16 +96,76 @@ abstract class AbstractEventsResponseBulkHandler<T> extends AbstractResponseHand
         }
     }
 
-    private void handleEvents(final EventTypeCursor cursor, final List<T> events, final String content) {
+    @Nullable
+    private NakadiEventBatch<T> getEventBatchSafe(final byte[] content, final int offset, final int length) {
+        try {
+            return getEventBatch(content, offset, length);
+        } catch (final Throwable t) {
+            final String event = new String(content, offset, length, UTF_8);
+            log.error("Handler error while handling event [{}]", event, t);
+            coordinator.error(consumerName, t, eventTypePartition, null, event);
+            return null;
+        }
+    }
+
+    private void handleEvents(final EventTypeCursor cursor, final List<T> events, final Supplier<String> content) {
+        if (null != inFlightBatches) {
+            handleEventsAsync(cursor, events, content);
+            return;
+        }
+
         try {
             delegate.onEvent(cursor, events);
         } catch (final Throwable t) {
             log.error("Handler error at cursor [{}]", cursor, t);
-            coordinator.error(consumerName, t, eventTypePartition, cursor.getOffset(), content);
+            coordinator.error(consumerName, t, eventTypePartition, cursor.getOffset(), content.get());
         }
 
         coordinator.commit(cursor);
     }
 
+    private void handleEventsAsync(final EventTypeCursor cursor, final List<T> events,
+            final Supplier<String> content) {
+        final InFlightBatches.Batch batch = inFlightBatches.start(cursor);
+
+        CompletionStage<Void> completion;
+        try {
+            completion = ((AsyncEventHandler<List<T>>) delegate).onEventAsync(cursor, events);
+        } catch (final Throwable t) {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(t);
+            completion = failed;
+        }
+
+        completion.whenComplete((result, t) -> {
+            try {
+                if (null != t) {
+                    log.error("Handler error at cursor [{}]", cursor, t);
+                    coordinator.error(consumerName, t, eventTypePartition, cursor.getOffset(), content.get());
+                }
+            } finally {
+                inFlightBatches.complete(batch);
+            }
+        });
+    }
+
+    /**
+     * Waits for the batches in flight, so none is committed after the stream finished and the partition may have
+     * moved to another consumer.
+     */
+    @Override
+    public void onFinished() {
+        if (null != inFlightBatches) {
+            final int abandoned = inFlightBatches.drain(DRAIN_TIMEOUT_MILLIS);
+            if (abandoned > 0) {
+                log.warn("Abandoned [{}] batches still in flight after [{}] ms", abandoned, DRAIN_TIMEOUT_MILLIS);
+            }
+        }
+    }
+
     abstract NakadiEventBatch<T> getEventBatch(final String string);
+
+    NakadiEventBatch<T> getEventBatch(final byte[] content, final int offset, final int length) {
+        return getEventBatch(new String(content, offset, length, UTF_8));
+    }
 }
@@ -1,14 +1,21 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static java.util.Objects.requireNonNull;
 
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.annotation.Nullable;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+
 import de.zalando.paradox.nakadi.consumer.core.EventHandler;
+import de.zalando.paradox.nakadi.consumer.core.KeyedEventHandler;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiEventBatch;
@@ -17,14 +24,35 @@ import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
 
 abstract class AbstractEventsResponseHandler<T> extends AbstractResponseHandler {
 
+    static final int DEFAULT_DISPATCH_LANES = 1;
+
     private final EventHandler<T> delegate;
 
+    // null unless the delegate is keyed and more than one lane is configured
+    private final KeyedDispatcher<T> dispatcher;
+
     AbstractEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final PartitionCoordinator coordinator, final Class<?> loggerClazz, final ObjectMapper jsonMapper,
             final EventHandler<T> delegate) {
+        this(consumerName, eventTypePartition, coordinator, loggerClazz, jsonMapper, delegate, DEFAULT_DISPATCH_LANES);
+    }
+
+    AbstractEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final PartitionCoordinator coordinator, final Class<?> loggerClazz, final ObjectMapper jsonMapper,
+            final EventHandler<T> delegate, final int dispatchLanes) {
+        this(consumerName, eventTypePartition, coordinator, loggerClazz, jsonMapper, delegate, dispatchLanes, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    AbstractEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final PartitionCoordinator coordinator, final Class<?> loggerClazz, final ObjectMapper jsonMapper,
+            final EventHandler<T> delegate, final int dispatchLanes, @Nullable final Executor dispatchExecutor) {
         super(consumerName, eventTypePartition, coordinator, LoggingUtils.getLogger(loggerClazz, eventTypePartition),
             jsonMapper);
         this.delegate = delegate;
+        this.dispatcher = delegate instanceof KeyedEventHandler && dispatchLanes > 1
+            ? new KeyedDispatcher<>((KeyedEventHandler<T>) delegate, dispatchLanes,
+                null != dispatchExecutor ? dispatchExecutor : KeyedDispatcher.defaultExecutor()) : null;
     }
 
     @Override
@@ -34,16 +62,31 @@ abstract class AbstractEventsResponseHandler<T> extends AbstractResponseHandler
 
             final NakadiEventBatch<T> nakadiEventBatch = requireNonNull(getNakadiEventBatch(event),
                     "Nakadi event batch must not be null!");
+            onEventBatch(nakadiEventBatch, () -> content);
+        }
+    }
 
-            final EventTypeCursor cursor = EventTypeCursor.of(eventTypePartition,
-                    nakadiEventBatch.getCursor().getOffset());
-            final List<T> batchEvents = nakadiEventBatch.getEvents();
+    @Override
+    public void onResponse(final byte[] content, final int offset, final int length) {
+
+        // content is decoded only if needed for error reporting
+        final Supplier<String> contentSupplier = Suppliers.memoize(() -> new String(content, offset, length, UTF_8));
+        forEachEvent(content, offset, length, (eventOffset, eventLength) -> {
+            final NakadiEventBatch<T> nakadiEventBatch = requireNonNull(getNakadiEventBatch(content, eventOffset,
+                        eventLength), "Nakadi event batch must not be null!");
+            onEventBatch(nakadiEventBatch, contentSupplier);
+        });
+    }
 
-            if (batchEvents == null || batchEvents.isEmpty()) {
-                log.info("Keep alive offset [{}]", cursor.getOffset());
-            } else {
-                handleEvents(cursor, batchEvents, content);
-            }
+    private void onEventBatch(final NakadiEventBatch<T> nakadiEventBatch, final Supplier<String> content) {
+        final EventTypeCursor cursor = EventTypeCursor.of(eventTypePartition,
+                nakadiEventBatch.getCursor().getOffset());
+        final List<T> batchEvents = nakadiEventBatch.getEvents();
+
+        if (batchEvents == null || batchEvents.isEmpty()) {
+            log.info("Keep alive offset [{}]", cursor.getOffset());
+        } else {
+            handleEvents(cursor, batchEvents, content);
         }
     }
 
@@ -57,18 +100,45 @@ abstract class AbstractEventsResponseHandler<T> extends AbstractResponseHandler
         }
     }
 
-    private void handleEvents(final EventTypeCursor cursor, final List<T> events, final String content) {
-        for (final T event : events) {
-            try {
-                delegate.onEvent(cursor, event);
-            } catch (final Throwable t) {
-                log.error("Handler error at cursor [{}]", cursor);
-                coordinator.error(consumerName, t, eventTypePartition, cursor.getOffset(), content);
+    @Nullable
+    private NakadiEventBatch<T> getNakadiEventBatch(final byte[] content, final int offset, final int length) {
+        try {
+            return getEventBatch(content, offset, length);
+        } catch (final Throwable t) {
+            coordinator.error(consumerName, t, eventTypePartition, null, new String(content, offset, length, UTF_8));
+            return null;
+        }
+    }
+
+    private void handleEvents(final EventTypeCursor cursor, final List<T> events, final Supplier<String> content) {
+        if (null == dispatcher || events.size() == 1) {
+            for (final T event : events) {
+                handleEvent(cursor, event, content);
             }
+        } else {
+            dispatcher.dispatch(events, event -> handleEvent(cursor, event, content),
+                (event, t) -> onHandlerError(cursor, t, content));
         }
 
         coordinator.commit(cursor);
     }
 
+    private void handleEvent(final EventTypeCursor cursor, final T event, final Supplier<String> content) {
+        try {
+            delegate.onEvent(cursor, event);
+        } catch (final Throwable t) {
+            onHandlerError(cursor, t, content);
+        }
+    }
+
+    private void onHandlerError(final EventTypeCursor cursor, final Throwable t, final Supplier<String> content) {
+        log.error("Handler error at cursor [{}]", cursor);
+        coordinator.error(consumerName, t, eventTypePartition, cursor.getOffset(), content.get());
+    }
+
     abstract NakadiEventBatch<T> getEventBatch(final String string);
+
+    NakadiEventBatch<T> getEventBatch(final byte[] content, final int offset, final int length) {
+        return getEventBatch(new String(content, offset, length, UTF_8));
+    }
 }
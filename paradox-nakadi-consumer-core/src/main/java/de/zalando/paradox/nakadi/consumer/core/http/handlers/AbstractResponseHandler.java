@@ -15,6 +15,8 @@ import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 abstract class AbstractResponseHandler implements ResponseHandler {
 
     private static final String BATCH_SEPARATOR = "\n";
+    private static final byte BATCH_SEPARATOR_BYTE = '\n';
+
     protected final Logger log;
     protected final ObjectMapper jsonMapper;
     protected final EventTypePartition eventTypePartition;
@@ -36,6 +38,31 @@ abstract class AbstractResponseHandler implements ResponseHandler {
         return string.split(BATCH_SEPARATOR);
     }
 
+    /**
+     * Byte variant of {@link #getEvents(String)}, splits in place and follows the same rules for empty lines.
+     */
+    void forEachEvent(final byte[] content, final int offset, final int length, final EventRangeConsumer consumer) {
+        final int end = offset + length;
+        int last = end;
+        while (last > offset && content[last - 1] == BATCH_SEPARATOR_BYTE) {
+            last--;
+        }
+
+        if (last == offset && last != end) {
+            return;
+        }
+
+        int start = offset;
+        for (int i = offset; i < last; i++) {
+            if (content[i] == BATCH_SEPARATOR_BYTE) {
+                consumer.accept(start, i - start);
+                start = i + 1;
+            }
+        }
+
+        consumer.accept(start, last - start);
+    }
+
     NakadiEventCursor getEventCursor(final String string) {
         try {
             return jsonMapper.readValue(string, NakadiEventCursor.class);
@@ -45,4 +72,9 @@ abstract class AbstractResponseHandler implements ResponseHandler {
             return null;
         }
     }
+
+    @FunctionalInterface
+    interface EventRangeConsumer {
+        void accept(final int offset, final int length);
+    }
 }
@@ -0,0 +1,7 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import java.util.List;
+
+import de.zalando.paradox.nakadi.consumer.core.AsyncEventHandler;
+
+public interface AsyncBatchEventsBulkHandler<T> extends BatchEventsBulkHandler<T>, AsyncEventHandler<List<T>> { }
@@ -0,0 +1,9 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.zalando.paradox.nakadi.consumer.core.AsyncEventHandler;
+
+public interface AsyncJsonEventBulkHandler extends JsonEventBulkHandler, AsyncEventHandler<List<JsonNode>> { }
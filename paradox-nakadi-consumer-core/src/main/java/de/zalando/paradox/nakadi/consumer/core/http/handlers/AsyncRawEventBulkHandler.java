@@ -0,0 +1,7 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import java.util.List;
+
+import de.zalando.paradox.nakadi.consumer.core.AsyncEventHandler;
+
+public interface AsyncRawEventBulkHandler extends RawEventBulkHandler, AsyncEventHandler<List<String>> { }
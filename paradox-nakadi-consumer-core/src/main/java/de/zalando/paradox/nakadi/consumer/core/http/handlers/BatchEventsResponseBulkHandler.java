@@ -1,5 +1,7 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.IOException;
 
 import com.fasterxml.jackson.databind.JavaType;
@@ -16,8 +18,14 @@ public class BatchEventsResponseBulkHandler<T> extends AbstractEventsResponseBul
     public BatchEventsResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
             final BatchEventsBulkHandler<T> delegate) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public BatchEventsResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
+            final BatchEventsBulkHandler<T> delegate, final int maxInFlightBatches) {
         super(consumerName, eventTypePartition, coordinator, BatchEventsResponseBulkHandler.class, jsonMapper,
-            delegate);
+            delegate, maxInFlightBatches);
         this.javaType = EventClassProvider.getJavaType(delegate, jsonMapper);
     }
 
@@ -31,4 +39,15 @@ public class BatchEventsResponseBulkHandler<T> extends AbstractEventsResponseBul
             return null;
         }
     }
+
+    @Override
+    NakadiEventBatch<T> getEventBatch(final byte[] content, final int offset, final int length) {
+        try {
+            return jsonMapper.readValue(content, offset, length, javaType);
+        } catch (final IOException e) {
+            log.error("Error while parsing event batch from [{}]", new String(content, offset, length, UTF_8), e);
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
 }
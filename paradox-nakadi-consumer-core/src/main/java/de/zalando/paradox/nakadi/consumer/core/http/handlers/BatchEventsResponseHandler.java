@@ -2,6 +2,10 @@ package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
 import java.io.IOException;
 
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -16,7 +20,20 @@ public class BatchEventsResponseHandler<T> extends AbstractEventsResponseHandler
     public BatchEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
             final BatchEventsHandler<T> delegate) {
-        super(consumerName, eventTypePartition, coordinator, BatchEventsResponseHandler.class, jsonMapper, delegate);
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, DEFAULT_DISPATCH_LANES);
+    }
+
+    public BatchEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final BatchEventsHandler<T> delegate,
+            final int dispatchLanes) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, dispatchLanes, null);
+    }
+
+    public BatchEventsResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final BatchEventsHandler<T> delegate,
+            final int dispatchLanes, @Nullable final Executor dispatchExecutor) {
+        super(consumerName, eventTypePartition, coordinator, BatchEventsResponseHandler.class, jsonMapper, delegate,
+            dispatchLanes, dispatchExecutor);
         this.javaType = EventClassProvider.getJavaType(delegate, jsonMapper);
     }
 
@@ -29,4 +46,14 @@ public class BatchEventsResponseHandler<T> extends AbstractEventsResponseHandler
             return null;
         }
     }
+
+    @Override
+    NakadiEventBatch<T> getEventBatch(final byte[] content, final int offset, final int length) {
+        try {
+            return jsonMapper.readValue(content, offset, length, javaType);
+        } catch (final IOException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
 }
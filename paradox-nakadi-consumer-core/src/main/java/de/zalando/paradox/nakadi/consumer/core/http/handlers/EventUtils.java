@@ -2,11 +2,14 @@ package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
 import static java.lang.String.format;
 
-import static java.util.Objects.requireNonNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
 import java.io.IOException;
+import java.io.StringWriter;
+
+import java.nio.ByteBuffer;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -17,10 +20,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiCursor;
@@ -35,34 +41,16 @@ public class EventUtils {
 
     public static NakadiEventBatch<String> getRawEventBatch(final ObjectMapper jsonMapper, final String string,
             final EventType eventType) {
-        try {
-            final EventReader reader = new EventReader(jsonMapper, string).invoke();
-            final JsonNode eventsNode = reader.getEventsNode();
-
-            final List<String> rawEvents;
-            if (null != eventsNode && eventsNode.isArray() && eventsNode.size() > 0) {
-                rawEvents = new ArrayList<>(eventsNode.size());
-
-                final ArrayNode arrayNode = (ArrayNode) eventsNode;
-                arrayNode.elements().forEachRemaining(element -> {
-                    String rawEvent = null;
-                    try {
-                        checkEventType(element, eventType);
-                        rawEvent = jsonMapper.writeValueAsString(element);
-                    } catch (JsonProcessingException e) {
-                        ThrowableUtils.throwException(e);
-                    }
-
-                    // back to string -> better solution should be provided
-                    if (StringUtils.isNotEmpty(rawEvent)) {
-                        rawEvents.add(rawEvent);
-                    }
-                });
-            } else {
-                rawEvents = Collections.emptyList();
-            }
+        return getRawEventBatch(jsonMapper, string, eventType, RawEventMode.COMPACT);
+    }
 
-            return new NakadiEventBatch<>(new NakadiCursor(reader.getPartition(), reader.getOffset()), rawEvents);
+    public static NakadiEventBatch<String> getRawEventBatch(final ObjectMapper jsonMapper, final String string,
+            final EventType eventType, final RawEventMode mode) {
+        try(JsonParser parser = jsonMapper.getFactory().createParser(string)) {
+            final EventElementReader<String> reader = mode == RawEventMode.EXACT
+                ? p -> readSlicedEvent(jsonMapper, p, eventType, new StringEventSlicer(string))
+                : p -> readRawEvent(jsonMapper, p, eventType);
+            return new EventBatchReader<>(parser, reader).read();
         } catch (IOException e) {
             LOGGER.error("Error while parsing event batch from [{}]", string, e);
             ThrowableUtils.throwException(e);
@@ -70,26 +58,44 @@ public class EventUtils {
         }
     }
 
+    public static NakadiEventBatch<String> getRawEventBatch(final ObjectMapper jsonMapper, final byte[] content,
+            final int offset, final int length, final EventType eventType) {
+        return getRawEventBatch(jsonMapper, content, offset, length, eventType, RawEventMode.COMPACT);
+    }
+
+    public static NakadiEventBatch<String> getRawEventBatch(final ObjectMapper jsonMapper, final byte[] content,
+            final int offset, final int length, final EventType eventType, final RawEventMode mode) {
+        try(JsonParser parser = jsonMapper.getFactory().createParser(content, offset, length)) {
+            final EventElementReader<String> reader = mode == RawEventMode.EXACT
+                ? p -> readSlicedEvent(jsonMapper, p, eventType, new StringBytesEventSlicer(content, offset))
+                : p -> readRawEvent(jsonMapper, p, eventType);
+            return new EventBatchReader<>(parser, reader).read();
+        } catch (IOException e) {
+            LOGGER.error("Error while parsing event batch from [{}]", new String(content, offset, length, UTF_8), e);
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the events as read only views of the given content, nothing is copied.
+     */
+    public static NakadiEventBatch<ByteBuffer> getRawEventBufferBatch(final ObjectMapper jsonMapper,
+            final byte[] content, final int offset, final int length, final EventType eventType) {
+        try(JsonParser parser = jsonMapper.getFactory().createParser(content, offset, length)) {
+            final EventSlicer<ByteBuffer> slicer = new BufferEventSlicer(content, offset);
+            return new EventBatchReader<>(parser, p -> readSlicedEvent(jsonMapper, p, eventType, slicer)).read();
+        } catch (IOException e) {
+            LOGGER.error("Error while parsing event batch from [{}]", new String(content, offset, length, UTF_8), e);
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
     public static NakadiEventBatch<JsonNode> getJsonEventBatch(final ObjectMapper jsonMapper, final String string,
             final EventType eventType) {
-        try {
-            final EventReader reader = new EventReader(jsonMapper, string).invoke();
-            final JsonNode eventsNode = reader.getEventsNode();
-
-            final List<JsonNode> jsonEvents;
-            if (null != eventsNode && eventsNode.isArray() && eventsNode.size() > 0) {
-                jsonEvents = new ArrayList<>(eventsNode.size());
-
-                final ArrayNode arrayNode = (ArrayNode) eventsNode;
-                arrayNode.elements().forEachRemaining(element -> {
-                    checkEventType(element, eventType);
-                    jsonEvents.add(element);
-                });
-            } else {
-                jsonEvents = Collections.emptyList();
-            }
-
-            return new NakadiEventBatch<>(new NakadiCursor(reader.getPartition(), reader.getOffset()), jsonEvents);
+        try(JsonParser parser = jsonMapper.getFactory().createParser(string)) {
+            return new EventBatchReader<>(parser, p -> readJsonEvent(p, eventType)).read();
         } catch (IOException e) {
             LOGGER.error("Error while parsing event json from [{}]", string, e);
             ThrowableUtils.throwException(e);
@@ -97,6 +103,122 @@ public class EventUtils {
         }
     }
 
+    public static NakadiEventBatch<JsonNode> getJsonEventBatch(final ObjectMapper jsonMapper, final byte[] content,
+            final int offset, final int length, final EventType eventType) {
+        try(JsonParser parser = jsonMapper.getFactory().createParser(content, offset, length)) {
+            return new EventBatchReader<>(parser, p -> readJsonEvent(p, eventType)).read();
+        } catch (IOException e) {
+            LOGGER.error("Error while parsing event json from [{}]", new String(content, offset, length, UTF_8), e);
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    private static JsonNode readJsonEvent(final JsonParser parser, final EventType eventType) throws IOException {
+        final JsonNode node = parser.readValueAsTree();
+        final JsonNode element = null != node ? node : NullNode.getInstance();
+        checkEventType(element, eventType);
+        return element;
+    }
+
+    /**
+     * Copies the event tokens to a compact string while looking for the metadata event type, so the event is read only
+     * once and no tree is built.
+     */
+    private static String readRawEvent(final ObjectMapper jsonMapper, final JsonParser parser,
+            final EventType eventType) throws IOException {
+        final StringWriter writer = new StringWriter();
+        String actualEventType = null;
+        try(JsonGenerator generator = jsonMapper.getFactory().createGenerator(writer)) {
+            int depth = 0;
+            boolean metadataField = false;
+            boolean metadata = false;
+            boolean eventTypeField = false;
+            JsonToken token = parser.getCurrentToken();
+            do {
+                generator.copyCurrentEvent(parser);
+                if (eventTypeField && token.isScalarValue()) {
+                    actualEventType = parser.getText();
+                }
+
+                eventTypeField = metadata && depth == 2 && token == JsonToken.FIELD_NAME
+                        && "event_type".equals(parser.getCurrentName());
+
+                if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                    depth++;
+                    if (depth == 2) {
+                        metadata = metadataField && token == JsonToken.START_OBJECT;
+                    }
+                } else if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+                    depth--;
+                    if (depth < 2) {
+                        metadata = false;
+                    }
+                }
+
+                metadataField = depth == 1 && token == JsonToken.FIELD_NAME
+                        && "metadata".equals(parser.getCurrentName());
+            } while (depth > 0 && null != (token = parser.nextToken()));
+        }
+
+        checkEventType(actualEventType, eventType);
+        return writer.toString();
+    }
+
+    /**
+     * Returns the event exactly as received. The parser location is used to cut the event out of the batch, token
+     * locations are not used because they may include the preceding separator.
+     */
+    private static <T> T readSlicedEvent(final ObjectMapper jsonMapper, final JsonParser parser,
+            final EventType eventType, final EventSlicer<T> slicer) throws IOException {
+        final JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            final long start = slicer.getOffset(parser.getCurrentLocation()) - 1;
+            if (token == JsonToken.START_OBJECT) {
+                checkEventType(readEventType(parser), eventType);
+            } else {
+                parser.skipChildren();
+            }
+
+            final long end = slicer.getOffset(parser.getCurrentLocation());
+            return slicer.slice((int) start, (int) end);
+        } else {
+
+            // scalar locations are not exact, not expected for events anyway
+            return slicer.fromValue(jsonMapper.writeValueAsString(parser.readValueAsTree()));
+        }
+    }
+
+    private static String readEventType(final JsonParser parser) throws IOException {
+        String actualEventType = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String fieldName = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if ("metadata".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String metadataFieldName = parser.getCurrentName();
+                    final JsonToken metadataValue = parser.nextToken();
+                    if ("event_type".equals(metadataFieldName) && metadataValue.isScalarValue()) {
+                        actualEventType = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return actualEventType;
+    }
+
+    private static void checkEventType(final String actualEventType, final EventType eventType) {
+        if (null != actualEventType && !actualEventType.equals(eventType.getName())) {
+            throw new InvalidEventTypeException(format("Unexpected event type (expected=[%s], actual=[%s])",
+                    eventType.getName(), actualEventType));
+        }
+    }
+
     private static void checkEventType(final JsonNode element, final EventType eventType) {
         if (!element.isNull() && element.has("metadata")) {
             if (element.get("metadata").has("event_type")
@@ -107,43 +229,156 @@ public class EventUtils {
         }
     }
 
-    private static class EventReader {
-        private ObjectMapper jsonMapper;
-        private String string;
-        private String partition;
-        private String offset;
-        private JsonNode eventsNode;
+    private interface EventSlicer<T> {
+        long getOffset(final JsonLocation location);
+
+        T slice(final int start, final int end);
+
+        T fromValue(final String value);
+    }
+
+    private static class StringEventSlicer implements EventSlicer<String> {
+        private final String content;
 
-        EventReader(final ObjectMapper jsonMapper, final String string) {
-            this.jsonMapper = jsonMapper;
-            this.string = string;
+        StringEventSlicer(final String content) {
+            this.content = content;
         }
 
-        String getPartition() {
-            return partition;
+        @Override
+        public long getOffset(final JsonLocation location) {
+            return location.getCharOffset();
         }
 
-        String getOffset() {
-            return offset;
+        @Override
+        public String slice(final int start, final int end) {
+            return content.substring(start, end);
         }
 
-        JsonNode getEventsNode() {
-            return eventsNode;
+        @Override
+        public String fromValue(final String value) {
+            return value;
         }
+    }
 
-        EventReader invoke() throws IOException {
-            final JsonNode node = jsonMapper.readTree(string);
-            final JsonNode cursorNode = requireNonNull(node.get("cursor"), "cursor node must not be null");
+    private static class StringBytesEventSlicer implements EventSlicer<String> {
+        private final byte[] content;
+        private final int offset;
 
-            partition = cursorNode.get("partition").textValue();
-            checkArgument(StringUtils.isNotEmpty(partition), "cursor.partition must not be empty");
+        StringBytesEventSlicer(final byte[] content, final int offset) {
+            this.content = content;
+            this.offset = offset;
+        }
+
+        @Override
+        public long getOffset(final JsonLocation location) {
+            return location.getByteOffset();
+        }
+
+        @Override
+        public String slice(final int start, final int end) {
+            return new String(content, offset + start, end - start, UTF_8);
+        }
+
+        @Override
+        public String fromValue(final String value) {
+            return value;
+        }
+    }
+
+    private static class BufferEventSlicer implements EventSlicer<ByteBuffer> {
+        private final byte[] content;
+        private final int offset;
+
+        BufferEventSlicer(final byte[] content, final int offset) {
+            this.content = content;
+            this.offset = offset;
+        }
 
-            offset = cursorNode.get("offset").textValue();
+        @Override
+        public long getOffset(final JsonLocation location) {
+            return location.getByteOffset();
+        }
+
+        @Override
+        public ByteBuffer slice(final int start, final int end) {
+            return ByteBuffer.wrap(content, offset + start, end - start).slice().asReadOnlyBuffer();
+        }
+
+        @Override
+        public ByteBuffer fromValue(final String value) {
+            return ByteBuffer.wrap(value.getBytes(UTF_8)).asReadOnlyBuffer();
+        }
+    }
+
+    @FunctionalInterface
+    private interface EventElementReader<T> {
+        T read(final JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Walks the batch tokens once, cursor and events may come in any order and unknown fields are skipped.
+     */
+    private static class EventBatchReader<T> {
+        private final JsonParser parser;
+        private final EventElementReader<T> elementReader;
+        private String partition;
+        private String offset;
+        private boolean cursorFound;
+        private List<T> events = Collections.emptyList();
+
+        EventBatchReader(final JsonParser parser, final EventElementReader<T> elementReader) {
+            this.parser = parser;
+            this.elementReader = elementReader;
+        }
+
+        NakadiEventBatch<T> read() throws IOException {
+            checkArgument(parser.nextToken() == JsonToken.START_OBJECT, "event batch must be an object");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("cursor".equals(fieldName) && value == JsonToken.START_OBJECT) {
+                    readCursor();
+                } else if ("events".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    readEvents();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            checkArgument(cursorFound, "cursor node must not be null");
+            checkArgument(StringUtils.isNotEmpty(partition), "cursor.partition must not be empty");
             checkArgument(StringUtils.isNotEmpty(offset), "cursor.offset must not be empty");
 
+            return new NakadiEventBatch<>(new NakadiCursor(partition, offset), events);
+        }
+
+        private void readCursor() throws IOException {
+            cursorFound = true;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String fieldName = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("partition".equals(fieldName)) {
+                    partition = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                } else if ("offset".equals(fieldName)) {
+                    offset = value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        private void readEvents() throws IOException {
+            List<T> result = null;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (null == result) {
+                    result = new ArrayList<>();
+                }
+
+                result.add(elementReader.read(parser));
+            }
+
             // optional for keep alive
-            eventsNode = node.get("events");
-            return this;
+            events = null != result ? result : Collections.emptyList();
         }
     }
 }
@@ -0,0 +1,149 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Tracks the asynchronously handled batches of one partition. Batches may complete in any order, the cursor is only
+ * committed over the contiguous completed prefix. A batch holds its permit until it has been committed, so no more
+ * than the maximum number of batches wait for completion or commit.
+ *
+ * <p>Commits run outside of the tracker lock in batch order, a cursor is never committed after a later one. When the
+ * stream finishes the tracker is drained, batches still in flight afterwards are abandoned and never committed.</p>
+ */
+class InFlightBatches {
+
+    private final Semaphore permits;
+    private final Consumer<EventTypeCursor> commit;
+    private final Object commitLock = new Object();
+
+    // guarded by this
+    private final Deque<Batch> batches = new ArrayDeque<>();
+    private long sequence;
+    private int committing;
+
+    // guarded by commitLock
+    private long committedSequence;
+
+    InFlightBatches(final int maxInFlightBatches, final Consumer<EventTypeCursor> commit) {
+        checkArgument(maxInFlightBatches > 0, "maxInFlightBatches must be positive");
+        this.permits = new Semaphore(maxInFlightBatches);
+        this.commit = commit;
+    }
+
+    /**
+     * Registers the next batch of the partition, blocks while the maximum number of batches is in flight.
+     */
+    Batch start(final EventTypeCursor cursor) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ThrowableUtils.throwException(e);
+        }
+
+        synchronized (this) {
+            final Batch batch = new Batch(cursor, ++sequence);
+            batches.addLast(batch);
+            return batch;
+        }
+    }
+
+    void complete(final Batch batch) {
+        Batch committable = null;
+        int released = 0;
+        synchronized (this) {
+            if (batch.abandoned) {
+                return;
+            }
+
+            batch.completed = true;
+            while (!batches.isEmpty() && batches.peekFirst().completed) {
+                committable = batches.pollFirst();
+                released++;
+            }
+
+            if (null != committable) {
+                committing++;
+            }
+        }
+
+        try {
+            if (null != committable) {
+                commit(committable);
+            }
+        } finally {
+            synchronized (this) {
+                if (null != committable) {
+                    committing--;
+                }
+
+                notifyAll();
+            }
+
+            permits.release(released);
+        }
+    }
+
+    private void commit(final Batch batch) {
+        synchronized (commitLock) {
+            if (!batch.abandoned && batch.sequence > committedSequence) {
+                committedSequence = batch.sequence;
+                commit.accept(batch.cursor);
+            }
+        }
+    }
+
+    /**
+     * Waits up to the timeout until all batches have been completed and committed. Batches still in flight afterwards
+     * are abandoned, their completion does not commit and their events are delivered again by the next stream.
+     *
+     * @return  number of abandoned batches
+     */
+    int drain(final long timeoutMillis) {
+        final int abandoned;
+        synchronized (this) {
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            long remaining;
+            while ((!batches.isEmpty() || committing > 0) && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            abandoned = batches.size();
+            batches.forEach(batch -> batch.abandoned = true);
+            batches.clear();
+        }
+
+        permits.release(abandoned);
+        return abandoned;
+    }
+
+    synchronized int size() {
+        return batches.size();
+    }
+
+    static final class Batch {
+        private final EventTypeCursor cursor;
+        private final long sequence;
+        private boolean completed;
+        private volatile boolean abandoned;
+
+        private Batch(final EventTypeCursor cursor, final long sequence) {
+            this.cursor = cursor;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -12,11 +12,23 @@ public class JsonEventResponseBulkHandler extends AbstractEventsResponseBulkHand
     public JsonEventResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
             final JsonEventBulkHandler delegate) {
-        super(consumerName, eventTypePartition, coordinator, JsonEventResponseBulkHandler.class, jsonMapper, delegate);
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public JsonEventResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final JsonEventBulkHandler delegate,
+            final int maxInFlightBatches) {
+        super(consumerName, eventTypePartition, coordinator, JsonEventResponseBulkHandler.class, jsonMapper, delegate,
+            maxInFlightBatches);
     }
 
     @Override
     NakadiEventBatch<JsonNode> getEventBatch(final String string) {
         return EventUtils.getJsonEventBatch(jsonMapper, string, eventType);
     }
+
+    @Override
+    NakadiEventBatch<JsonNode> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getJsonEventBatch(jsonMapper, content, offset, length, eventType);
+    }
 }
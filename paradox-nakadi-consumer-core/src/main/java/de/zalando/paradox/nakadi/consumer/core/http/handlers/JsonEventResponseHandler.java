@@ -1,5 +1,9 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -11,11 +15,29 @@ public class JsonEventResponseHandler extends AbstractEventsResponseHandler<Json
 
     public JsonEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final JsonEventHandler delegate) {
-        super(consumerName, eventTypePartition, coordinator, JsonEventResponseHandler.class, jsonMapper, delegate);
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, DEFAULT_DISPATCH_LANES);
+    }
+
+    public JsonEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final JsonEventHandler delegate,
+            final int dispatchLanes) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, dispatchLanes, null);
+    }
+
+    public JsonEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final JsonEventHandler delegate,
+            final int dispatchLanes, @Nullable final Executor dispatchExecutor) {
+        super(consumerName, eventTypePartition, coordinator, JsonEventResponseHandler.class, jsonMapper, delegate,
+            dispatchLanes, dispatchExecutor);
     }
 
     @Override
     NakadiEventBatch<JsonNode> getEventBatch(final String string) {
         return EventUtils.getJsonEventBatch(jsonMapper, string, eventType);
     }
+
+    @Override
+    NakadiEventBatch<JsonNode> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getJsonEventBatch(jsonMapper, content, offset, length, eventType);
+    }
 }
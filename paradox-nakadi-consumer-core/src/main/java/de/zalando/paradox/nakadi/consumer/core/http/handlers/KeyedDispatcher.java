@@ -0,0 +1,131 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static java.util.Objects.requireNonNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import de.zalando.paradox.nakadi.consumer.core.KeyedEventHandler;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Fans the events of one batch out to lanes selected by the event key. Each lane handles its events in batch order,
+ * {@link #dispatch(List, Consumer, BiConsumer)} returns once all lanes have finished. The first lane runs on the
+ * calling thread, the other lanes on the executor.
+ */
+class KeyedDispatcher<T> {
+
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private final KeyedEventHandler<T> handler;
+    private final int lanes;
+    private final Executor executor;
+
+    KeyedDispatcher(final KeyedEventHandler<T> handler, final int lanes) {
+        this(handler, lanes, DEFAULT_EXECUTOR);
+    }
+
+    KeyedDispatcher(final KeyedEventHandler<T> handler, final int lanes, final Executor executor) {
+        checkArgument(lanes > 1, "lanes must be greater than 1");
+        this.handler = handler;
+        this.lanes = lanes;
+        this.executor = requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * Shared by the consumers without a configured executor. The number of threads is bounded by the number of
+     * processors, idle threads terminate.
+     */
+    static Executor defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+    /**
+     * @param  action    handles one event
+     * @param  keyError  invoked for an event whose key cannot be determined, the event is not handled
+     */
+    void dispatch(final List<T> events, final Consumer<T> action, final BiConsumer<T, Throwable> keyError) {
+        final List<List<T>> eventsByLane = partition(events, keyError);
+
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(lanes - 1);
+        for (int i = 1; i < lanes; i++) {
+            final List<T> laneEvents = eventsByLane.get(i);
+            if (!laneEvents.isEmpty()) {
+                futures.add(CompletableFuture.runAsync(() -> laneEvents.forEach(action), executor));
+            }
+        }
+
+        eventsByLane.get(0).forEach(action);
+
+        for (final CompletableFuture<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ThrowableUtils.throwException(e);
+            } catch (final ExecutionException e) {
+                ThrowableUtils.throwException(e.getCause());
+            }
+        }
+    }
+
+    List<List<T>> partition(final List<T> events, final BiConsumer<T, Throwable> keyError) {
+        final List<List<T>> eventsByLane = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            eventsByLane.add(new ArrayList<>());
+        }
+
+        for (final T event : events) {
+            final Object key;
+            try {
+                key = handler.getEventKey(event);
+            } catch (final Throwable t) {
+                keyError.accept(event, t);
+                continue;
+            }
+
+            eventsByLane.get(getLane(key)).add(event);
+        }
+
+        return eventsByLane;
+    }
+
+    private int getLane(final Object key) {
+        if (null == key) {
+            return 0;
+        }
+
+        // spread the hash bits as HashMap does, keys often differ in the low bits only
+        final int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes);
+    }
+
+    private static Executor createDefaultExecutor() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreadFactory());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory daemonThreadFactory() {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "nakadi-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import java.nio.ByteBuffer;
+
+import java.util.List;
+
+import de.zalando.paradox.nakadi.consumer.core.EventHandler;
+
+/**
+ * Receives the batch events as read only UTF-8 views of the received batch.
+ */
+public interface RawEventBufferBulkHandler extends EventHandler<List<ByteBuffer>> { }
@@ -0,0 +1,10 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import java.nio.ByteBuffer;
+
+import de.zalando.paradox.nakadi.consumer.core.EventHandler;
+
+/**
+ * Receives each event as a read only UTF-8 view of the received batch.
+ */
+public interface RawEventBufferHandler extends EventHandler<ByteBuffer> { }
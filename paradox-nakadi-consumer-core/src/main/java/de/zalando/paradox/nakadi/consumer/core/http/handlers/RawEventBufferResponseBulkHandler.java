@@ -0,0 +1,32 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiEventBatch;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+public class RawEventBufferResponseBulkHandler extends AbstractEventsResponseBulkHandler<ByteBuffer> {
+
+    public RawEventBufferResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
+            final RawEventBufferBulkHandler delegate) {
+        super(consumerName, eventTypePartition, coordinator, RawEventBufferResponseBulkHandler.class, jsonMapper,
+            delegate);
+    }
+
+    @Override
+    NakadiEventBatch<ByteBuffer> getEventBatch(final String string) {
+        final byte[] content = string.getBytes(UTF_8);
+        return getEventBatch(content, 0, content.length);
+    }
+
+    @Override
+    NakadiEventBatch<ByteBuffer> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getRawEventBufferBatch(jsonMapper, content, offset, length, eventType);
+    }
+}
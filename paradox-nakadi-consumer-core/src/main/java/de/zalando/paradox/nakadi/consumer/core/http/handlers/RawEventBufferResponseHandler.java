@@ -0,0 +1,48 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiEventBatch;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+public class RawEventBufferResponseHandler extends AbstractEventsResponseHandler<ByteBuffer> {
+
+    public RawEventBufferResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator,
+            final RawEventBufferHandler delegate) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, DEFAULT_DISPATCH_LANES);
+    }
+
+    public RawEventBufferResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventBufferHandler delegate,
+            final int dispatchLanes) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, dispatchLanes, null);
+    }
+
+    public RawEventBufferResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventBufferHandler delegate,
+            final int dispatchLanes, @Nullable final Executor dispatchExecutor) {
+        super(consumerName, eventTypePartition, coordinator, RawEventBufferResponseHandler.class, jsonMapper,
+            delegate, dispatchLanes, dispatchExecutor);
+    }
+
+    @Override
+    NakadiEventBatch<ByteBuffer> getEventBatch(final String string) {
+        final byte[] content = string.getBytes(UTF_8);
+        return getEventBatch(content, 0, content.length);
+    }
+
+    @Override
+    NakadiEventBatch<ByteBuffer> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getRawEventBufferBatch(jsonMapper, content, offset, length, eventType);
+    }
+}
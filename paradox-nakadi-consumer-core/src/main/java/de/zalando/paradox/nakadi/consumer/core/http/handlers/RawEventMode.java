@@ -0,0 +1,17 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+/**
+ * How raw events are handed to {@link RawEventHandler} and {@link RawEventBulkHandler}.
+ */
+public enum RawEventMode {
+
+    /**
+     * Event is written again as compact JSON.
+     */
+    COMPACT,
+
+    /**
+     * Event is cut out of the batch as received, without any re-serialization.
+     */
+    EXACT
+}
@@ -8,13 +8,34 @@ import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
 
 public class RawEventResponseBulkHandler extends AbstractEventsResponseBulkHandler<String> {
 
+    private final RawEventMode mode;
+
     public RawEventResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventBulkHandler delegate) {
-        super(consumerName, eventTypePartition, coordinator, RawEventResponseBulkHandler.class, jsonMapper, delegate);
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, RawEventMode.COMPACT);
+    }
+
+    public RawEventResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventBulkHandler delegate,
+            final RawEventMode mode) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, mode, DEFAULT_MAX_IN_FLIGHT_BATCHES);
+    }
+
+    public RawEventResponseBulkHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventBulkHandler delegate,
+            final RawEventMode mode, final int maxInFlightBatches) {
+        super(consumerName, eventTypePartition, coordinator, RawEventResponseBulkHandler.class, jsonMapper, delegate,
+            maxInFlightBatches);
+        this.mode = mode;
     }
 
     @Override
     NakadiEventBatch<String> getEventBatch(final String string) {
-        return EventUtils.getRawEventBatch(jsonMapper, string, eventType);
+        return EventUtils.getRawEventBatch(jsonMapper, string, eventType, mode);
+    }
+
+    @Override
+    NakadiEventBatch<String> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getRawEventBatch(jsonMapper, content, offset, length, eventType, mode);
     }
 }
@@ -1,5 +1,9 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
@@ -8,13 +12,40 @@ import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
 
 public class RawEventResponseHandler extends AbstractEventsResponseHandler<String> {
 
+    private final RawEventMode mode;
+
     public RawEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
             final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventHandler delegate) {
-        super(consumerName, eventTypePartition, coordinator, RawEventResponseHandler.class, jsonMapper, delegate);
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, RawEventMode.COMPACT);
+    }
+
+    public RawEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventHandler delegate,
+            final RawEventMode mode) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, mode, DEFAULT_DISPATCH_LANES);
+    }
+
+    public RawEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventHandler delegate,
+            final RawEventMode mode, final int dispatchLanes) {
+        this(consumerName, eventTypePartition, jsonMapper, coordinator, delegate, mode, dispatchLanes, null);
+    }
+
+    public RawEventResponseHandler(final String consumerName, final EventTypePartition eventTypePartition,
+            final ObjectMapper jsonMapper, final PartitionCoordinator coordinator, final RawEventHandler delegate,
+            final RawEventMode mode, final int dispatchLanes, @Nullable final Executor dispatchExecutor) {
+        super(consumerName, eventTypePartition, coordinator, RawEventResponseHandler.class, jsonMapper, delegate,
+            dispatchLanes, dispatchExecutor);
+        this.mode = mode;
     }
 
     @Override
     NakadiEventBatch<String> getEventBatch(final String string) {
-        return EventUtils.getRawEventBatch(jsonMapper, string, eventType);
+        return EventUtils.getRawEventBatch(jsonMapper, string, eventType, mode);
+    }
+
+    @Override
+    NakadiEventBatch<String> getEventBatch(final byte[] content, final int offset, final int length) {
+        return EventUtils.getRawEventBatch(jsonMapper, content, offset, length, eventType, mode);
     }
 }
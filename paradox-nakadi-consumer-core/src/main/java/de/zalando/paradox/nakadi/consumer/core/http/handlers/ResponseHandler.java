@@ -1,5 +1,16 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public interface ResponseHandler {
     void onResponse(final String content);
+
+    default void onResponse(final byte[] content, final int offset, final int length) {
+        onResponse(new String(content, offset, length, UTF_8));
+    }
+
+    /**
+     * Invoked when the stream finished, before the final offset of the partition is flushed.
+     */
+    default void onFinished() { }
 }
@@ -0,0 +1,180 @@
+package de.zalando.paradox.nakadi.consumer.core.http.netty;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+
+import java.net.URL;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLParameters;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpGetRequest;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpTransport;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+import io.netty.bootstrap.Bootstrap;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpContentDecompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import rx.Observable;
+
+import rx.subscriptions.Subscriptions;
+
+/**
+ * Non-blocking transport. All streams share the event loop threads of this transport, no thread is parked while a
+ * stream is open. The response body is only read as fast as the subscriber requests chunks. Chunks are emitted on the
+ * event loop, receivers hand them over to their scheduler so handlers do not block the other streams.
+ *
+ * <p>Netty is an optional dependency and must be added to the application to use this transport. The transport should
+ * be shared by all consumers and closed on shutdown.</p>
+ */
+public class NettyHttpTransport implements HttpTransport, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyHttpTransport.class);
+
+    private static final String AUTHORIZATION_HEADER = "Authorization";
+
+    private final EventLoopGroup eventLoopGroup;
+    private final long connectTimeoutMillis;
+    private final SslContext sslContext;
+
+    public NettyHttpTransport(final HttpClientConfig httpClientConfig) {
+        this(httpClientConfig, 0);
+    }
+
+    /**
+     * @param  eventLoopThreads  number of event loop threads, 0 uses the Netty default of twice the number of cores
+     */
+    public NettyHttpTransport(final HttpClientConfig httpClientConfig, final int eventLoopThreads) {
+        requireNonNull(httpClientConfig, "httpClientConfig must not be null");
+        this.connectTimeoutMillis = httpClientConfig.getConnectTimeoutMillis();
+        this.sslContext = createSslContext();
+        this.eventLoopGroup = new NioEventLoopGroup(eventLoopThreads,
+                new DefaultThreadFactory("nakadi-event-loop", true));
+    }
+
+    private static SslContext createSslContext() {
+        try {
+            return SslContextBuilder.forClient().build();
+        } catch (SSLException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    @Override
+    public Observable<HttpResponseChunk> createRequest(final HttpGetRequest request, final long readTimeoutMillis,
+            @Nullable final AuthorizationValueProvider authorizationValueProvider) {
+        return Observable.unsafeCreate(subscriber -> {
+                final URL url = request.getUrl();
+                final boolean secure = "https".equalsIgnoreCase(url.getProtocol());
+                final String host = url.getHost();
+                final int port = url.getPort() != -1 ? url.getPort() : url.getDefaultPort();
+                final HttpRequest httpRequest = getRequest(url, request.getHeaders(), authorizationValueProvider);
+                LOGGER.info("Request [{}]", url);
+
+                final NettyStreamHandler streamHandler = new NettyStreamHandler(subscriber, url, readTimeoutMillis);
+
+                //J-
+                final ChannelFuture connectFuture = new Bootstrap()
+                        .group(eventLoopGroup)
+                        .channel(NioSocketChannel.class)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeoutMillis)
+                        .option(ChannelOption.AUTO_READ, false)
+                        .handler(new ChannelInitializer<Channel>() {
+                            @Override
+                            protected void initChannel(final Channel channel) {
+                                final ChannelPipeline pipeline = channel.pipeline();
+                                if (secure) {
+                                    pipeline.addLast(getSslHandler(channel, host, port));
+                                }
+
+                                pipeline.addLast(new HttpClientCodec());
+                                pipeline.addLast(new HttpContentDecompressor());
+                                pipeline.addLast(streamHandler);
+                            }
+                        })
+                        .connect(host, port);
+                //J+
+
+                subscriber.add(Subscriptions.create(() -> connectFuture.channel().close()));
+                subscriber.setProducer(streamHandler);
+
+                connectFuture.addListener(future -> {
+                    if (future.isSuccess()) {
+                        streamHandler.onConnected(connectFuture.channel(), httpRequest);
+                    } else {
+                        LOGGER.error("Encountered error while connecting [{}]", url, future.cause());
+                        streamHandler.onConnectFailure(future.cause());
+                    }
+                });
+            });
+    }
+
+    private SslHandler getSslHandler(final Channel channel, final String host, final int port) {
+        final SslHandler sslHandler = sslContext.newHandler(channel.alloc(), host, port);
+        final SSLEngine engine = sslHandler.engine();
+        final SSLParameters parameters = engine.getSSLParameters();
+        parameters.setEndpointIdentificationAlgorithm("HTTPS");
+        engine.setSSLParameters(parameters);
+        return sslHandler;
+    }
+
+    private static HttpRequest getRequest(final URL url, final Map<String, String> headers,
+            @Nullable final AuthorizationValueProvider authorizationValueProvider) {
+        final String uri = url.getFile().isEmpty() ? "/" : url.getFile();
+        final HttpRequest httpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+        final String host = url.getPort() == -1 ? url.getHost() : url.getHost() + ":" + url.getPort();
+        httpRequest.headers().set(HttpHeaderNames.HOST, host);
+        httpRequest.headers().set(HttpHeaderNames.ACCEPT_ENCODING, HttpHeaderValues.GZIP);
+        headers.forEach((name, value) -> httpRequest.headers().set(name, value));
+        if (null != authorizationValueProvider && !headers.containsKey(AUTHORIZATION_HEADER)) {
+            httpRequest.headers().set(AUTHORIZATION_HEADER, authorizationValueProvider.get());
+        }
+
+        return httpRequest;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return true;
+    }
+
+    @Override
+    public void close() {
+        eventLoopGroup.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+    }
+}
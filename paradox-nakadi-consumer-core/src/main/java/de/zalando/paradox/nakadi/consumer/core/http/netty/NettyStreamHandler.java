@@ -0,0 +1,264 @@
+package de.zalando.paradox.nakadi.consumer.core.http.netty;
+
+import java.io.IOException;
+
+import java.net.URL;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+
+import io.netty.buffer.ByteBuf;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.timeout.ReadTimeoutException;
+
+import io.netty.util.concurrent.ScheduledFuture;
+
+import rx.Producer;
+import rx.Subscriber;
+
+import rx.exceptions.Exceptions;
+
+/**
+ * Splits the response body of one connection into line chunks. Lines are queued on the event loop and only emitted
+ * while the subscriber has outstanding demand. The next read is issued once the queue has been drained, so a slow
+ * subscriber leaves the data in the socket. The read timeout only runs while a read is issued, a subscriber without
+ * demand does not time out the connection.
+ */
+class NettyStreamHandler extends SimpleChannelInboundHandler<HttpObject> implements Producer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(NettyStreamHandler.class);
+
+    private final Subscriber<? super HttpResponseChunk> subscriber;
+    private final URL url;
+    private final long readTimeoutMillis;
+    private final AtomicLong requested = new AtomicLong();
+
+    // event loop state
+    private final Queue<HttpResponseChunk> queue = new ArrayDeque<>();
+
+    // read by request() on the subscriber thread
+    private volatile Channel channel;
+    private ByteBuf pending;
+    private ScheduledFuture<?> readTimeout;
+    private int statusCode;
+    private boolean emitted;
+    private boolean done;
+    private boolean terminated;
+    private Throwable error;
+
+    NettyStreamHandler(final Subscriber<? super HttpResponseChunk> subscriber, final URL url,
+            final long readTimeoutMillis) {
+        this.subscriber = subscriber;
+        this.url = url;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    void onConnected(final Channel connected, final HttpRequest request) {
+        connected.eventLoop().execute(() -> {
+            this.channel = connected;
+            connected.writeAndFlush(request);
+            read();
+        });
+    }
+
+    void onConnectFailure(final Throwable cause) {
+        error = cause;
+        done = true;
+        terminate();
+    }
+
+    @Override
+    public void request(final long n) {
+        if (n > 0) {
+            long current;
+            do {
+                current = requested.get();
+            } while (current != Long.MAX_VALUE
+                    && !requested.compareAndSet(current, current + n < 0 ? Long.MAX_VALUE : current + n));
+
+            final Channel c = channel;
+            if (null != c) {
+                c.eventLoop().execute(this::drain);
+            }
+        }
+    }
+
+    @Override
+    public void handlerAdded(final ChannelHandlerContext ctx) {
+        pending = ctx.alloc().buffer();
+    }
+
+    @Override
+    public void handlerRemoved(final ChannelHandlerContext ctx) {
+        cancelReadTimeout();
+        if (null != pending) {
+            pending.release();
+            pending = null;
+        }
+    }
+
+    @Override
+    protected void channelRead0(final ChannelHandlerContext ctx, final HttpObject msg) {
+        if (msg instanceof HttpResponse) {
+            statusCode = ((HttpResponse) msg).status().code();
+            LOGGER.debug("Received response with code [{}] and headers [{}]", statusCode,
+                ((HttpResponse) msg).headers());
+        }
+
+        if (msg instanceof HttpContent && !done) {
+            pending.writeBytes(((HttpContent) msg).content());
+            frameLines();
+
+            if (msg instanceof LastHttpContent) {
+                if (pending.isReadable()) {
+                    emit(readBytes(pending.readableBytes()));
+                }
+
+                if (!emitted && statusCode != 200) {
+                    queue.add(new HttpResponseChunk(statusCode, ""));
+                }
+
+                done = true;
+                ctx.close();
+            }
+        }
+    }
+
+    private void frameLines() {
+        int index;
+        while ((index = pending.indexOf(pending.readerIndex(), pending.writerIndex(), (byte) '\n')) >= 0) {
+            emit(readBytes(index - pending.readerIndex()));
+            pending.skipBytes(1);
+        }
+
+        pending.discardSomeReadBytes();
+    }
+
+    private byte[] readBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        pending.readBytes(bytes);
+        return bytes;
+    }
+
+    private void emit(final byte[] bytes) {
+        if (bytes.length == 0) {
+            LOGGER.warn("Received empty content");
+        }
+
+        emitted = true;
+        queue.add(new HttpResponseChunk(statusCode, bytes));
+    }
+
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) {
+        cancelReadTimeout();
+        drain();
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) {
+        cancelReadTimeout();
+        if (!done) {
+            error = new IOException("Connection closed before end of response [" + url + "]");
+            done = true;
+        }
+
+        drain();
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) {
+        if (!done) {
+            LOGGER.error("Encountered error while reading [{}] [{}]", url, cause.toString());
+            error = cause;
+            done = true;
+        }
+
+        ctx.close();
+        drain();
+    }
+
+    private void drain() {
+        emitQueued();
+
+        if (queue.isEmpty()) {
+            if (done) {
+                terminate();
+            } else if (requested.get() > 0 && null != channel) {
+                read();
+            }
+        }
+    }
+
+    private void read() {
+        if (readTimeoutMillis > 0 && null == readTimeout) {
+            readTimeout = channel.eventLoop().schedule(this::onReadTimeout, readTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        channel.read();
+    }
+
+    private void cancelReadTimeout() {
+        if (null != readTimeout) {
+            readTimeout.cancel(false);
+            readTimeout = null;
+        }
+    }
+
+    private void onReadTimeout() {
+        readTimeout = null;
+        if (!done) {
+            LOGGER.error("Read timed out after [{}] ms [{}]", readTimeoutMillis, url);
+            error = ReadTimeoutException.INSTANCE;
+            done = true;
+            channel.close();
+            drain();
+        }
+    }
+
+    private void emitQueued() {
+        while (requested.get() > 0 && !queue.isEmpty() && !subscriber.isUnsubscribed()) {
+            final HttpResponseChunk chunk = queue.poll();
+            try {
+                subscriber.onNext(chunk);
+            } catch (Throwable t) {
+                Exceptions.throwOrReport(t, subscriber, chunk);
+                queue.clear();
+                terminated = true;
+                return;
+            }
+
+            if (requested.get() != Long.MAX_VALUE) {
+                requested.decrementAndGet();
+            }
+        }
+    }
+
+    private void terminate() {
+        if (terminated || subscriber.isUnsubscribed()) {
+            return;
+        }
+
+        terminated = true;
+        if (null != error) {
+            subscriber.onError(error);
+        } else {
+            subscriber.onCompleted();
+        }
+    }
+}
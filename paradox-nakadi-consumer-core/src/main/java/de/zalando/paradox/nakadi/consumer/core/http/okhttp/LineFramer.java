@@ -0,0 +1,74 @@
+package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
+
+import java.io.IOException;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import okio.BufferedSource;
+
+/**
+ * Splits a stream into lines on the {@code '\n'} byte directly over the okio buffer segments, without regex scanning
+ * or decoding. A trailing separator does not produce an empty line.
+ */
+class LineFramer implements Iterator<byte[]> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LineFramer.class);
+
+    private static final byte NEWLINE = '\n';
+
+    private final BufferedSource source;
+    private byte[] next;
+    private boolean finished;
+
+    LineFramer(final BufferedSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (null != next) {
+            return true;
+        }
+
+        if (finished) {
+            return false;
+        }
+
+        try {
+            if (source.exhausted()) {
+                finished = true;
+                return false;
+            }
+
+            final long index = source.indexOf(NEWLINE);
+            if (index == -1) {
+                next = source.readByteArray();
+            } else {
+                next = source.readByteArray(index);
+                source.skip(1);
+            }
+
+            return true;
+        } catch (IOException e) {
+
+            // same as the scanner based reader, read error ends the stream
+            LOGGER.warn("Stream read error [{}]", e.getMessage());
+            finished = true;
+            return false;
+        }
+    }
+
+    @Override
+    public byte[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final byte[] result = next;
+        next = null;
+        return result;
+    }
+}
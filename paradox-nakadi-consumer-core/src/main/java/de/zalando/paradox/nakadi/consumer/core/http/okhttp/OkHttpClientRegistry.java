@@ -0,0 +1,59 @@
+package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+
+/**
+ * Keeps one pooled client per {@link HttpClientConfig}. Clients with a different read timeout are derived from it, so
+ * they share its connection pool and dispatcher.
+ */
+public final class OkHttpClientRegistry {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OkHttpClientRegistry.class);
+
+    private static final ConcurrentMap<HttpClientConfig, SharedClient> CLIENTS = new ConcurrentHashMap<>();
+
+    private OkHttpClientRegistry() { }
+
+    public static OkHttpClient getClient(final HttpClientConfig config) {
+        return getSharedClient(config).client;
+    }
+
+    public static OkHttpClient getClient(final HttpClientConfig config, final long readTimeoutMillis) {
+        final SharedClient sharedClient = getSharedClient(config);
+        return sharedClient.timeoutClients.computeIfAbsent(readTimeoutMillis,
+                timeout -> sharedClient.client.newBuilder().readTimeout(timeout, TimeUnit.MILLISECONDS).build());
+    }
+
+    private static SharedClient getSharedClient(final HttpClientConfig config) {
+        requireNonNull(config, "config must not be null");
+        return CLIENTS.computeIfAbsent(config, SharedClient::new);
+    }
+
+    private static final class SharedClient {
+        private final OkHttpClient client;
+        private final ConcurrentMap<Long, OkHttpClient> timeoutClients = new ConcurrentHashMap<>();
+
+        SharedClient(final HttpClientConfig config) {
+            LOGGER.info("Create http client [{}]", config);
+
+            //J-
+            this.client = new OkHttpClient.Builder()
+                    .connectionPool(new ConnectionPool(config.getMaxIdleConnections(),
+                            config.getKeepAliveDurationMillis(), TimeUnit.MILLISECONDS))
+                    .connectTimeout(config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                    .build();
+            //J+
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
+
+import static java.util.Objects.requireNonNull;
+
+import javax.annotation.Nullable;
+
+import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpGetRequest;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpTransport;
+
+import rx.Observable;
+
+/**
+ * Default transport. Blocks the subscribing thread while the response is streamed.
+ */
+public class OkHttpTransport implements HttpTransport {
+
+    private final HttpClientConfig httpClientConfig;
+
+    public OkHttpTransport(final HttpClientConfig httpClientConfig) {
+        this.httpClientConfig = requireNonNull(httpClientConfig, "httpClientConfig must not be null");
+    }
+
+    @Override
+    public Observable<HttpResponseChunk> createRequest(final HttpGetRequest request, final long readTimeoutMillis,
+            @Nullable final AuthorizationValueProvider authorizationValueProvider) {
+        return new RxHttpRequest(httpClientConfig, readTimeoutMillis, authorizationValueProvider).createRequest(
+                request);
+    }
+}
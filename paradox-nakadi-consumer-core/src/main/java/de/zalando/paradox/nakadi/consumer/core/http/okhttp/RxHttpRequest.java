@@ -1,6 +1,5 @@
 package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
 
-import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getMessage;
 
 import static rx.Observable.using;
@@ -9,13 +8,7 @@ import java.net.URL;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Scanner;
-import java.util.Spliterator;
-import java.util.Spliterators;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 import javax.annotation.Nullable;
 
@@ -25,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Stopwatch;
 
 import de.zalando.paradox.nakadi.consumer.core.AuthorizationValueProvider;
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpGetRequest;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
@@ -54,8 +48,13 @@ public class RxHttpRequest {
 
     public RxHttpRequest(final long readTimeoutMillis,
             @Nullable final AuthorizationValueProvider authorizationValueProvider) {
+        this(HttpClientConfig.DEFAULT, readTimeoutMillis, authorizationValueProvider);
+    }
+
+    public RxHttpRequest(final HttpClientConfig httpClientConfig, final long readTimeoutMillis,
+            @Nullable final AuthorizationValueProvider authorizationValueProvider) {
         this.authorizationValueProvider = authorizationValueProvider;
-        this.client = new OkHttpClient.Builder().readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS).build();
+        this.client = OkHttpClientRegistry.getClient(httpClientConfig, readTimeoutMillis);
     }
 
     private static class HttpCall {
@@ -116,24 +115,16 @@ public class RxHttpRequest {
         //J-
         final Func1<? super HttpCall, ? extends Observable<HttpResponseChunk>> observableFactory = httpCall -> {
             final BufferedSource source = httpCall.response.body().source();
-            final Scanner scanner = new Scanner(source.inputStream(), "UTF-8").useDelimiter(BATCH_SPLITTER);
-            final Spliterator<String> splt = Spliterators.spliterator(scanner, Long.MAX_VALUE,
-                    Spliterator.ORDERED | Spliterator.NONNULL);
-            final Stream<String> stream = StreamSupport.stream(splt, false).onClose(scanner::close);
             final int code = httpCall.response.code();
             final Observable<HttpResponseChunk> alternate = code != 200
                 ? Observable.just(new HttpResponseChunk(code, "")) : Observable.empty();
 
-            return Observable.from(stream::iterator).map(s -> {
-                                 if (isNotEmpty(s)) {
-                                     return new HttpResponseChunk(code, s);
-                                 } else {
+            return Observable.from(() -> new LineFramer(source)).map(bytes -> {
+                                 if (bytes.length == 0) {
                                      LOGGER.warn("Received empty content");
-                                     return new HttpResponseChunk(code, "");
                                  }
+                                 return new HttpResponseChunk(code, bytes);
                              }).switchIfEmpty(alternate);
-
-
         };
         //J+
 
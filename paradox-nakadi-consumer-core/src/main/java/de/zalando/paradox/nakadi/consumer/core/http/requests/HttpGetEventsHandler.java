@@ -1,8 +1,12 @@
 package de.zalando.paradox.nakadi.consumer.core.http.requests;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 
 import de.zalando.paradox.nakadi.consumer.core.ConsumerConfig;
@@ -10,7 +14,6 @@ import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpReactiveHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.ResponseHandler;
-import de.zalando.paradox.nakadi.consumer.core.http.okhttp.RxHttpRequest;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallback;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
 import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
@@ -28,8 +31,17 @@ public class HttpGetEventsHandler implements HttpReactiveHandler, PartitionCommi
     private PartitionCoordinator coordinator;
     private ResponseHandler responseHandler;
     private final AtomicBoolean callbackRegistered = new AtomicBoolean(false);
+    private final Runnable cursorRejected;
 
     public HttpGetEventsHandler(final String baseUri, final EventTypeCursor startCursor, final ConsumerConfig config) {
+        this(baseUri, startCursor, config, null);
+    }
+
+    /**
+     * @param  cursorRejected  invoked when Nakadi rejects the cursor with 412 Precondition Failed
+     */
+    HttpGetEventsHandler(final String baseUri, final EventTypeCursor startCursor, final ConsumerConfig config,
+            @Nullable final Runnable cursorRejected) {
         this.log = LoggingUtils.getLogger(getClass(), startCursor.getEventTypePartition());
         this.startCursor = startCursor;
         this.config = config;
@@ -37,6 +49,7 @@ public class HttpGetEventsHandler implements HttpReactiveHandler, PartitionCommi
         this.coordinator = config.getPartitionCoordinator();
         this.responseHandler = config.getResponseHandlerFactory().get(startCursor.getEventTypePartition(),
                 config.getObjectMapper());
+        this.cursorRejected = cursorRejected;
     }
 
     @Override
@@ -50,10 +63,22 @@ public class HttpGetEventsHandler implements HttpReactiveHandler, PartitionCommi
         responseHandler.onResponse(content);
     }
 
+    @Override
+    public void onResponse(final byte[] content, final int offset, final int length) {
+        if (log.isTraceEnabled()) {
+            log.trace("ResultCallback : [{}]", new String(content, offset, length, UTF_8));
+        }
+
+        responseHandler.onResponse(content, offset, length);
+    }
+
     @Override
     public void onErrorResponse(final int statusCode, final String content) {
         log.trace("Error result [{} / {}]", statusCode, content);
         coordinator.error(statusCode, content, startCursor.getEventTypePartition());
+        if (statusCode == 412 && null != cursorRejected) {
+            cursorRejected.run();
+        }
     }
 
     @Override
@@ -66,6 +91,7 @@ public class HttpGetEventsHandler implements HttpReactiveHandler, PartitionCommi
     public void onFinished() {
         log.trace("Finished");
         try {
+            responseHandler.onFinished();
             coordinator.flush(startCursor.getEventTypePartition());
         } finally {
             coordinator.finished(startCursor.getEventTypePartition());
@@ -99,10 +125,15 @@ public class HttpGetEventsHandler implements HttpReactiveHandler, PartitionCommi
         }
     }
 
+    @Override
+    public boolean isNonBlocking() {
+        return config.getHttpTransport().isNonBlocking();
+    }
+
     @Override
     public Observable<HttpResponseChunk> createRequest() {
-        return new RxHttpRequest(config.getEventsTimeoutMillis(), config.getAuthorizationValueProvider()).createRequest(
-                httpGetEvents);
+        return config.getHttpTransport().createRequest(httpGetEvents, config.getEventsTimeoutMillis(),
+                config.getAuthorizationValueProvider());
     }
 
     @Override
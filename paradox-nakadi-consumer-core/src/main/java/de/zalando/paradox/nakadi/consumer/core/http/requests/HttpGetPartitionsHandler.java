@@ -1,15 +1,20 @@
 package de.zalando.paradox.nakadi.consumer.core.http.requests;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import java.io.Closeable;
 import java.io.IOException;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -18,6 +23,9 @@ import org.slf4j.Logger;
 import com.fasterxml.jackson.core.type.TypeReference;
 
 import com.google.common.base.Preconditions;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 
 import de.zalando.paradox.nakadi.consumer.core.ConsumerConfig;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
@@ -28,16 +36,21 @@ import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpReactiveHandler;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpReactiveReceiver;
 import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
-import de.zalando.paradox.nakadi.consumer.core.http.okhttp.RxHttpRequest;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListener;
 import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
 import rx.Observable;
+import rx.Subscription;
+
+import rx.subjects.PublishSubject;
+import rx.subjects.Subject;
 
 public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionRebalanceListener, Closeable {
 
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
     private final ConcurrentMap<String, HttpReactiveReceiver> partitionToEventReceiver = new ConcurrentHashMap<>();
 
     private final ConsumerConfig config;
@@ -48,6 +61,15 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
     private PartitionCoordinator coordinator;
     private HttpGetPartitions httpGetPartitions;
     private final AtomicBoolean rebalanceRegistered = new AtomicBoolean(false);
+    private final PartitionsPollInterval pollInterval;
+    private final Subject<Long, Long> pollTightened = PublishSubject.<Long>create().toSerialized();
+    private volatile boolean responded;
+    private Subscription healthCheck;
+
+    // state after the last rebalance, polls changing none of it skip the rebalance
+    private HashCode rebalancedResponse;
+    private Set<String> rebalancedNakadiPartitions;
+    private Set<String> rebalancedConsumerPartitions;
 
     public HttpGetPartitionsHandler(final ConsumerConfig config) {
         this.config = config;
@@ -56,12 +78,21 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
         this.baseUri = config.getNakadiUrl();
         this.eventType = config.getEventType();
         this.coordinator = config.getPartitionCoordinator();
+        this.pollInterval = config.getPartitionsRetryMaxMillis() > 0
+            ? new PartitionsPollInterval(config.getPartitionsRetryAfterMillis(), config.getPartitionsRetryMaxMillis())
+            : null;
     }
 
     @Override
     public void init() {
         if (rebalanceRegistered.compareAndSet(false, true)) {
             coordinator.registerRebalanceListener(eventType, this);
+
+            // skipped rebalances do not check the receivers
+            healthCheck = Observable.interval(config.getPartitionsRetryAfterMillis(), TimeUnit.MILLISECONDS,
+                                        config.getSchedulerFactory().getScheduler()).subscribe(
+                                        tick -> onPartitionsHealthCheck(),
+                                        t -> log.error("Partitions health check failed", t));
         }
     }
 
@@ -74,6 +105,7 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
                 log.info("Handler close revokes partitions [{}]", partitions);
                 onPartitionsRevoked(partitions);
             } finally {
+                healthCheck.unsubscribe();
                 coordinator.unregisterRebalanceListener(eventType);
             }
         }
@@ -87,12 +119,40 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
     @Override
     public void onResponse(final String content) {
         log.trace("ResultCallback [{}]", content);
+        responded = true;
+
+        final Set<String> consumerPartitions = new HashSet<>(partitionToEventReceiver.keySet());
+        final HashCode response = HASH_FUNCTION.hashString(content, UTF_8);
+        if (response.equals(rebalancedResponse) && consumerPartitions.equals(rebalancedConsumerPartitions)
+                && !coordinator.isRebalanceOnOffsetChange()) {
+            log.trace("Partitions response unchanged");
+            onPartitions(rebalancedNakadiPartitions);
+            return;
+        }
 
         final Optional<List<NakadiPartition>> nakadiPartitions = getPartitions(content);
         if (nakadiPartitions.isPresent()) {
-            final EventTypePartitions consumerPartitions = EventTypePartitions.of(eventType,
-                    partitionToEventReceiver.keySet());
-            coordinator.rebalance(consumerPartitions, nakadiPartitions.get());
+            final Set<String> partitions = nakadiPartitions.get().stream().map(NakadiPartition::getPartition).collect(
+                    Collectors.toSet());
+            onPartitions(partitions);
+            if (partitions.equals(rebalancedNakadiPartitions)
+                    && consumerPartitions.equals(rebalancedConsumerPartitions)
+                    && !coordinator.isRebalanceOnOffsetChange()) {
+                log.trace("Partitions unchanged");
+                rebalancedResponse = response;
+                return;
+            }
+
+            coordinator.rebalance(EventTypePartitions.of(eventType, consumerPartitions), nakadiPartitions.get());
+            rebalancedResponse = response;
+            rebalancedNakadiPartitions = partitions;
+            rebalancedConsumerPartitions = new HashSet<>(partitionToEventReceiver.keySet());
+        }
+    }
+
+    private void onPartitions(final Set<String> partitions) {
+        if (null != pollInterval) {
+            pollInterval.onPartitions(partitions);
         }
     }
 
@@ -134,30 +194,51 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
                     ThrowableUtils.throwException(e);
                 }
 
-                // double check
+                // double check, a rebalance may have replaced the receiver meanwhile
                 if (receiver.isRunning() && !receiver.isSubscribed()) {
                     log.warn("Force stop receiver for partition [{}]", eventTypePartition);
-                    stopEventReceiver(eventTypePartition);
+                    if (stopEventReceiver(eventTypePartition, receiver)) {
+                        tightenPollInterval();
+                    }
                 }
             }
         });
     }
 
-    private HttpReactiveReceiver stopEventReceiver(final EventTypePartition eventTypePartition) {
+    private void stopEventReceiver(final EventTypePartition eventTypePartition) {
         checkEventTypePartition(eventTypePartition);
 
-        HttpReactiveReceiver receiver = partitionToEventReceiver.remove(eventTypePartition.getPartition());
+        final HttpReactiveReceiver receiver = partitionToEventReceiver.remove(eventTypePartition.getPartition());
         if (null != receiver) {
-            try {
-                log.info("Stopping event receiver for partition [{}]", eventTypePartition);
-                receiver.close();
-                log.info("Receiver for partition [{}] stopped", eventTypePartition);
-            } catch (Exception e) {
-                log.error("Stopping event receiver for partition [{}] failed", eventTypePartition, e);
-            }
+            closeEventReceiver(eventTypePartition, receiver);
+        }
+    }
+
+    /**
+     * Stops the receiver only if it is still the receiver of the partition.
+     *
+     * @return  true if the receiver was stopped
+     */
+    private boolean stopEventReceiver(final EventTypePartition eventTypePartition,
+            final HttpReactiveReceiver receiver) {
+        checkEventTypePartition(eventTypePartition);
+
+        if (partitionToEventReceiver.remove(eventTypePartition.getPartition(), receiver)) {
+            closeEventReceiver(eventTypePartition, receiver);
+            return true;
         }
 
-        return receiver;
+        return false;
+    }
+
+    private void closeEventReceiver(final EventTypePartition eventTypePartition, final HttpReactiveReceiver receiver) {
+        try {
+            log.info("Stopping event receiver for partition [{}]", eventTypePartition);
+            receiver.close();
+            log.info("Receiver for partition [{}] stopped", eventTypePartition);
+        } catch (Exception e) {
+            log.error("Stopping event receiver for partition [{}] failed", eventTypePartition, e);
+        }
     }
 
     private void startEventReceiver(final EventTypeCursor cursor) {
@@ -179,8 +260,7 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
             if (eventReceiver.isRunning() && !eventReceiver.isSubscribed()) {
                 log.warn("Force restart receiver for cursor [{}]", cursor);
 
-                final HttpReactiveReceiver oldReceiver = stopEventReceiver(cursor.getEventTypePartition());
-                if (eventReceiver == oldReceiver) {
+                if (stopEventReceiver(cursor.getEventTypePartition(), eventReceiver)) {
                     newEventReceiver(cursor);
                 }
             }
@@ -193,7 +273,9 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
         final String partition = cursor.getEventTypePartition().getPartition();
         HttpReactiveReceiver receiver = null;
         try {
-            receiver = new HttpReactiveReceiver(new HttpGetEventsHandler(baseUri, cursor, config));
+            receiver = new HttpReactiveReceiver(new HttpGetEventsHandler(baseUri, cursor, config,
+                        this::tightenPollInterval),
+                    config.getSchedulerFactory().getScheduler(), config.getEventsPrefetchBatches());
             if (null == partitionToEventReceiver.putIfAbsent(partition, receiver)) {
                 log.info("Starting receiver for cursor [{}]", cursor);
                 receiver.init();
@@ -213,6 +295,13 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
         }
     }
 
+    // a pending poll is rescheduled with the shortened interval
+    private void tightenPollInterval() {
+        if (null != pollInterval && pollInterval.tighten()) {
+            pollTightened.onNext(pollInterval.getIntervalMillis());
+        }
+    }
+
     private void checkEventTypePartition(final EventTypePartition p) {
         Preconditions.checkArgument(eventType.equals(p.getEventType()), "Event type mismatch [%s]/[%s]", eventType,
             p.getEventType());
@@ -226,29 +315,51 @@ public class HttpGetPartitionsHandler implements HttpReactiveHandler, PartitionR
     @Override
     public void onStarted() {
         log.trace("Started");
+        responded = false;
     }
 
+    /**
+     * A poll without response failed, the next poll follows after the minimum interval.
+     */
     @Override
     public void onFinished() {
         log.trace("Finished");
+        if (!responded) {
+            tightenPollInterval();
+        }
     }
 
     @Override
     public long getRetryAfterMillis() {
 
         // pooling time to getPartitionCommitCallback new partitions
+        final long retryAfterMillis = null != pollInterval ? pollInterval.getIntervalMillis()
+                                                           : config.getPartitionsRetryAfterMillis();
         if (config.getPartitionsRetryRandomMillis() > 0) {
-            return config.getPartitionsRetryAfterMillis()
-                    + ThreadLocalRandom.current().nextLong(config.getPartitionsRetryRandomMillis());
+            return retryAfterMillis + ThreadLocalRandom.current().nextLong(config.getPartitionsRetryRandomMillis());
         } else {
-            return config.getPartitionsRetryAfterMillis();
+            return retryAfterMillis;
         }
 
     }
 
+    @Override
+    public Observable<?> getRetryRescheduled() {
+        return pollTightened;
+    }
+
+    @Override
+    public boolean isNonBlocking() {
+        return config.getHttpTransport().isNonBlocking();
+    }
+
     @Override
     public Observable<HttpResponseChunk> createRequest() {
-        return new RxHttpRequest(config.getPartitionsTimeoutMillis(), config.getAuthorizationValueProvider())
-                .createRequest(httpGetPartitions);
+        if (null != config.getPartitionsPoller()) {
+            return config.getPartitionsPoller().createRequest(config, httpGetPartitions);
+        }
+
+        return config.getHttpTransport().createRequest(httpGetPartitions, config.getPartitionsTimeoutMillis(),
+                config.getAuthorizationValueProvider());
     }
 }
@@ -0,0 +1,50 @@
+package de.zalando.paradox.nakadi.consumer.core.http.requests;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Poll interval doubling on every poll returning the partitions of the previous poll up to the maximum. A changed
+ * partition set or a call of {@link #tighten()} resets it to the minimum, so topology changes are picked up quickly
+ * while a stable event type is polled rarely.
+ */
+final class PartitionsPollInterval {
+
+    private final long minMillis;
+    private final long maxMillis;
+    private final AtomicLong intervalMillis;
+    private Set<String> partitions;
+
+    PartitionsPollInterval(final long minMillis, final long maxMillis) {
+        checkArgument(minMillis > 0, "minMillis must be positive");
+        checkArgument(maxMillis >= minMillis, "maxMillis must not be less than minMillis");
+        this.minMillis = minMillis;
+        this.maxMillis = maxMillis;
+        this.intervalMillis = new AtomicLong(minMillis);
+    }
+
+    long getIntervalMillis() {
+        return intervalMillis.get();
+    }
+
+    synchronized void onPartitions(final Collection<String> polled) {
+        final Set<String> current = new HashSet<>(polled);
+        if (current.equals(partitions)) {
+            intervalMillis.updateAndGet(interval -> Math.min(maxMillis, interval * 2));
+        } else {
+            partitions = current;
+            tighten();
+        }
+    }
+
+    /**
+     * @return  true if the interval was shortened
+     */
+    boolean tighten() {
+        return intervalMillis.getAndSet(minMillis) != minMillis;
+    }
+}
@@ -0,0 +1,97 @@
+package de.zalando.paradox.nakadi.consumer.core.http.requests;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.ConsumerConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpGetRequest;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+
+import rx.Observable;
+
+/**
+ * Shares the partition requests of all consumers of an event type in one JVM. A poll of any consumer is answered from
+ * the last response while it is younger than the partitions retry interval, concurrent polls join the request in
+ * flight, so every event type is requested once per interval however many consumers poll it. The request of the first
+ * consumer polling after the interval is sent with that consumer's configuration.
+ *
+ * <p>With a request budget the interval grows with the number of polled event types, so the partition requests of the
+ * JVM stay within the budget.</p>
+ */
+public class SharedPartitionsPoller {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedPartitionsPoller.class);
+
+    private final int maxRequestsPerMinute;
+
+    private final ConcurrentMap<String, Poll> polls = new ConcurrentHashMap<>();
+
+    public SharedPartitionsPoller() {
+        this(0);
+    }
+
+    /**
+     * @param  maxRequestsPerMinute  partition requests of all event types per minute, 0 for no budget
+     */
+    public SharedPartitionsPoller(final int maxRequestsPerMinute) {
+        checkArgument(maxRequestsPerMinute >= 0, "maxRequestsPerMinute must not be negative");
+        this.maxRequestsPerMinute = maxRequestsPerMinute;
+    }
+
+    public Observable<HttpResponseChunk> createRequest(final ConsumerConfig config, final HttpGetRequest request) {
+        final Poll poll = polls.computeIfAbsent(config.getNakadiUrl() + "|" + config.getEventType().getName(),
+                key -> new Poll());
+        return Observable.defer(() -> poll.get(config, request));
+    }
+
+    long getMaxAgeMillis(final ConsumerConfig config) {
+        if (maxRequestsPerMinute > 0) {
+            return Math.max(config.getPartitionsRetryAfterMillis(),
+                    TimeUnit.MINUTES.toMillis(polls.size()) / maxRequestsPerMinute);
+        }
+
+        return config.getPartitionsRetryAfterMillis();
+    }
+
+    private final class Poll {
+        private List<HttpResponseChunk> response;
+        private long responseNanos;
+        private Observable<List<HttpResponseChunk>> inFlight;
+
+        private synchronized Observable<HttpResponseChunk> get(final ConsumerConfig config,
+                final HttpGetRequest request) {
+            if (null != response
+                    && System.nanoTime() - responseNanos < TimeUnit.MILLISECONDS.toNanos(getMaxAgeMillis(config))) {
+                return Observable.from(response);
+            }
+
+            if (null == inFlight) {
+                LOGGER.debug("Request partitions of [{}]", config.getEventType());
+                inFlight = config.getHttpTransport().createRequest(request, config.getPartitionsTimeoutMillis(),
+                                     config.getAuthorizationValueProvider()).toList().doOnNext(this::completed)
+                                 .doOnError(t -> completed(null)).cache();
+            }
+
+            return inFlight.flatMap(Observable::from);
+        }
+
+        // only successful responses are shared beyond the request in flight
+        private synchronized void completed(@Nullable final List<HttpResponseChunk> chunks) {
+            inFlight = null;
+            if (null != chunks && !chunks.isEmpty()
+                    && chunks.stream().allMatch(chunk -> chunk.getStatusCode() == 200)) {
+                response = chunks;
+                responseNanos = System.nanoTime();
+            }
+        }
+    }
+}
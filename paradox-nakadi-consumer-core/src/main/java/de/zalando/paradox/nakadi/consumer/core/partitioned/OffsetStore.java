@@ -0,0 +1,52 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+
+/**
+ * Persists the offsets of consumers by event type partition.
+ */
+public interface OffsetStore {
+
+    @Nullable
+    String getOffset(final String consumerName, final EventTypePartition eventTypePartition);
+
+    /**
+     * @return  offsets by partition, partitions without an offset are missing
+     */
+    default Map<String, String> getOffsets(final String consumerName, final EventType eventType,
+            final Collection<String> partitions) {
+        final Map<String, String> offsets = new HashMap<>();
+        partitions.forEach(partition -> {
+            final String offset = getOffset(consumerName, EventTypePartition.of(eventType, partition));
+            if (null != offset) {
+                offsets.put(partition, offset);
+            }
+        });
+        return offsets;
+    }
+
+    void setOffset(final String consumerName, final EventTypeCursor cursor);
+
+    default void setOffsets(final String consumerName, final Collection<EventTypeCursor> cursors) {
+        cursors.forEach(cursor -> setOffset(consumerName, cursor));
+    }
+
+    void delOffset(final String consumerName, final EventTypePartition eventTypePartition);
+
+    List<EventType> getEventTypes();
+
+    List<String> getConsumerNames();
+
+    List<String> getEventConsumerNames(final EventType eventType);
+
+    List<EventTypePartition> getEventPartitions(final EventType eventType);
+}
@@ -25,5 +25,14 @@ public interface PartitionCoordinator extends PartitionOffsetManagement {
 
     default void finished(final EventTypePartition eventTypePartition) {}
 
+    /**
+     * @return  {@code true} if {@link #rebalance} depends on the offsets of the Nakadi partitions and has to be called
+     *          when only offsets changed, by default it is called only when the partitions or the consumed partitions
+     *          changed
+     */
+    default boolean isRebalanceOnOffsetChange() {
+        return false;
+    }
+
     default Optional<PartitionAdminService> getAdminService() { return Optional.empty(); }
 }
@@ -123,22 +123,28 @@ public abstract class AbstractPartitionCoordinator implements PartitionCoordinat
             final Collection<NakadiPartition> nakadiPartitions,
             final Function<NakadiPartition, EventTypeCursor> offsetSelector) {
         if (!partitionsToAssign.isEmpty()) {
-            final List<EventTypeCursor> cursors = nakadiPartitions.stream().filter(entry ->
-                                                                          partitionsToAssign.contains(
-                                                                              entry.getPartition())).map(offsetSelector)
-                                                                  .collect(Collectors.toList());
+            final List<NakadiPartition> partitions = nakadiPartitions.stream().filter(entry ->
+                                                                             partitionsToAssign.contains(
+                                                                                 entry.getPartition())).collect(
+                                                                         Collectors.toList());
+            final List<EventTypeCursor> cursors = resolveOffsets(eventType, partitions, offsetSelector);
             final PartitionRebalanceListener listener = rebalanceListeners.get(eventType);
             Preconditions.checkState(null != listener, "PartitionRebalanceListener for [%s] is not registered",
                 eventType);
             listener.onPartitionsAssigned(cursors);
-        } else {
-            final PartitionRebalanceListener listener = rebalanceListeners.get(eventType);
-            if (null != listener) {
-                listener.onPartitionsHealthCheck();
-            }
         }
     }
 
+    /**
+     * Resolves the cursors of all partitions assigned in one rebalance. Applies the offset selector to one partition
+     * after another, coordinators reading offsets from a remote store should override it to read them in bulk.
+     */
+    protected List<EventTypeCursor> resolveOffsets(final EventType eventType,
+            final Collection<NakadiPartition> nakadiPartitions,
+            final Function<NakadiPartition, EventTypeCursor> offsetSelector) {
+        return nakadiPartitions.stream().map(offsetSelector).collect(Collectors.toList());
+    }
+
     @Override
     public PartitionCommitCallback getPartitionCommitCallback(final EventTypePartition partition) {
         return commitCallbacks.get(partition);
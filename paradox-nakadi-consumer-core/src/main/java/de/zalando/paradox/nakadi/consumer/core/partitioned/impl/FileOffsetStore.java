@@ -0,0 +1,167 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Embedded offset store keeping the offsets of every consumer in an {@link OffsetJournal} file in one local
+ * directory. Reads are served from memory, writes are appended to the memory mapped journal.
+ */
+public class FileOffsetStore implements OffsetStore, Closeable {
+
+    private static final String SUFFIX = ".offsets";
+
+    private final Path directory;
+
+    private final boolean forceWrites;
+
+    private final ConcurrentMap<String, OffsetJournal> journals = new ConcurrentHashMap<>();
+
+    /**
+     * @param  forceWrites  force every offset to the storage device, otherwise the offsets survive a crash of the
+     *                      process but not of the operating system
+     */
+    public FileOffsetStore(final Path directory, final boolean forceWrites) {
+        this.directory = requireNonNull(directory, "directory must not be null");
+        this.forceWrites = forceWrites;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public String getOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        return getJournal(consumerName).getOffset(eventTypePartition);
+    }
+
+    @Override
+    public Map<String, String> getOffsets(final String consumerName, final EventType eventType,
+            final Collection<String> partitions) {
+        final OffsetJournal journal = getJournal(consumerName);
+        final Map<String, String> offsets = new HashMap<>();
+        partitions.forEach(partition -> {
+            final String offset = journal.getOffset(EventTypePartition.of(eventType, partition));
+            if (null != offset) {
+                offsets.put(partition, offset);
+            }
+        });
+        return offsets;
+    }
+
+    @Override
+    public void setOffset(final String consumerName, final EventTypeCursor cursor) {
+        getJournal(consumerName).append(cursor);
+    }
+
+    @Override
+    public void delOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        getJournal(consumerName).remove(eventTypePartition);
+    }
+
+    @Override
+    public List<EventType> getEventTypes() {
+        return getAllOffsets().values().stream().flatMap(offsets -> offsets.keySet().stream())
+                              .map(EventTypePartition::getEventType).distinct().sorted(
+                                  (left, right) -> left.getName().compareTo(right.getName())).collect(
+                                  Collectors.toList());
+    }
+
+    @Override
+    public List<String> getConsumerNames() {
+        return getAllOffsets().entrySet().stream().filter(entry -> !entry.getValue().isEmpty()).map(Map.Entry::getKey)
+                              .sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getEventConsumerNames(final EventType eventType) {
+        return getAllOffsets().entrySet().stream().filter(entry ->
+                                                  entry.getValue().keySet().stream().anyMatch(eventTypePartition ->
+                                                          eventTypePartition.getEventType().equals(eventType)))
+                              .map(Map.Entry::getKey).sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public List<EventTypePartition> getEventPartitions(final EventType eventType) {
+        return getAllOffsets().values().stream().flatMap(offsets -> offsets.keySet().stream()).filter(
+                                  eventTypePartition -> eventTypePartition.getEventType().equals(eventType))
+                              .map(EventTypePartition::getPartition).distinct().sorted().map(partition ->
+                                      EventTypePartition.of(eventType, partition)).collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() {
+        journals.values().forEach(OffsetJournal::close);
+        journals.clear();
+    }
+
+    private OffsetJournal getJournal(final String consumerName) {
+        return journals.computeIfAbsent(consumerName, this::openJournal);
+    }
+
+    private OffsetJournal openJournal(final String consumerName) {
+        try {
+            return new OffsetJournal(directory.resolve(URLEncoder.encode(consumerName, "UTF-8") + SUFFIX),
+                    OffsetJournal.DEFAULT_SIZE, forceWrites);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    // reads the journals of all consumers found in the directory, those not opened by this store without locking
+    private Map<String, Map<EventTypePartition, String>> getAllOffsets() {
+        final Map<String, Map<EventTypePartition, String>> offsets = new HashMap<>();
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (final Path file : files) {
+                final String consumerName = decode(file.getFileName().toString());
+                if (null != consumerName) {
+                    final OffsetJournal journal = journals.get(consumerName);
+                    offsets.put(consumerName,
+                        null != journal ? journal.getOffsets() : OffsetJournal.readOffsets(file));
+                }
+            }
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+
+        return offsets;
+    }
+
+    @Nullable
+    private static String decode(final String fileName) {
+        try {
+            return URLDecoder.decode(fileName.substring(0, fileName.length() - SUFFIX.length()), "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Append only memory mapped file of committed cursors. A record is its length, a CRC32 checksum, the cursor and the
+ * time it was journaled, replay stops at the first empty or damaged record. When the file is full it is replaced by a
+ * compacted copy holding the latest cursor of every partition only. The copy has the configured size, doubled as long
+ * as the latest cursors and the appended one do not fit into it.
+ */
+public class OffsetJournal implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OffsetJournal.class);
+
+    public static final int DEFAULT_SIZE = 16 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = 8;
+
+    private final Path file;
+
+    private final int size;
+
+    private final boolean forceWrites;
+
+    private final FileChannel lockChannel;
+
+    private final FileLock lock;
+
+    // guarded by this
+    private final Map<EventTypePartition, String> offsets = new HashMap<>();
+
+    // guarded by this
+    private final Map<EventTypePartition, Long> timestamps = new HashMap<>();
+
+    // guarded by this
+    private MappedByteBuffer buffer;
+
+    // guarded by this
+    private boolean closed;
+
+    /**
+     * @param  forceWrites  force every record to the storage device, otherwise it survives a crash of the process but
+     *                      not of the operating system
+     */
+    public OffsetJournal(final Path file, final int size, final boolean forceWrites) throws IOException {
+        checkArgument(size > HEADER_SIZE, "size must be greater than %s", HEADER_SIZE);
+        this.file = file;
+        this.size = size;
+        this.forceWrites = forceWrites;
+        this.lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"), CREATE, WRITE);
+        this.lock = tryLock(lockChannel);
+        if (null == lock) {
+            lockChannel.close();
+            throw new IllegalStateException("Offset journal [" + file + "] is used by another process");
+        }
+
+        // a file grown by compaction keeps its size
+        this.buffer = map(file, Files.exists(file) ? (int) Math.max(size, Files.size(file)) : size);
+        replay();
+    }
+
+    /**
+     * @return  latest journaled offset by partition
+     */
+    public synchronized Map<EventTypePartition, String> getOffsets() {
+        return new HashMap<>(offsets);
+    }
+
+    /**
+     * Reads the offsets of a journal file without locking it, so it may be open for writing in another process. A
+     * record written meanwhile may be missing.
+     *
+     * @return  latest journaled offset by partition, empty if there is no such file
+     */
+    public static Map<EventTypePartition, String> readOffsets(final Path file) throws IOException {
+        final Map<EventTypePartition, String> offsets = new HashMap<>();
+        final MappedByteBuffer mapped;
+        try(FileChannel channel = FileChannel.open(file, READ)) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return offsets;
+        }
+
+        try {
+            replay(mapped, offsets, new HashMap<>());
+        } finally {
+            unmap(mapped);
+        }
+
+        return offsets;
+    }
+
+    @Nullable
+    public synchronized String getOffset(final EventTypePartition eventTypePartition) {
+        return offsets.get(eventTypePartition);
+    }
+
+    /**
+     * @return  time the latest offset of the partition was journaled in milliseconds, 0 if unknown
+     */
+    public synchronized long getTimestamp(final EventTypePartition eventTypePartition) {
+        return timestamps.getOrDefault(eventTypePartition, 0L);
+    }
+
+    public synchronized void append(final EventTypeCursor cursor) {
+        append(cursor.getEventTypePartition(), cursor.getOffset());
+    }
+
+    /**
+     * Journals that the partition has no offset anymore.
+     */
+    public synchronized void remove(final EventTypePartition eventTypePartition) {
+        if (offsets.containsKey(eventTypePartition)) {
+            append(eventTypePartition, "");
+        }
+    }
+
+    /**
+     * Replaces the journal by a copy holding the latest offset of every partition only.
+     */
+    public synchronized void compact() {
+        compact(0);
+    }
+
+    /**
+     * @param  reserved  bytes to keep free behind the latest offsets
+     */
+    private void compact(final int reserved) {
+        checkState(!closed, "Offset journal [%s] is closed", file);
+
+        final List<byte[]> records = new ArrayList<>(offsets.size());
+        long required = reserved;
+        for (final Map.Entry<EventTypePartition, String> entry : offsets.entrySet()) {
+            final byte[] record = encode(entry.getKey(), entry.getValue(), getTimestamp(entry.getKey()));
+            records.add(record);
+            required += HEADER_SIZE + record.length;
+        }
+
+        long capacity = size;
+        while (capacity < required) {
+            capacity *= 2;
+        }
+
+        checkState(capacity <= Integer.MAX_VALUE, "Offset journal [%s] is too small for the offsets of %s partitions",
+            file, offsets.size());
+
+        final Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.deleteIfExists(compacted);
+
+            final MappedByteBuffer target = map(compacted, (int) capacity);
+            records.forEach(record -> write(target, record));
+            target.force();
+            Files.move(compacted, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            // the replaced file stays on disk as long as it is mapped
+            unmap(buffer);
+            buffer = target;
+            if (capacity > size) {
+                LOGGER.info("Grew offset journal [{}] to [{}] bytes for [{}] partitions", file, capacity,
+                    offsets.size());
+            } else {
+                LOGGER.debug("Compacted offset journal [{}] to [{}] partitions", file, offsets.size());
+            }
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        if (forceWrites) {
+            buffer.force();
+        }
+
+        unmap(buffer);
+
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to release lock of offset journal [{}]", file, e);
+        }
+    }
+
+    private void append(final EventTypePartition eventTypePartition, final String offset) {
+        checkState(!closed, "Offset journal [%s] is closed", file);
+
+        final long timestamp = System.currentTimeMillis();
+        final byte[] record = encode(eventTypePartition, offset, timestamp);
+        checkArgument(HEADER_SIZE + record.length <= size, "Cursor does not fit into offset journal [%s]", file);
+        if (buffer.remaining() < HEADER_SIZE + record.length) {
+
+            // the offsets are changed only after the record is sure to fit
+            compact(HEADER_SIZE + record.length);
+        }
+
+        put(eventTypePartition, offset, timestamp);
+        write(buffer, record);
+        if (forceWrites) {
+            buffer.force();
+        }
+    }
+
+    private void replay() {
+        if (!replay(buffer, offsets, timestamps)) {
+            LOGGER.warn("Offset journal [{}] is damaged at position [{}], ignore the rest", file, buffer.position());
+        }
+
+        LOGGER.info("Replayed offset journal [{}] with [{}] partitions", file, offsets.size());
+    }
+
+    private void put(final EventTypePartition eventTypePartition, final String offset, final long timestamp) {
+        put(offsets, timestamps, eventTypePartition, offset, timestamp);
+    }
+
+    /**
+     * Replays the records up to the first empty or damaged record, the position of the buffer is left there.
+     *
+     * @return  false if the replay stopped at a damaged record
+     */
+    private static boolean replay(final ByteBuffer source, final Map<EventTypePartition, String> offsets,
+            final Map<EventTypePartition, Long> timestamps) {
+        while (source.remaining() >= HEADER_SIZE) {
+            final int start = source.position();
+            final int length = source.getInt();
+            if (length <= 0 || length > source.remaining() - 4) {
+                source.position(start);
+                break;
+            }
+
+            final long checksum = source.getInt() & 0xffffffffL;
+            final byte[] record = new byte[length];
+            source.get(record);
+            if (checksum != checksum(record) || !replay(record, offsets, timestamps)) {
+                source.position(start);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean replay(final byte[] record, final Map<EventTypePartition, String> offsets,
+            final Map<EventTypePartition, Long> timestamps) {
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            final EventTypePartition eventTypePartition = EventTypePartition.of(EventType.of(in.readUTF()),
+                    in.readUTF());
+            final String offset = in.readUTF();
+
+            // records of former versions have no timestamp
+            final long timestamp = in.available() >= 8 ? in.readLong() : 0;
+            put(offsets, timestamps, eventTypePartition, offset, timestamp);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void put(final Map<EventTypePartition, String> offsets,
+            final Map<EventTypePartition, Long> timestamps, final EventTypePartition eventTypePartition,
+            final String offset, final long timestamp) {
+        if (offset.isEmpty()) {
+            offsets.remove(eventTypePartition);
+            timestamps.remove(eventTypePartition);
+        } else {
+            offsets.put(eventTypePartition, offset);
+            timestamps.put(eventTypePartition, timestamp);
+        }
+    }
+
+    @Nullable
+    private static FileLock tryLock(final FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+
+            // held by this process
+            return null;
+        }
+    }
+
+    private static MappedByteBuffer map(final Path path, final int size) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Releases the mapping right away instead of on garbage collection, the buffer must not be used anymore.
+     */
+    private static void unmap(final MappedByteBuffer mapped) {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner;
+            try {
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (NoSuchMethodException e) {
+                invokeCleaner = null;
+            }
+
+            if (null != invokeCleaner) {
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), mapped);
+            } else {
+
+                // Java 8
+                final Method cleanerMethod = mapped.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+
+                final Object cleaner = cleanerMethod.invoke(mapped);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Failed to unmap offset journal buffer, it is released on garbage collection", e);
+        }
+    }
+
+    private static void write(final MappedByteBuffer target, final byte[] record) {
+        target.putInt(record.length);
+        target.putInt((int) checksum(record));
+        target.put(record);
+    }
+
+    private static byte[] encode(final EventTypePartition eventTypePartition, final String offset,
+            final long timestamp) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(eventTypePartition.getName());
+            out.writeUTF(eventTypePartition.getPartition());
+            out.writeUTF(offset);
+            out.writeLong(timestamp);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static long checksum(final byte[] record) {
+        final CRC32 crc = new CRC32();
+        crc.update(record);
+        return crc.getValue();
+    }
+}
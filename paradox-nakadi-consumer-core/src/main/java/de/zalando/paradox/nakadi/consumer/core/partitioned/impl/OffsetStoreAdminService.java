@@ -0,0 +1,75 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
+
+import static java.util.Objects.requireNonNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionAdminService;
+
+/**
+ * Administration of the offsets of any {@link OffsetStore}. There is no consumer group membership, so there is no
+ * consumer info.
+ */
+public class OffsetStoreAdminService implements PartitionAdminService {
+
+    private final OffsetStore offsetStore;
+
+    public OffsetStoreAdminService(final OffsetStore offsetStore) {
+        this.offsetStore = requireNonNull(offsetStore, "offsetStore must not be null");
+    }
+
+    @Override
+    public List<EventType> getEventTypes() {
+        return offsetStore.getEventTypes();
+    }
+
+    @Override
+    public List<String> getConsumerNames() {
+        return offsetStore.getConsumerNames();
+    }
+
+    @Override
+    public List<String> getEventConsumerNames(final EventType eventType) {
+        checkArgument(null != eventType, "eventType must not be null");
+        return offsetStore.getEventConsumerNames(eventType);
+    }
+
+    @Override
+    public List<Map<String, Object>> getConsumerInfo() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<Map<String, Object>> getEventConsumerInfo(final EventType eventType) {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<EventTypePartition> getEventPartitions(final EventType eventType) {
+        checkArgument(null != eventType, "eventType must not be null");
+        return offsetStore.getEventPartitions(eventType);
+    }
+
+    @Override
+    public String getCustomerOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        return offsetStore.getOffset(consumerName, eventTypePartition);
+    }
+
+    @Override
+    public void setCustomerOffset(final String consumerName, final EventTypeCursor cursor) {
+        offsetStore.setOffset(consumerName, cursor);
+    }
+
+    @Override
+    public void delCustomerOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        offsetStore.delOffset(consumerName, eventTypePartition);
+    }
+}
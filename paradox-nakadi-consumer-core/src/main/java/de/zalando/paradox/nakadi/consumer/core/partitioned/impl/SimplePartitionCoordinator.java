@@ -1,12 +1,19 @@
 package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
 
+import static java.util.Objects.requireNonNull;
+
 import static org.apache.commons.lang3.exception.ExceptionUtils.getMessage;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import org.slf4j.LoggerFactory;
 
@@ -16,7 +23,10 @@ import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartitions;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionAdminService;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallback;
+import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
 public class SimplePartitionCoordinator extends AbstractPartitionCoordinator {
@@ -27,6 +37,13 @@ public class SimplePartitionCoordinator extends AbstractPartitionCoordinator {
 
     private final List<EventErrorHandler> eventErrorHandlerList;
 
+    private final String consumerName;
+
+    // null without persistent storage
+    private final OffsetStore offsetStore;
+
+    private final PartitionAdminService adminService;
+
     public SimplePartitionCoordinator() {
         this(Collections.emptyList());
     }
@@ -34,6 +51,21 @@ public class SimplePartitionCoordinator extends AbstractPartitionCoordinator {
     public SimplePartitionCoordinator(final List<EventErrorHandler> eventErrorHandlers) {
         super(LoggerFactory.getLogger(SimplePartitionCoordinator.class));
         this.eventErrorHandlerList = eventErrorHandlers;
+        this.consumerName = null;
+        this.offsetStore = null;
+        this.adminService = null;
+    }
+
+    /**
+     * Coordinator keeping the offsets of the consumer in the offset store, without coordination with other instances.
+     */
+    public SimplePartitionCoordinator(final String consumerName, final OffsetStore offsetStore,
+            final List<EventErrorHandler> eventErrorHandlers) {
+        super(LoggingUtils.getLogger(SimplePartitionCoordinator.class, consumerName));
+        this.eventErrorHandlerList = eventErrorHandlers;
+        this.consumerName = requireNonNull(consumerName, "consumerName must not be null");
+        this.offsetStore = requireNonNull(offsetStore, "offsetStore must not be null");
+        this.adminService = new OffsetStoreAdminService(offsetStore);
     }
 
     @Override
@@ -71,23 +103,58 @@ public class SimplePartitionCoordinator extends AbstractPartitionCoordinator {
     private Function<NakadiPartition, EventTypeCursor> getOffsetSelector(final EventType eventType) {
         return
             nakadiPartition -> {
-            final String offset;
-            if (startNewestAvailableOffset) {
-                offset = nakadiPartition.getNewestAvailableOffset();
-            } else {
-                offset = "BEGIN";
+            final String storedOffset = null != offsetStore
+                ? offsetStore.getOffset(consumerName, EventTypePartition.of(eventType, nakadiPartition.getPartition()))
+                : null;
+            return EventTypeCursor.of(EventTypePartition.of(eventType, nakadiPartition.getPartition()),
+                    nextOffset(nakadiPartition, storedOffset));
+        };
+    }
+
+    @Override
+    protected List<EventTypeCursor> resolveOffsets(final EventType eventType,
+            final Collection<NakadiPartition> nakadiPartitions,
+            final Function<NakadiPartition, EventTypeCursor> offsetSelector) {
+        if (null == offsetStore) {
+            return super.resolveOffsets(eventType, nakadiPartitions, offsetSelector);
+        }
+
+        final Map<String, String> storedOffsets = offsetStore.getOffsets(consumerName, eventType,
+                nakadiPartitions.stream().map(NakadiPartition::getPartition).collect(Collectors.toList()));
+        return nakadiPartitions.stream().map(nakadiPartition ->
+                                            EventTypeCursor.of(EventTypePartition.of(eventType,
+                                                    nakadiPartition.getPartition()),
+                                                nextOffset(nakadiPartition,
+                                                    storedOffsets.get(nakadiPartition.getPartition())))).collect(
+                                       Collectors.toList());
+    }
+
+    private String nextOffset(final NakadiPartition nakadiPartition, @Nullable final String storedOffset) {
+        if (null != storedOffset) {
+            return storedOffset;
+        }
+
+        final String offset;
+        if (startNewestAvailableOffset) {
+            offset = nakadiPartition.getNewestAvailableOffset();
+        } else {
+            offset = "BEGIN";
+            if (null == offsetStore) {
 
                 // messages will be replayed on each restart
                 log.warn("Using oldest available offset [{}] without persistent storage.", offset);
             }
+        }
 
-            return EventTypeCursor.of(EventTypePartition.of(eventType, nakadiPartition.getPartition()), offset);
-        };
+        return offset;
     }
 
     @Override
     public void commit(final EventTypeCursor cursor) {
         log.debug("Commit {} ", cursor);
+        if (null != offsetStore) {
+            offsetStore.setOffset(consumerName, cursor);
+        }
 
         final PartitionCommitCallback callback = getPartitionCommitCallback(cursor.getEventTypePartition());
         if (null != callback) {
@@ -121,6 +188,11 @@ public class SimplePartitionCoordinator extends AbstractPartitionCoordinator {
         log.error("Error [{}] code [{} / {}]", eventTypePartition, statusCode, content);
     }
 
+    @Override
+    public Optional<PartitionAdminService> getAdminService() {
+        return Optional.ofNullable(adminService);
+    }
+
     public void setStartNewestAvailableOffset(final boolean startNewestAvailableOffset) {
         this.startNewestAvailableOffset = startNewestAvailableOffset;
     }
@@ -1,12 +1,18 @@
 package de.zalando.paradox.nakadi.consumer.core.http;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
 
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -17,6 +23,9 @@ import java.net.SocketTimeoutException;
 
 import java.rmi.ConnectException;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,6 +45,8 @@ import rx.Observable;
 
 import rx.schedulers.Schedulers;
 
+import rx.subjects.PublishSubject;
+
 public class HttpReactiveReceiverTest {
     private static final Logger LOGGER = LoggerFactory.getLogger(HttpReactiveReceiverTest.class);
 
@@ -51,6 +62,7 @@ public class HttpReactiveReceiverTest {
         MockitoAnnotations.initMocks(this);
         doReturn(LOGGER).when(mockHandler).getLogger(anyObject());
         when(mockHandler.getRetryAfterMillis()).thenReturn(DEFAULT_RETRY_AFTER);
+        doReturn(Observable.never()).when(mockHandler).getRetryRescheduled();
 
         // use immediate scheduler for testing
         receiver = new HttpReactiveReceiver(mockHandler, Schedulers.immediate());
@@ -77,6 +89,18 @@ public class HttpReactiveReceiverTest {
         assertThat(receiver.isSubscribed()).isFalse();
     }
 
+    @Test
+    public void testEmitEventBytes() throws IOException {
+        final byte[] content = "CONTENT-1-1".getBytes(UTF_8);
+        doReturn(Observable.just(new HttpResponseChunk(200, content))).when(mockHandler).createRequest();
+        receiver.init();
+
+        verify(mockHandler, times(1)).onResponse(content, 0, content.length);
+        verify(mockHandler, never()).onResponse(anyString());
+
+        receiver.close();
+    }
+
     @Test
     public void testEmitError() throws IOException {
         final int statusCode = 500;
@@ -142,6 +166,24 @@ public class HttpReactiveReceiverTest {
         assertThat(receiver.isSubscribed()).isFalse();
     }
 
+    @Test
+    public void testRescheduleRestart() throws IOException, InterruptedException {
+        final PublishSubject<Long> rescheduled = PublishSubject.create();
+        doReturn(rescheduled).when(mockHandler).getRetryRescheduled();
+        when(mockHandler.createRequest()).thenReturn(emitChunks(200, 2, 1));
+        receiver.init();
+
+        verify(mockHandler, times(1)).onStarted();
+
+        // the restart pending for the default retry time follows after the shortened one
+        when(mockHandler.getRetryAfterMillis()).thenReturn(100L);
+        rescheduled.onNext(100L);
+
+        verify(mockHandler, timeout(1000L).atLeast(2)).onStarted();
+
+        receiver.close();
+    }
+
     @Test
     public void testErrorInResponseHandler() throws IOException, InterruptedException {
         final long timeout = 2000L;
@@ -174,6 +216,65 @@ public class HttpReactiveReceiverTest {
         assertThat(receiver.isSubscribed()).isFalse();
     }
 
+    @Test
+    public void testPrefetch() throws Exception {
+        final AtomicInteger emitted = new AtomicInteger();
+        final List<String> handled = new CopyOnWriteArrayList<>();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        when(mockHandler.createRequest()).thenReturn(Observable.range(1, 10).map(event -> {
+                    emitted.incrementAndGet();
+                    return new HttpResponseChunk(200, "CONTENT-" + event);
+                }).concatWith(Observable.never()));
+        doAnswer(invocation -> {
+                release.await(5, TimeUnit.SECONDS);
+                handled.add((String) invocation.getArguments()[0]);
+                return null;
+            }).when(mockHandler).onResponse(anyString());
+
+        receiver = new HttpReactiveReceiver(mockHandler, Schedulers.io(), 2);
+        receiver.init();
+
+        // the reader keeps reading while the first chunk is handled, but not beyond the queue capacity
+        Thread.sleep(200);
+        assertThat(emitted.get()).isEqualTo(2);
+        assertThat(handled).isEmpty();
+
+        release.countDown();
+        Thread.sleep(200);
+        assertThat(handled).hasSize(10);
+        assertThat(handled.get(0)).isEqualTo("CONTENT-1");
+        assertThat(handled.get(9)).isEqualTo("CONTENT-10");
+
+        receiver.close();
+    }
+
+    @Test
+    public void testNonBlockingHandlerChunksAreHandedOver() throws Exception {
+        final List<Thread> emitting = new CopyOnWriteArrayList<>();
+        final List<Thread> handling = new CopyOnWriteArrayList<>();
+        final CountDownLatch handled = new CountDownLatch(3);
+
+        when(mockHandler.isNonBlocking()).thenReturn(true);
+        when(mockHandler.createRequest()).thenReturn(Observable.range(1, 3).map(event -> {
+                    emitting.add(Thread.currentThread());
+                    return new HttpResponseChunk(200, "CONTENT-" + event);
+                }).concatWith(Observable.never()));
+        doAnswer(invocation -> {
+                handling.add(Thread.currentThread());
+                handled.countDown();
+                return null;
+            }).when(mockHandler).onResponse(anyString());
+
+        receiver = new HttpReactiveReceiver(mockHandler, Schedulers.io());
+        receiver.init();
+
+        assertThat(handled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handling).doesNotContainAnyElementsOf(emitting);
+
+        receiver.close();
+    }
+
     private Observable<HttpResponseChunk> emitChunks(final int statusCode, final int restarts, final int events) {
         final AtomicInteger restartCounter = new AtomicInteger(0);
         return Observable.defer(() -> emitRange(statusCode, restarts, events, restartCounter.incrementAndGet()));
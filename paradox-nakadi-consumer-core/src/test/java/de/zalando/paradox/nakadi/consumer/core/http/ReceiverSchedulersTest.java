@@ -0,0 +1,59 @@
+package de.zalando.paradox.nakadi.consumer.core.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import rx.Observable;
+
+import rx.schedulers.Schedulers;
+
+public class ReceiverSchedulersTest {
+
+    @Test
+    public void testIo() {
+        assertThat(ReceiverSchedulers.io().getScheduler()).isSameAs(Schedulers.io());
+    }
+
+    @Test
+    public void testVirtualThreads() {
+        final SchedulerFactory factory = ReceiverSchedulers.virtualThreads();
+        assertThat(factory.getScheduler()).isSameAs(factory.getScheduler());
+        if (!ReceiverSchedulers.isVirtualThreadsSupported()) {
+            assertThat(factory.getScheduler()).isSameAs(Schedulers.io());
+        }
+
+        final String result = Observable.fromCallable(() -> "done").subscribeOn(factory.getScheduler()).toBlocking()
+                                        .single();
+        assertThat(result).isEqualTo("done");
+    }
+
+    @Test
+    public void testSharedPool() {
+        assertThat(ReceiverSchedulers.sharedPool().getScheduler()).isSameAs(
+            ReceiverSchedulers.sharedPool().getScheduler());
+
+        final String thread = Observable.fromCallable(() -> Thread.currentThread().getName())
+                                        .subscribeOn(ReceiverSchedulers.sharedPool().getScheduler()).toBlocking()
+                                        .single();
+        assertThat(thread).startsWith("nakadi-receiver-shared-");
+    }
+
+    @Test
+    public void testBoundedPool() {
+        final SchedulerFactory factory = ReceiverSchedulers.boundedPool(2);
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        Observable.range(0, 20).flatMap(i ->
+                          Observable.fromCallable(() -> threads.add(Thread.currentThread().getName()))
+                                    .delay(1, TimeUnit.MILLISECONDS, factory.getScheduler())
+                                    .subscribeOn(factory.getScheduler())).toBlocking().last();
+
+        assertThat(threads.size()).isBetween(1, 2);
+        assertThat(threads).allMatch(name -> name.startsWith("nakadi-receiver-"));
+    }
+}
@@ -0,0 +1,177 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.EVENT_TYPE_PARTITION;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.OBJECT_MAPPER;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.ONE_EVENT_1;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+public class AsyncEventResponseBulkHandlerTest {
+
+    private static final String CONSUMER_NAME = "consumerName";
+
+    @Mock
+    private PartitionCoordinator coordinator;
+
+    private final List<CompletableFuture<Void>> pending = new CopyOnWriteArrayList<>();
+
+    private final AsyncRawEventBulkHandler delegate = new AsyncRawEventBulkHandler() {
+        @Override
+        public CompletionStage<Void> onEventAsync(final EventTypeCursor cursor, final List<String> events) {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }
+    };
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testCommitContiguousPrefix() {
+        final RawEventResponseBulkHandler handler = handler(3);
+        handler.onResponse(batch(1) + "\n" + batch(2) + "\n" + batch(3));
+        assertThat(pending).hasSize(3);
+
+        pending.get(1).complete(null);
+        pending.get(2).complete(null);
+        verify(coordinator, never()).commit(any(EventTypeCursor.class));
+
+        pending.get(0).complete(null);
+        verify(coordinator, times(1)).commit(any(EventTypeCursor.class));
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "3"));
+    }
+
+    @Test
+    public void testCommitInOrder() {
+        final RawEventResponseBulkHandler handler = handler(3);
+        handler.onResponse(batch(1) + "\n" + batch(2) + "\n" + batch(3));
+
+        pending.get(0).complete(null);
+        pending.get(2).complete(null);
+        pending.get(1).complete(null);
+
+        final InOrder inOrder = inOrder(coordinator);
+        inOrder.verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "1"));
+        inOrder.verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "3"));
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    public void testFailedBatchIsReportedAndCommitted() {
+        final RawEventResponseBulkHandler handler = handler(2);
+        handler.onResponse(batch(1));
+
+        final RuntimeException error = new RuntimeException("failed");
+        pending.get(0).completeExceptionally(error);
+
+        verify(coordinator).error(eq(CONSUMER_NAME), eq(error), eq(EVENT_TYPE_PARTITION), eq("1"), anyString());
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "1"));
+    }
+
+    @Test
+    public void testMaxInFlightBatches() throws Exception {
+        final RawEventResponseBulkHandler handler = handler(1);
+        handler.onResponse(batch(1));
+
+        final Thread reader = new Thread(() -> handler.onResponse(batch(2)));
+        reader.start();
+        reader.join(200);
+        assertThat(reader.isAlive()).isTrue();
+        assertThat(pending).hasSize(1);
+
+        pending.get(0).complete(null);
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(reader.isAlive()).isFalse();
+        assertThat(pending).hasSize(2);
+    }
+
+    @Test
+    public void testBlockingOnEvent() {
+        final CompletableFuture<Void> completed = CompletableFuture.completedFuture(null);
+        final AsyncRawEventBulkHandler completing = (cursor, events) -> completed;
+        final RawEventResponseBulkHandler handler = new RawEventResponseBulkHandler(CONSUMER_NAME,
+                EVENT_TYPE_PARTITION, OBJECT_MAPPER, coordinator, completing);
+
+        handler.onResponse(batch(7));
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "7"));
+    }
+
+    @Test
+    public void testFinishedWaitsForBatchesInFlight() throws Exception {
+        final RawEventResponseBulkHandler handler = handler(2);
+        handler.onResponse(batch(1));
+
+        final Thread completing = new Thread(() -> {
+                    sleep(200);
+                    pending.get(0).complete(null);
+                });
+        completing.start();
+
+        handler.onFinished();
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "1"));
+        completing.join();
+    }
+
+    @Test
+    public void testAbandonedBatchIsNotCommitted() {
+        final List<EventTypeCursor> commits = new CopyOnWriteArrayList<>();
+        final InFlightBatches inFlightBatches = new InFlightBatches(1, commits::add);
+        final InFlightBatches.Batch abandoned = inFlightBatches.start(EventTypeCursor.of(EVENT_TYPE_PARTITION, "1"));
+
+        assertThat(inFlightBatches.drain(50)).isEqualTo(1);
+        assertThat(inFlightBatches.size()).isZero();
+
+        // the permit of the abandoned batch has been released
+        final InFlightBatches.Batch next = inFlightBatches.start(EventTypeCursor.of(EVENT_TYPE_PARTITION, "2"));
+        inFlightBatches.complete(abandoned);
+        assertThat(commits).isEmpty();
+
+        inFlightBatches.complete(next);
+        assertThat(commits).containsExactly(EventTypeCursor.of(EVENT_TYPE_PARTITION, "2"));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RawEventResponseBulkHandler handler(final int maxInFlightBatches) {
+        return new RawEventResponseBulkHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION, OBJECT_MAPPER, coordinator,
+                delegate, RawEventMode.COMPACT, maxInFlightBatches);
+    }
+
+    private static String batch(final int offset) {
+        return "{\"cursor\":{\"partition\":\"0\",\"offset\":\"" + offset + "\"},\"events\":[" + ONE_EVENT_1 + "]}";
+    }
+}
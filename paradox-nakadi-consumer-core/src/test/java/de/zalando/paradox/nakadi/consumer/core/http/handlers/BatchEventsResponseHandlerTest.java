@@ -1,9 +1,12 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
@@ -130,4 +133,29 @@ public class BatchEventsResponseHandlerTest {
         verify(coordinator, times(1)).commit(any());
         verify(coordinator, times(1)).error(anyString(), any(), any(), any(), any());
     }
+
+    @Test
+    public void testThreeEventsBytes() {
+        final byte[] content = THREE_EVENTS.getBytes(UTF_8);
+        handler.onResponse(content, 0, content.length);
+
+        final ArgumentCaptor<OrderReceived> orderReceivedCaptor = ArgumentCaptor.forClass(OrderReceived.class);
+        verify(delegate, times(3)).onEvent(any(), orderReceivedCaptor.capture());
+
+        assertThat(orderReceivedCaptor.getAllValues()).extracting("orderNumber").containsExactly("24873243241",
+            "24873243242", "24873243243");
+        verify(coordinator, times(1)).commit(any(EventTypeCursor.class));
+    }
+
+    @Test
+    public void testOnResponseErrorBytes() {
+        doThrow(new RuntimeException("Test processing error")).when(delegate).onEvent(any(), any());
+
+        final byte[] content = ONE_EVENT.getBytes(UTF_8);
+        handler.onResponse(content, 0, content.length);
+
+        verify(delegate, times(1)).onEvent(any(), any());
+        verify(coordinator, times(1)).commit(any());
+        verify(coordinator, times(1)).error(anyString(), any(), any(), any(), eq(ONE_EVENT));
+    }
 }
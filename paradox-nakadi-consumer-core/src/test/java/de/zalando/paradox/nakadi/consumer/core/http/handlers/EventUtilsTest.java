@@ -0,0 +1,129 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.EVENT_TYPE_PARTITION;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.KEEP_ALIVE_EVENT;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.OBJECT_MAPPER;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.ONE_EVENT;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.ONE_EVENT_1;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS_1;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS_2;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiEventBatch;
+import de.zalando.paradox.nakadi.consumer.core.exceptions.InvalidEventTypeException;
+
+public class EventUtilsTest {
+
+    private static final EventType EVENT_TYPE = EVENT_TYPE_PARTITION.getEventType();
+
+    @Test
+    public void testRawEventBatch() {
+        final NakadiEventBatch<String> batch = EventUtils.getRawEventBatch(OBJECT_MAPPER, TWO_EVENTS, EVENT_TYPE);
+        assertThat(batch.getCursor().getPartition()).isEqualTo("0");
+        assertThat(batch.getCursor().getOffset()).isEqualTo("9");
+        assertThat(batch.getEvents()).containsExactly(TWO_EVENTS_1, TWO_EVENTS_2);
+    }
+
+    @Test
+    public void testRawEventBatchBytes() {
+        final byte[] content = ("[]" + ONE_EVENT).getBytes(UTF_8);
+        final NakadiEventBatch<String> batch = EventUtils.getRawEventBatch(OBJECT_MAPPER, content, 2,
+                content.length - 2, EVENT_TYPE);
+        assertThat(batch.getCursor().getOffset()).isEqualTo("5");
+        assertThat(batch.getEvents()).containsExactly(ONE_EVENT_1);
+    }
+
+    @Test
+    public void testRawEventIsCompact() {
+        final String content = "{ \"events\" : [ { \"metadata\" : { \"event_type\" : \"order.ORDER_RECEIVED\" } ,"
+                + " \"n\" : [ 1 , 2 ] } , null ], \"info\" : { \"a\" : 1 },"
+                + " \"cursor\" : { \"offset\" : \"3\" , \"partition\" : \"0\" } }";
+        final NakadiEventBatch<String> batch = EventUtils.getRawEventBatch(OBJECT_MAPPER, content, EVENT_TYPE);
+        assertThat(batch.getCursor().getOffset()).isEqualTo("3");
+        assertThat(batch.getEvents()).containsExactly(
+            "{\"metadata\":{\"event_type\":\"order.ORDER_RECEIVED\"},\"n\":[1,2]}", "null");
+    }
+
+    @Test
+    public void testKeepAlive() {
+        assertThat(EventUtils.getRawEventBatch(OBJECT_MAPPER, KEEP_ALIVE_EVENT, EVENT_TYPE).getEvents()).isEmpty();
+        assertThat(EventUtils.getJsonEventBatch(OBJECT_MAPPER, KEEP_ALIVE_EVENT, EVENT_TYPE).getEvents()).isEmpty();
+    }
+
+    @Test
+    public void testJsonEventBatch() {
+        final NakadiEventBatch<JsonNode> batch = EventUtils.getJsonEventBatch(OBJECT_MAPPER, TWO_EVENTS, EVENT_TYPE);
+        assertThat(batch.getCursor().getOffset()).isEqualTo("9");
+        assertThat(batch.getEvents()).extracting(node -> node.get("order_number").asText()).containsExactly(
+            "24873243241", "24873243242");
+    }
+
+    @Test(expected = InvalidEventTypeException.class)
+    public void testRawUnexpectedEventType() {
+        EventUtils.getRawEventBatch(OBJECT_MAPPER, ONE_EVENT, EventType.of("other"));
+    }
+
+    @Test(expected = InvalidEventTypeException.class)
+    public void testJsonUnexpectedEventType() {
+        EventUtils.getJsonEventBatch(OBJECT_MAPPER, ONE_EVENT, EventType.of("other"));
+    }
+
+    @Test
+    public void testNestedEventTypeIgnored() {
+        final String content = "{\"cursor\":{\"partition\":\"0\",\"offset\":\"3\"},\"events\":[{\"metadata\":"
+                + "{\"x\":{\"event_type\":\"other\"},\"event_type\":\"order.ORDER_RECEIVED\"},"
+                + "\"data\":{\"metadata\":{\"event_type\":\"other\"}}}]}";
+        assertThat(EventUtils.getRawEventBatch(OBJECT_MAPPER, content, EVENT_TYPE).getEvents()).hasSize(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingCursor() {
+        EventUtils.getRawEventBatch(OBJECT_MAPPER, "{\"events\":[]}", EVENT_TYPE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingOffset() {
+        EventUtils.getJsonEventBatch(OBJECT_MAPPER, "{\"cursor\":{\"partition\":\"0\"}}", EVENT_TYPE);
+    }
+
+    @Test
+    public void testRawEventExact() {
+        final String event = "{ \"metadata\" : { \"event_type\" : \"order.ORDER_RECEIVED\" }, \"n\" : 1.0E2 }";
+        final String content = "{\"cursor\":{\"partition\":\"0\",\"offset\":\"3\"},\"events\":[ " + event + " ,"
+                + event + "]}";
+        assertThat(EventUtils.getRawEventBatch(OBJECT_MAPPER, content, EVENT_TYPE, RawEventMode.EXACT).getEvents())
+            .containsExactly(event, event);
+
+        final byte[] bytes = ("\u00e4" + content).getBytes(UTF_8);
+        assertThat(EventUtils.getRawEventBatch(OBJECT_MAPPER, bytes, 2, bytes.length - 2, EVENT_TYPE,
+                RawEventMode.EXACT).getEvents()).containsExactly(event, event);
+    }
+
+    @Test
+    public void testRawEventBuffer() {
+        final byte[] content = TWO_EVENTS.getBytes(UTF_8);
+        final NakadiEventBatch<ByteBuffer> batch = EventUtils.getRawEventBufferBatch(OBJECT_MAPPER, content, 0,
+                content.length, EVENT_TYPE);
+        assertThat(batch.getCursor().getOffset()).isEqualTo("9");
+        assertThat(batch.getEvents()).extracting(buffer -> UTF_8.decode(buffer).toString()).containsExactly(
+            TWO_EVENTS_1, TWO_EVENTS_2);
+        assertThat(batch.getEvents()).extracting(ByteBuffer::isReadOnly).containsOnly(true);
+    }
+
+    @Test(expected = InvalidEventTypeException.class)
+    public void testRawEventBufferUnexpectedEventType() {
+        final byte[] content = ONE_EVENT.getBytes(UTF_8);
+        EventUtils.getRawEventBufferBatch(OBJECT_MAPPER, content, 0, content.length, EventType.of("other"));
+    }
+}
@@ -1,5 +1,7 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.Matchers.any;
@@ -100,4 +102,12 @@ public class JsonEventResponseBulkHandlerTest {
         verify(delegate, times(0)).onEvent(any(), any());
         verify(coordinator, times(0)).commit(any(EventTypeCursor.class));
     }
+
+    @Test
+    public void testKeepAliveBytes() {
+        final byte[] content = KEEP_ALIVE_EVENT.getBytes(UTF_8);
+        handler.onResponse(content, 0, content.length);
+        verify(delegate, times(0)).onEvent(any(), any());
+        verify(coordinator, times(0)).commit(any(EventTypeCursor.class));
+    }
 }
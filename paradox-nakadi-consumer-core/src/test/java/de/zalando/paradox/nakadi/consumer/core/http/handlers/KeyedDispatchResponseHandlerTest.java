@@ -0,0 +1,232 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.EVENT_TYPE_PARTITION;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.OBJECT_MAPPER;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import de.zalando.paradox.nakadi.consumer.core.KeyedEventHandler;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+public class KeyedDispatchResponseHandlerTest {
+
+    private static final String CONSUMER_NAME = "consumerName";
+
+    private static final int LANES = 4;
+
+    @Mock
+    private PartitionCoordinator coordinator;
+
+    private final Map<String, List<Integer>> eventsByKey = new ConcurrentHashMap<>();
+
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void testKeyOrder() {
+        final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION,
+                OBJECT_MAPPER, coordinator, new RecordingHandler(), LANES);
+
+        handler.onResponse(batch(1, 40, 8));
+
+        assertThat(eventsByKey).hasSize(8);
+        eventsByKey.values().forEach(sequence -> assertThat(sequence).isSorted().hasSize(5));
+        assertThat(threads.size()).isGreaterThan(1);
+        verify(coordinator, times(1)).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "1"));
+    }
+
+    @Test
+    public void testCommitAfterAllLanes() throws Exception {
+        final String blockedKey = getKeyOutsideCallerLane();
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RecordingHandler delegate = new RecordingHandler() {
+            @Override
+            public void onEvent(final EventTypeCursor cursor, final JsonNode event) {
+                if (blockedKey.equals(getEventKey(event))) {
+                    blocked.countDown();
+                    await(release);
+                }
+
+                super.onEvent(cursor, event);
+            }
+        };
+        final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION,
+                OBJECT_MAPPER, coordinator, delegate, LANES);
+
+        final Thread reader = new Thread(() -> handler.onResponse(batch(2, 16, 8)));
+        reader.start();
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        reader.join(200);
+        assertThat(reader.isAlive()).isTrue();
+        verify(coordinator, never()).commit(any(EventTypeCursor.class));
+
+        release.countDown();
+        reader.join(TimeUnit.SECONDS.toMillis(5));
+        assertThat(reader.isAlive()).isFalse();
+        assertThat(eventsByKey.values().stream().mapToInt(List::size).sum()).isEqualTo(16);
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "2"));
+    }
+
+    @Test
+    public void testHandlerErrorInLane() {
+        final RuntimeException error = new RuntimeException("failed");
+        final RecordingHandler delegate = new RecordingHandler() {
+            @Override
+            public void onEvent(final EventTypeCursor cursor, final JsonNode event) {
+                if (event.get("seq").asInt() == 3) {
+                    throw error;
+                }
+
+                super.onEvent(cursor, event);
+            }
+        };
+        final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION,
+                OBJECT_MAPPER, coordinator, delegate, LANES);
+
+        handler.onResponse(batch(3, 8, 4));
+
+        verify(coordinator).error(eq(CONSUMER_NAME), eq(error), eq(EVENT_TYPE_PARTITION), eq("3"), anyString());
+        assertThat(eventsByKey.values().stream().mapToInt(List::size).sum()).isEqualTo(7);
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "3"));
+    }
+
+    @Test
+    public void testKeyErrorIsReported() {
+        final RuntimeException error = new RuntimeException("no key");
+        final RecordingHandler delegate = new RecordingHandler() {
+            @Override
+            public Object getEventKey(final JsonNode event) {
+                if (event.get("seq").asInt() == 5) {
+                    throw error;
+                }
+
+                return super.getEventKey(event);
+            }
+        };
+        final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION,
+                OBJECT_MAPPER, coordinator, delegate, LANES);
+
+        handler.onResponse(batch(5, 8, 4));
+
+        verify(coordinator).error(eq(CONSUMER_NAME), eq(error), eq(EVENT_TYPE_PARTITION), eq("5"), anyString());
+        assertThat(eventsByKey.values().stream().mapToInt(List::size).sum()).isEqualTo(7);
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "5"));
+    }
+
+    @Test
+    public void testConfiguredExecutor() {
+        final ExecutorService executor = Executors.newSingleThreadExecutor(runnable ->
+                    new Thread(runnable, "custom-dispatch"));
+        try {
+            final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME,
+                    EVENT_TYPE_PARTITION, OBJECT_MAPPER, coordinator, new RecordingHandler(), LANES, executor);
+
+            handler.onResponse(batch(6, 40, 8));
+
+            assertThat(threads).containsOnly(Thread.currentThread().getName(), "custom-dispatch");
+            verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "6"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNotKeyedHandlerIsSerial() {
+        final List<Integer> sequence = Collections.synchronizedList(new ArrayList<>());
+        final JsonEventHandler delegate = (cursor, event) -> {
+            threads.add(Thread.currentThread().getName());
+            sequence.add(event.get("seq").asInt());
+        };
+        final JsonEventResponseHandler handler = new JsonEventResponseHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION,
+                OBJECT_MAPPER, coordinator, delegate, LANES);
+
+        handler.onResponse(batch(4, 10, 5));
+
+        assertThat(sequence).isSorted().hasSize(10);
+        assertThat(threads).containsOnly(Thread.currentThread().getName());
+        verify(coordinator).commit(EventTypeCursor.of(EVENT_TYPE_PARTITION, "4"));
+    }
+
+    private class RecordingHandler implements JsonEventHandler, KeyedEventHandler<JsonNode> {
+
+        @Override
+        public Object getEventKey(final JsonNode event) {
+            return event.get("order_number").asText();
+        }
+
+        @Override
+        public void onEvent(final EventTypeCursor cursor, final JsonNode event) {
+            threads.add(Thread.currentThread().getName());
+            eventsByKey.computeIfAbsent((String) getEventKey(event), key ->
+                           Collections.synchronizedList(new ArrayList<>())).add(event.get("seq").asInt());
+        }
+    }
+
+    // events of the first lane are handled by the reading thread itself
+    private String getKeyOutsideCallerLane() {
+        final KeyedDispatcher<JsonNode> dispatcher = new KeyedDispatcher<>(new RecordingHandler(), LANES);
+        for (int i = 0; i < 8; i++) {
+            final JsonNode event = OBJECT_MAPPER.createObjectNode().put("order_number", "key-" + i);
+            if (dispatcher.partition(Collections.singletonList(event), (e, t) -> { }).get(0).isEmpty()) {
+                return "key-" + i;
+            }
+        }
+
+        throw new IllegalStateException("All keys are dispatched to the first lane");
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String batch(final int offset, final int events, final int keys) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"cursor\":{\"partition\":\"0\",\"offset\":\"").append(offset).append("\"},\"events\":[");
+        for (int i = 0; i < events; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+
+            sb.append("{\"order_number\":\"key-").append(i % keys).append("\",\"seq\":").append(i).append('}');
+        }
+
+        return sb.append("]}").toString();
+    }
+}
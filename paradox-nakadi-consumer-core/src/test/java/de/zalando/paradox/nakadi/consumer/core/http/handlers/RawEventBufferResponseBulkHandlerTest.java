@@ -0,0 +1,86 @@
+package de.zalando.paradox.nakadi.consumer.core.http.handlers;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Matchers.any;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.EVENT_TYPE_PARTITION;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.KEEP_ALIVE_EVENT;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.OBJECT_MAPPER;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS_1;
+import static de.zalando.paradox.nakadi.consumer.core.http.handlers.TestEvents.TWO_EVENTS_2;
+
+import java.nio.ByteBuffer;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+public class RawEventBufferResponseBulkHandlerTest {
+
+    private static final String CONSUMER_NAME = "consumerName";
+
+    @Mock
+    private PartitionCoordinator coordinator;
+
+    @Mock
+    private RawEventBufferBulkHandler delegate;
+
+    @Captor
+    private ArgumentCaptor<EventTypeCursor> eventCursorCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<ByteBuffer>> rawEventsCaptor;
+
+    private RawEventBufferResponseBulkHandler handler;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        this.handler = new RawEventBufferResponseBulkHandler(CONSUMER_NAME, EVENT_TYPE_PARTITION, OBJECT_MAPPER,
+                coordinator, delegate);
+    }
+
+    @Test
+    public void testTwoEvents() {
+        final byte[] content = TWO_EVENTS.getBytes(UTF_8);
+        handler.onResponse(content, 0, content.length);
+
+        verify(delegate, times(1)).onEvent(eventCursorCaptor.capture(), rawEventsCaptor.capture());
+        assertThat(eventCursorCaptor.getValue()).extracting("eventTypePartition", "offset").containsExactly(
+            EVENT_TYPE_PARTITION, "9");
+        assertThat(rawEventsCaptor.getValue()).extracting(buffer -> UTF_8.decode(buffer).toString())
+                                              .containsExactly(TWO_EVENTS_1, TWO_EVENTS_2);
+        verify(coordinator, times(1)).commit(any(EventTypeCursor.class));
+    }
+
+    @Test
+    public void testTwoEventsString() {
+        handler.onResponse(TWO_EVENTS);
+
+        verify(delegate, times(1)).onEvent(eventCursorCaptor.capture(), rawEventsCaptor.capture());
+        assertThat(rawEventsCaptor.getValue()).hasSize(2);
+    }
+
+    @Test
+    public void testKeepAlive() {
+        handler.onResponse(KEEP_ALIVE_EVENT);
+        verify(delegate, times(0)).onEvent(any(), any());
+        verify(coordinator, times(0)).commit(any(EventTypeCursor.class));
+    }
+}
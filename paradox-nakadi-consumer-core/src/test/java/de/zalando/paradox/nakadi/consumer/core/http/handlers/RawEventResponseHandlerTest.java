@@ -1,5 +1,7 @@
 package de.zalando.paradox.nakadi.consumer.core.http.handlers;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.mockito.Matchers.any;
@@ -90,4 +92,22 @@ public class RawEventResponseHandlerTest {
         verify(delegate, times(0)).onEvent(any(), any());
         verify(coordinator, times(0)).commit(Mockito.any(EventTypeCursor.class));
     }
+
+    @Test
+    public void testTwoEventsBytes() {
+        final byte[] content = ("#" + TWO_EVENTS + "#").getBytes(UTF_8);
+        handler.onResponse(content, 1, content.length - 2);
+
+        final ArgumentCaptor<EventTypeCursor> eventCursorCaptor = ArgumentCaptor.forClass(EventTypeCursor.class);
+        final ArgumentCaptor<String> rawEventCaptor = ArgumentCaptor.forClass(String.class);
+        verify(delegate, times(2)).onEvent(eventCursorCaptor.capture(), rawEventCaptor.capture());
+
+        assertThat(rawEventCaptor.getAllValues()).containsExactly(TWO_EVENTS_1, TWO_EVENTS_2);
+
+        final ArgumentCaptor<EventTypeCursor> coordinatorCursorCaptor = ArgumentCaptor.forClass(EventTypeCursor.class);
+        verify(coordinator, times(1)).commit(coordinatorCursorCaptor.capture());
+
+        assertThat(coordinatorCursorCaptor.getAllValues()).extracting("eventTypePartition", "offset").containsExactly(
+            Tuple.tuple(EVENT_TYPE_PARTITION, "9"));
+    }
 }
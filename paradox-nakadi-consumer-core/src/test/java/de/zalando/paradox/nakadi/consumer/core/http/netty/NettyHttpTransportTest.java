@@ -0,0 +1,185 @@
+package de.zalando.paradox.nakadi.consumer.core.http.netty;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import java.net.URL;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.assertj.core.groups.Tuple;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpGetRequest;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import okio.Buffer;
+
+import rx.observers.TestSubscriber;
+
+public class NettyHttpTransportTest {
+
+    private static final String EVENTS_RESOURCE = "/event-types/order.ORDER_RECEIVED/events";
+
+    private MockWebServer server;
+
+    private NettyHttpTransport transport;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        transport = new NettyHttpTransport(HttpClientConfig.DEFAULT, 1);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        transport.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testStreamEvents() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setChunkedBody("a\nbb\n\nccc", 2));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = request(Collections.emptyMap(), 1000);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        subscriber.assertCompleted();
+        assertThat(subscriber.getOnNextEvents()).extracting("statusCode", "content").containsExactly(
+            Tuple.tuple(200, "a"), Tuple.tuple(200, "bb"), Tuple.tuple(200, ""), Tuple.tuple(200, "ccc"));
+    }
+
+    @Test
+    public void testErrorStatus() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(403));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = request(Collections.emptyMap(), 1000);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        assertThat(subscriber.getOnNextEvents()).extracting("statusCode", "content").containsOnly(
+            Tuple.tuple(403, ""));
+    }
+
+    @Test
+    public void testHeadersAndAuthorization() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("TEST"));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = new TestSubscriber<>();
+        transport.createRequest(getRequest(Collections.singletonMap("X-Nakadi-Cursors", "[]")), 1000,
+            () -> "Bearer token").subscribe(subscriber);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+
+        final RecordedRequest recorded = server.takeRequest();
+        assertThat(recorded.getPath()).isEqualTo(EVENTS_RESOURCE + "?batch_limit=1");
+        assertThat(recorded.getHeader("X-Nakadi-Cursors")).isEqualTo("[]");
+        assertThat(recorded.getHeader("Authorization")).isEqualTo("Bearer token");
+    }
+
+    @Test
+    public void testGzippedResponse() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write("first\nsecond\n".getBytes());
+        }
+
+        server.enqueue(new MockResponse().setResponseCode(200).addHeader("Content-Encoding", "gzip").setBody(
+                new Buffer().write(bytes.toByteArray())));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = request(Collections.emptyMap(), 1000);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        assertThat(subscriber.getOnNextEvents()).extracting("content").containsExactly("first", "second");
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("1\n2\n3\n4\n"));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = new TestSubscriber<>(1);
+        transport.createRequest(getRequest(Collections.emptyMap()), 1000, null).subscribe(subscriber);
+
+        subscriber.awaitValueCount(1, 5, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        subscriber.assertValueCount(1);
+        subscriber.assertNotCompleted();
+
+        subscriber.requestMore(3);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertCompleted();
+        assertThat(subscriber.getOnNextEvents()).extracting("content").containsExactly("1", "2", "3", "4");
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = request(Collections.emptyMap(), 200);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertError(ReadTimeoutException.class);
+    }
+
+    @Test
+    public void testNoReadTimeoutWithoutDemand() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("1\n2\n3\n").throttleBody(2, 50,
+                TimeUnit.MILLISECONDS));
+
+        final TestSubscriber<HttpResponseChunk> subscriber = new TestSubscriber<>(1);
+        transport.createRequest(getRequest(Collections.emptyMap()), 300, null).subscribe(subscriber);
+
+        subscriber.awaitValueCount(1, 5, TimeUnit.SECONDS);
+        Thread.sleep(1000);
+        subscriber.assertNoErrors();
+
+        subscriber.requestMore(2);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        assertThat(subscriber.getOnNextEvents()).extracting("content").containsExactly("1", "2", "3");
+    }
+
+    @Test
+    public void testConnectionRefused() throws Exception {
+        server.shutdown();
+
+        final TestSubscriber<HttpResponseChunk> subscriber = request(Collections.emptyMap(), 1000);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        assertThat(subscriber.getOnErrorEvents()).hasSize(1);
+    }
+
+    private TestSubscriber<HttpResponseChunk> request(final Map<String, String> headers, final long timeoutMillis) {
+        final TestSubscriber<HttpResponseChunk> subscriber = new TestSubscriber<>();
+        transport.createRequest(getRequest(headers), timeoutMillis, null).subscribe(subscriber);
+        return subscriber;
+    }
+
+    private HttpGetRequest getRequest(final Map<String, String> headers) {
+        return new HttpGetRequest() {
+            @Override
+            public URL getUrl() {
+                return server.url(EVENTS_RESOURCE + "?batch_limit=1").url();
+            }
+
+            @Override
+            public Map<String, String> getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
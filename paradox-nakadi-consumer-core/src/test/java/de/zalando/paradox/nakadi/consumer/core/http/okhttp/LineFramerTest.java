@@ -0,0 +1,70 @@
+package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.junit.Test;
+
+import okio.Buffer;
+
+public class LineFramerTest {
+
+    @Test
+    public void testEmptySource() {
+        assertThat(lines("")).isEmpty();
+    }
+
+    @Test
+    public void testSplitLines() {
+        assertThat(lines("a\nbb\nccc\n")).containsExactly("a", "bb", "ccc");
+    }
+
+    @Test
+    public void testLastLineWithoutSeparator() {
+        assertThat(lines("a\nbb")).containsExactly("a", "bb");
+    }
+
+    @Test
+    public void testEmptyLines() {
+        assertThat(lines("\na\n\nb\n")).containsExactly("", "a", "", "b");
+    }
+
+    @Test
+    public void testLinesAcrossSegments() {
+        final String first = StringUtils.repeat("ä€", 10000);
+        final String second = StringUtils.repeat("x", 20000);
+        assertThat(lines(first + "\n" + second + "\n")).containsExactly(first, second);
+    }
+
+    @Test
+    public void testSameLinesAsScanner() {
+        final List<String> events = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            events.add("{\"cursor\":{\"partition\":\"0\",\"offset\":\"" + i + "\"},\"events\":[\""
+                    + RandomStringUtils.randomAlphanumeric(i * 37) + "ä€\"]}");
+        }
+
+        final String content = String.join(RxHttpRequest.BATCH_SPLITTER, events) + RxHttpRequest.BATCH_SPLITTER;
+        final List<String> scanned = new ArrayList<>();
+        final Scanner scanner = new Scanner(new Buffer().writeUtf8(content).inputStream(), "UTF-8").useDelimiter(
+                RxHttpRequest.BATCH_SPLITTER);
+        scanner.forEachRemaining(scanned::add);
+
+        assertThat(lines(content)).isEqualTo(scanned).isEqualTo(events);
+    }
+
+    private static List<String> lines(final String content) {
+        final LineFramer framer = new LineFramer(new Buffer().writeUtf8(content));
+        final List<String> result = new ArrayList<>();
+        framer.forEachRemaining(bytes -> result.add(new String(bytes, UTF_8)));
+        return result;
+    }
+}
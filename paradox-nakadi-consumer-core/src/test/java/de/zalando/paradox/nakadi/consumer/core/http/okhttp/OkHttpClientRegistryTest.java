@@ -0,0 +1,35 @@
+package de.zalando.paradox.nakadi.consumer.core.http.okhttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.HttpClientConfig;
+
+import okhttp3.OkHttpClient;
+
+public class OkHttpClientRegistryTest {
+
+    @Test
+    public void testSameConfigSharesPool() {
+        final OkHttpClient events = OkHttpClientRegistry.getClient(HttpClientConfig.DEFAULT, 120000);
+        final OkHttpClient partitions = OkHttpClientRegistry.getClient(HttpClientConfig.Builder.of().build(), 10000);
+
+        assertThat(events.readTimeoutMillis()).isEqualTo(120000);
+        assertThat(partitions.readTimeoutMillis()).isEqualTo(10000);
+        assertThat(events.connectionPool()).isSameAs(partitions.connectionPool());
+        assertThat(events.dispatcher()).isSameAs(partitions.dispatcher());
+        assertThat(OkHttpClientRegistry.getClient(HttpClientConfig.DEFAULT, 120000)).isSameAs(events);
+    }
+
+    @Test
+    public void testDifferentConfigUsesOwnPool() {
+        final HttpClientConfig config = HttpClientConfig.Builder.of().withMaxIdleConnections(20)
+                                                        .withConnectTimeoutMillis(1000).build();
+        final OkHttpClient client = OkHttpClientRegistry.getClient(config, 5000);
+
+        assertThat(client.connectionPool()).isNotSameAs(OkHttpClientRegistry.getClient(HttpClientConfig.DEFAULT)
+                    .connectionPool());
+        assertThat(client.connectTimeoutMillis()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,98 @@
+package de.zalando.paradox.nakadi.consumer.core.http.requests;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.ConsumerConfig;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartitions;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.ResponseHandlerFactory;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+import rx.schedulers.TestScheduler;
+
+public class HttpGetPartitionsHandlerTest {
+
+    private PartitionCoordinator coordinator;
+
+    private HttpGetPartitionsHandler handler;
+
+    @Before
+    public void setUp() {
+        coordinator = mock(PartitionCoordinator.class);
+        handler = new HttpGetPartitionsHandler(ConsumerConfig.Builder.of("http://localhost:8080", "event",
+                    coordinator, "consumer").withResponseHandlerFactory(mock(ResponseHandlerFactory.class)).build());
+    }
+
+    @Test
+    public void testRebalanceOnlyWhenPartitionsChange() {
+        handler.onResponse(partitions("0", "1"));
+        handler.onResponse(partitions("0", "1"));
+        handler.onResponse(partitions("5", "1"));
+        verify(coordinator, times(1)).rebalance(any(EventTypePartitions.class),
+            anyCollectionOf(NakadiPartition.class));
+
+        handler.onResponse(partitions("5", "1", "2"));
+        verify(coordinator, times(2)).rebalance(any(EventTypePartitions.class),
+            anyCollectionOf(NakadiPartition.class));
+    }
+
+    @Test
+    public void testRebalanceOnOffsetChange() {
+        when(coordinator.isRebalanceOnOffsetChange()).thenReturn(true);
+
+        // identical responses are rebalanced as well
+        handler.onResponse(partitions("0", "1"));
+        handler.onResponse(partitions("0", "1"));
+        handler.onResponse(partitions("5", "1"));
+        verify(coordinator, times(3)).rebalance(any(EventTypePartitions.class),
+            anyCollectionOf(NakadiPartition.class));
+    }
+
+    @Test
+    public void testHealthCheckRunsOnReceiverScheduler() {
+        final TestScheduler scheduler = new TestScheduler();
+        final HttpGetPartitionsHandler checked = spy(new HttpGetPartitionsHandler(ConsumerConfig.Builder.of(
+                        "http://localhost:8080", "event", coordinator, "consumer").withResponseHandlerFactory(mock(
+                            ResponseHandlerFactory.class)).withPartitionsRetryAfterMillis(1000)
+                    .withSchedulerFactory(() -> scheduler).build()));
+        checked.init();
+        try {
+            verify(checked, never()).onPartitionsHealthCheck();
+
+            scheduler.advanceTimeBy(1000, TimeUnit.MILLISECONDS);
+            verify(checked).onPartitionsHealthCheck();
+        } finally {
+            checked.close();
+        }
+    }
+
+    /**
+     * @param  newest  newest offset of partition 0 followed by the further partitions
+     */
+    private static String partitions(final String newest, final String... partitions) {
+        final StringBuilder content = new StringBuilder("[").append(partition("0", newest));
+        for (final String partition : partitions) {
+            content.append(',').append(partition(partition, "1"));
+        }
+
+        return content.append(']').toString();
+    }
+
+    private static String partition(final String partition, final String newest) {
+        return "{\"partition\":\"" + partition + "\",\"oldest_available_offset\":\"0\",\"newest_available_offset\":\""
+                + newest + "\"}";
+    }
+}
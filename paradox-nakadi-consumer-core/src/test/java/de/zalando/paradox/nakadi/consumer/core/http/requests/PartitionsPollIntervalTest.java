@@ -0,0 +1,39 @@
+package de.zalando.paradox.nakadi.consumer.core.http.requests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class PartitionsPollIntervalTest {
+
+    @Test
+    public void testBackOffWhileStable() {
+        final PartitionsPollInterval interval = new PartitionsPollInterval(1000, 5000);
+
+        interval.onPartitions(Arrays.asList("0", "1"));
+        assertThat(interval.getIntervalMillis()).isEqualTo(1000);
+        interval.onPartitions(Arrays.asList("1", "0"));
+        assertThat(interval.getIntervalMillis()).isEqualTo(2000);
+        interval.onPartitions(Arrays.asList("0", "1"));
+        assertThat(interval.getIntervalMillis()).isEqualTo(4000);
+        interval.onPartitions(Arrays.asList("0", "1"));
+        assertThat(interval.getIntervalMillis()).isEqualTo(5000);
+    }
+
+    @Test
+    public void testTightenOnChange() {
+        final PartitionsPollInterval interval = new PartitionsPollInterval(1000, 8000);
+
+        interval.onPartitions(Arrays.asList("0", "1"));
+        interval.onPartitions(Arrays.asList("0", "1"));
+        interval.onPartitions(Arrays.asList("0", "1", "2"));
+        assertThat(interval.getIntervalMillis()).isEqualTo(1000);
+
+        interval.onPartitions(Arrays.asList("0", "1", "2"));
+        assertThat(interval.tighten()).isTrue();
+        assertThat(interval.getIntervalMillis()).isEqualTo(1000);
+        assertThat(interval.tighten()).isFalse();
+    }
+}
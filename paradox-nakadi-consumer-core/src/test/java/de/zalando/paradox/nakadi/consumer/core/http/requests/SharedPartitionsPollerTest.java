@@ -0,0 +1,121 @@
+package de.zalando.paradox.nakadi.consumer.core.http.requests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.ConsumerConfig;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpResponseChunk;
+import de.zalando.paradox.nakadi.consumer.core.http.HttpTransport;
+import de.zalando.paradox.nakadi.consumer.core.http.handlers.ResponseHandlerFactory;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCoordinator;
+
+import rx.Observable;
+
+import rx.subjects.PublishSubject;
+
+public class SharedPartitionsPollerTest {
+
+    private static final String PARTITIONS = "[{\"partition\":\"0\",\"oldest_available_offset\":\"0\","
+            + "\"newest_available_offset\":\"1\"}]";
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Test
+    public void testConsumersShareResponse() {
+        final HttpTransport transport = (request, readTimeoutMillis, authorizationValueProvider) ->
+                Observable.defer(() -> {
+                    requests.incrementAndGet();
+                    return Observable.just(new HttpResponseChunk(200, PARTITIONS));
+                });
+        final SharedPartitionsPoller poller = new SharedPartitionsPoller();
+
+        assertThat(poll(poller, config("event", "first", transport, 60000))).hasSize(1);
+        assertThat(poll(poller, config("event", "second", transport, 60000))).hasSize(1);
+        assertThat(requests.get()).isEqualTo(1);
+
+        poll(poller, config("other-event", "first", transport, 60000));
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testConsumersJoinRequestInFlight() {
+        final PublishSubject<HttpResponseChunk> response = PublishSubject.create();
+        final HttpTransport transport = (request, readTimeoutMillis, authorizationValueProvider) -> {
+            requests.incrementAndGet();
+            return response;
+        };
+        final SharedPartitionsPoller poller = new SharedPartitionsPoller();
+
+        final List<HttpResponseChunk> first = new ArrayList<>();
+        final List<HttpResponseChunk> second = new ArrayList<>();
+        poller.createRequest(config("event", "first", transport, 60000), null).subscribe(first::add);
+        poller.createRequest(config("event", "second", transport, 60000), null).subscribe(second::add);
+        response.onNext(new HttpResponseChunk(200, PARTITIONS));
+        response.onCompleted();
+
+        assertThat(requests.get()).isEqualTo(1);
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+    }
+
+    @Test
+    public void testFailedResponseIsNotShared() {
+        final HttpTransport transport = (request, readTimeoutMillis, authorizationValueProvider) ->
+                Observable.defer(() -> {
+                    requests.incrementAndGet();
+                    return Observable.just(new HttpResponseChunk(503, "unavailable"));
+                });
+        final SharedPartitionsPoller poller = new SharedPartitionsPoller();
+
+        assertThat(poll(poller, config("event", "first", transport, 60000)).get(0).getStatusCode()).isEqualTo(503);
+        poll(poller, config("event", "second", transport, 60000));
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testResponseExpires() {
+        final HttpTransport transport = (request, readTimeoutMillis, authorizationValueProvider) ->
+                Observable.defer(() -> {
+                    requests.incrementAndGet();
+                    return Observable.just(new HttpResponseChunk(200, PARTITIONS));
+                });
+        final SharedPartitionsPoller poller = new SharedPartitionsPoller();
+
+        poll(poller, config("event", "first", transport, 0));
+        poll(poller, config("event", "first", transport, 0));
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRequestBudgetStretchesInterval() {
+        final HttpTransport transport = (request, readTimeoutMillis, authorizationValueProvider) ->
+                Observable.just(new HttpResponseChunk(200, PARTITIONS));
+        final SharedPartitionsPoller poller = new SharedPartitionsPoller(6);
+
+        final ConsumerConfig config = config("event", "first", transport, 1000);
+        poll(poller, config);
+        assertThat(poller.getMaxAgeMillis(config)).isEqualTo(10000);
+        poll(poller, config("other-event", "first", transport, 1000));
+        assertThat(poller.getMaxAgeMillis(config)).isEqualTo(20000);
+        assertThat(new SharedPartitionsPoller().getMaxAgeMillis(config)).isEqualTo(1000);
+    }
+
+    private static List<HttpResponseChunk> poll(final SharedPartitionsPoller poller, final ConsumerConfig config) {
+        return poller.createRequest(config, null).toList().toBlocking().single();
+    }
+
+    private static ConsumerConfig config(final String eventName, final String consumerName,
+            final HttpTransport transport, final long partitionsRetryAfterMillis) {
+        return ConsumerConfig.Builder.of("http://localhost:8080", eventName, mock(PartitionCoordinator.class),
+                                     consumerName).withHttpTransport(transport)
+                                 .withPartitionsRetryAfterMillis(partitionsRetryAfterMillis)
+                                 .withResponseHandlerFactory(mock(ResponseHandlerFactory.class)).build();
+    }
+}
@@ -0,0 +1,136 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Path;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartitions;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionAdminService;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListener;
+
+public class FileOffsetStoreTest {
+
+    private static final String CONSUMER_NAME = "consumer/name";
+
+    private static final EventType ORDER_RECEIVED = EventType.of("order.ORDER_RECEIVED");
+
+    private static final EventType ORDER_SHIPPED = EventType.of("order.ORDER_SHIPPED");
+
+    private static final EventTypePartition PARTITION_0 = EventTypePartition.of(ORDER_RECEIVED, "0");
+
+    private static final EventTypePartition PARTITION_1 = EventTypePartition.of(ORDER_RECEIVED, "1");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    private FileOffsetStore offsetStore;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("offsets");
+        offsetStore = new FileOffsetStore(directory, false);
+    }
+
+    @After
+    public void tearDown() {
+        offsetStore.close();
+    }
+
+    @Test
+    public void testManageOffsets() {
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_0)).isNull();
+
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "10"));
+        offsetStore.setOffsets(CONSUMER_NAME,
+            Arrays.asList(EventTypeCursor.of(PARTITION_0, "11"), EventTypeCursor.of(PARTITION_1, "20")));
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_0)).isEqualTo("11");
+        assertThat(offsetStore.getOffsets(CONSUMER_NAME, ORDER_RECEIVED, Arrays.asList("0", "1", "2"))).containsOnly(
+            entry("0", "11"), entry("1", "20"));
+
+        offsetStore.delOffset(CONSUMER_NAME, PARTITION_1);
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_1)).isNull();
+
+        // durable across restarts
+        offsetStore.close();
+        offsetStore = new FileOffsetStore(directory, false);
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_0)).isEqualTo("11");
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_1)).isNull();
+    }
+
+    @Test
+    public void testAdminService() {
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "10"));
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_1, "11"));
+        offsetStore.setOffset("other", EventTypeCursor.of(EventTypePartition.of(ORDER_SHIPPED, "0"), "5"));
+
+        final PartitionAdminService adminService = new OffsetStoreAdminService(offsetStore);
+        assertThat(adminService.getEventTypes()).containsExactly(ORDER_RECEIVED, ORDER_SHIPPED);
+        assertThat(adminService.getConsumerNames()).containsExactly(CONSUMER_NAME, "other");
+        assertThat(adminService.getEventConsumerNames(ORDER_SHIPPED)).containsExactly("other");
+        assertThat(adminService.getEventPartitions(ORDER_RECEIVED)).containsExactly(PARTITION_0, PARTITION_1);
+        assertThat(adminService.getConsumerInfo()).isEmpty();
+
+        adminService.setCustomerOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "12"));
+        assertThat(adminService.getCustomerOffset(CONSUMER_NAME, PARTITION_0)).isEqualTo("12");
+        adminService.delCustomerOffset(CONSUMER_NAME, PARTITION_0);
+        assertThat(adminService.getCustomerOffset(CONSUMER_NAME, PARTITION_0)).isNull();
+    }
+
+    @Test
+    public void testListsJournalsWrittenByAnotherStore() {
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "7"));
+
+        // the journal stays locked by the writing store
+        final FileOffsetStore reader = new FileOffsetStore(directory, false);
+        try {
+            assertThat(reader.getConsumerNames()).containsExactly(CONSUMER_NAME);
+            assertThat(reader.getEventPartitions(ORDER_RECEIVED)).containsExactly(PARTITION_0);
+
+            offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_1, "3"));
+            assertThat(reader.getEventPartitions(ORDER_RECEIVED)).containsExactly(PARTITION_0, PARTITION_1);
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testSimplePartitionCoordinatorWithStore() {
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "10"));
+
+        final SimplePartitionCoordinator coordinator = new SimplePartitionCoordinator(CONSUMER_NAME, offsetStore,
+                Collections.emptyList());
+        final PartitionRebalanceListener listener = mock(PartitionRebalanceListener.class);
+        coordinator.registerRebalanceListener(ORDER_RECEIVED, listener);
+
+        final List<NakadiPartition> nakadiPartitions = Arrays.asList(new NakadiPartition("0", "0", "100", null),
+                new NakadiPartition("1", "0", "200", null));
+        coordinator.rebalance(EventTypePartitions.of(ORDER_RECEIVED, Collections.emptySet()), nakadiPartitions);
+        verify(listener).onPartitionsAssigned(Arrays.asList(EventTypeCursor.of(PARTITION_0, "10"),
+                EventTypeCursor.of(PARTITION_1, "200")));
+
+        coordinator.commit(EventTypeCursor.of(PARTITION_1, "201"));
+        assertThat(offsetStore.getOffset(CONSUMER_NAME, PARTITION_1)).isEqualTo("201");
+        assertThat(coordinator.getAdminService()).isPresent();
+    }
+}
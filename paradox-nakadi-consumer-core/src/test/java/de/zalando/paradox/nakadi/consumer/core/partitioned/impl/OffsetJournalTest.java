@@ -0,0 +1,163 @@
+package de.zalando.paradox.nakadi.consumer.core.partitioned.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.RandomAccessFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+
+public class OffsetJournalTest {
+
+    private static final EventTypePartition PARTITION_0 = EventTypePartition.of(EventType.of("order.ORDER_RECEIVED"),
+            "0");
+
+    private static final EventTypePartition PARTITION_1 = EventTypePartition.of(EventType.of("order.ORDER_RECEIVED"),
+            "1");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("consumer.journal");
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            for (int i = 1; i <= 10; i++) {
+                journal.append(EventTypeCursor.of(PARTITION_0, String.valueOf(i)));
+            }
+
+            journal.append(EventTypeCursor.of(PARTITION_1, "5"));
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, true)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "10"), entry(PARTITION_1, "5"));
+
+            journal.remove(PARTITION_1);
+            journal.append(EventTypeCursor.of(PARTITION_0, "11"));
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "11"));
+        }
+    }
+
+    @Test
+    public void testCompactWhenFull() throws Exception {
+        try(OffsetJournal journal = new OffsetJournal(file, 256, false)) {
+            for (int i = 1; i <= 1000; i++) {
+                journal.append(EventTypeCursor.of(i % 2 == 0 ? PARTITION_0 : PARTITION_1, String.valueOf(i)));
+            }
+        }
+
+        assertThat(Files.size(file)).isEqualTo(256);
+        try(OffsetJournal journal = new OffsetJournal(file, 256, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "1000"), entry(PARTITION_1, "999"));
+        }
+    }
+
+    @Test
+    public void testGrowWhenCompactionIsFull() throws Exception {
+        final EventType eventType = EventType.of("order.ORDER_RECEIVED");
+        try(OffsetJournal journal = new OffsetJournal(file, 256, false)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(EventTypeCursor.of(EventTypePartition.of(eventType, String.valueOf(i)), "1"));
+                assertThat(journal.getOffsets()).hasSize(i + 1);
+            }
+
+            journal.append(EventTypeCursor.of(PARTITION_0, "2"));
+        }
+
+        assertThat(Files.size(file)).isGreaterThan(256);
+        try(OffsetJournal journal = new OffsetJournal(file, 256, false)) {
+            assertThat(journal.getOffsets()).hasSize(100).contains(entry(PARTITION_0, "2"),
+                entry(EventTypePartition.of(eventType, "99"), "1"));
+
+            // shrinks back once the offsets fit again
+            for (int i = 2; i < 100; i++) {
+                journal.remove(EventTypePartition.of(eventType, String.valueOf(i)));
+            }
+
+            journal.compact();
+        }
+
+        assertThat(Files.size(file)).isEqualTo(256);
+        try(OffsetJournal journal = new OffsetJournal(file, 256, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "2"), entry(PARTITION_1, "1"));
+        }
+    }
+
+    @Test
+    public void testTimestampSurvivesCompaction() throws Exception {
+        final long before = System.currentTimeMillis();
+        final long timestamp;
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            journal.append(EventTypeCursor.of(PARTITION_0, "1"));
+            timestamp = journal.getTimestamp(PARTITION_0);
+            assertThat(timestamp).isBetween(before, System.currentTimeMillis());
+            assertThat(journal.getTimestamp(PARTITION_1)).isZero();
+
+            journal.compact();
+            journal.append(EventTypeCursor.of(PARTITION_1, "1"));
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            assertThat(journal.getTimestamp(PARTITION_0)).isEqualTo(timestamp);
+        }
+    }
+
+    @Test
+    public void testDamagedRecordEndsReplay() throws Exception {
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            journal.append(EventTypeCursor.of(PARTITION_0, "1"));
+            journal.append(EventTypeCursor.of(PARTITION_0, "2"));
+        }
+
+        // corrupt the last byte of the second record
+        final long secondRecordEnd;
+        try(RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            final int firstLength = raf.readInt();
+            raf.seek(8 + firstLength);
+
+            final int secondLength = raf.readInt();
+            secondRecordEnd = 8 + firstLength + 8 + secondLength;
+            raf.seek(secondRecordEnd - 1);
+            raf.write(0x7f);
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "1"));
+
+            // damaged record is overwritten
+            journal.append(EventTypeCursor.of(PARTITION_0, "3"));
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, 4096, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_0, "3"));
+        }
+    }
+
+    @Test
+    public void testExclusiveLock() throws Exception {
+        try(OffsetJournal ignored = new OffsetJournal(file, 4096, false)) {
+            assertThatThrownBy(() -> new OffsetJournal(file, 4096, false)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
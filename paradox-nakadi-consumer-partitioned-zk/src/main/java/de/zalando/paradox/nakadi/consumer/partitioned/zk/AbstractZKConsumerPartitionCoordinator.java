@@ -1,8 +1,16 @@
 package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
@@ -16,18 +24,30 @@ import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionAdminService;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionOffsetManagement;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.AbstractPartitionCoordinator;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.OffsetJournal;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
-abstract class AbstractZKConsumerPartitionCoordinator extends AbstractPartitionCoordinator {
+public abstract class AbstractZKConsumerPartitionCoordinator extends AbstractPartitionCoordinator {
 
     private volatile boolean startNewestAvailableOffset = true;
 
+    private volatile boolean strictOffsetSync;
+
     private final String consumerName;
 
-    private final ZKConsumerSyncOffsetManagement offsetManagement;
+    private final ZKConsumerSyncOffsetManagement syncOffsetManagement;
+
+    // null unless asynchronous commits are enabled
+    private volatile ZKConsumerAsyncOffsetManagement asyncOffsetManagement;
 
-    private final ZKConsumerOffset consumerOffset;
+    // null unless the commits are journaled
+    private volatile ZKConsumerJournalOffsetManagement journalOffsetManagement;
+
+    private final ZKConsumerOffsetCache offsetCache;
+
+    private final ZKOffsetStore offsetStore;
 
     private final ZKAdminService adminService;
 
@@ -35,66 +55,211 @@ abstract class AbstractZKConsumerPartitionCoordinator extends AbstractPartitionC
             final List<EventErrorHandler> eventErrorHandlers) {
         super(log);
         this.consumerName = consumerName;
-        this.consumerOffset = new ZKConsumerOffset(zkHolder, consumerName);
-        this.offsetManagement = new ZKConsumerSyncOffsetManagement(this.consumerOffset, this, this, eventErrorHandlers);
-        this.adminService = new ZKAdminService(zkHolder);
+        this.offsetCache = new ZKConsumerOffsetCache(zkHolder);
+        this.offsetStore = new ZKOffsetStore(zkHolder, offsetCache);
+        this.syncOffsetManagement = new ZKConsumerSyncOffsetManagement(this.offsetStore, consumerName, this, this,
+                eventErrorHandlers);
+        this.adminService = new ZKAdminService(zkHolder, offsetStore);
     }
 
     @Override
     public void commit(final EventTypeCursor cursor) {
-        offsetManagement.commit(cursor);
+        getOffsetManagement().commit(cursor);
     }
 
     @Override
     public void flush(final EventTypePartition eventTypePartition) {
-        offsetManagement.flush(eventTypePartition);
+        getOffsetManagement().flush(eventTypePartition);
     }
 
     @Override
     public void error(final String consumerName, final Throwable t, final EventTypePartition eventTypePartition,
             @Nullable final String offset, final String rawEvent) {
-        offsetManagement.error(consumerName, t, eventTypePartition, offset, rawEvent);
+        getOffsetManagement().error(consumerName, t, eventTypePartition, offset, rawEvent);
     }
 
     @Override
     public void error(final int statusCode, final String content, final EventTypePartition eventTypePartition) {
-        offsetManagement.error(statusCode, content, eventTypePartition);
+        getOffsetManagement().error(statusCode, content, eventTypePartition);
     }
 
-    Function<NakadiPartition, EventTypeCursor> getOffsetSelector(final EventType eventType) {
-        return
-            entry ->
-                EventTypeCursor.of(EventTypePartition.of(eventType, entry.getPartition()),
-                    getNextOffset(eventType, entry));
+    private PartitionOffsetManagement getOffsetManagement() {
+        final ZKConsumerJournalOffsetManagement journal = journalOffsetManagement;
+        if (null != journal) {
+            return journal;
+        }
+
+        final ZKConsumerAsyncOffsetManagement async = asyncOffsetManagement;
+        return null != async ? async : syncOffsetManagement;
+    }
+
+    /**
+     * Writes committed cursors to ZooKeeper asynchronously. Only the latest cursor of a partition is written, every
+     * {@code commitIntervalMillis}, after {@code maxPendingCommits} commits (0 disables this trigger), when the
+     * partition is flushed and when the coordinator is closed.
+     */
+    public void setAsyncCommit(final long commitIntervalMillis, final int maxPendingCommits) {
+        setAsyncCommit(commitIntervalMillis, maxPendingCommits, false);
+    }
+
+    /**
+     * @param  multiPartitionWrites  write the cursors of all partitions of an event type in one ZooKeeper transaction
+     *                               on interval and close instead of one write per partition
+     *
+     * @see    #setAsyncCommit(long, int)
+     */
+    public synchronized void setAsyncCommit(final long commitIntervalMillis, final int maxPendingCommits,
+            final boolean multiPartitionWrites) {
+        closeOffsetManagement();
+        this.asyncOffsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, commitIntervalMillis,
+                maxPendingCommits, multiPartitionWrites, consumerName);
     }
 
-    private String getNextOffset(final EventType eventType, final NakadiPartition nakadiPartition) {
+    /**
+     * Appends every committed cursor to a memory mapped journal file in {@code journalDirectory} before it is written
+     * to ZooKeeper asynchronously, so a crash loses no progress. Offsets of the journal left by the previous run are
+     * written to ZooKeeper if they are further than the offsets there. Requires asynchronous commits.
+     *
+     * @param  forceWrites  force every cursor to the storage device, otherwise the journal survives a crash of the
+     *                      process but not of the operating system
+     *
+     * @see    #setAsyncCommit(long, int, boolean)
+     */
+    public synchronized void setJournalCommit(final Path journalDirectory, final boolean forceWrites) {
+        final ZKConsumerAsyncOffsetManagement async = asyncOffsetManagement;
+        checkState(null != async, "Journal commits require asynchronous commits");
+        closeJournal();
         try {
-            final String result = nextOffset(eventType, nakadiPartition);
-            log.info("Next offset [{}] for event type [{}] , partition [{}]]", result, eventType,
-                nakadiPartition.getPartition());
-            return result;
+            Files.createDirectories(journalDirectory);
+
+            final OffsetJournal journal = new OffsetJournal(journalDirectory.resolve(
+                        consumerName.replaceAll("[^A-Za-z0-9._-]", "_") + ".journal"), OffsetJournal.DEFAULT_SIZE,
+                    forceWrites);
+            final ZKConsumerJournalOffsetManagement journalManagement = new ZKConsumerJournalOffsetManagement(async,
+                    syncOffsetManagement, offsetStore, consumerName, journal);
+            try {
+                journalManagement.reconcile();
+            } catch (Exception e) {
+                journalManagement.close();
+                throw e;
+            }
+
+            this.journalOffsetManagement = journalManagement;
         } catch (Exception e) {
             ThrowableUtils.throwException(e);
-            return null;
         }
     }
 
-    private String nextOffset(final EventType eventType, final NakadiPartition nakadiPartition) throws Exception {
+    /**
+     * Writes the pending cursors and stops asynchronous commits.
+     */
+    synchronized void closeOffsetManagement() {
+        final ZKConsumerJournalOffsetManagement journal = journalOffsetManagement;
+        journalOffsetManagement = null;
+
+        final ZKConsumerAsyncOffsetManagement async = asyncOffsetManagement;
+        if (null != async) {
+            asyncOffsetManagement = null;
+            async.close();
+        }
+
+        if (null != journal) {
+            journal.close();
+        }
+    }
+
+    private void closeJournal() {
+        final ZKConsumerJournalOffsetManagement journal = journalOffsetManagement;
+        if (null != journal) {
+            journalOffsetManagement = null;
+            journal.close();
+        }
+    }
+
+    /**
+     * Stops watching the offsets, they are read again when the coordinator is restarted.
+     */
+    void closeOffsetCache() {
+        offsetCache.close();
+    }
+
+    Function<NakadiPartition, EventTypeCursor> getOffsetSelector(final EventType eventType) {
+        return getOffsetSelector(eventType, false);
+    }
+
+    /**
+     * @param  strict  read the offsets from ZooKeeper even if strict offset sync is disabled
+     */
+    Function<NakadiPartition, EventTypeCursor> getOffsetSelector(final EventType eventType, final boolean strict) {
+        return new OffsetSelector(eventType, strict || strictOffsetSync);
+    }
+
+    private String getNextOffset(final EventType eventType, final NakadiPartition nakadiPartition,
+            final boolean strict) {
+        final String result = nextOffset(eventType, nakadiPartition, strict);
+        log.info("Next offset [{}] for event type [{}] , partition [{}]", result, eventType,
+            nakadiPartition.getPartition());
+        return result;
+    }
+
+    private String nextOffset(final EventType eventType, final NakadiPartition nakadiPartition, final boolean strict) {
+        final EventTypePartition eventTypePartition = EventTypePartition.of(eventType, nakadiPartition.getPartition());
+        final String zkOffset = strict ? offsetStore.getOffset(consumerName, eventTypePartition)
+                                       : offsetStore.getCachedOffset(consumerName, eventTypePartition);
+
+        return nextOffset(nakadiPartition, zkOffset);
+    }
+
+    private String nextOffset(final NakadiPartition nakadiPartition, @Nullable final String zkOffset) {
         final String newestOrOldestAvailableOffset = startNewestAvailableOffset
             ? nakadiPartition.getNewestAvailableOffset() : "BEGIN";
 
-        final String zkOffset = consumerOffset.getOffset(eventType, nakadiPartition.getPartition());
-
         return MoreObjects.firstNonNull(zkOffset, newestOrOldestAvailableOffset);
     }
 
+    /**
+     * Reads the offsets of all partitions to assign with one sync and parallel reads, or from the offset cache, if
+     * the offset selector is one of this coordinator. Other selectors are applied to one partition after another.
+     */
+    @Override
+    protected List<EventTypeCursor> resolveOffsets(final EventType eventType,
+            final Collection<NakadiPartition> nakadiPartitions,
+            final Function<NakadiPartition, EventTypeCursor> offsetSelector) {
+        if (!(offsetSelector instanceof OffsetSelector)
+                || !((OffsetSelector) offsetSelector).eventType.equals(eventType)) {
+            return super.resolveOffsets(eventType, nakadiPartitions, offsetSelector);
+        }
+
+        final List<String> partitions = nakadiPartitions.stream().map(NakadiPartition::getPartition).collect(
+                Collectors.toList());
+        final boolean strict = ((OffsetSelector) offsetSelector).strict;
+        final Map<String, String> zkOffsets = strict ? offsetStore.getOffsets(consumerName, eventType, partitions)
+                                                     : offsetStore.getCachedOffsets(consumerName, eventType, partitions);
+
+        return nakadiPartitions.stream().map(nakadiPartition -> {
+                                    final String result = nextOffset(nakadiPartition,
+                                            zkOffsets.get(nakadiPartition.getPartition()));
+                                    log.info("Next offset [{}] for event type [{}] , partition [{}]", result,
+                                        eventType, nakadiPartition.getPartition());
+                                    return EventTypeCursor.of(EventTypePartition.of(eventType,
+                                                nakadiPartition.getPartition()), result);
+                                }).collect(Collectors.toList());
+    }
+
     public void setStartNewestAvailableOffset(final boolean startNewestAvailableOffset) {
         this.startNewestAvailableOffset = startNewestAvailableOffset;
     }
 
+    /**
+     * Reads the next offset of an assigned partition with a ZooKeeper sync and read instead of the watched offset cache.
+     * The cache may lag behind cursors written by other consumer instances for the duration of a watch notification.
+     */
+    public void setStrictOffsetSync(final boolean strictOffsetSync) {
+        this.strictOffsetSync = strictOffsetSync;
+    }
+
     public void setDeleteUnavailableCursors(final boolean deleteUnavailableCursors) {
-        this.offsetManagement.setDeleteUnavailableCursors(deleteUnavailableCursors);
+        this.syncOffsetManagement.setDeleteUnavailableCursors(deleteUnavailableCursors);
     }
 
     public String getConsumerName() {
@@ -106,4 +271,24 @@ abstract class AbstractZKConsumerPartitionCoordinator extends AbstractPartitionC
         return Optional.of(adminService);
     }
 
+    /**
+     * Reads the next offset of one partition, {@link #resolveOffsets(EventType, Collection, Function)} reads the
+     * offsets of all partitions at once in the same way.
+     */
+    private final class OffsetSelector implements Function<NakadiPartition, EventTypeCursor> {
+        private final EventType eventType;
+        private final boolean strict;
+
+        private OffsetSelector(final EventType eventType, final boolean strict) {
+            this.eventType = eventType;
+            this.strict = strict;
+        }
+
+        @Override
+        public EventTypeCursor apply(final NakadiPartition nakadiPartition) {
+            return EventTypeCursor.of(EventTypePartition.of(eventType, nakadiPartition.getPartition()),
+                    getNextOffset(eventType, nakadiPartition, strict));
+        }
+    }
+
 }
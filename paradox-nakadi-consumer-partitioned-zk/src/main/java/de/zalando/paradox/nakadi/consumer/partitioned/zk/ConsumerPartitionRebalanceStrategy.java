@@ -2,6 +2,9 @@ package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
@@ -18,4 +21,32 @@ public interface ConsumerPartitionRebalanceStrategy {
     void setNakadiPartitions(EventType eventType, Collection<NakadiPartition> collection);
 
     void setCurrentMembers(EventType eventType, Map<String, ZKMember> currentMember);
+
+    /**
+     * @return  {@code true} if the members have to publish their assigned partitions in the group member data
+     */
+    default boolean isPublishingPartitions() {
+        return false;
+    }
+
+    /**
+     * @return  {@code true} if the assignment depends on the offsets of the Nakadi partitions
+     */
+    default boolean isUsingPartitionOffsets() {
+        return false;
+    }
+
+    /**
+     * @param   member              the member of this strategy
+     * @param   assignedPartitions  the partitions assigned to the member
+     * @param   loads               unconsumed events of the assigned partitions known to the member
+     * @param   published           the member data published before, {@code null} if nothing was published yet
+     *
+     * @return  the member data to publish, the published data is kept if it is equal
+     */
+    default ZKMember getPublishedMember(final ZKMember member, final Collection<NakadiPartition> assignedPartitions,
+            final Map<String, Long> loads, @Nullable final ZKMember published) {
+        return member.withPartitions(assignedPartitions.stream().map(NakadiPartition::getPartition).collect(
+                    Collectors.toList()));
+    }
 }
@@ -0,0 +1,139 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.util.Objects.requireNonNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+/**
+ * Places every member with a number of virtual nodes on a hash ring and assigns a partition to the member owning the
+ * next virtual node on the ring. The ring is rebuilt only when the members change, a membership change moves only the
+ * partitions between the virtual nodes of the joined or left member and their predecessors.
+ */
+public class ZKConsistentHashConsumerPartitionRebalanceStrategy implements ConsumerPartitionRebalanceStrategy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(
+            ZKConsistentHashConsumerPartitionRebalanceStrategy.class);
+
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final Map<EventType, Collection<NakadiPartition>> eventNakadiPartitions = new ConcurrentHashMap<>();
+    private final Map<EventType, Ring> eventRings = new ConcurrentHashMap<>();
+    private final Map<EventType, Lock> eventLocks = new ConcurrentHashMap<>();
+    private final ZKMember member;
+    private final int virtualNodes;
+
+    public ZKConsistentHashConsumerPartitionRebalanceStrategy(final ZKMember member) {
+        this(member, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ZKConsistentHashConsumerPartitionRebalanceStrategy(final ZKMember member, final int virtualNodes) {
+        checkArgument(virtualNodes > 0, "virtualNodes must be positive");
+        this.member = requireNonNull(member, "member must not be null");
+        this.virtualNodes = virtualNodes;
+    }
+
+    @Override
+    public void setNakadiPartitions(final EventType eventType, final Collection<NakadiPartition> collection) {
+        eventNakadiPartitions.put(requireNonNull(eventType, "eventType must not be null"), collection);
+    }
+
+    @Override
+    public void setCurrentMembers(final EventType eventType, final Map<String, ZKMember> currentMember) {
+        requireNonNull(eventType, "eventType must not be null");
+        eventRings.compute(eventType, (key, ring) ->
+                null != ring && ring.memberIds.equals(currentMember.keySet())
+                    ? ring : new Ring(currentMember.keySet(), virtualNodes));
+    }
+
+    @Override
+    public void rebalance(final EventType eventType, final ResultCallback resultCallback) {
+        requireNonNull(eventType, "eventType must not be null");
+        requireNonNull(resultCallback, "resultCallback must not be null");
+
+        final Lock lock = eventLocks.computeIfAbsent(eventType, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            final Collection<NakadiPartition> nakadiPartitions = eventNakadiPartitions.getOrDefault(eventType,
+                    Collections.emptyList());
+            final Ring ring = eventRings.get(eventType);
+
+            LOGGER.debug("Rebalance input for [{}] member [{}] , all members [{}] , nakadi partitions [{}]", eventType,
+                member.getMemberId(), null != ring ? ring.memberIds : Collections.emptySet(), nakadiPartitions);
+
+            if (!nakadiPartitions.isEmpty() && null != ring && ring.memberIds.contains(member.getMemberId())) {
+                final List<NakadiPartition> partitionsToAssign = new ArrayList<>();
+                final List<NakadiPartition> partitionsToRevoke = new ArrayList<>();
+                nakadiPartitions.forEach(nakadiPartition -> {
+                    if (member.getMemberId().equals(ring.getMemberId(eventType, nakadiPartition.getPartition()))) {
+                        partitionsToAssign.add(nakadiPartition);
+                    } else {
+                        partitionsToRevoke.add(nakadiPartition);
+                    }
+                });
+
+                resultCallback.rebalancePartitions(eventType, partitionsToAssign, partitionsToRevoke);
+            } else {
+                LOGGER.info("More data is required to invoke rebalance for [{}] member", member.getMemberId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static final class Ring {
+        private final Set<String> memberIds;
+        private final TreeMap<Long, String> nodes = new TreeMap<>();
+
+        Ring(final Collection<String> memberIds, final int virtualNodes) {
+            this.memberIds = Collections.unmodifiableSet(new HashSet<>(memberIds));
+            memberIds.forEach(memberId -> {
+                for (int i = 0; i < virtualNodes; i++) {
+
+                    // on a hash collision the lower member id owns the node on every member
+                    nodes.merge(hash(memberId + "#" + i), memberId,
+                        (left, right) -> left.compareTo(right) <= 0 ? left : right);
+                }
+            });
+        }
+
+        @Nullable
+        String getMemberId(final EventType eventType, final String partition) {
+            if (nodes.isEmpty()) {
+                return null;
+            }
+
+            final Map.Entry<Long, String> node = nodes.ceilingEntry(hash(eventType.getName() + "/" + partition));
+            return null != node ? node.getValue() : nodes.firstEntry().getValue();
+        }
+
+        private static long hash(final String key) {
+            return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+        }
+    }
+}
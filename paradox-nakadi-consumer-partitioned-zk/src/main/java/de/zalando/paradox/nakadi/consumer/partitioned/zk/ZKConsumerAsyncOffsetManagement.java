@@ -0,0 +1,197 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.util.Objects.requireNonNull;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getMessage;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.Closeable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionOffsetManagement;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Keeps only the latest committed cursor per partition in memory and writes it to ZooKeeper on a fixed interval, after
+ * a number of commits, on flush and on close. Commit callbacks are invoked once the cursor has been written. A failed
+ * write is retried on the next interval, except on flush: the partition is finishing and may be owned by another
+ * consumer afterwards, whose newer offset the stale cursor must not overwrite. The partition is then resumed from the
+ * last written offset.
+ */
+class ZKConsumerAsyncOffsetManagement implements PartitionOffsetManagement, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZKConsumerAsyncOffsetManagement.class);
+
+    private final ZKConsumerSyncOffsetManagement delegate;
+
+    private final int maxPendingCommits;
+
+    private final boolean multiPartitionWrites;
+
+    private final ScheduledExecutorService executor;
+
+    private final ConcurrentMap<EventTypePartition, PendingCommit> pendingCommits = new ConcurrentHashMap<>();
+
+    // serializes the writes, an older cursor must never overwrite a newer one
+    private final Object writeLock = new Object();
+
+    /**
+     * @param  maxPendingCommits     number of commits per partition after which the cursor is written before the
+     *                               interval elapsed, 0 writes on the interval only
+     * @param  multiPartitionWrites  write the pending cursors of all partitions of an event type in one transaction
+     *                               on interval and close
+     */
+    ZKConsumerAsyncOffsetManagement(@Nonnull final ZKConsumerSyncOffsetManagement delegate,
+            final long commitIntervalMillis, final int maxPendingCommits, final boolean multiPartitionWrites,
+            final String consumerName) {
+        checkArgument(commitIntervalMillis > 0, "commitIntervalMillis must be positive");
+        checkArgument(maxPendingCommits >= 0, "maxPendingCommits must not be negative");
+        this.delegate = requireNonNull(delegate, "delegate must not be null");
+        this.maxPendingCommits = maxPendingCommits;
+        this.multiPartitionWrites = multiPartitionWrites;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final Thread thread = new Thread(runnable, "nakadi-zk-committer-" + consumerName);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.scheduleWithFixedDelay(this::flushAllQuietly, commitIntervalMillis, commitIntervalMillis,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void commit(final EventTypeCursor cursor) {
+        LOGGER.debug("Commit pending [{}] ", cursor);
+
+        final EventTypePartition eventTypePartition = cursor.getEventTypePartition();
+        final PendingCommit pendingCommit = pendingCommits.compute(eventTypePartition,
+                (key, previous) -> new PendingCommit(cursor, null == previous ? 1 : previous.count + 1));
+        if (maxPendingCommits > 0 && pendingCommit.count == maxPendingCommits) {
+            executor.execute(() -> writeQuietly(eventTypePartition));
+        }
+    }
+
+    @Override
+    public void flush(final EventTypePartition eventTypePartition) {
+        write(eventTypePartition, false);
+        delegate.flush(eventTypePartition);
+    }
+
+    @Override
+    public void error(final String consumerName, final Throwable t, final EventTypePartition eventTypePartition,
+            @Nullable final String offset, final String rawEvent) {
+        delegate.error(consumerName, t, eventTypePartition, offset, rawEvent);
+    }
+
+    @Override
+    public void error(final int statusCode, final String content, final EventTypePartition eventTypePartition) {
+        delegate.error(statusCode, content, eventTypePartition);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        flushAllQuietly();
+    }
+
+    int getPendingCommits() {
+        return pendingCommits.size();
+    }
+
+    private void flushAllQuietly() {
+        if (multiPartitionWrites) {
+            writeAllQuietly();
+        } else {
+            new ArrayList<>(pendingCommits.keySet()).forEach(this::writeQuietly);
+        }
+    }
+
+    private void writeAllQuietly() {
+        synchronized (writeLock) {
+            final Map<EventType, List<PendingCommit>> pendingByEventType = new HashMap<>();
+            new ArrayList<>(pendingCommits.keySet()).forEach(eventTypePartition -> {
+                final PendingCommit pendingCommit = pendingCommits.remove(eventTypePartition);
+                if (null != pendingCommit) {
+                    pendingByEventType.computeIfAbsent(eventTypePartition.getEventType(), key -> new ArrayList<>())
+                                      .add(pendingCommit);
+                }
+            });
+
+            pendingByEventType.forEach((eventType, pending) -> {
+                try {
+                    delegate.commit(pending.stream().map(entry -> entry.cursor).collect(Collectors.toList()));
+                } catch (Exception e) {
+                    LOGGER.warn("Commit failed for [{}], will retry [{}]", eventType, getMessage(e));
+                    pending.forEach(entry -> pendingCommits.putIfAbsent(entry.cursor.getEventTypePartition(), entry));
+                }
+            });
+        }
+    }
+
+    private void writeQuietly(final EventTypePartition eventTypePartition) {
+        try {
+            write(eventTypePartition, true);
+        } catch (Exception e) {
+            LOGGER.warn("Commit failed for [{}], will retry [{}]", eventTypePartition, getMessage(e));
+        }
+    }
+
+    private void write(final EventTypePartition eventTypePartition, final boolean retry) {
+        synchronized (writeLock) {
+            final PendingCommit pendingCommit = pendingCommits.remove(eventTypePartition);
+            if (null == pendingCommit) {
+                return;
+            }
+
+            try {
+                delegate.commit(pendingCommit.cursor);
+            } catch (Throwable t) {
+                if (retry) {
+
+                    // keep the cursor for the next attempt unless a newer one arrived meanwhile
+                    pendingCommits.putIfAbsent(eventTypePartition, pendingCommit);
+                } else {
+                    LOGGER.warn("Flush failed for [{}], dropping cursor [{}]", eventTypePartition,
+                        pendingCommit.cursor);
+                }
+
+                ThrowableUtils.throwException(t);
+            }
+        }
+    }
+
+    private static final class PendingCommit {
+        private final EventTypeCursor cursor;
+        private final int count;
+
+        private PendingCommit(final EventTypeCursor cursor, final int count) {
+            this.cursor = cursor;
+            this.count = count;
+        }
+    }
+}
@@ -28,6 +28,8 @@ class ZKConsumerGroupMember {
         void memberAdded(final EventType eventType, final String memberId);
 
         void memberRemoved(final EventType eventType, final String memberId);
+
+        default void memberUpdated(final EventType eventType, final String memberId) { }
     }
 
     private PathChildrenCacheListener newListener(final EventType eventType, final GroupChangedListener delegate) {
@@ -47,6 +49,12 @@ class ZKConsumerGroupMember {
                     break;
                 }
 
+                case CHILD_UPDATED : {
+                    final String updatedMemberId = ZKPaths.getNodeFromPath(event.getData().getPath());
+                    delegate.memberUpdated(eventType, updatedMemberId);
+                    break;
+                }
+
                 default :
                     break;
             }
@@ -0,0 +1,139 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionOffsetManagement;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.OffsetJournal;
+
+/**
+ * Appends every committed cursor to a local journal before it is handed to the asynchronous ZooKeeper commits, so a
+ * crash loses no progress although ZooKeeper is only written on an interval. On start the journal is reconciled with
+ * ZooKeeper by writing the further offset of every journaled partition, unless the offset in ZooKeeper was changed or
+ * deleted after it was journaled, e.g. by an administrator rewinding or deleting the cursor. The times compared are
+ * those of the ZooKeeper server and this host, so their clocks should be synchronized.
+ */
+class ZKConsumerJournalOffsetManagement implements PartitionOffsetManagement, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZKConsumerJournalOffsetManagement.class);
+
+    private static final String BEGIN = "BEGIN";
+
+    private final ZKConsumerAsyncOffsetManagement delegate;
+
+    private final ZKConsumerSyncOffsetManagement syncOffsetManagement;
+
+    private final ZKOffsetStore offsetStore;
+
+    private final String consumerName;
+
+    private final OffsetJournal journal;
+
+    ZKConsumerJournalOffsetManagement(@Nonnull final ZKConsumerAsyncOffsetManagement delegate,
+            @Nonnull final ZKConsumerSyncOffsetManagement syncOffsetManagement,
+            @Nonnull final ZKOffsetStore offsetStore, @Nonnull final String consumerName,
+            @Nonnull final OffsetJournal journal) {
+        this.delegate = requireNonNull(delegate, "delegate must not be null");
+        this.syncOffsetManagement = requireNonNull(syncOffsetManagement, "syncOffsetManagement must not be null");
+        this.offsetStore = requireNonNull(offsetStore, "offsetStore must not be null");
+        this.consumerName = requireNonNull(consumerName, "consumerName must not be null");
+        this.journal = requireNonNull(journal, "journal must not be null");
+    }
+
+    /**
+     * Writes the journaled offsets which are further than the offsets in ZooKeeper and were journaled after these
+     * were written, and compacts the journal. Journaled offsets outdated by a later change in ZooKeeper are removed.
+     */
+    void reconcile() throws Exception {
+        final Map<EventType, Map<String, String>> journaled = new HashMap<>();
+        journal.getOffsets().forEach((eventTypePartition, offset) ->
+                journaled.computeIfAbsent(eventTypePartition.getEventType(), key -> new HashMap<>()).put(
+                    eventTypePartition.getPartition(), offset));
+
+        for (final Map.Entry<EventType, Map<String, String>> entry : journaled.entrySet()) {
+            final EventType eventType = entry.getKey();
+            final Map<String, String> zkOffsets = offsetStore.getOffsets(consumerName, eventType,
+                    entry.getValue().keySet());
+            for (final Map.Entry<String, String> partitionOffset : entry.getValue().entrySet()) {
+                final String zkOffset = zkOffsets.get(partitionOffset.getKey());
+                if (null != zkOffset && !isFurther(partitionOffset.getValue(), zkOffset)) {
+                    continue;
+                }
+
+                final EventTypeCursor cursor = EventTypeCursor.of(EventTypePartition.of(eventType,
+                            partitionOffset.getKey()), partitionOffset.getValue());
+                if (offsetStore.getModifiedTime(consumerName, cursor.getEventTypePartition())
+                        >= journal.getTimestamp(cursor.getEventTypePartition())) {
+                    LOGGER.info("Skip [{}] of offset journal, offset in ZooKeeper [{}] was changed afterwards", cursor,
+                        zkOffset);
+                    journal.remove(cursor.getEventTypePartition());
+                } else {
+                    LOGGER.info("Recover [{}] from offset journal, offset in ZooKeeper is [{}]", cursor, zkOffset);
+                    offsetStore.setOffset(consumerName, cursor);
+                }
+            }
+        }
+
+        journal.compact();
+    }
+
+    @Override
+    public void commit(final EventTypeCursor cursor) {
+        journal.append(cursor);
+        delegate.commit(cursor);
+    }
+
+    @Override
+    public void flush(final EventTypePartition eventTypePartition) {
+        delegate.flush(eventTypePartition);
+    }
+
+    @Override
+    public void error(final String consumerName, final Throwable t, final EventTypePartition eventTypePartition,
+            @Nullable final String offset, final String rawEvent) {
+        delegate.error(consumerName, t, eventTypePartition, offset, rawEvent);
+    }
+
+    @Override
+    public void error(final int statusCode, final String content, final EventTypePartition eventTypePartition) {
+        if (syncOffsetManagement.deletesCursor(statusCode, content)) {
+            journal.remove(eventTypePartition);
+        }
+
+        delegate.error(statusCode, content, eventTypePartition);
+    }
+
+    /**
+     * Closes the journal only, the asynchronous commits are closed by the coordinator.
+     */
+    @Override
+    public void close() {
+        journal.close();
+    }
+
+    /**
+     * Nakadi offsets are numbers or zero padded strings of equal length, both order by length first.
+     */
+    static boolean isFurther(final String offset, final String other) {
+        if (BEGIN.equals(other)) {
+            return !BEGIN.equals(offset);
+        } else if (BEGIN.equals(offset)) {
+            return false;
+        }
+
+        return offset.length() != other.length() ? offset.length() > other.length() : offset.compareTo(other) > 0;
+    }
+}
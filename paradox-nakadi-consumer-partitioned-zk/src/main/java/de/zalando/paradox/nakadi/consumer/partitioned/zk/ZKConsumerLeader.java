@@ -116,6 +116,11 @@ abstract class ZKConsumerLeader<T> {
         void relinquishLeadership(final T t, final ZKMember member);
     }
 
+    synchronized boolean isLeader(final T t) {
+        final LeaderControl leaderControl = keyToLeaderControl.get(t);
+        return null != leaderControl && leaderControl.isLeader();
+    }
+
     public synchronized void closeGroupLeadership(final T t) {
         final LeaderControl leaderControl = keyToLeaderControl.remove(t);
         if (null != leaderControl) {
@@ -2,14 +2,29 @@ package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
 import static java.lang.String.format;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nullable;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorTransaction;
+import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
+import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
+
+import org.apache.curator.utils.ZKPaths;
 
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.data.Stat;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +42,21 @@ class ZKConsumerOffset {
 
     private final String consumerName;
 
+    // offset nodes known to exist, a transaction fails as a whole on a missing node
+    private final Set<String> existingPaths = ConcurrentHashMap.newKeySet();
+
+    @Nullable
+    private final ZKConsumerOffsetCache offsetCache;
+
     ZKConsumerOffset(final ZKHolder zkHolder, final String consumerName) {
+        this(zkHolder, consumerName, null);
+    }
+
+    ZKConsumerOffset(final ZKHolder zkHolder, final String consumerName,
+            @Nullable final ZKConsumerOffsetCache offsetCache) {
         this.zkHolder = zkHolder;
         this.consumerName = consumerName;
+        this.offsetCache = offsetCache;
     }
 
     @Nullable
@@ -44,6 +71,28 @@ class ZKConsumerOffset {
         return getOffset(path);
     }
 
+    /**
+     * Reads the offset from the watched offset cache, without a ZooKeeper round trip. Falls back to
+     * {@link #getOffset(EventType, String)} if there is no cache or it cannot answer yet, and starts watching the
+     * offset node.
+     */
+    @Nullable
+    String getCachedOffset(final EventType eventType, final String partition) throws Exception {
+        final String path = getOffsetPath(eventType.getName(), partition);
+        if (null == offsetCache) {
+            return getOffset(path);
+        }
+
+        final ZKConsumerOffsetCache.CachedOffset cached = offsetCache.getOffset(path);
+        if (null != cached) {
+            return cached.getOffset();
+        }
+
+        final String offset = getOffset(path);
+        offsetCache.watch(path);
+        return offset;
+    }
+
     void setOffset(final EventTypeCursor cursor) throws Exception {
         final String path = getOffsetPath(cursor.getName(), cursor.getPartition());
         setOffset(path, cursor.getOffset());
@@ -51,33 +100,120 @@ class ZKConsumerOffset {
 
     private void setOffset(final String path, final String offset) throws Exception {
         final CuratorFramework curator = zkHolder.getCurator();
+        Stat stat;
         try {
-            curator.setData().forPath(path, offset.getBytes("UTF-8"));
+            stat = curator.setData().forPath(path, offset.getBytes("UTF-8"));
         } catch (KeeperException.NoNodeException e) {
             LOGGER.info("Set failed, no offset node [{}]. Create new node", path);
             curator.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).forPath(path);
-            curator.setData().forPath(path, offset.getBytes("UTF-8"));
+            stat = curator.setData().forPath(path, offset.getBytes("UTF-8"));
+        }
+
+        existingPaths.add(path);
+        if (null != offsetCache) {
+            offsetCache.onWritten(path, stat, offset);
         }
     }
 
+    /**
+     * Writes the offsets of several partitions in one transaction. Missing offset nodes are created up front.
+     */
+    void setOffsets(final Collection<EventTypeCursor> cursors) throws Exception {
+        if (cursors.isEmpty()) {
+            return;
+        }
+
+        final CuratorFramework curator = zkHolder.getCurator();
+        final Map<String, String> offsets = new HashMap<>();
+        CuratorTransaction transaction = curator.inTransaction();
+        for (final EventTypeCursor cursor : cursors) {
+            final String path = getOffsetPath(cursor.getName(), cursor.getPartition());
+            createIfMissing(curator, path);
+            offsets.put(path, cursor.getOffset());
+            transaction = transaction.setData().forPath(path, cursor.getOffset().getBytes("UTF-8")).and();
+        }
+
+        final Collection<CuratorTransactionResult> results;
+        try {
+            results = ((CuratorTransactionFinal) transaction).commit();
+        } catch (KeeperException.NoNodeException e) {
+
+            // deleted meanwhile, checked again on the next attempt
+            cursors.forEach(cursor -> existingPaths.remove(getOffsetPath(cursor.getName(), cursor.getPartition())));
+            throw e;
+        }
+
+        if (null != offsetCache) {
+            results.forEach(result ->
+                    offsetCache.onWritten(result.getForPath(), result.getResultStat(), offsets.get(result.getForPath())));
+        }
+    }
+
+    private void createIfMissing(final CuratorFramework curator, final String path) throws Exception {
+        if (existingPaths.contains(path)) {
+            return;
+        }
+
+        if (null == curator.checkExists().forPath(path)) {
+            LOGGER.info("No offset node [{}]. Create new node", path);
+            try {
+                curator.create().creatingParentsIfNeeded().withMode(CreateMode.PERSISTENT).forPath(path);
+            } catch (KeeperException.NodeExistsException ignored) {
+                LOGGER.info("Offset node [{}] created concurrently", path);
+            }
+        }
+
+        existingPaths.add(path);
+    }
+
     void delOffset(final EventTypePartition eventTypePartition) throws Exception {
         final String path = getOffsetPath(eventTypePartition.getName(), eventTypePartition.getPartition());
         delOffset(path);
     }
 
+    /**
+     * Deletes the offset node and touches its parent node, so the time of the deletion is known afterwards.
+     */
     void delOffset(final String path) throws Exception {
+        existingPaths.remove(path);
+        if (null != offsetCache) {
+            offsetCache.onDeleted(path);
+        }
+
+        final CuratorFramework curator = zkHolder.getCurator();
         try {
-            zkHolder.getCurator().delete().forPath(path);
+            curator.delete().forPath(path);
         } catch (KeeperException.NoNodeException ignored) {
             LOGGER.info("Delete failed, no offset node [{}]", path);
         }
+
+        try {
+            curator.setData().forPath(ZKPaths.getPathAndNode(path).getPath(), new byte[0]);
+        } catch (KeeperException.NoNodeException ignored) {
+            LOGGER.debug("No consumer node of offset node [{}]", path);
+        }
+    }
+
+    /**
+     * @return  time in milliseconds the offset node was written the last time, if it does not exist the time it was
+     *          deleted the last time, 0 if unknown
+     */
+    long getModifiedTime(final EventTypePartition eventTypePartition) throws Exception {
+        final String path = getOffsetPath(eventTypePartition.getName(), eventTypePartition.getPartition());
+        final CuratorFramework curator = zkHolder.getCurator();
+        sync(path);
+
+        Stat stat = curator.checkExists().forPath(path);
+        if (null == stat) {
+            stat = curator.checkExists().forPath(ZKPaths.getPathAndNode(path).getPath());
+        }
+
+        return null != stat ? stat.getMtime() : 0;
     }
 
     @Nullable
     String getOffset(final String path) throws Exception {
-        final CountDownLatch countDownLatch = new CountDownLatch(1);
-        zkHolder.getCurator().sync().inBackground((client, event) -> countDownLatch.countDown()).forPath(path);
-        countDownLatch.await();
+        sync(path);
 
         try {
             final byte[] data = zkHolder.getCurator().getData().forPath(path);
@@ -88,6 +224,85 @@ class ZKConsumerOffset {
         }
     }
 
+    /**
+     * Reads the offsets of several partitions of an event type with one sync and parallel background reads.
+     *
+     * @return  offsets by partition, partitions without an offset are missing
+     */
+    Map<String, String> getOffsets(final EventType eventType, final Collection<String> partitions) throws Exception {
+        if (partitions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        sync(getOffsetPath(eventType.getName(), partitions.iterator().next()));
+
+        final Map<String, String> offsets = new ConcurrentHashMap<>();
+        final AtomicReference<Exception> error = new AtomicReference<>();
+        final CountDownLatch countDownLatch = new CountDownLatch(partitions.size());
+        for (final String partition : partitions) {
+            final String path = getOffsetPath(eventType.getName(), partition);
+            zkHolder.getCurator().getData().inBackground((client, event) -> {
+                        try {
+                            final KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+                            if (code == KeeperException.Code.OK) {
+                                final byte[] data = event.getData();
+                                if (null != data && data.length != 0) {
+                                    offsets.put(partition, new String(data, "UTF-8"));
+                                }
+                            } else if (code == KeeperException.Code.NONODE) {
+                                LOGGER.info("Get failed, no offset node [{}]", path);
+                            } else {
+                                error.compareAndSet(null, KeeperException.create(code, path));
+                            }
+                        } finally {
+                            countDownLatch.countDown();
+                        }
+                    }).forPath(path);
+        }
+
+        countDownLatch.await();
+        if (null != error.get()) {
+            throw error.get();
+        }
+
+        return offsets;
+    }
+
+    /**
+     * Reads the offsets from the watched offset cache, those the cache cannot answer with one
+     * {@link #getOffsets(EventType, Collection)} and starts watching their offset nodes.
+     *
+     * @return  offsets by partition, partitions without an offset are missing
+     */
+    Map<String, String> getCachedOffsets(final EventType eventType, final Collection<String> partitions)
+        throws Exception {
+        if (null == offsetCache) {
+            return getOffsets(eventType, partitions);
+        }
+
+        final Map<String, String> offsets = new HashMap<>();
+        final List<String> uncached = new ArrayList<>();
+        for (final String partition : partitions) {
+            final ZKConsumerOffsetCache.CachedOffset cached = offsetCache.getOffset(getOffsetPath(
+                        eventType.getName(), partition));
+            if (null == cached) {
+                uncached.add(partition);
+            } else if (null != cached.getOffset()) {
+                offsets.put(partition, cached.getOffset());
+            }
+        }
+
+        offsets.putAll(getOffsets(eventType, uncached));
+        uncached.forEach(partition -> offsetCache.watch(getOffsetPath(eventType.getName(), partition)));
+        return offsets;
+    }
+
+    private void sync(final String path) throws Exception {
+        final CountDownLatch countDownLatch = new CountDownLatch(1);
+        zkHolder.getCurator().sync().inBackground((client, event) -> countDownLatch.countDown()).forPath(path);
+        countDownLatch.await();
+    }
+
     String getOffsetPath(final String name, final String partition) {
         return format(CONSUMER_OFFSET, name, partition, consumerName);
     }
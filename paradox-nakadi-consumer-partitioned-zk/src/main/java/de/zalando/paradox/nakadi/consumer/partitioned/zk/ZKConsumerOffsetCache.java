@@ -0,0 +1,227 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getMessage;
+
+import java.io.Closeable;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.data.Stat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the offset nodes of this consumer read so far and answers offset reads locally. Only the nodes of this
+ * consumer are watched, commits of other consumer groups of the same event type do not reach this cache. Watches are
+ * set in the background after the offsets were read from ZooKeeper, without creating any node, and a node is answered
+ * from the cache once its data has been loaded. The cursors written by this consumer are remembered with their node
+ * version, so a read never returns an older cursor than the last one written here even before the watch has delivered
+ * it. Reads fall back to ZooKeeper while the connection is suspended and for nodes not loaded or not existing.
+ */
+class ZKConsumerOffsetCache implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZKConsumerOffsetCache.class);
+
+    private final ZKHolder zkHolder;
+
+    private final ConcurrentMap<String, WatchedNode> nodes = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CachedOffset> written = new ConcurrentHashMap<>();
+
+    // deleted by this consumer and not yet seen removed by the watch
+    private final Set<String> deleted = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean listening = new AtomicBoolean(false);
+
+    private final ConnectionStateListener connectionListener = (client, state) -> {
+        connected = state.isConnected();
+        if (state == ConnectionState.RECONNECTED) {
+
+            // watches are lost with an expired session
+            nodes.values().forEach(WatchedNode::load);
+        }
+    };
+
+    private volatile boolean connected = true;
+
+    ZKConsumerOffsetCache(final ZKHolder zkHolder) {
+        this.zkHolder = zkHolder;
+    }
+
+    /**
+     * @return  the cached offset node, {@code null} if the cache cannot answer and ZooKeeper has to be read
+     */
+    @Nullable
+    CachedOffset getOffset(final String path) {
+        if (deleted.contains(path)) {
+            return null;
+        }
+
+        final WatchedNode node = nodes.get(path);
+        if (null == node || !connected) {
+            return null;
+        }
+
+        final CachedOffset watched = node.current;
+        if (null == watched) {
+            return null;
+        }
+
+        final CachedOffset own = written.get(path);
+        return null != own && own.isNewerThan(watched) ? own : watched;
+    }
+
+    /**
+     * Starts watching the offset node in the background.
+     */
+    void watch(final String path) {
+        if (listening.compareAndSet(false, true)) {
+            zkHolder.getCurator().getConnectionStateListenable().addListener(connectionListener);
+        }
+
+        nodes.computeIfAbsent(path, key -> {
+                final WatchedNode node = new WatchedNode(key);
+                node.load();
+                return node;
+            });
+    }
+
+    void onWritten(final String path, @Nullable final Stat stat, final String offset) {
+        deleted.remove(path);
+        if (null != stat) {
+            written.merge(path, new CachedOffset(offset, stat.getCzxid(), stat.getVersion()),
+                (previous, current) -> current.isNewerThan(previous) ? current : previous);
+        } else {
+            written.remove(path);
+        }
+    }
+
+    void onDeleted(final String path) {
+        written.remove(path);
+        deleted.add(path);
+    }
+
+    Set<String> getWatchedNodes() {
+        return nodes.keySet();
+    }
+
+    @Override
+    public void close() {
+        if (listening.compareAndSet(true, false)) {
+            zkHolder.getCurator().getConnectionStateListenable().removeListener(connectionListener);
+        }
+
+        nodes.values().forEach(node -> node.closed = true);
+        nodes.clear();
+        written.clear();
+        deleted.clear();
+        connected = true;
+    }
+
+    /**
+     * Offset node kept up to date by an exists watch and a data watch, each change reads the node again.
+     */
+    private final class WatchedNode implements Watcher {
+        private final String path;
+
+        // null while not loaded or not existing
+        @Nullable
+        private volatile CachedOffset current;
+
+        private volatile boolean closed;
+
+        private WatchedNode(final String path) {
+            this.path = path;
+        }
+
+        @Override
+        public void process(final WatchedEvent event) {
+            if (event.getType() != Event.EventType.None) {
+                load();
+            }
+        }
+
+        private void load() {
+            if (closed) {
+                return;
+            }
+
+            try {
+                zkHolder.getCurator().checkExists().usingWatcher(this).inBackground((client, event) -> {
+                            if (event.getResultCode() == KeeperException.Code.OK.intValue()) {
+                                client.getData().usingWatcher(this).inBackground((dataClient, dataEvent) ->
+                                        onData(dataEvent)).forPath(path);
+                            } else {
+                                onMissing(event);
+                            }
+                        }).forPath(path);
+            } catch (Exception e) {
+                LOGGER.warn("Offset cache failed to watch [{}] [{}]", path, getMessage(e));
+                current = null;
+            }
+        }
+
+        private void onData(final CuratorEvent event) {
+            if (event.getResultCode() == KeeperException.Code.OK.intValue()) {
+                final byte[] bytes = event.getData();
+                current = new CachedOffset(null != bytes && bytes.length != 0
+                            ? new String(bytes, StandardCharsets.UTF_8) : null, event.getStat().getCzxid(),
+                        event.getStat().getVersion());
+            } else {
+
+                // deleted meanwhile, the exists watch is set again
+                onMissing(event);
+                load();
+            }
+        }
+
+        private void onMissing(final CuratorEvent event) {
+            current = null;
+            if (event.getResultCode() == KeeperException.Code.NONODE.intValue()) {
+                written.remove(path);
+                deleted.remove(path);
+            } else {
+                LOGGER.warn("Offset cache failed to read [{}] [{}]", path,
+                    KeeperException.Code.get(event.getResultCode()));
+            }
+        }
+    }
+
+    static final class CachedOffset {
+        @Nullable
+        private final String offset;
+        private final long czxid;
+        private final int version;
+
+        private CachedOffset(@Nullable final String offset, final long czxid, final int version) {
+            this.offset = offset;
+            this.czxid = czxid;
+            this.version = version;
+        }
+
+        // a recreated node has a newer creation transaction id and starts again with version 0
+        private boolean isNewerThan(final CachedOffset other) {
+            return czxid != other.czxid ? czxid > other.czxid : version > other.version;
+        }
+
+        @Nullable
+        String getOffset() {
+            return offset;
+        }
+    }
+}
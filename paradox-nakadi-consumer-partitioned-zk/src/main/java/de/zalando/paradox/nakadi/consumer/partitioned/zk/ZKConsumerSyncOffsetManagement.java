@@ -4,6 +4,7 @@ import static java.util.Objects.requireNonNull;
 
 import static org.apache.commons.lang3.exception.ExceptionUtils.getMessage;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallback;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallbackProvider;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionOffsetManagement;
@@ -39,17 +41,20 @@ class ZKConsumerSyncOffsetManagement implements PartitionOffsetManagement {
 
     private final PartitionRebalanceListenerProvider rebalanceListenerProvider;
 
-    private final ZKConsumerOffset consumerOffset;
+    private final OffsetStore offsetStore;
+
+    private final String consumerName;
 
     private final List<EventErrorHandler> eventErrorHandlers;
 
-    ZKConsumerSyncOffsetManagement(@Nonnull final ZKConsumerOffset consumerOffset,
+    ZKConsumerSyncOffsetManagement(@Nonnull final OffsetStore offsetStore, @Nonnull final String consumerName,
             @Nonnull final PartitionCommitCallbackProvider commitCallbackProvider,
             @Nonnull final PartitionRebalanceListenerProvider rebalanceListenerProvider,
             @Nonnull final List<EventErrorHandler> eventErrorHandlers) {
         this.commitCallbackProvider = commitCallbackProvider;
         this.rebalanceListenerProvider = rebalanceListenerProvider;
-        this.consumerOffset = consumerOffset;
+        this.offsetStore = requireNonNull(offsetStore);
+        this.consumerName = requireNonNull(consumerName);
         this.eventErrorHandlers = requireNonNull(eventErrorHandlers);
     }
 
@@ -57,12 +62,23 @@ class ZKConsumerSyncOffsetManagement implements PartitionOffsetManagement {
     public void commit(final EventTypeCursor cursor) {
         LOGGER.debug("Commit [{}] ", cursor);
 
-        try {
-            consumerOffset.setOffset(cursor);
-        } catch (Exception e) {
-            ThrowableUtils.throwException(e);
-        }
+        offsetStore.setOffset(consumerName, cursor);
+
+        onCommitComplete(cursor);
+    }
+
+    /**
+     * Commits the cursors of several partitions with one write.
+     */
+    void commit(final Collection<EventTypeCursor> cursors) {
+        LOGGER.debug("Commit [{}] ", cursors);
+
+        offsetStore.setOffsets(consumerName, cursors);
 
+        cursors.forEach(this::onCommitComplete);
+    }
+
+    private void onCommitComplete(final EventTypeCursor cursor) {
         final PartitionCommitCallback callback = commitCallbackProvider.getPartitionCommitCallback(
                 cursor.getEventTypePartition());
         if (null != callback) {
@@ -93,26 +109,22 @@ class ZKConsumerSyncOffsetManagement implements PartitionOffsetManagement {
 
     @Override
     public void error(final int statusCode, final String content, final EventTypePartition eventTypePartition) {
-        LOGGER.error("Consumer [{}] error [{}] / [{}] for [{}] ", consumerOffset.getConsumerName(), statusCode, content,
+        LOGGER.error("Consumer [{}] error [{}] / [{}] for [{}] ", consumerName, statusCode, content,
             eventTypePartition);
 
         // error [412] / [{"type":"http://httpstatus.es/412","title":"Precondition
         // Failed","status":412,"detail":"offset 34505189 for partition 0 is unavailable"}]
-        if (deleteUnavailableCursors && statusCode == PRECONDITION_FAILED_HTTP_CODE
-                && CURSOR_NOT_AVAILABLE.matcher(content).find()) {
-
-            final String path = consumerOffset.getOffsetPath(eventTypePartition.getName(),
-                    eventTypePartition.getPartition());
+        if (deletesCursor(statusCode, content)) {
             try {
-                LOGGER.warn("Delete consumer offset [{}] due to error [{}]", path, content);
-                consumerOffset.delOffset(path);
+                LOGGER.warn("Delete consumer [{}] offset of [{}] due to error [{}]", consumerName, eventTypePartition,
+                    content);
+                offsetStore.delOffset(consumerName, eventTypePartition);
 
                 // partition will be restarted later and it will use new offset
                 final PartitionRebalanceListener listener = rebalanceListenerProvider.getPartitionRebalanceListener(
                         eventTypePartition.getEventType());
                 if (null != listener) {
-                    LOGGER.warn("Trying to stop consumer [{}] partition [{}]", consumerOffset.getConsumerName(),
-                        eventTypePartition);
+                    LOGGER.warn("Trying to stop consumer [{}] partition [{}]", consumerName, eventTypePartition);
                     listener.onPartitionsRevoked(Collections.singleton(eventTypePartition));
                 }
             } catch (Exception e) {
@@ -122,6 +134,14 @@ class ZKConsumerSyncOffsetManagement implements PartitionOffsetManagement {
         }
     }
 
+    /**
+     * @return  true if the cursor of the partition is deleted due to the error
+     */
+    boolean deletesCursor(final int statusCode, final String content) {
+        return deleteUnavailableCursors && statusCode == PRECONDITION_FAILED_HTTP_CODE
+                && CURSOR_NOT_AVAILABLE.matcher(content).find();
+    }
+
     void setDeleteUnavailableCursors(final boolean deleteUnavailableCursors) {
         this.deleteUnavailableCursors = deleteUnavailableCursors;
     }
@@ -0,0 +1,231 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.util.Objects.requireNonNull;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+/**
+ * Balances the unconsumed events the members published for their partitions instead of the number of partitions.
+ * Members keep their partitions while the most loaded member stays within the imbalance threshold above the average
+ * load, otherwise partitions are moved greedily from the most to the least loaded member. Unowned partitions are bin
+ * packed, the heaviest first onto the least loaded member. A partition without published load weighs the average
+ * published load.
+ *
+ * <p>Loads are published again only when a partition load changed by more than the load change threshold, so small
+ * fluctuations neither rewrite the member data nor trigger a rebalance.</p>
+ */
+public class ZKLagConsumerPartitionRebalanceStrategy implements ConsumerPartitionRebalanceStrategy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZKLagConsumerPartitionRebalanceStrategy.class);
+
+    public static final double DEFAULT_IMBALANCE_THRESHOLD = 0.25;
+
+    public static final double DEFAULT_LOAD_CHANGE_THRESHOLD = 0.25;
+
+    // load changes below are never published
+    private static final long MIN_LOAD_CHANGE = 100;
+
+    private final Map<EventType, Collection<NakadiPartition>> eventNakadiPartitions = new ConcurrentHashMap<>();
+    private final Map<EventType, Map<String, ZKMember>> eventCurrentMembers = new ConcurrentHashMap<>();
+    private final Map<EventType, Lock> eventLocks = new ConcurrentHashMap<>();
+    private final ZKMember member;
+    private final double imbalanceThreshold;
+    private final double loadChangeThreshold;
+
+    public ZKLagConsumerPartitionRebalanceStrategy(final ZKMember member) {
+        this(member, DEFAULT_IMBALANCE_THRESHOLD, DEFAULT_LOAD_CHANGE_THRESHOLD);
+    }
+
+    /**
+     * @param  imbalanceThreshold   fraction of the average load the most loaded member may carry above the average
+     * @param  loadChangeThreshold  fraction a partition load has to change by to be published again
+     */
+    public ZKLagConsumerPartitionRebalanceStrategy(final ZKMember member, final double imbalanceThreshold,
+            final double loadChangeThreshold) {
+        checkArgument(imbalanceThreshold >= 0, "imbalanceThreshold must not be negative");
+        checkArgument(loadChangeThreshold >= 0, "loadChangeThreshold must not be negative");
+        this.member = requireNonNull(member, "member must not be null");
+        this.imbalanceThreshold = imbalanceThreshold;
+        this.loadChangeThreshold = loadChangeThreshold;
+    }
+
+    @Override
+    public void setNakadiPartitions(final EventType eventType, final Collection<NakadiPartition> collection) {
+        eventNakadiPartitions.put(requireNonNull(eventType, "eventType must not be null"), collection);
+    }
+
+    @Override
+    public void setCurrentMembers(final EventType eventType, final Map<String, ZKMember> currentMember) {
+        eventCurrentMembers.put(requireNonNull(eventType, "eventType must not be null"), currentMember);
+    }
+
+    @Override
+    public boolean isPublishingPartitions() {
+        return true;
+    }
+
+    @Override
+    public boolean isUsingPartitionOffsets() {
+        return true;
+    }
+
+    @Override
+    public ZKMember getPublishedMember(final ZKMember zkMember, final Collection<NakadiPartition> assignedPartitions,
+            final Map<String, Long> loads, @Nullable final ZKMember published) {
+        final ZKMember assigned = zkMember.withPartitions(assignedPartitions.stream().map(
+                    NakadiPartition::getPartition).collect(Collectors.toList()), loads);
+        if (null != published && published.getPartitions().equals(assigned.getPartitions())
+                && published.getLoads().keySet().equals(assigned.getLoads().keySet())
+                && assigned.getLoads().entrySet().stream().noneMatch(entry ->
+                        isLoadChanged(published.getLoads().get(entry.getKey()), entry.getValue()))) {
+            return published;
+        }
+
+        return assigned;
+    }
+
+    private boolean isLoadChanged(final long published, final long current) {
+        final long change = Math.abs(current - published);
+        return change >= MIN_LOAD_CHANGE && change > loadChangeThreshold * Math.max(published, current);
+    }
+
+    @Override
+    public void rebalance(final EventType eventType, final ResultCallback resultCallback) {
+        requireNonNull(eventType, "eventType must not be null");
+        requireNonNull(resultCallback, "resultCallback must not be null");
+
+        final Lock lock = eventLocks.computeIfAbsent(eventType, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            final Collection<NakadiPartition> nakadiPartitions = eventNakadiPartitions.getOrDefault(eventType,
+                    Collections.emptyList());
+            final Map<String, ZKMember> currentMembers = eventCurrentMembers.getOrDefault(eventType,
+                    Collections.emptyMap());
+
+            LOGGER.debug("Rebalance input for [{}] member [{}] , all members [{}] , nakadi partitions [{}]", eventType,
+                member.getMemberId(), currentMembers.values(), nakadiPartitions);
+
+            if (!nakadiPartitions.isEmpty() && currentMembers.containsKey(member.getMemberId())) {
+                final Map<String, String> owners = assign(nakadiPartitions.stream().map(NakadiPartition::getPartition)
+                                                                          .collect(Collectors.toList()),
+                        currentMembers, imbalanceThreshold);
+
+                final List<NakadiPartition> partitionsToAssign = new ArrayList<>();
+                final List<NakadiPartition> partitionsToRevoke = new ArrayList<>();
+                nakadiPartitions.forEach(nakadiPartition -> {
+                    if (member.getMemberId().equals(owners.get(nakadiPartition.getPartition()))) {
+                        partitionsToAssign.add(nakadiPartition);
+                    } else {
+                        partitionsToRevoke.add(nakadiPartition);
+                    }
+                });
+
+                resultCallback.rebalancePartitions(eventType, partitionsToAssign, partitionsToRevoke);
+            } else {
+                LOGGER.info("More data is required to invoke rebalance for [{}] member", member.getMemberId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return  partition to member id
+     */
+    static Map<String, String> assign(final Collection<String> partitions, final Map<String, ZKMember> currentMembers,
+            final double imbalanceThreshold) {
+        final List<String> memberIds = currentMembers.keySet().stream().sorted().collect(Collectors.toList());
+
+        // published partitions, a partition claimed twice stays with the first member
+        final Map<String, String> owners = new TreeMap<>();
+        final Map<String, Long> published = new HashMap<>();
+        memberIds.stream().map(currentMembers::get).filter(Objects::nonNull).forEach(zkMember ->
+                zkMember.getPartitions().stream().filter(partitions::contains).forEach(partition -> {
+                    if (null == owners.putIfAbsent(partition, zkMember.getMemberId())) {
+                        final Long load = zkMember.getLoads().get(partition);
+                        if (null != load) {
+                            published.put(partition, Math.max(1L, load));
+                        }
+                    }
+                }));
+
+        final long defaultWeight = Math.max(1L,
+                Math.round(published.values().stream().mapToLong(Long::longValue).average().orElse(1)));
+        final Map<String, Long> weights = new HashMap<>();
+        partitions.forEach(partition -> weights.put(partition, published.getOrDefault(partition, defaultWeight)));
+
+        final Map<String, Long> memberLoads = new HashMap<>();
+        final Map<String, Integer> memberCounts = new HashMap<>();
+        memberIds.forEach(memberId -> {
+            memberLoads.put(memberId, 0L);
+            memberCounts.put(memberId, 0);
+        });
+        owners.forEach((partition, memberId) -> {
+            memberLoads.merge(memberId, weights.get(partition), Long::sum);
+            memberCounts.merge(memberId, 1, Integer::sum);
+        });
+
+        final Comparator<String> byLoad = Comparator.comparing((String memberId) -> memberLoads.get(memberId))
+                                                    .thenComparing(memberCounts::get).thenComparing(
+                                                        Comparator.naturalOrder());
+
+        // heaviest unowned partitions first onto the least loaded member
+        partitions.stream().distinct().filter(partition -> !owners.containsKey(partition)).sorted(Comparator
+                      .comparing((String partition) -> weights.get(partition)).reversed().thenComparing(
+                          Comparator.naturalOrder())).forEach(partition -> {
+                      final String memberId = memberIds.stream().min(byLoad).get();
+                      owners.put(partition, memberId);
+                      memberLoads.merge(memberId, weights.get(partition), Long::sum);
+                      memberCounts.merge(memberId, 1, Integer::sum);
+                  });
+
+        final double maxLoad = (1 + imbalanceThreshold) * weights.values().stream().mapToLong(Long::longValue).sum()
+                / memberIds.size();
+        for (int i = 0; i < owners.size(); i++) {
+            final String heaviest = memberIds.stream().max(byLoad).get();
+            final String lightest = memberIds.stream().min(byLoad).get();
+            final long gap = memberLoads.get(heaviest) - memberLoads.get(lightest);
+            if (memberLoads.get(heaviest) <= maxLoad) {
+                break;
+            }
+
+            // the heaviest partition whose move lowers the larger of both loads
+            final String partition = owners.entrySet().stream().filter(entry -> entry.getValue().equals(heaviest))
+                                           .map(Map.Entry::getKey).filter(candidate -> weights.get(candidate) < gap)
+                                           .max(Comparator.comparing((String candidate) -> weights.get(candidate))
+                                                   .thenComparing(Comparator.reverseOrder())).orElse(null);
+            if (null == partition) {
+                break;
+            }
+
+            owners.put(partition, lightest);
+            memberLoads.merge(heaviest, -weights.get(partition), Long::sum);
+            memberLoads.merge(lightest, weights.get(partition), Long::sum);
+            memberCounts.merge(heaviest, -1, Integer::sum);
+            memberCounts.merge(lightest, 1, Integer::sum);
+        }
+
+        return owners;
+    }
+}
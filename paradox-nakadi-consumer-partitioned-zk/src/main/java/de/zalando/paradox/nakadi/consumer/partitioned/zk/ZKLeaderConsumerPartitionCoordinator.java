@@ -2,17 +2,29 @@ package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
+import org.apache.commons.lang3.math.NumberUtils;
+
 import org.json.JSONException;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -27,11 +39,24 @@ import de.zalando.paradox.nakadi.consumer.core.utils.LoggingUtils;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
 public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPartitionCoordinator {
+    private static final String BEGIN = "BEGIN";
+
+    static final long DEFAULT_HAND_OVER_TIMEOUT_MILLIS = 30000;
+
     private final ZKMember member;
     private final ConcurrentMap<EventType, ZKGroupMember> eventTypeToGroupMember = new ConcurrentHashMap<>();
     private final ZKConsumerGroupMember consumerGroupMember;
     private final ConsumerPartitionRebalanceStrategy rebalancer;
     private final AtomicBoolean running = new AtomicBoolean(true);
+    private volatile boolean cooperativeRebalance;
+    private final ConcurrentMap<EventType, ZKMember> publishedMembers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EventTypePartition, String> committedOffsets = new ConcurrentHashMap<>();
+    private final AtomicBoolean unknownLoadLogged = new AtomicBoolean();
+
+    // completed when the stream of a partition assigned by this coordinator finished
+    private final ConcurrentMap<EventTypePartition, CompletableFuture<Void>> streams = new ConcurrentHashMap<>();
+    private final Set<EventTypePartition> handingOver = ConcurrentHashMap.newKeySet();
+    private volatile long handOverTimeoutMillis = DEFAULT_HAND_OVER_TIMEOUT_MILLIS;
 
     private final ZKConsumerPartitionLeader consumerPartitionLeader;
     private final ConsumerPartitionRebalanceStrategy.ResultCallback rebalanceResultCallback =
@@ -45,14 +70,20 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
                 log.debug("Rebalance [{}], assign [{}], revoke [{}]", eventType.getName(),
                     getPartitions(nakadiPartitionsToAssign), getPartitions(nakadiPartitionsToRevoke));
 
-                nakadiPartitionsToRevoke.forEach(nakadiPartitionToRevoke -> {
-                    try {
-                        consumerPartitionLeader.closeGroupLeadership(
-                            EventTypePartition.of(eventType, nakadiPartitionToRevoke.getPartition()));
-                    } finally {
-                        revokePartition(eventType, nakadiPartitionToRevoke.getPartition());
-                    }
-                });
+                if (cooperativeRebalance) {
+                    handOver(nakadiPartitionsToRevoke.stream().map(nakadiPartition ->
+                                EventTypePartition.of(eventType, nakadiPartition.getPartition())).collect(
+                            Collectors.toList()));
+                } else {
+                    nakadiPartitionsToRevoke.forEach(nakadiPartitionToRevoke -> {
+                        try {
+                            consumerPartitionLeader.closeGroupLeadership(EventTypePartition.of(eventType,
+                                    nakadiPartitionToRevoke.getPartition()));
+                        } finally {
+                            revokePartition(eventType, nakadiPartitionToRevoke.getPartition());
+                        }
+                    });
+                }
 
                 nakadiPartitionsToAssign.forEach(nakadiPartitionToAssign -> {
                     try {
@@ -66,7 +97,8 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
                                         eventTypePartition);
 
                                     final Function<NakadiPartition, EventTypeCursor> offsetSelector = getOffsetSelector(
-                                            eventTypePartition.getEventType());
+                                            eventTypePartition.getEventType(), cooperativeRebalance);
+                                    streams.putIfAbsent(eventTypePartition, new CompletableFuture<>());
                                     assignPartition(eventTypePartition.getEventType(), nakadiPartitionToAssign,
                                         offsetSelector);
                                 }
@@ -85,17 +117,165 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
                         ThrowableUtils.throwException(e);
                     }
                 });
+
+                if (rebalancer.isPublishingPartitions()) {
+                    publishPartitions(eventType, nakadiPartitionsToAssign);
+                }
             }
         };
     }
 
+    /**
+     * Releases partitions only if this member leads them: stops their streams, waits until the streams finished, writes
+     * their final offsets and then releases the leadership, so the next leader starts from the final offset as soon as
+     * it takes the leadership. All streams are stopped first and share one deadline. A partition whose stream does not
+     * finish in time or whose offset cannot be written keeps its leadership until the hand over is tried again on the
+     * next rebalance.
+     */
+    private void handOver(final Collection<EventTypePartition> eventTypePartitions) {
+        final Map<EventTypePartition, CompletableFuture<Void>> revoked = new LinkedHashMap<>();
+        for (final EventTypePartition eventTypePartition : eventTypePartitions) {
+            if (!consumerPartitionLeader.isLeader(eventTypePartition)) {
+                consumerPartitionLeader.closeGroupLeadership(eventTypePartition);
+                continue;
+            }
+
+            log.info("Member [{}] hands over [{}]", member.getMemberId(), eventTypePartition);
+            handingOver.add(eventTypePartition);
+
+            final CompletableFuture<Void> stream = streams.get(eventTypePartition);
+            try {
+                revokePartition(eventTypePartition.getEventType(), eventTypePartition.getPartition());
+            } catch (RuntimeException e) {
+                handingOver.remove(eventTypePartition);
+                log.warn("Revoke of [{}] failed, keep leadership until the next rebalance", eventTypePartition, e);
+                continue;
+            }
+
+            revoked.put(eventTypePartition, null != stream ? stream : CompletableFuture.completedFuture(null));
+        }
+
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(handOverTimeoutMillis);
+        try {
+            for (final Map.Entry<EventTypePartition, CompletableFuture<Void>> entry : revoked.entrySet()) {
+                final EventTypePartition eventTypePartition = entry.getKey();
+                try {
+                    entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    flush(eventTypePartition);
+                } catch (TimeoutException e) {
+                    log.warn("Stream of [{}] did not finish within [{}] ms, keep leadership until the next rebalance",
+                        eventTypePartition, handOverTimeoutMillis);
+                    continue;
+                } catch (ExecutionException | RuntimeException e) {
+                    log.warn("Final offset of [{}] could not be written, keep leadership until the next rebalance",
+                        eventTypePartition, e);
+                    continue;
+                } finally {
+                    handingOver.remove(eventTypePartition);
+                }
+
+                consumerPartitionLeader.closeGroupLeadership(eventTypePartition);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while handing over [{}], keep leadership", revoked.keySet());
+        } finally {
+            handingOver.removeAll(revoked.keySet());
+        }
+    }
+
+    @VisibleForTesting
+    void setHandOverTimeoutMillis(final long handOverTimeoutMillis) {
+        this.handOverTimeoutMillis = handOverTimeoutMillis;
+    }
+
+    private void publishPartitions(final EventType eventType, final Collection<NakadiPartition> nakadiPartitions) {
+        final ZKGroupMember groupMember = eventTypeToGroupMember.get(eventType);
+        if (null != groupMember) {
+            final ZKMember published = publishedMembers.get(eventType);
+            final ZKMember assigned = rebalancer.getPublishedMember(member, nakadiPartitions,
+                    getLoads(eventType, nakadiPartitions), published);
+            final byte[] data = assigned.toByteJson();
+            if (null == published || !Arrays.equals(data, published.toByteJson())) {
+                log.debug("Publish member [{}] partitions [{}] loads [{}] for [{}]", member.getMemberId(),
+                    assigned.getPartitions(), assigned.getLoads(), eventType.getName());
+                publishedMembers.put(eventType, assigned);
+                groupMember.setThisData(data);
+            }
+        }
+    }
+
+    // unconsumed events reported by Nakadi or the distance of the committed offset to the newest available offset
+    private Map<String, Long> getLoads(final EventType eventType, final Collection<NakadiPartition> nakadiPartitions) {
+        final Map<String, Long> loads = new HashMap<>();
+        nakadiPartitions.forEach(nakadiPartition -> {
+            final String committed = committedOffsets.get(EventTypePartition.of(eventType,
+                        nakadiPartition.getPartition()));
+            if (nakadiPartition.getUnconsumedEvents().isPresent()) {
+                loads.put(nakadiPartition.getPartition(), nakadiPartition.getUnconsumedEvents().get());
+            } else if (null != committed) {
+                final Long distance = getDistance(committed, nakadiPartition.getNewestAvailableOffset());
+                if (null != distance) {
+                    loads.put(nakadiPartition.getPartition(), distance);
+                } else if (!BEGIN.equals(committed) && unknownLoadLogged.compareAndSet(false, true)) {
+                    log.warn("Load of [{}] partition [{}] is unknown for offsets [{}] and [{}], lag balancing "
+                            + "weighs such partitions with the average load", eventType,
+                        nakadiPartition.getPartition(), committed, nakadiPartition.getNewestAvailableOffset());
+                }
+            }
+        });
+        return loads;
+    }
+
+    /**
+     * Offsets are numbers or versioned cursors like {@code 001-0001-000000000000000042}, whose zero padded offset
+     * part follows the last dash. The distance of versioned cursors is known on the same timeline only.
+     *
+     * @return  number of events from the offset to the newest offset, null if unknown
+     */
+    @Nullable
+    @VisibleForTesting
+    static Long getDistance(final String offset, @Nullable final String newest) {
+        if (null == newest) {
+            return null;
+        }
+
+        final int offsetSeparator = offset.lastIndexOf('-');
+        final int newestSeparator = newest.lastIndexOf('-');
+        if (!offset.substring(0, offsetSeparator + 1).equals(newest.substring(0, newestSeparator + 1))) {
+            return null;
+        }
+
+        final String offsetNumber = offset.substring(offsetSeparator + 1);
+        final String newestNumber = newest.substring(newestSeparator + 1);
+        if (!isNumericOffset(offsetNumber) || !isNumericOffset(newestNumber)) {
+            return null;
+        }
+
+        return Math.max(0L, Long.parseLong(newestNumber) - Long.parseLong(offsetNumber));
+    }
+
+    private static boolean isNumericOffset(final String offset) {
+        return offset.length() < 19 && NumberUtils.isDigits(offset);
+    }
+
     public ZKLeaderConsumerPartitionCoordinator(final ZKHolder zkHolder, final String consumerName,
             final List<EventErrorHandler> eventErrorHandlers) {
+        this(zkHolder, consumerName, eventErrorHandlers, ZKLeaderConsumerPartitionRebalanceStrategy::new);
+    }
+
+    /**
+     * @param  rebalanceStrategyFactory  creates the rebalance strategy for the member of this coordinator, e.g.
+     *                                   {@code ZKStickyConsumerPartitionRebalanceStrategy::new}
+     */
+    public ZKLeaderConsumerPartitionCoordinator(final ZKHolder zkHolder, final String consumerName,
+            final List<EventErrorHandler> eventErrorHandlers,
+            final Function<ZKMember, ConsumerPartitionRebalanceStrategy> rebalanceStrategyFactory) {
         super(LoggingUtils.getLogger(ZKLeaderConsumerPartitionCoordinator.class, consumerName), zkHolder, consumerName,
             eventErrorHandlers);
         this.member = ZKMember.of(UUID.randomUUID().toString());
         this.consumerGroupMember = new ZKConsumerGroupMember(zkHolder, consumerName, member);
-        this.rebalancer = new ZKLeaderConsumerPartitionRebalanceStrategy(member);
+        this.rebalancer = requireNonNull(rebalanceStrategyFactory.apply(member), "rebalancer must not be null");
         this.consumerPartitionLeader = new ZKConsumerPartitionLeader(zkHolder, consumerName, member);
     }
 
@@ -115,8 +295,12 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
     public void close() {
         if (running.compareAndSet(true, false)) {
             log.info("Closing coordinator for member [{}]", member.getMemberId());
+            closeOffsetManagement();
+            closeOffsetCache();
             eventTypeToGroupMember.entrySet().forEach(groupMember -> groupMember.getValue().close());
             eventTypeToGroupMember.clear();
+            publishedMembers.clear();
+            committedOffsets.clear();
             consumerPartitionLeader.close();
         } else {
             log.warn("Coordinator for member [{}] is already closed", member.getMemberId());
@@ -154,13 +338,49 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
         joinGroup(consumerPartitions.getEventType());
     }
 
+    @Override
+    public boolean isRebalanceOnOffsetChange() {
+        return rebalancer.isUsingPartitionOffsets();
+    }
+
+    /**
+     * Hands over only the partitions that move to another member. The final offset of a moving partition is written
+     * before its leadership is released and the next leader reads it from ZooKeeper, bypassing the offset cache.
+     */
+    public void setCooperativeRebalance(final boolean cooperativeRebalance) {
+        this.cooperativeRebalance = cooperativeRebalance;
+    }
+
+    @Override
+    public void commit(final EventTypeCursor cursor) {
+        super.commit(cursor);
+        if (rebalancer.isPublishingPartitions()) {
+            committedOffsets.put(cursor.getEventTypePartition(), cursor.getOffset());
+        }
+    }
+
+    /**
+     * Releases the leadership of a partition whose stream finished, unless it is handed over, which releases the
+     * leadership after the final offset was written.
+     */
     @Override
     public void finished(final EventTypePartition eventTypePartition) {
-        log.info("Close group leadership on finished [{}]", eventTypePartition);
         try {
-            consumerPartitionLeader.closeGroupLeadership(eventTypePartition);
+            if (handingOver.contains(eventTypePartition)) {
+                log.info("Finished [{}] for hand over", eventTypePartition);
+            } else {
+                log.info("Close group leadership on finished [{}]", eventTypePartition);
+                try {
+                    consumerPartitionLeader.closeGroupLeadership(eventTypePartition);
+                } finally {
+                    revokePartition(eventTypePartition.getEventType(), eventTypePartition.getPartition());
+                }
+            }
         } finally {
-            revokePartition(eventTypePartition.getEventType(), eventTypePartition.getPartition());
+            final CompletableFuture<Void> stream = streams.remove(eventTypePartition);
+            if (null != stream) {
+                stream.complete(null);
+            }
         }
     }
 
@@ -195,6 +415,14 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
                 onGroupChanged(eventType);
             }
 
+            @Override
+            public void memberUpdated(final EventType eventType, final String memberId) {
+                if (rebalancer.isPublishingPartitions()) {
+                    log.debug("Member [{}] updated data for event type [{}]", memberId, eventType);
+                    onGroupChanged(eventType);
+                }
+            }
+
             /**
              * Returns the current group members for an {@link EventType}.
              *
@@ -233,5 +461,7 @@ public class ZKLeaderConsumerPartitionCoordinator extends AbstractZKConsumerPart
             log.info("Member [{}] is leaving group for event type [{}]", member.getMemberId(), eventType);
             groupMember.close();
         }
+
+        publishedMembers.remove(eventType);
     }
 }
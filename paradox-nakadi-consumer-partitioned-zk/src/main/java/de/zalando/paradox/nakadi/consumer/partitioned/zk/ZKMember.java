@@ -4,6 +4,15 @@ import static java.util.Objects.requireNonNull;
 
 import java.nio.charset.StandardCharsets;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -14,10 +23,27 @@ public class ZKMember {
     private final String host;
     private final long created;
 
+    // partitions owned by the member, published for the sticky rebalance
+    private final SortedSet<String> partitions;
+
+    // unconsumed events of the owned partitions, published for the lag weighted rebalance
+    private final SortedMap<String, Long> loads;
+
     ZKMember(final String memberId, final String host, final long created) {
+        this(memberId, host, created, Collections.emptySet());
+    }
+
+    ZKMember(final String memberId, final String host, final long created, final Collection<String> partitions) {
+        this(memberId, host, created, partitions, Collections.emptyMap());
+    }
+
+    ZKMember(final String memberId, final String host, final long created, final Collection<String> partitions,
+            final Map<String, Long> loads) {
         this.memberId = requireNonNull(memberId, "memberId must not be null");
         this.host = host;
         this.created = created;
+        this.partitions = Collections.unmodifiableSortedSet(new TreeSet<>(partitions));
+        this.loads = Collections.unmodifiableSortedMap(new TreeMap<>(loads));
     }
 
     private ZKMember(final String memberId) {
@@ -33,6 +59,14 @@ public class ZKMember {
         json.put("memberId", memberId);
         json.put("host", host);
         json.put("created", created);
+        if (!partitions.isEmpty()) {
+            json.put("partitions", new JSONArray(partitions));
+        }
+
+        if (!loads.isEmpty()) {
+            json.put("loads", new JSONObject(loads));
+        }
+
         return json.toString().getBytes(StandardCharsets.UTF_8);
     }
 
@@ -41,7 +75,31 @@ public class ZKMember {
         final String memberId = json.getString("memberId");
         final String host = json.getString("host");
         final long created = json.getLong("created");
-        return new ZKMember(memberId, host, created);
+        final JSONArray partitionsArray = json.optJSONArray("partitions");
+        final Collection<String> partitions = new TreeSet<>();
+        if (null != partitionsArray) {
+            for (int i = 0; i < partitionsArray.length(); i++) {
+                partitions.add(partitionsArray.getString(i));
+            }
+        }
+
+        final JSONObject loadsObject = json.optJSONObject("loads");
+        final Map<String, Long> loads = new TreeMap<>();
+        if (null != loadsObject) {
+            for (final String partition : loadsObject.keySet()) {
+                loads.put(partition, loadsObject.getLong(partition));
+            }
+        }
+
+        return new ZKMember(memberId, host, created, partitions, loads);
+    }
+
+    ZKMember withPartitions(final Collection<String> newPartitions) {
+        return withPartitions(newPartitions, Collections.emptyMap());
+    }
+
+    ZKMember withPartitions(final Collection<String> newPartitions, final Map<String, Long> newLoads) {
+        return new ZKMember(memberId, host, created, newPartitions, newLoads);
     }
 
     public String getMemberId() {
@@ -52,6 +110,14 @@ public class ZKMember {
         return created;
     }
 
+    public SortedSet<String> getPartitions() {
+        return partitions;
+    }
+
+    public SortedMap<String, Long> getLoads() {
+        return loads;
+    }
+
     public String toString() {
         return this.memberId + ":" + this.host + ":" + this.created;
     }
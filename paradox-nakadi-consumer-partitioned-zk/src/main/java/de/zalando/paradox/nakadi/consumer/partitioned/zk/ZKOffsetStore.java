@@ -0,0 +1,179 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.lang.String.format;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Offset store in ZooKeeper. The ZooKeeper partition coordinators read and write their offsets through it, with the
+ * cached reads of their watched offset cache in addition.
+ */
+public class ZKOffsetStore implements OffsetStore {
+
+    private static final String CONSUMERS_PATH = "/paradox/nakadi/event_types/%s/partitions/%s/consumers/%s";
+
+    private static final String PARTITIONS_PATH = "/paradox/nakadi/event_types/%s/partitions";
+
+    private static final String EVENT_TYPES_PATH = "/paradox/nakadi/event_types";
+
+    private final ZKHolder zkHolder;
+
+    private final ZKPathPatterns pathPatterns;
+
+    private final ConcurrentMap<String, ZKConsumerOffset> consumerOffsets = new ConcurrentHashMap<>();
+
+    @Nullable
+    private final ZKConsumerOffsetCache offsetCache;
+
+    public ZKOffsetStore(final ZKHolder zkHolder) {
+        this(zkHolder, null);
+    }
+
+    /**
+     * @param  offsetCache  cache updated by the writes and deletes of this store and answering the cached reads
+     */
+    ZKOffsetStore(final ZKHolder zkHolder, @Nullable final ZKConsumerOffsetCache offsetCache) {
+        this.zkHolder = zkHolder;
+        this.pathPatterns = new ZKPathPatterns(zkHolder.getCurator());
+        this.offsetCache = offsetCache;
+    }
+
+    @Nullable
+    @Override
+    public String getOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        try {
+            return getConsumerOffset(consumerName).getOffset(eventTypePartition);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    @Override
+    public Map<String, String> getOffsets(final String consumerName, final EventType eventType,
+            final Collection<String> partitions) {
+        try {
+            return getConsumerOffset(consumerName).getOffsets(eventType, partitions);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the offsets from the offset cache where it can answer, the others from ZooKeeper.
+     *
+     * @see  ZKConsumerOffset#getCachedOffsets(EventType, Collection)
+     */
+    Map<String, String> getCachedOffsets(final String consumerName, final EventType eventType,
+            final Collection<String> partitions) {
+        try {
+            return getConsumerOffset(consumerName).getCachedOffsets(eventType, partitions);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    @Nullable
+    String getCachedOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        try {
+            return getConsumerOffset(consumerName).getCachedOffset(eventTypePartition.getEventType(),
+                    eventTypePartition.getPartition());
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    /**
+     * @see  ZKConsumerOffset#getModifiedTime(EventTypePartition)
+     */
+    long getModifiedTime(final String consumerName, final EventTypePartition eventTypePartition) {
+        try {
+            return getConsumerOffset(consumerName).getModifiedTime(eventTypePartition);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return 0;
+        }
+    }
+
+    @Override
+    public void setOffset(final String consumerName, final EventTypeCursor cursor) {
+        try {
+            getConsumerOffset(consumerName).setOffset(cursor);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Override
+    public void setOffsets(final String consumerName, final Collection<EventTypeCursor> cursors) {
+        try {
+            getConsumerOffset(consumerName).setOffsets(cursors);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Override
+    public void delOffset(final String consumerName, final EventTypePartition eventTypePartition) {
+        try {
+            getConsumerOffset(consumerName).delOffset(eventTypePartition);
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Override
+    public List<EventType> getEventTypes() {
+        final List<String> children = pathPatterns.getChildrenPath(EVENT_TYPES_PATH);
+        return children.stream().distinct().sorted().map(EventType::of).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getConsumerNames() {
+        final List<String> children = pathPatterns.getChildrenPath(getConsumersPath("*", "*", "*"));
+        return children.stream().distinct().sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getEventConsumerNames(final EventType eventType) {
+        checkArgument(null != eventType, "eventType must not be null");
+
+        final List<String> children = pathPatterns.getChildrenPath(getConsumersPath(eventType.getName(), "*", "*"));
+        return children.stream().distinct().sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public List<EventTypePartition> getEventPartitions(final EventType eventType) {
+        checkArgument(null != eventType, "eventType must not be null");
+
+        final List<String> children = pathPatterns.getChildrenPath(format(PARTITIONS_PATH, eventType.getName()));
+        return children.stream().distinct().sorted().map(partition -> EventTypePartition.of(eventType, partition))
+                       .collect(Collectors.toList());
+    }
+
+    private static String getConsumersPath(final String eventName, final String partition, final String consumerName) {
+        return format(CONSUMERS_PATH, eventName, partition, consumerName);
+    }
+
+    private ZKConsumerOffset getConsumerOffset(final String consumerName) {
+        return consumerOffsets.computeIfAbsent(consumerName, name -> new ZKConsumerOffset(zkHolder, name, offsetCache));
+    }
+}
@@ -0,0 +1,95 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.utils.ZKPaths;
+
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Resolves ZooKeeper path patterns whose path elements may be the wildcard {@code *}.
+ */
+final class ZKPathPatterns {
+    private static final Pattern SPLITTER = Pattern.compile("/?\\*/?");
+
+    private final CuratorFramework client;
+
+    ZKPathPatterns(final CuratorFramework client) {
+        this.client = client;
+    }
+
+    /**
+     * @return  names of the nodes matching the pattern
+     */
+    List<String> getChildrenPath(final String pattern) {
+        final String[] paths = SPLITTER.split(pattern);
+        if (paths.length == 0) {
+            return getChildren(paths[0]);
+        } else if (paths.length > 0) {
+            return getNextChildrenPath(paths, 0, paths[0]);
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @return  full paths of the nodes matching the pattern
+     */
+    List<String> getFullPath(final String pattern) {
+        final String[] paths = SPLITTER.split(pattern);
+        if (paths.length == 0) {
+            return getLastFullPath(paths[0]);
+        } else if (paths.length > 0) {
+            return getNextFullPath(paths, 0, paths[0]);
+        } else {
+            return Collections.emptyList();
+        }
+    }
+
+    private List<String> getNextChildrenPath(final String[] paths, final int index, final String prefix) {
+        final boolean last = index >= paths.length - 1;
+        if (last) {
+            return getChildren(prefix);
+        } else {
+            final int nextIndex = index + 1;
+            final String nextPath = paths[nextIndex];
+            return getChildren(prefix).stream().map(child -> {
+                                          final String childPrefix = prefix + "/" + child + "/" + nextPath;
+                                          return getNextChildrenPath(paths, nextIndex, childPrefix);
+                                      }).flatMap(Collection::stream).collect(Collectors.toList());
+        }
+    }
+
+    private List<String> getNextFullPath(final String[] paths, final int index, final String prefix) {
+        final boolean last = index >= paths.length - 1;
+        if (last) {
+            return getLastFullPath(prefix);
+        } else {
+            final int nextIndex = index + 1;
+            final String nextPath = paths[nextIndex];
+            return getChildren(prefix).stream().map(child -> {
+                                          final String childPrefix = prefix + "/" + child + "/" + nextPath;
+                                          return getNextFullPath(paths, nextIndex, childPrefix);
+                                      }).flatMap(Collection::stream).collect(Collectors.toList());
+        }
+    }
+
+    private List<String> getLastFullPath(final String path) {
+        return getChildren(path).stream().map(child -> ZKPaths.makePath(path, child)).collect(Collectors.toList());
+    }
+
+    private List<String> getChildren(final String path) {
+        try {
+            return client.checkExists().forPath(path) != null ? client.getChildren().forPath(path)
+                                                              : Collections.emptyList();
+        } catch (Exception e) {
+            ThrowableUtils.throwException(e);
+            return Collections.emptyList();
+        }
+    }
+}
@@ -46,6 +46,8 @@ public class ZKSimpleConsumerPartitionCoordinator extends AbstractZKConsumerPart
     public void close() {
         if (running.compareAndSet(true, false)) {
             log.info("Closing coordinator");
+            closeOffsetManagement();
+            closeOffsetCache();
         } else {
             log.warn("Coordinator is already closed");
         }
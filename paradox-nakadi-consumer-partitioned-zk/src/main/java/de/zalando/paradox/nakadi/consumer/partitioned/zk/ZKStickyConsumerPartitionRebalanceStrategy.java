@@ -0,0 +1,158 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+/**
+ * Keeps the partitions the members published as owned and moves only the partitions needed to even out the
+ * assignment. Every member computes the same plan from the published partitions, so a member joining or leaving moves
+ * at most the partitions it gains or releases.
+ */
+public class ZKStickyConsumerPartitionRebalanceStrategy implements ConsumerPartitionRebalanceStrategy {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ZKStickyConsumerPartitionRebalanceStrategy.class);
+
+    private final Map<EventType, Collection<NakadiPartition>> eventNakadiPartitions = new ConcurrentHashMap<>();
+    private final Map<EventType, Map<String, ZKMember>> eventCurrentMembers = new ConcurrentHashMap<>();
+    private final Map<EventType, Lock> eventLocks = new ConcurrentHashMap<>();
+    private final ZKMember member;
+
+    public ZKStickyConsumerPartitionRebalanceStrategy(final ZKMember member) {
+        this.member = requireNonNull(member, "member must not be null");
+    }
+
+    @Override
+    public void setNakadiPartitions(final EventType eventType, final Collection<NakadiPartition> collection) {
+        eventNakadiPartitions.put(requireNonNull(eventType, "eventType must not be null"), collection);
+    }
+
+    @Override
+    public void setCurrentMembers(final EventType eventType, final Map<String, ZKMember> currentMember) {
+        eventCurrentMembers.put(requireNonNull(eventType, "eventType must not be null"), currentMember);
+    }
+
+    @Override
+    public boolean isPublishingPartitions() {
+        return true;
+    }
+
+    @Override
+    public void rebalance(final EventType eventType, final ResultCallback resultCallback) {
+        requireNonNull(eventType, "eventType must not be null");
+        requireNonNull(resultCallback, "resultCallback must not be null");
+
+        final Lock lock = eventLocks.computeIfAbsent(eventType, key -> new ReentrantLock());
+        lock.lock();
+        try {
+            final Collection<NakadiPartition> nakadiPartitions = eventNakadiPartitions.getOrDefault(eventType,
+                    Collections.emptyList());
+            final Map<String, ZKMember> currentMembers = eventCurrentMembers.getOrDefault(eventType,
+                    Collections.emptyMap());
+
+            LOGGER.debug("Rebalance input for [{}] member [{}] , all members [{}] , nakadi partitions [{}]", eventType,
+                member.getMemberId(), currentMembers.values(), nakadiPartitions);
+
+            if (!nakadiPartitions.isEmpty() && currentMembers.containsKey(member.getMemberId())) {
+                final Map<String, String> owners = assign(nakadiPartitions.stream().map(NakadiPartition::getPartition)
+                                                                          .collect(Collectors.toList()),
+                        currentMembers);
+
+                final List<NakadiPartition> partitionsToAssign = new ArrayList<>();
+                final List<NakadiPartition> partitionsToRevoke = new ArrayList<>();
+                nakadiPartitions.forEach(nakadiPartition -> {
+                    if (member.getMemberId().equals(owners.get(nakadiPartition.getPartition()))) {
+                        partitionsToAssign.add(nakadiPartition);
+                    } else {
+                        partitionsToRevoke.add(nakadiPartition);
+                    }
+                });
+
+                resultCallback.rebalancePartitions(eventType, partitionsToAssign, partitionsToRevoke);
+            } else {
+                LOGGER.info("More data is required to invoke rebalance for [{}] member", member.getMemberId());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Computes the owner of every partition. Members keep their published partitions up to their quota, the members
+     * owning the most partitions get the larger quotas, and the remaining partitions fill the other members in member
+     * id order.
+     *
+     * @return  partition to member id
+     */
+    static Map<String, String> assign(final Collection<String> partitions, final Map<String, ZKMember> currentMembers) {
+        final List<String> sortedPartitions = partitions.stream().distinct().sorted().collect(Collectors.toList());
+        final List<String> memberIds = currentMembers.keySet().stream().sorted().collect(Collectors.toList());
+
+        // published partitions, a partition claimed twice stays with the first member
+        final Map<String, List<String>> owned = new HashMap<>();
+        final Map<String, String> claims = new HashMap<>();
+        memberIds.forEach(memberId -> {
+            final ZKMember zkMember = currentMembers.get(memberId);
+            final List<String> memberPartitions = new ArrayList<>();
+            if (null != zkMember) {
+                zkMember.getPartitions().forEach(partition -> {
+                    if (partitions.contains(partition) && null == claims.putIfAbsent(partition, memberId)) {
+                        memberPartitions.add(partition);
+                    }
+                });
+            }
+
+            owned.put(memberId, memberPartitions);
+        });
+
+        final int base = sortedPartitions.size() / memberIds.size();
+        final int extra = sortedPartitions.size() % memberIds.size();
+        final List<String> byOwned = new ArrayList<>(memberIds);
+        byOwned.sort(Comparator.comparing((Function<String, Integer>) memberId -> owned.get(memberId).size())
+                .reversed().thenComparing(Function.identity()));
+
+        final Map<String, Integer> quotas = new HashMap<>();
+        for (int i = 0; i < byOwned.size(); i++) {
+            quotas.put(byOwned.get(i), i < extra ? base + 1 : base);
+        }
+
+        final Map<String, String> owners = new TreeMap<>();
+        owned.forEach((memberId, memberPartitions) ->
+                memberPartitions.stream().sorted().limit(quotas.get(memberId)).forEach(partition ->
+                        owners.put(partition, memberId)));
+
+        final Map<String, Integer> counts = new HashMap<>();
+        owners.values().forEach(memberId -> counts.merge(memberId, 1, Integer::sum));
+
+        int i = 0;
+        for (final String partition : sortedPartitions) {
+            if (!owners.containsKey(partition)) {
+                while (counts.getOrDefault(memberIds.get(i), 0) >= quotas.get(memberIds.get(i))) {
+                    i++;
+                }
+
+                owners.put(partition, memberIds.get(i));
+                counts.merge(memberIds.get(i), 1, Integer::sum);
+            }
+        }
+
+        return owners;
+    }
+}
@@ -0,0 +1,106 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+public class ZKConsistentHashConsumerPartitionRebalanceStrategyTest {
+
+    private static final EventType EVENT_TYPE = EventType.of("junit-event");
+
+    private static final List<String> PARTITIONS = IntStream.range(0, 64).mapToObj(String::valueOf).collect(
+            Collectors.toList());
+
+    @Test
+    public void testEveryPartitionHasOneMember() {
+        final ZKConsistentHashConsumerPartitionRebalanceStrategy.Ring ring = ring("a", "b", "c");
+
+        final Map<String, String> owners = owners(ring);
+        assertThat(owners).hasSize(PARTITIONS.size());
+        assertThat(owners.values()).contains("a", "b", "c");
+        assertThat(ring("c", "a", "b").getMemberId(EVENT_TYPE, "7")).isEqualTo(ring.getMemberId(EVENT_TYPE, "7"));
+    }
+
+    @Test
+    public void testMemberJoinedTakesPartitionsFromOthersOnly() {
+        final Map<String, String> before = owners(ring("a", "b", "c"));
+        final Map<String, String> after = owners(ring("a", "b", "c", "d"));
+
+        PARTITIONS.forEach(partition -> {
+            if (!before.get(partition).equals(after.get(partition))) {
+                assertThat(after.get(partition)).isEqualTo("d");
+            }
+        });
+        assertThat(after.values()).contains("d");
+    }
+
+    @Test
+    public void testMemberLeftMovesOnlyItsPartitions() {
+        final Map<String, String> before = owners(ring("a", "b", "c", "d"));
+        final Map<String, String> after = owners(ring("a", "b", "c"));
+
+        PARTITIONS.forEach(partition -> {
+            if (!before.get(partition).equals(after.get(partition))) {
+                assertThat(before.get(partition)).isEqualTo("d");
+            }
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRebalance() {
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        final ZKMember[] members = { ZKMember.of("a"), ZKMember.of("b") };
+        Arrays.stream(members).forEach(member -> currentMembers.put(member.getMemberId(), member));
+
+        final List<NakadiPartition> nakadiPartitions = PARTITIONS.stream().map(partition ->
+                    new NakadiPartition(partition, "0", "1", null)).collect(Collectors.toList());
+
+        final List<NakadiPartition> assigned = Arrays.stream(members).flatMap(member -> {
+                    final ZKConsistentHashConsumerPartitionRebalanceStrategy strategy =
+                        new ZKConsistentHashConsumerPartitionRebalanceStrategy(member, 16);
+                    final ConsumerPartitionRebalanceStrategy.ResultCallback resultCallback = mock(
+                            ConsumerPartitionRebalanceStrategy.ResultCallback.class);
+                    strategy.setNakadiPartitions(EVENT_TYPE, nakadiPartitions);
+                    strategy.setCurrentMembers(EVENT_TYPE, currentMembers);
+                    strategy.rebalance(EVENT_TYPE, resultCallback);
+
+                    final ArgumentCaptor<Collection> assign = ArgumentCaptor.forClass(Collection.class);
+                    verify(resultCallback).rebalancePartitions(eq(EVENT_TYPE), assign.capture(),
+                        anyCollectionOf(NakadiPartition.class));
+                    return ((Collection<NakadiPartition>) assign.getValue()).stream();
+                }).collect(Collectors.toList());
+
+        // every partition is assigned to exactly one member
+        assertThat(assigned).containsOnlyElementsOf(nakadiPartitions).hasSameSizeAs(nakadiPartitions);
+    }
+
+    private static ZKConsistentHashConsumerPartitionRebalanceStrategy.Ring ring(final String... memberIds) {
+        return new ZKConsistentHashConsumerPartitionRebalanceStrategy.Ring(Arrays.asList(memberIds),
+                ZKConsistentHashConsumerPartitionRebalanceStrategy.DEFAULT_VIRTUAL_NODES);
+    }
+
+    private static Map<String, String> owners(final ZKConsistentHashConsumerPartitionRebalanceStrategy.Ring ring) {
+        return PARTITIONS.stream().collect(Collectors.toMap(partition -> partition,
+                    partition -> ring.getMemberId(EVENT_TYPE, partition)));
+    }
+}
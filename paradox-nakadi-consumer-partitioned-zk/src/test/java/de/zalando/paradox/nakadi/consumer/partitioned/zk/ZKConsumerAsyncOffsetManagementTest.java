@@ -0,0 +1,225 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallback;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallbackProvider;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListenerProvider;
+
+public class ZKConsumerAsyncOffsetManagementTest {
+
+    private static final String CONSUMER_NAME = "consumerName";
+
+    private static final EventTypePartition PARTITION_0 = EventTypePartition.of(EventType.of("order.ORDER_RECEIVED"),
+            "0");
+
+    private static final EventTypePartition PARTITION_1 = EventTypePartition.of(EventType.of("order.ORDER_RECEIVED"),
+            "1");
+
+    private static final long LONG_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    @Mock
+    private PartitionCommitCallbackProvider partitionCommitCallbackProvider;
+
+    @Mock
+    private PartitionCommitCallback partitionCommitCallback;
+
+    @Mock
+    private OffsetStore offsetStore;
+
+    @Mock
+    private PartitionRebalanceListenerProvider partitionRebalanceListenerProvider;
+
+    private ZKConsumerSyncOffsetManagement syncOffsetManagement;
+
+    private ZKConsumerAsyncOffsetManagement offsetManagement;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(partitionCommitCallbackProvider.getPartitionCommitCallback(any())).thenReturn(partitionCommitCallback);
+        syncOffsetManagement = new ZKConsumerSyncOffsetManagement(offsetStore, CONSUMER_NAME,
+                partitionCommitCallbackProvider, partitionRebalanceListenerProvider, Collections.emptyList());
+    }
+
+    @After
+    public void tearDown() {
+        if (null != offsetManagement) {
+            offsetManagement.close();
+        }
+    }
+
+    @Test
+    public void testCoalesceOnFlush() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 0, false, CONSUMER_NAME);
+        for (int i = 1; i <= 5; i++) {
+            offsetManagement.commit(cursor(PARTITION_0, i));
+        }
+
+        verify(offsetStore, never()).setOffset(any(), any());
+
+        offsetManagement.flush(PARTITION_0);
+
+        final InOrder inOrder = inOrder(offsetStore, partitionCommitCallback);
+        inOrder.verify(offsetStore).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 5)));
+        inOrder.verify(partitionCommitCallback).onCommitComplete(cursor(PARTITION_0, 5));
+        inOrder.verifyNoMoreInteractions();
+        assertThat(offsetManagement.getPendingCommits()).isZero();
+    }
+
+    @Test
+    public void testWriteOnInterval() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, 50, 0, false, CONSUMER_NAME);
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        offsetManagement.commit(cursor(PARTITION_1, 2));
+
+        verify(offsetStore, timeout(2000)).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 1)));
+        verify(offsetStore, timeout(2000)).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_1, 2)));
+    }
+
+    @Test
+    public void testWriteOnMaxPendingCommits() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 3, false, CONSUMER_NAME);
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        offsetManagement.commit(cursor(PARTITION_0, 2));
+        offsetManagement.commit(cursor(PARTITION_1, 3));
+
+        Thread.sleep(100);
+        verify(offsetStore, never()).setOffset(any(), any());
+
+        offsetManagement.commit(cursor(PARTITION_0, 4));
+        verify(offsetStore, timeout(2000)).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 4)));
+        verify(offsetStore, never()).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_1, 3)));
+    }
+
+    @Test
+    public void testCloseWritesPendingCommits() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 0, false, CONSUMER_NAME);
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        offsetManagement.commit(cursor(PARTITION_1, 2));
+
+        offsetManagement.close();
+
+        verify(offsetStore).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 1)));
+        verify(offsetStore).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_1, 2)));
+    }
+
+    @Test
+    public void testFailedWriteIsRetried() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, 50, 0, false, CONSUMER_NAME);
+        doThrow(new IllegalStateException("connection loss")).doNothing().when(offsetStore).setOffset(any(), any());
+
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+
+        verify(offsetStore, timeout(2000).times(2)).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 1)));
+        verify(partitionCommitCallback, timeout(2000)).onCommitComplete(cursor(PARTITION_0, 1));
+    }
+
+    @Test
+    public void testFailedFlushDropsCursor() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 0, false, CONSUMER_NAME);
+        doThrow(new IllegalStateException("connection loss")).doNothing().when(offsetStore).setOffset(any(), any());
+
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        assertThatThrownBy(() -> offsetManagement.flush(PARTITION_0)).isInstanceOf(IllegalStateException.class);
+        verify(partitionCommitCallback, never()).onCommitComplete(any());
+
+        // the partition may be owned by another consumer now
+        assertThat(offsetManagement.getPendingCommits()).isZero();
+        offsetManagement.close();
+        verify(offsetStore, times(1)).setOffset(any(), any());
+    }
+
+    @Test
+    public void testNewerCursorWinsOverFailedWrite() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 0, false, CONSUMER_NAME);
+
+        // a newer cursor is committed while the write of the older one fails
+        doAnswer(invocation -> {
+                offsetManagement.commit(cursor(PARTITION_0, 2));
+                throw new IllegalStateException("connection loss");
+            }).when(offsetStore).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 1)));
+
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        assertThatThrownBy(() -> offsetManagement.flush(PARTITION_0)).isInstanceOf(IllegalStateException.class);
+
+        offsetManagement.flush(PARTITION_0);
+        verify(offsetStore).setOffset(eq(CONSUMER_NAME), eq(cursor(PARTITION_0, 2)));
+        verify(partitionCommitCallback).onCommitComplete(cursor(PARTITION_0, 2));
+        verify(partitionCommitCallback, never()).onCommitComplete(cursor(PARTITION_0, 1));
+    }
+
+    @Test
+    public void testMultiPartitionWrites() throws Exception {
+        final EventTypePartition otherPartition = EventTypePartition.of(EventType.of("order.ORDER_SHIPPED"), "0");
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, LONG_INTERVAL, 0, true,
+                CONSUMER_NAME);
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        offsetManagement.commit(cursor(PARTITION_1, 2));
+        offsetManagement.commit(cursor(PARTITION_0, 3));
+        offsetManagement.commit(cursor(otherPartition, 4));
+
+        offsetManagement.close();
+
+        // one transaction per event type
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(offsetStore, times(2)).setOffsets(eq(CONSUMER_NAME), captor.capture());
+        assertThat(captor.getAllValues()).extracting(List::size).containsOnly(2, 1);
+
+        final List<Object> written = new ArrayList<>();
+        captor.getAllValues().forEach(written::addAll);
+        assertThat(written).containsOnly(cursor(PARTITION_0, 3), cursor(PARTITION_1, 2), cursor(otherPartition, 4));
+        verify(offsetStore, never()).setOffset(any(), any());
+        verify(partitionCommitCallback).onCommitComplete(cursor(PARTITION_0, 3));
+        verify(partitionCommitCallback).onCommitComplete(cursor(PARTITION_1, 2));
+        verify(partitionCommitCallback).onCommitComplete(cursor(otherPartition, 4));
+    }
+
+    @Test
+    public void testFailedMultiPartitionWriteIsRetried() throws Exception {
+        offsetManagement = new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, 50, 0, true, CONSUMER_NAME);
+        doThrow(new IllegalStateException("connection loss")).doNothing().when(offsetStore).setOffsets(any(), any());
+
+        offsetManagement.commit(cursor(PARTITION_0, 1));
+        offsetManagement.commit(cursor(PARTITION_1, 2));
+
+        verify(offsetStore, timeout(2000).times(2)).setOffsets(any(), any());
+        verify(partitionCommitCallback, timeout(2000)).onCommitComplete(cursor(PARTITION_0, 1));
+        verify(partitionCommitCallback, timeout(2000)).onCommitComplete(cursor(PARTITION_1, 2));
+    }
+
+    private static EventTypeCursor cursor(final EventTypePartition partition, final int offset) {
+        return EventTypeCursor.of(partition, String.valueOf(offset));
+    }
+}
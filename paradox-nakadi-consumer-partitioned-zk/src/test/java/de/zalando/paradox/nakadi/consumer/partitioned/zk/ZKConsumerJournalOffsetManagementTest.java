@@ -0,0 +1,184 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import static org.mockito.Matchers.any;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallback;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallbackProvider;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListenerProvider;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.impl.OffsetJournal;
+
+public class ZKConsumerJournalOffsetManagementTest extends AbstractZKTest {
+
+    private static final String CONSUMER_NAME = "junit-consumer";
+
+    private static final EventType EVENT_TYPE = EventType.of("junit-event");
+
+    private static final EventTypePartition PARTITION_0 = EventTypePartition.of(EVENT_TYPE, "0");
+
+    private static final EventTypePartition PARTITION_1 = EventTypePartition.of(EVENT_TYPE, "1");
+
+    private static final EventTypePartition PARTITION_2 = EventTypePartition.of(EVENT_TYPE, "2");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    private ZKConsumerOffset consumerOffset;
+
+    private ZKOffsetStore offsetStore;
+
+    private ZKConsumerSyncOffsetManagement syncOffsetManagement;
+
+    private final PartitionCommitCallback commitCallback = mock(PartitionCommitCallback.class);
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        file = folder.getRoot().toPath().resolve("consumer.journal");
+        consumerOffset = new ZKConsumerOffset(zkHolder, CONSUMER_NAME);
+        offsetStore = new ZKOffsetStore(zkHolder);
+
+        final PartitionCommitCallbackProvider callbackProvider = mock(PartitionCommitCallbackProvider.class);
+        when(callbackProvider.getPartitionCommitCallback(any())).thenReturn(commitCallback);
+        syncOffsetManagement = new ZKConsumerSyncOffsetManagement(offsetStore, CONSUMER_NAME, callbackProvider,
+                mock(PartitionRebalanceListenerProvider.class), Collections.emptyList());
+        syncOffsetManagement.setDeleteUnavailableCursors(true);
+    }
+
+    @Test
+    public void testCommitIsJournaledAndWrittenAsynchronously() throws Exception {
+        final ZKConsumerAsyncOffsetManagement async = async();
+        try(ZKConsumerJournalOffsetManagement management = journalManagement(async)) {
+            management.commit(EventTypeCursor.of(PARTITION_0, "10"));
+            management.commit(EventTypeCursor.of(PARTITION_0, "11"));
+            assertThat(consumerOffset.getOffset(PARTITION_0)).isNull();
+
+            management.flush(PARTITION_0);
+            assertThat(consumerOffset.getOffset(PARTITION_0)).isEqualTo("11");
+            verify(commitCallback).onCommitComplete(EventTypeCursor.of(PARTITION_0, "11"));
+        } finally {
+            async.close();
+        }
+    }
+
+    @Test
+    public void testReconcileAfterCrash() throws Exception {
+
+        // crashed before the asynchronous writes
+        final ZKConsumerAsyncOffsetManagement crashed = async();
+        final ZKConsumerJournalOffsetManagement before = journalManagement(crashed);
+        consumerOffset.setOffset(EventTypeCursor.of(PARTITION_1, "30"));
+        before.commit(EventTypeCursor.of(PARTITION_0, "12"));
+        before.commit(EventTypeCursor.of(PARTITION_1, "20"));
+        before.close();
+
+        // another member got further meanwhile
+        consumerOffset.setOffset(EventTypeCursor.of(PARTITION_2, "5"));
+
+        final ZKConsumerAsyncOffsetManagement async = async();
+        try(ZKConsumerJournalOffsetManagement management = journalManagement(async)) {
+            management.reconcile();
+            assertThat(consumerOffset.getOffset(PARTITION_0)).isEqualTo("12");
+            assertThat(consumerOffset.getOffset(PARTITION_1)).isEqualTo("30");
+            assertThat(consumerOffset.getOffset(PARTITION_2)).isEqualTo("5");
+        } finally {
+            async.close();
+        }
+    }
+
+    @Test
+    public void testReconcileKeepsLaterChangesInZooKeeper() throws Exception {
+        consumerOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        consumerOffset.setOffset(EventTypeCursor.of(PARTITION_1, "10"));
+
+        // crashed before the asynchronous writes
+        final ZKConsumerAsyncOffsetManagement crashed = async();
+        final ZKConsumerJournalOffsetManagement before = journalManagement(crashed);
+        before.commit(EventTypeCursor.of(PARTITION_0, "12"));
+        before.commit(EventTypeCursor.of(PARTITION_1, "15"));
+        before.commit(EventTypeCursor.of(PARTITION_2, "7"));
+        before.close();
+
+        // rewound and deleted by an administrator meanwhile
+        consumerOffset.setOffset(EventTypeCursor.of(PARTITION_0, "3"));
+        consumerOffset.delOffset(PARTITION_1);
+
+        final ZKConsumerAsyncOffsetManagement async = async();
+        try(ZKConsumerJournalOffsetManagement management = journalManagement(async)) {
+            management.reconcile();
+            assertThat(consumerOffset.getOffset(PARTITION_0)).isEqualTo("3");
+            assertThat(consumerOffset.getOffset(PARTITION_1)).isNull();
+            assertThat(consumerOffset.getOffset(PARTITION_2)).isEqualTo("7");
+        } finally {
+            async.close();
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, OffsetJournal.DEFAULT_SIZE, false)) {
+            assertThat(journal.getOffsets()).containsOnly(entry(PARTITION_2, "7"));
+        }
+    }
+
+    @Test
+    public void testDeletedCursorIsRemovedFromJournal() throws Exception {
+        final ZKConsumerAsyncOffsetManagement async = async();
+        try(ZKConsumerJournalOffsetManagement management = journalManagement(async)) {
+            management.commit(EventTypeCursor.of(PARTITION_0, "10"));
+            management.flush(PARTITION_0);
+            management.error(412, "offset 10 for partition 0 is unavailable", PARTITION_0);
+            assertThat(consumerOffset.getOffset(PARTITION_0)).isNull();
+        } finally {
+            async.close();
+        }
+
+        try(OffsetJournal journal = new OffsetJournal(file, OffsetJournal.DEFAULT_SIZE, false)) {
+            assertThat(journal.getOffsets()).doesNotContainKey(PARTITION_0);
+        }
+    }
+
+    @Test
+    public void testIsFurther() {
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("10", "9")).isTrue();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("9", "10")).isFalse();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("10", "10")).isFalse();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("0", "BEGIN")).isTrue();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("BEGIN", "0")).isFalse();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("001-0001-000000000000000002",
+                "001-0001-000000000000000001")).isTrue();
+        assertThat(ZKConsumerJournalOffsetManagement.isFurther("001-0001-000000000000000001",
+                "001-0001-000000000000000002")).isFalse();
+    }
+
+    private ZKConsumerAsyncOffsetManagement async() {
+        return new ZKConsumerAsyncOffsetManagement(syncOffsetManagement, TimeUnit.HOURS.toMillis(1), 0, false,
+                CONSUMER_NAME);
+    }
+
+    private ZKConsumerJournalOffsetManagement journalManagement(final ZKConsumerAsyncOffsetManagement async)
+        throws Exception {
+        return new ZKConsumerJournalOffsetManagement(async, syncOffsetManagement, offsetStore, CONSUMER_NAME,
+                new OffsetJournal(file, OffsetJournal.DEFAULT_SIZE, false));
+    }
+}
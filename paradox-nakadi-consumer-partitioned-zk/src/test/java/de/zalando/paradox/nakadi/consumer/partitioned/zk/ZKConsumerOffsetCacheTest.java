@@ -0,0 +1,177 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.curator.utils.ZKPaths;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+
+public class ZKConsumerOffsetCacheTest extends AbstractZKTest {
+
+    private static final String CONSUMER_NAME = "junit-consumer";
+
+    private static final String OTHER_CONSUMER_NAME = "junit-other-consumer";
+
+    private static final EventType EVENT_TYPE = EventType.of("junit-event");
+
+    private static final EventTypePartition PARTITION_0 = EventTypePartition.of(EVENT_TYPE, "0");
+
+    private static final EventTypePartition PARTITION_1 = EventTypePartition.of(EVENT_TYPE, "1");
+
+    private ZKConsumerOffsetCache offsetCache;
+
+    private ZKConsumerOffset cachedOffset;
+
+    // another consumer instance writing the same offsets
+    private ZKConsumerOffset otherOffset;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        offsetCache = new ZKConsumerOffsetCache(zkHolder);
+        cachedOffset = new ZKConsumerOffset(zkHolder, CONSUMER_NAME, offsetCache);
+        otherOffset = new ZKConsumerOffset(zkHolder, CONSUMER_NAME);
+    }
+
+    @After
+    @Override
+    public void tearDown() {
+        offsetCache.close();
+        super.tearDown();
+    }
+
+    @Test
+    public void testOwnWritesAreReadBack() throws Exception {
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isNull();
+
+        for (int i = 1; i <= 20; i++) {
+            cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, String.valueOf(i)));
+            assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo(String.valueOf(i));
+        }
+
+        cachedOffset.setOffsets(Arrays.asList(EventTypeCursor.of(PARTITION_0, "30"),
+                EventTypeCursor.of(PARTITION_1, "31")));
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("30");
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "1")).isEqualTo("31");
+    }
+
+    @Test
+    public void testOtherWritesAreWatched() throws Exception {
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("10");
+
+        cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, "11"));
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_0, "12"));
+        awaitCachedOffset(PARTITION_0, "12");
+
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_1, "20"));
+        awaitCachedOffset(PARTITION_1, "20");
+    }
+
+    @Test
+    public void testDeletedOffset() throws Exception {
+        cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        cachedOffset.delOffset(PARTITION_0);
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isNull();
+
+        // recreated node starts again with version 0
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_0, "5"));
+        awaitCachedOffset(PARTITION_0, "5");
+
+        otherOffset.delOffset(PARTITION_0);
+        awaitCachedOffset(PARTITION_0, null);
+    }
+
+    @Test
+    public void testGetCachedOffsets() throws Exception {
+        cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_1, "20"));
+
+        assertThat(cachedOffset.getCachedOffsets(EVENT_TYPE, Arrays.asList("0", "1", "2"))).containsOnly(entry("0",
+                "10"), entry("1", "20"));
+
+        // deleted offsets are read from ZooKeeper
+        cachedOffset.delOffset(PARTITION_0);
+        assertThat(cachedOffset.getCachedOffsets(EVENT_TYPE, Arrays.asList("0", "1"))).containsOnly(entry("1", "20"));
+    }
+
+    @Test
+    public void testStoreWritesAreCached() throws Exception {
+        final ZKOffsetStore offsetStore = new ZKOffsetStore(zkHolder, offsetCache);
+        offsetStore.setOffset(CONSUMER_NAME, EventTypeCursor.of(PARTITION_0, "10"));
+        assertThat(offsetStore.getCachedOffset(CONSUMER_NAME, PARTITION_0)).isEqualTo("10");
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("10");
+
+        // e.g. a reset through the admin service of the coordinator
+        offsetStore.delOffset(CONSUMER_NAME, PARTITION_0);
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isNull();
+        assertThat(offsetStore.getCachedOffsets(CONSUMER_NAME, EVENT_TYPE, Arrays.asList("0", "1"))).isEmpty();
+    }
+
+    @Test
+    public void testColdReadsAreBulkReadAndWatched() throws Exception {
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        final String path = cachedOffset.getOffsetPath(EVENT_TYPE.getName(), "0");
+        final String uncommittedPath = cachedOffset.getOffsetPath(EVENT_TYPE.getName(), "2");
+        assertThat(offsetCache.getOffset(path)).isNull();
+
+        assertThat(cachedOffset.getCachedOffsets(EVENT_TYPE, Arrays.asList("0", "2"))).containsOnly(entry("0", "10"));
+        assertThat(offsetCache.getWatchedNodes()).containsOnly(path, uncommittedPath);
+
+        // answered locally once loaded, watching does not create the nodes of uncommitted partitions
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (null == offsetCache.getOffset(path) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(offsetCache.getOffset(path).getOffset()).isEqualTo("10");
+        assertThat(offsetCache.getOffset(uncommittedPath)).isNull();
+        assertThat(zkHolder.getCurator().checkExists().forPath(ZKPaths.getPathAndNode(uncommittedPath).getPath()))
+            .isNull();
+    }
+
+    @Test
+    public void testOtherConsumersAreNotWatched() throws Exception {
+        final ZKConsumerOffset otherConsumer = new ZKConsumerOffset(zkHolder, OTHER_CONSUMER_NAME);
+        cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("10");
+
+        otherConsumer.setOffset(EventTypeCursor.of(PARTITION_0, "99"));
+        otherConsumer.setOffset(EventTypeCursor.of(PARTITION_1, "99"));
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("10");
+        assertThat(offsetCache.getWatchedNodes()).containsOnly(cachedOffset.getOffsetPath(EVENT_TYPE.getName(), "0"));
+    }
+
+    @Test
+    public void testRestartAfterClose() throws Exception {
+        cachedOffset.setOffset(EventTypeCursor.of(PARTITION_0, "10"));
+        offsetCache.close();
+
+        otherOffset.setOffset(EventTypeCursor.of(PARTITION_0, "11"));
+        assertThat(cachedOffset.getCachedOffset(EVENT_TYPE, "0")).isEqualTo("11");
+    }
+
+    private void awaitCachedOffset(final EventTypePartition partition, final String expected) throws Exception {
+        final Callable<String> read = () -> cachedOffset.getCachedOffset(partition.getEventType(),
+                    partition.getPartition());
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Objects.equals(expected, read.call()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(read.call()).isEqualTo(expected);
+    }
+}
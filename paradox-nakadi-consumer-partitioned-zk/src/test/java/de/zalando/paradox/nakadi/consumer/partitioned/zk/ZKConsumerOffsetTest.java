@@ -1,9 +1,18 @@
 package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.RandomUtils;
 
+import org.apache.zookeeper.KeeperException;
+
 import org.junit.Test;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
@@ -32,4 +41,51 @@ public class ZKConsumerOffsetTest extends AbstractZKTest {
         assertThat(consumerOffset.getOffset(etp.getEventType(), etp.getPartition())).isNull();
     }
 
+    @Test
+    public void testSetOffsetsInTransaction() throws Exception {
+        final ZKConsumerOffset consumerOffset = new ZKConsumerOffset(zkHolder, "junit-consumer");
+        final EventType eventType = EventType.of("junit-event");
+        final EventTypePartition etp0 = EventTypePartition.of(eventType, "0");
+        final EventTypePartition etp1 = EventTypePartition.of(eventType, "1");
+
+        // nodes are created up front
+        consumerOffset.setOffsets(Arrays.asList(EventTypeCursor.of(etp0, "10"), EventTypeCursor.of(etp1, "11")));
+        assertThat(consumerOffset.getOffset(etp0)).isEqualTo("10");
+        assertThat(consumerOffset.getOffset(etp1)).isEqualTo("11");
+
+        consumerOffset.setOffsets(Arrays.asList(EventTypeCursor.of(etp0, "20"), EventTypeCursor.of(etp1, "21")));
+        assertThat(consumerOffset.getOffset(etp0)).isEqualTo("20");
+        assertThat(consumerOffset.getOffset(etp1)).isEqualTo("21");
+
+        // node deleted by someone else fails the whole transaction once
+        getCurator().delete().forPath(consumerOffset.getOffsetPath(etp1.getName(), etp1.getPartition()));
+
+        final List<EventTypeCursor> cursors = Arrays.asList(EventTypeCursor.of(etp0, "30"),
+                EventTypeCursor.of(etp1, "31"));
+        assertThatThrownBy(() -> consumerOffset.setOffsets(cursors)).isInstanceOf(KeeperException.NoNodeException.class);
+        assertThat(consumerOffset.getOffset(etp0)).isEqualTo("20");
+
+        consumerOffset.setOffsets(cursors);
+        assertThat(consumerOffset.getOffset(etp0)).isEqualTo("30");
+        assertThat(consumerOffset.getOffset(etp1)).isEqualTo("31");
+    }
+
+    @Test
+    public void testGetOffsets() throws Exception {
+        final ZKConsumerOffset consumerOffset = new ZKConsumerOffset(zkHolder, "junit-consumer");
+        final EventType eventType = EventType.of("junit-event");
+        final List<String> partitions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            partitions.add(String.valueOf(i));
+            if (i % 10 != 0) {
+                consumerOffset.setOffset(EventTypeCursor.of(EventTypePartition.of(eventType, String.valueOf(i)),
+                        String.valueOf(1000 + i)));
+            }
+        }
+
+        final Map<String, String> offsets = consumerOffset.getOffsets(eventType, partitions);
+        assertThat(offsets).hasSize(90).containsEntry("1", "1001").containsEntry("99", "1099").doesNotContainKey("0");
+        assertThat(consumerOffset.getOffsets(eventType, Collections.emptyList())).isEmpty();
+    }
+
 }
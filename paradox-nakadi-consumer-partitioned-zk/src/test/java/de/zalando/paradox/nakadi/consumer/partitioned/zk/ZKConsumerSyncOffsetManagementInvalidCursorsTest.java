@@ -55,8 +55,8 @@ public class ZKConsumerSyncOffsetManagementInvalidCursorsTest extends AbstractZK
         super.setUp();
         MockitoAnnotations.initMocks(this);
         consumerOffset = new ZKConsumerOffset(zkHolder, "test-consumer");
-        zkConsumerSyncOffsetManagement = new ZKConsumerSyncOffsetManagement(consumerOffset,
-                mockPartitionCommitCallbackProvider, mockPartitionRebalanceListenerProvider, Collections.emptyList());
+        zkConsumerSyncOffsetManagement = new ZKConsumerSyncOffsetManagement(new ZKOffsetStore(zkHolder),
+                "test-consumer", mockPartitionCommitCallbackProvider, mockPartitionRebalanceListenerProvider, Collections.emptyList());
     }
 
     @Test
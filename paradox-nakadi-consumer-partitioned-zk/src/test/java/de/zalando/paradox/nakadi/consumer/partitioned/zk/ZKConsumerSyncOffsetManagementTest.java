@@ -16,6 +16,7 @@ import org.mockito.MockitoAnnotations;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.exceptions.UnrecoverableException;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
+import de.zalando.paradox.nakadi.consumer.core.partitioned.OffsetStore;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionCommitCallbackProvider;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListenerProvider;
 
@@ -29,7 +30,7 @@ public class ZKConsumerSyncOffsetManagementTest {
     private PartitionCommitCallbackProvider partitionCommitCallbackProvider;
 
     @Mock
-    private ZKConsumerOffset zkConsumerOffset;
+    private OffsetStore offsetStore;
 
     @Mock
     private PartitionRebalanceListenerProvider partitionRebalanceListenerProvider;
@@ -43,7 +44,7 @@ public class ZKConsumerSyncOffsetManagementTest {
     @Before
     public void setUp() throws Exception {
         MockitoAnnotations.initMocks(this);
-        zKConsumerSyncOffsetManagement = new ZKConsumerSyncOffsetManagement(zkConsumerOffset,
+        zKConsumerSyncOffsetManagement = new ZKConsumerSyncOffsetManagement(offsetStore, CONSUMER_NAME,
                 partitionCommitCallbackProvider, partitionRebalanceListenerProvider,
                 Collections.singletonList(eventErrorHandler));
     }
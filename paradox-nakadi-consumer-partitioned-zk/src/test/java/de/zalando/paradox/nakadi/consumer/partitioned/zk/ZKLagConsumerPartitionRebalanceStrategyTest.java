@@ -0,0 +1,90 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+public class ZKLagConsumerPartitionRebalanceStrategyTest {
+
+    private static final List<String> PARTITIONS = Arrays.asList("0", "1", "2", "3");
+
+    private static final double THRESHOLD = ZKLagConsumerPartitionRebalanceStrategy.DEFAULT_IMBALANCE_THRESHOLD;
+
+    @Test
+    public void testUnownedPartitionsAreBalanced() {
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        currentMembers.put("a", new ZKMember("a", "host", 0));
+        currentMembers.put("b", new ZKMember("b", "host", 0));
+
+        final Map<String, String> owners = ZKLagConsumerPartitionRebalanceStrategy.assign(PARTITIONS, currentMembers,
+                THRESHOLD);
+
+        assertThat(owners).containsOnlyKeys("0", "1", "2", "3");
+        assertThat(owners.values().stream().filter("a"::equals).count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testHotPartitionsSpreadOnJoin() {
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        currentMembers.put("a",
+            new ZKMember("a", "host", 0, PARTITIONS, ImmutableMap.of("0", 1000L, "1", 1000L, "2", 10L, "3", 10L)));
+        currentMembers.put("b", new ZKMember("b", "host", 0));
+
+        final Map<String, String> owners = ZKLagConsumerPartitionRebalanceStrategy.assign(PARTITIONS, currentMembers,
+                THRESHOLD);
+
+        // one hot partition moves, the cold ones stay
+        assertThat(owners.get("0")).isNotEqualTo(owners.get("1"));
+        assertThat(owners).containsEntry("2", "a").containsEntry("3", "a");
+    }
+
+    @Test
+    public void testNoMovementWithinThreshold() {
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        currentMembers.put("a",
+            new ZKMember("a", "host", 0, Arrays.asList("0", "1"), ImmutableMap.of("0", 100L, "1", 100L)));
+        currentMembers.put("b",
+            new ZKMember("b", "host", 0, Arrays.asList("2", "3"), ImmutableMap.of("2", 150L, "3", 100L)));
+
+        assertThat(ZKLagConsumerPartitionRebalanceStrategy.assign(PARTITIONS, currentMembers, THRESHOLD)).isEqualTo(
+            ImmutableMap.of("0", "a", "1", "a", "2", "b", "3", "b"));
+    }
+
+    @Test
+    public void testPublishedLoadHysteresis() {
+        final ZKMember member = new ZKMember("a", "host", 0);
+        final ZKLagConsumerPartitionRebalanceStrategy strategy = new ZKLagConsumerPartitionRebalanceStrategy(member);
+        final List<NakadiPartition> assigned = Collections.singletonList(new NakadiPartition("0", "0", "1", null));
+
+        final ZKMember published = strategy.getPublishedMember(member, assigned, ImmutableMap.of("0", 1000L), null);
+        assertThat(published.getLoads()).containsEntry("0", 1000L);
+
+        assertThat(strategy.getPublishedMember(member, assigned, ImmutableMap.of("0", 1100L), published)).isSameAs(
+            published);
+        assertThat(strategy.getPublishedMember(member, assigned, ImmutableMap.of("0", 2000L), published).getLoads())
+            .containsEntry("0", 2000L);
+        assertThat(strategy.getPublishedMember(member, assigned, Collections.emptyMap(), published).getLoads())
+            .isEmpty();
+    }
+
+    @Test
+    public void testMemberDataRoundTrip() throws Exception {
+        final ZKMember member = new ZKMember("a", "host", 1, Arrays.asList("1", "0"), ImmutableMap.of("0", 5L));
+        final ZKMember decoded = ZKMember.fromByteJson(member.toByteJson());
+
+        assertThat(decoded.getMemberId()).isEqualTo("a");
+        assertThat(decoded.getPartitions()).containsExactly("0", "1");
+        assertThat(decoded.getLoads()).isEqualTo(Collections.singletonMap("0", 5L));
+        assertThat(ZKMember.fromByteJson(new ZKMember("a", "host", 1).toByteJson()).getPartitions()).isEmpty();
+    }
+}
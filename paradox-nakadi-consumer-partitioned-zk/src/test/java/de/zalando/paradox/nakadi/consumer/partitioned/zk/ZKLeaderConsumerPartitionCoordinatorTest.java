@@ -2,11 +2,22 @@ package de.zalando.paradox.nakadi.consumer.partitioned.zk;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import static org.mockito.Matchers.any;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
 import static com.google.common.collect.Iterables.getLast;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Before;
@@ -16,6 +27,8 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypeCursor;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
 import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartitions;
 import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
 import de.zalando.paradox.nakadi.consumer.core.partitioned.PartitionRebalanceListener;
@@ -114,6 +127,148 @@ public class ZKLeaderConsumerPartitionCoordinatorTest extends AbstractZKTest {
         assertThat(getLast(mockRebalancer1.verifyCurrentMembers())).containsOnlyKeys(memberId1);
     }
 
+    @Test
+    public void testCooperativeHandOver() throws Exception {
+        final String consumerName = "junit-consumer";
+        final Collection<NakadiPartition> nakadiPartitions = Arrays.asList(new NakadiPartition("0", "BEGIN", "0",
+                    0L), new NakadiPartition("1", "BEGIN", "0", 0L));
+        final EventTypePartitions consumerPartitions = new EventTypePartitions(EVENT_TYPE,
+                Collections.singleton("0"));
+        final EventTypePartition partition1 = EventTypePartition.of(EVENT_TYPE, "1");
+
+        final ZKLeaderConsumerPartitionCoordinator coordinator1 = getCooperativeCoordinator(consumerName, "member-1");
+        final PartitionRebalanceListener listener1 = mock(PartitionRebalanceListener.class);
+        finishOnRevoke(coordinator1, listener1);
+        coordinator1.registerRebalanceListener(EVENT_TYPE, listener1);
+        coordinator1.setAsyncCommit(TimeUnit.HOURS.toMillis(1), 0);
+
+        coordinator1.rebalance(consumerPartitions, nakadiPartitions);
+        verify(listener1, timeout(4000)).onPartitionsAssigned(Collections.singleton(EventTypeCursor.of(partition1,
+                    "0")));
+
+        // pending in memory until the partition is handed over
+        coordinator1.commit(EventTypeCursor.of(partition1, "7"));
+
+        final ZKLeaderConsumerPartitionCoordinator coordinator2 = getCooperativeCoordinator(consumerName, "member-2");
+        final PartitionRebalanceListener listener2 = mock(PartitionRebalanceListener.class);
+        coordinator2.registerRebalanceListener(EVENT_TYPE, listener2);
+        try {
+            coordinator2.rebalance(consumerPartitions, nakadiPartitions);
+
+            verify(listener1, timeout(4000).atLeastOnce()).onPartitionsRevoked(Collections.singletonList(
+                    partition1));
+            verify(listener2, timeout(4000)).onPartitionsAssigned(Collections.singleton(EventTypeCursor.of(
+                        partition1, "7")));
+        } finally {
+            coordinator2.close();
+            coordinator1.close();
+        }
+    }
+
+    @Test
+    public void testLeadershipIsKeptWhileStreamRuns() throws Exception {
+        final String consumerName = "junit-consumer";
+        final Collection<NakadiPartition> nakadiPartitions = Arrays.asList(new NakadiPartition("0", "BEGIN", "0",
+                    0L), new NakadiPartition("1", "BEGIN", "0", 0L));
+        final EventTypePartitions consumerPartitions = new EventTypePartitions(EVENT_TYPE,
+                Collections.singleton("0"));
+        final EventTypePartition partition1 = EventTypePartition.of(EVENT_TYPE, "1");
+
+        // the stream of coordinator 1 never finishes
+        final ZKLeaderConsumerPartitionCoordinator coordinator1 = getCooperativeCoordinator(consumerName, "member-1");
+        final PartitionRebalanceListener listener1 = mock(PartitionRebalanceListener.class);
+        coordinator1.registerRebalanceListener(EVENT_TYPE, listener1);
+        coordinator1.setHandOverTimeoutMillis(100);
+
+        coordinator1.rebalance(consumerPartitions, nakadiPartitions);
+        verify(listener1, timeout(4000)).onPartitionsAssigned(Collections.singleton(EventTypeCursor.of(partition1,
+                    "0")));
+
+        final ZKLeaderConsumerPartitionCoordinator coordinator2 = getCooperativeCoordinator(consumerName, "member-2");
+        final PartitionRebalanceListener listener2 = mock(PartitionRebalanceListener.class);
+        coordinator2.registerRebalanceListener(EVENT_TYPE, listener2);
+        try {
+            coordinator2.rebalance(consumerPartitions, nakadiPartitions);
+
+            verify(listener1, timeout(4000).atLeastOnce()).onPartitionsRevoked(Collections.singletonList(
+                    partition1));
+            verify(listener2, after(1000).never()).onPartitionsAssigned(Collections.singleton(EventTypeCursor.of(
+                        partition1, "0")));
+        } finally {
+            coordinator2.close();
+            coordinator1.close();
+        }
+    }
+
+    @Test
+    public void testMovingPartitionsShareHandOverDeadline() throws Exception {
+        final String consumerName = "junit-consumer";
+        final Collection<NakadiPartition> nakadiPartitions = Arrays.asList(new NakadiPartition("0", "BEGIN", "0",
+                    0L), new NakadiPartition("1", "BEGIN", "0", 0L), new NakadiPartition("2", "BEGIN", "0", 0L),
+                new NakadiPartition("3", "BEGIN", "0", 0L));
+        final EventTypePartitions consumerPartitions = new EventTypePartitions(EVENT_TYPE,
+                Collections.singleton("0"));
+
+        // the streams of coordinator 1 never finish
+        final ZKLeaderConsumerPartitionCoordinator coordinator1 = getCooperativeCoordinator(consumerName, "member-1");
+        final PartitionRebalanceListener listener1 = mock(PartitionRebalanceListener.class);
+        coordinator1.registerRebalanceListener(EVENT_TYPE, listener1);
+        coordinator1.setHandOverTimeoutMillis(TimeUnit.SECONDS.toMillis(10));
+
+        coordinator1.rebalance(consumerPartitions, nakadiPartitions);
+        verify(listener1, timeout(4000).times(4)).onPartitionsAssigned(any());
+
+        final ZKLeaderConsumerPartitionCoordinator coordinator2 = getCooperativeCoordinator(consumerName, "member-2");
+        coordinator2.registerRebalanceListener(EVENT_TYPE, mock(PartitionRebalanceListener.class));
+        try {
+            coordinator2.rebalance(consumerPartitions, nakadiPartitions);
+
+            // both moving partitions are stopped before the hand over waits for their streams
+            verify(listener1, timeout(4000).times(2)).onPartitionsRevoked(any());
+        } finally {
+            coordinator2.close();
+            coordinator1.close();
+        }
+    }
+
+    // stands in for the receiver, which reports the end of its stream
+    private static void finishOnRevoke(final ZKLeaderConsumerPartitionCoordinator coordinator,
+            final PartitionRebalanceListener listener) {
+        final Set<EventTypePartition> finished = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+                @SuppressWarnings("unchecked")
+                final Collection<EventTypePartition> partitions = (Collection<EventTypePartition>) invocation
+                    .getArguments()[0];
+                partitions.stream().filter(finished::add).forEach(coordinator::finished);
+                return null;
+            }).when(listener).onPartitionsRevoked(any());
+    }
+
+    @Test
+    public void testDistance() {
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("40", "42")).isEqualTo(2L);
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("50", "42")).isEqualTo(0L);
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("001-0001-000000000000000040",
+                "001-0001-000000000000000042")).isEqualTo(2L);
+
+        // other timeline
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("001-0001-000000000000000040",
+                "001-0002-000000000000000042")).isNull();
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("BEGIN", "42")).isNull();
+        assertThat(ZKLeaderConsumerPartitionCoordinator.getDistance("40", null)).isNull();
+    }
+
+    private ZKLeaderConsumerPartitionCoordinator getCooperativeCoordinator(final String consumerName,
+            final String memberId) {
+        final ZKMember member = ZKMember.of(memberId);
+        final ZKLeaderConsumerPartitionCoordinator coordinator = new ZKLeaderConsumerPartitionCoordinator(zkHolder,
+                consumerName, member, new ZKConsumerGroupMember(zkHolder, consumerName, member),
+                new ZKLeaderConsumerPartitionRebalanceStrategy(member),
+                new ZKConsumerPartitionLeader(zkHolder, consumerName, member), Collections.emptyList());
+        coordinator.setCooperativeRebalance(true);
+        return coordinator;
+    }
+
     private ZKLeaderConsumerPartitionCoordinator getCoordinator(final String consumerName,
             final MockConsumerPartitionRebalanceStrategy mockRebalancer, final String memberId) {
         ZKMember member = ZKMember.of(memberId);
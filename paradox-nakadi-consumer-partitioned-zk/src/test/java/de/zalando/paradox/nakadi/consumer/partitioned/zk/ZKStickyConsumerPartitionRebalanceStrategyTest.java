@@ -0,0 +1,132 @@
+package de.zalando.paradox.nakadi.consumer.partitioned.zk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Matchers.eq;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.NakadiPartition;
+
+public class ZKStickyConsumerPartitionRebalanceStrategyTest {
+
+    private static final EventType EVENT_TYPE = EventType.of("junit-event");
+
+    private static final List<String> PARTITIONS = IntStream.range(0, 8).mapToObj(String::valueOf).collect(Collectors
+                .toList());
+
+    @Test
+    public void testInitialAssignmentIsBalanced() {
+        final Map<String, String> owners = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(Collections.emptyMap(), "a", "b", "c"));
+
+        assertThat(owners).containsOnlyKeys(PARTITIONS.toArray(new String[0]));
+        assertThat(countByMember(owners)).containsOnlyKeys("a", "b", "c").containsValues(3L, 3L, 2L);
+    }
+
+    @Test
+    public void testMemberJoinedMovesMinimalPartitions() {
+        final Map<String, String> before = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(Collections.emptyMap(), "a", "b", "c"));
+        final Map<String, String> after = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(before, "a", "b", "c", "d"));
+
+        assertThat(countByMember(after)).containsOnlyKeys("a", "b", "c", "d").containsValues(2L, 2L, 2L, 2L);
+        assertThat(moved(before, after)).hasSize(2);
+        moved(before, after).forEach(partition -> assertThat(after.get(partition)).isEqualTo("d"));
+    }
+
+    @Test
+    public void testMemberLeftMovesOnlyItsPartitions() {
+        final Map<String, String> before = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(Collections.emptyMap(), "a", "b", "c", "d"));
+        final Map<String, String> after = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(before, "a", "c", "d"));
+
+        assertThat(countByMember(after)).containsOnlyKeys("a", "c", "d").containsValues(3L, 3L, 2L);
+        assertThat(moved(before, after)).containsOnlyElementsOf(partitionsOf(before, "b"));
+    }
+
+    @Test
+    public void testRebalanceIsStable() {
+        final Map<String, String> before = ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS,
+                members(Collections.emptyMap(), "a", "b", "c"));
+
+        assertThat(ZKStickyConsumerPartitionRebalanceStrategy.assign(PARTITIONS, members(before, "a", "b", "c")))
+            .isEqualTo(before);
+    }
+
+    @Test
+    public void testPartitionClaimedTwiceStaysWithFirstMember() {
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        currentMembers.put("a", new ZKMember("a", "host", 0, Arrays.asList("0", "1")));
+        currentMembers.put("b", new ZKMember("b", "host", 0, Arrays.asList("1", "2", "9")));
+
+        final Map<String, String> owners = ZKStickyConsumerPartitionRebalanceStrategy.assign(Arrays.asList("0", "1",
+                    "2", "3"), currentMembers);
+
+        assertThat(owners).containsEntry("0", "a").containsEntry("1", "a").containsEntry("2", "b")
+                          .containsEntry("3", "b");
+    }
+
+    @Test
+    public void testResultCallback() {
+        final ZKMember member = new ZKMember("b", "host", 0, Collections.singletonList("1"));
+        final ZKStickyConsumerPartitionRebalanceStrategy strategy = new ZKStickyConsumerPartitionRebalanceStrategy(
+                member);
+        final ConsumerPartitionRebalanceStrategy.ResultCallback resultCallback = mock(
+                ConsumerPartitionRebalanceStrategy.ResultCallback.class);
+
+        final Map<String, ZKMember> currentMembers = new HashMap<>();
+        currentMembers.put("a", new ZKMember("a", "host", 0, Collections.singletonList("0")));
+        currentMembers.put("b", member);
+
+        final NakadiPartition partition0 = nakadiPartition("0");
+        final NakadiPartition partition1 = nakadiPartition("1");
+        strategy.setNakadiPartitions(EVENT_TYPE, Arrays.asList(partition0, partition1));
+        strategy.setCurrentMembers(EVENT_TYPE, currentMembers);
+        strategy.rebalance(EVENT_TYPE, resultCallback);
+
+        verify(resultCallback).rebalancePartitions(eq(EVENT_TYPE), eq(Collections.singletonList(partition1)),
+            eq(Collections.singletonList(partition0)));
+        verifyNoMoreInteractions(resultCallback);
+        assertThat(strategy.isPublishingPartitions()).isTrue();
+    }
+
+    private static Map<String, ZKMember> members(final Map<String, String> owners, final String... memberIds) {
+        return Arrays.stream(memberIds).collect(Collectors.toMap(memberId -> memberId,
+                    memberId -> new ZKMember(memberId, "host", 0, partitionsOf(owners, memberId))));
+    }
+
+    private static List<String> partitionsOf(final Map<String, String> owners, final String memberId) {
+        return owners.entrySet().stream().filter(entry -> entry.getValue().equals(memberId)).map(Map.Entry::getKey)
+                     .collect(Collectors.toList());
+    }
+
+    private static Map<String, Long> countByMember(final Map<String, String> owners) {
+        return owners.values().stream().collect(Collectors.groupingBy(memberId -> memberId, Collectors.counting()));
+    }
+
+    private static Collection<String> moved(final Map<String, String> before, final Map<String, String> after) {
+        return after.keySet().stream().filter(partition -> !after.get(partition).equals(before.get(partition)))
+                    .collect(Collectors.toList());
+    }
+
+    private static NakadiPartition nakadiPartition(final String partition) {
+        return new NakadiPartition(partition, "0", "1", 0L);
+    }
+}
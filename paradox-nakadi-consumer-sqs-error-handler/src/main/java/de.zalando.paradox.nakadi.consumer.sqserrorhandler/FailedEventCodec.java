@@ -0,0 +1,187 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.FailedEvent;
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Encodes failed events to SQS messages and decodes them. A message is the JSON failed event, with compact encoding
+ * the gzipped and base64 encoded JSON. Messages exceeding the SQS size limit are put into the overflow store and the
+ * queue receives a reference to it. Decoding accepts all forms.
+ *
+ * <p>Stack traces longer than the configured maximum are truncated. With deduplication and an overflow store a stack
+ * trace is put into the overflow store under a key derived from its content and the failed events refer to it,
+ * decoding restores the full stack trace. A stack trace is stored once however often it repeats, the store keeps one
+ * entry per distinct stack trace, which is not deleted with the failed events. Without an overflow store a repeated
+ * stack trace is replaced by its hash, which the first occurrence ends with, and cannot be restored.</p>
+ */
+public class FailedEventCodec {
+
+    static final int MAX_MESSAGE_BYTES = 256 * 1024;
+
+    private static final String GZIP_PREFIX = "gzip:";
+
+    private static final String OVERFLOW_PREFIX = "overflow:";
+
+    private static final String STACK_TRACE_PREFIX = "stack-trace:";
+
+    private static final int MAX_DEDUP_STACK_TRACES = 1000;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean compactEncoding;
+
+    private final int maxStackTraceLength;
+
+    private final SQSOverflowStore overflowStore;
+
+    // hash of the stack trace to the text sent instead of a repetition
+    private final Cache<String, String> sentStackTraces;
+
+    public FailedEventCodec(final SQSConfig sqsConfig, final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.compactEncoding = sqsConfig.isCompactEncoding();
+        this.maxStackTraceLength = sqsConfig.getMaxStackTraceLength();
+        this.overflowStore = sqsConfig.getOverflowStore();
+        this.sentStackTraces = sqsConfig.getStackTraceDedupMillis() > 0
+            ? CacheBuilder.newBuilder().maximumSize(MAX_DEDUP_STACK_TRACES)
+                          .expireAfterWrite(sqsConfig.getStackTraceDedupMillis(), TimeUnit.MILLISECONDS).build()
+            : null;
+    }
+
+    public String getStackTrace(final String stackTrace) {
+        if (null != sentStackTraces && null != overflowStore) {
+            // content addressed, a stack trace repeated in later windows or by other handlers reuses the stored one
+            final String key = UUID.nameUUIDFromBytes(stackTrace.getBytes(UTF_8)).toString();
+            try {
+                return sentStackTraces.get(key, () -> {
+                        overflowStore.putIfAbsent(key, stackTrace);
+                        return STACK_TRACE_PREFIX + key;
+                    });
+            } catch (ExecutionException e) {
+                ThrowableUtils.throwException(e.getCause());
+                return null;
+            }
+        }
+
+        String result = stackTrace;
+        if (maxStackTraceLength > 0 && result.length() > maxStackTraceLength) {
+            result = result.substring(0, maxStackTraceLength) + "\n... ["
+                    + (result.length() - maxStackTraceLength) + " characters truncated]";
+        }
+
+        if (null != sentStackTraces) {
+            final String hash = Hashing.murmur3_128().hashString(stackTrace, UTF_8).toString();
+            final String repeated = sentStackTraces.getIfPresent(hash);
+            if (null != repeated) {
+                return repeated;
+            }
+
+            sentStackTraces.put(hash, "Repeated stack trace [" + hash + "]");
+            result = result + "\nStack trace [" + hash + "]";
+        }
+
+        return result;
+    }
+
+    public String encode(final FailedEvent failedEvent) {
+        try {
+            final String json = objectMapper.writeValueAsString(failedEvent);
+            final String message = compactEncoding ? GZIP_PREFIX + Base64.getEncoder().encodeToString(gzip(json))
+                                                   : json;
+            if (null != overflowStore && isTooLarge(message)) {
+                return OVERFLOW_PREFIX + overflowStore.put(message);
+            }
+
+            return message;
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    public FailedEvent decode(final String message) {
+        try {
+            final String overflowKey = getOverflowKey(message);
+            if (null != overflowKey) {
+                checkState(null != overflowStore, "Overflow store is required to read failed event [%s]", overflowKey);
+                return decode(overflowStore.get(overflowKey));
+            } else if (message.startsWith(GZIP_PREFIX)) {
+                return restoreStackTrace(objectMapper.readValue(
+                            gunzip(Base64.getDecoder().decode(message.substring(GZIP_PREFIX.length()))),
+                            FailedEvent.class));
+            }
+
+            return restoreStackTrace(objectMapper.readValue(message, FailedEvent.class));
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    private FailedEvent restoreStackTrace(final FailedEvent failedEvent) {
+        final String stackTrace = failedEvent.getStackTrace();
+        if (null != stackTrace && stackTrace.startsWith(STACK_TRACE_PREFIX)) {
+            final String key = stackTrace.substring(STACK_TRACE_PREFIX.length());
+            checkState(null != overflowStore, "Overflow store is required to read stack trace [%s]", key);
+            failedEvent.setStackTrace(overflowStore.get(key));
+        }
+
+        return failedEvent;
+    }
+
+    /**
+     * @return  true if the message exceeds the SQS size limit
+     */
+    static boolean isTooLarge(final String message) {
+        return message.getBytes(UTF_8).length > MAX_MESSAGE_BYTES;
+    }
+
+    /**
+     * @return  key of the message in the overflow store or null if the message contains the failed event
+     */
+    @Nullable
+    public static String getOverflowKey(final String message) {
+        return message.startsWith(OVERFLOW_PREFIX) ? message.substring(OVERFLOW_PREFIX.length()) : null;
+    }
+
+    private static byte[] gzip(final String json) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json.getBytes(UTF_8));
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(final byte[] gzipped) throws IOException {
+        try(InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import java.util.UUID;
+
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Overflow store keeping every message in a file of one local directory. The failed events are readable only by
+ * sources sharing the directory, e.g. on the same host or a mounted network file system.
+ */
+public class FileOverflowStore implements SQSOverflowStore {
+
+    private static final String SUFFIX = ".failed-event";
+
+    private final Path directory;
+
+    public FileOverflowStore(final Path directory) {
+        this.directory = requireNonNull(directory, "directory must not be null");
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    @Override
+    public String put(final String message) {
+        final String key = UUID.randomUUID().toString();
+        write(key, message);
+        return key;
+    }
+
+    @Override
+    public void putIfAbsent(final String key, final String message) {
+        if (!Files.exists(getPath(key))) {
+            write(key, message);
+        }
+    }
+
+    @Override
+    public String get(final String key) {
+        try {
+            return new String(Files.readAllBytes(getPath(key)), UTF_8);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+            return null;
+        }
+    }
+
+    @Override
+    public void delete(final String key) {
+        try {
+            Files.deleteIfExists(getPath(key));
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    private void write(final String key, final String message) {
+        try {
+
+            // readers never see a partially written message, a concurrent writer of the same key writes the same content
+            final Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, message.getBytes(UTF_8));
+            Files.move(temp, getPath(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    private Path getPath(final String key) {
+        // keys are generated UUIDs, a foreign key must not escape the directory
+        UUID.fromString(key);
+        return directory.resolve(key + SUFFIX);
+    }
+}
@@ -0,0 +1,267 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.apache.commons.lang3.StringUtils.abbreviate;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonServiceException;
+
+import com.amazonaws.retry.RetryUtils;
+
+import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+
+import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
+
+/**
+ * Sends messages to SQS from a background thread in batches of up to 10 messages and 256 KB. A batch is sent once it
+ * is full or its first message waited the linger time. Failed requests and entries rejected by SQS are sent again
+ * until they succeed, the sender backs off exponentially meanwhile, the backoff doubles up to the configured number of
+ * retries. Entries rejected as a fault of the sender and requests rejected as a client error other than throttling are
+ * dropped, they would fail again on every retry. Messages exceeding the SQS size limit are dropped on publishing.
+ * Publishing blocks while the queue is full.
+ */
+public class SQSBatchPublisher implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQSBatchPublisher.class);
+
+    static final int MAX_BATCH_ENTRIES = 10;
+
+    static final int MAX_BATCH_BYTES = 256 * 1024;
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10000;
+
+    static final int MAX_LOGGED_BODY_LENGTH = 1000;
+
+    private final String queueUrl;
+
+    private final AmazonSQS amazonSQS;
+
+    private final SQSOverflowStore overflowStore;
+
+    private final long lingerMillis;
+
+    // doublings of the retry backoff
+    private final int maxRetries;
+
+    private final BlockingQueue<Message> queue;
+
+    // messages taken from the queue but not sent yet, accessed by the sender thread only
+    private final Deque<Message> pending = new ArrayDeque<>();
+
+    // consecutive sends with failed messages, accessed by the sender thread only
+    private int failures;
+
+    private final Thread sender;
+
+    private volatile boolean running = true;
+
+    public SQSBatchPublisher(final SQSConfig sqsConfig, final AmazonSQS amazonSQS) {
+        this.queueUrl = sqsConfig.getQueueUrl();
+        this.amazonSQS = amazonSQS;
+        this.overflowStore = sqsConfig.getOverflowStore();
+        this.lingerMillis = sqsConfig.getBatchLingerMillis();
+        this.maxRetries = sqsConfig.getBatchMaxRetries();
+        this.queue = new ArrayBlockingQueue<>(sqsConfig.getBatchQueueCapacity());
+        this.sender = new Thread(this::run, "sqs-batch-publisher");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    public void publish(final String body) {
+        checkState(running, "SQS batch publisher is closed");
+
+        final Message message = new Message(body);
+        if (message.bytes > MAX_BATCH_BYTES) {
+            LOGGER.error("Message of [{}] bytes exceeds the SQS limit of [{}] bytes, dropping [{}]", message.bytes,
+                MAX_BATCH_BYTES, abbreviate(body, MAX_LOGGED_BODY_LENGTH));
+            return;
+        }
+
+        try {
+            queue.put(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ThrowableUtils.throwException(e);
+        }
+    }
+
+    /**
+     * Sends the queued messages and stops the sender thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            sender.join(CLOSE_TIMEOUT_MILLIS);
+            if (sender.isAlive()) {
+                sender.interrupt();
+                sender.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty() || !pending.isEmpty()) {
+            try {
+                final List<Message> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    send(batch);
+                }
+            } catch (InterruptedException e) {
+                break;
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error while sending batch to SQS", e);
+            }
+        }
+
+        final int lost = queue.size() + pending.size();
+        if (lost > 0) {
+            LOGGER.error("SQS batch publisher closed with [{}] unsent messages", lost);
+        }
+    }
+
+    private List<Message> nextBatch() throws InterruptedException {
+        final List<Message> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+        final Message first = !pending.isEmpty() ? pending.poll() : queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (null == first) {
+            return batch;
+        }
+
+        batch.add(first);
+
+        int bytes = first.bytes;
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < MAX_BATCH_ENTRIES) {
+            final Message next = !pending.isEmpty()
+                ? pending.poll() : queue.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            if (null == next) {
+                break;
+            }
+
+            if (bytes + next.bytes > MAX_BATCH_BYTES) {
+                pending.addFirst(next);
+                break;
+            }
+
+            batch.add(next);
+            bytes += next.bytes;
+        }
+
+        return batch;
+    }
+
+    private void send(final List<Message> batch) throws InterruptedException {
+        final SendMessageBatchRequest request = new SendMessageBatchRequest(queueUrl);
+        for (int i = 0; i < batch.size(); i++) {
+            request.withEntries(new SendMessageBatchRequestEntry(String.valueOf(i), batch.get(i).body));
+        }
+
+        final SendMessageBatchResult result;
+        try {
+            result = amazonSQS.sendMessageBatch(request);
+        } catch (RuntimeException e) {
+            if (isClientError(e)) {
+                LOGGER.error("SQS rejected batch of [{}] messages, dropping them", batch.size(), e);
+                batch.forEach(message -> {
+                    LOGGER.error("Dropping [{}]", message.body);
+                    deleteOverflow(message);
+                });
+                failures = 0;
+            } else {
+                LOGGER.warn("Sending batch of [{}] messages to SQS failed", batch.size(), e);
+                retry(batch);
+            }
+
+            return;
+        }
+
+        final List<Message> retried = new ArrayList<>(result.getFailed().size());
+        for (final BatchResultErrorEntry error : result.getFailed()) {
+            final Message message = batch.get(Integer.parseInt(error.getId()));
+            if (Boolean.TRUE.equals(error.getSenderFault())) {
+                LOGGER.error("SQS rejected message [{}] / [{}], dropping [{}]", error.getCode(), error.getMessage(),
+                    message.body);
+                deleteOverflow(message);
+            } else {
+                LOGGER.warn("SQS rejected message [{}] / [{}], retrying", error.getCode(), error.getMessage());
+                retried.add(message);
+            }
+        }
+
+        if (retried.isEmpty()) {
+            failures = 0;
+        } else {
+            retry(retried);
+        }
+    }
+
+    // client errors fail again on every retry, except for throttling and a skewed clock
+    private static boolean isClientError(final RuntimeException e) {
+        if (!(e instanceof AmazonServiceException)) {
+            return false;
+        }
+
+        final AmazonServiceException serviceException = (AmazonServiceException) e;
+        final boolean clientError = serviceException.getErrorType() == AmazonServiceException.ErrorType.Client
+                || (serviceException.getStatusCode() >= 400 && serviceException.getStatusCode() < 500);
+        return clientError && !RetryUtils.isThrottlingException(serviceException)
+                && !RetryUtils.isClockSkewError(serviceException);
+    }
+
+    private void deleteOverflow(final Message message) {
+        if (null != overflowStore) {
+            final String overflowKey = FailedEventCodec.getOverflowKey(message.body);
+            if (null != overflowKey) {
+                overflowStore.delete(overflowKey);
+            }
+        }
+    }
+
+    /**
+     * Sends the messages again before the queued ones after the backoff.
+     */
+    private void retry(final List<Message> messages) throws InterruptedException {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            pending.addFirst(messages.get(i));
+        }
+
+        final long backoffMillis = RETRY_BACKOFF_MILLIS << Math.min(failures++, maxRetries);
+        LOGGER.debug("Retrying [{}] messages after [{}] ms", messages.size(), backoffMillis);
+        Thread.sleep(backoffMillis);
+    }
+
+    private static final class Message {
+        private final String body;
+        private final int bytes;
+
+        private Message(final String body) {
+            this.body = body;
+            this.bytes = body.getBytes(UTF_8).length;
+        }
+    }
+}
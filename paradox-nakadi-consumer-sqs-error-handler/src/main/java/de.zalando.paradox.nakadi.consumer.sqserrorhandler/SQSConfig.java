@@ -2,23 +2,139 @@ package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
 
 import static java.util.Objects.requireNonNull;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import javax.annotation.Nullable;
+
 public class SQSConfig {
 
     private final String queueUrl;
 
+    private final boolean asyncBatching;
+
+    private final long batchLingerMillis;
+
+    private final int batchQueueCapacity;
+
+    private final int batchMaxRetries;
+
+    private final boolean compactEncoding;
+
+    private final int maxStackTraceLength;
+
+    private final long stackTraceDedupMillis;
+
+    private final SQSOverflowStore overflowStore;
+
     public SQSConfig(final Builder builder) {
         this.queueUrl = requireNonNull(builder.queueUrl, "queueUrl must not be null");
+        this.asyncBatching = builder.asyncBatching;
+        this.batchLingerMillis = builder.batchLingerMillis;
+        this.batchQueueCapacity = builder.batchQueueCapacity;
+        this.batchMaxRetries = builder.batchMaxRetries;
+        this.compactEncoding = builder.compactEncoding;
+        this.maxStackTraceLength = builder.maxStackTraceLength;
+        this.stackTraceDedupMillis = builder.stackTraceDedupMillis;
+        this.overflowStore = builder.overflowStore;
     }
 
     public static class Builder {
 
         private String queueUrl;
 
+        private boolean asyncBatching;
+
+        private long batchLingerMillis = 50;
+
+        private int batchQueueCapacity = 1000;
+
+        private int batchMaxRetries = 3;
+
+        private boolean compactEncoding;
+
+        private int maxStackTraceLength;
+
+        private long stackTraceDedupMillis;
+
+        private SQSOverflowStore overflowStore;
+
         public Builder queueUrl(final String queueUrl) {
             this.queueUrl = queueUrl;
             return this;
         }
 
+        /**
+         * Sends failed events in batches from a background thread instead of one request per event on the consuming
+         * thread.
+         */
+        public Builder asyncBatching(final boolean asyncBatching) {
+            this.asyncBatching = asyncBatching;
+            return this;
+        }
+
+        /**
+         * Time a batch waits for further failed events before it is sent.
+         */
+        public Builder batchLingerMillis(final long batchLingerMillis) {
+            checkArgument(batchLingerMillis >= 0, "batchLingerMillis must not be negative");
+            this.batchLingerMillis = batchLingerMillis;
+            return this;
+        }
+
+        /**
+         * Failed events waiting to be sent, the error handler blocks when the queue is full.
+         */
+        public Builder batchQueueCapacity(final int batchQueueCapacity) {
+            checkArgument(batchQueueCapacity > 0, "batchQueueCapacity must be positive");
+            this.batchQueueCapacity = batchQueueCapacity;
+            return this;
+        }
+
+        /**
+         * Doublings of the backoff between attempts to send failed events again, failed events are retried until SQS
+         * accepts them.
+         */
+        public Builder batchMaxRetries(final int batchMaxRetries) {
+            checkArgument(batchMaxRetries >= 0, "batchMaxRetries must not be negative");
+            this.batchMaxRetries = batchMaxRetries;
+            return this;
+        }
+
+        /**
+         * Sends failed events gzipped and base64 encoded. Sources decode both encodings.
+         */
+        public Builder compactEncoding(final boolean compactEncoding) {
+            this.compactEncoding = compactEncoding;
+            return this;
+        }
+
+        /**
+         * Truncates longer stack traces, 0 keeps the full stack trace.
+         */
+        public Builder maxStackTraceLength(final int maxStackTraceLength) {
+            checkArgument(maxStackTraceLength >= 0, "maxStackTraceLength must not be negative");
+            this.maxStackTraceLength = maxStackTraceLength;
+            return this;
+        }
+
+        /**
+         * Sends a stack trace repeated within this time only as a hash of the first occurrence, 0 sends every stack
+         * trace.
+         */
+        public Builder stackTraceDedupMillis(final long stackTraceDedupMillis) {
+            checkArgument(stackTraceDedupMillis >= 0, "stackTraceDedupMillis must not be negative");
+            this.stackTraceDedupMillis = stackTraceDedupMillis;
+            return this;
+        }
+
+        /**
+         * Stores failed events exceeding the SQS message size. Sources need the same store to read them.
+         */
+        public Builder overflowStore(final SQSOverflowStore overflowStore) {
+            this.overflowStore = overflowStore;
+            return this;
+        }
+
         public SQSConfig build() {
             return new SQSConfig(this);
         }
@@ -28,4 +144,37 @@ public class SQSConfig {
         return queueUrl;
     }
 
+    public boolean isAsyncBatching() {
+        return asyncBatching;
+    }
+
+    public long getBatchLingerMillis() {
+        return batchLingerMillis;
+    }
+
+    public int getBatchQueueCapacity() {
+        return batchQueueCapacity;
+    }
+
+    public int getBatchMaxRetries() {
+        return batchMaxRetries;
+    }
+
+    public boolean isCompactEncoding() {
+        return compactEncoding;
+    }
+
+    public int getMaxStackTraceLength() {
+        return maxStackTraceLength;
+    }
+
+    public long getStackTraceDedupMillis() {
+        return stackTraceDedupMillis;
+    }
+
+    @Nullable
+    public SQSOverflowStore getOverflowStore() {
+        return overflowStore;
+    }
+
 }
@@ -1,13 +1,18 @@
 package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
 
+import static org.apache.commons.lang3.StringUtils.abbreviate;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.Closeable;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.amazonaws.services.sqs.AmazonSQS;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 
@@ -18,18 +23,26 @@ import de.zalando.paradox.nakadi.consumer.core.domain.FailedEvent;
 import de.zalando.paradox.nakadi.consumer.core.http.handlers.EventErrorHandler;
 import de.zalando.paradox.nakadi.consumer.core.utils.ThrowableUtils;
 
-public class SQSErrorHandler implements EventErrorHandler {
+public class SQSErrorHandler implements EventErrorHandler, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SQSErrorHandler.class);
 
     private final String queueUrl;
 
     private final AmazonSQS amazonSQS;
 
-    private final ObjectMapper objectMapper;
+    private final FailedEventCodec codec;
+
+    private final SQSBatchPublisher batchPublisher;
+
+    private final SQSOverflowStore overflowStore;
 
     public SQSErrorHandler(final SQSConfig sqsConfig, final AmazonSQS amazonSQS, final ObjectMapper objectMapper) {
         this.amazonSQS = amazonSQS;
         this.queueUrl = sqsConfig.getQueueUrl();
-        this.objectMapper = objectMapper;
+        this.codec = new FailedEventCodec(sqsConfig, objectMapper);
+        this.batchPublisher = sqsConfig.isAsyncBatching() ? new SQSBatchPublisher(sqsConfig, amazonSQS) : null;
+        this.overflowStore = sqsConfig.getOverflowStore();
     }
 
     @Override
@@ -60,14 +73,48 @@ public class SQSErrorHandler implements EventErrorHandler {
                     PrintWriter stackTracePrintWriter = new PrintWriter(stackTraceStringWriter)) {
                 t.printStackTrace(stackTracePrintWriter);
                 stackTracePrintWriter.flush();
-                failedEvent.setStackTrace(stackTraceStringWriter.toString());
+                failedEvent.setStackTrace(codec.getStackTrace(stackTraceStringWriter.toString()));
             }
 
-            final String serializedEvent = objectMapper.writeValueAsString(failedEvent);
-            amazonSQS.sendMessage(new SendMessageRequest(queueUrl, serializedEvent));
+            final String serializedEvent = codec.encode(failedEvent);
+            try {
+                if (null != batchPublisher) {
+                    batchPublisher.publish(serializedEvent);
+                } else if (FailedEventCodec.isTooLarge(serializedEvent)) {
+
+                    // rejected by SQS without an overflow store
+                    LOGGER.error("Failed event exceeds the SQS limit of [{}] bytes, dropping [{}]",
+                        FailedEventCodec.MAX_MESSAGE_BYTES,
+                        abbreviate(serializedEvent, SQSBatchPublisher.MAX_LOGGED_BODY_LENGTH));
+                } else {
+                    amazonSQS.sendMessage(new SendMessageRequest(queueUrl, serializedEvent));
+                }
+            } catch (final RuntimeException e) {
+                deleteOverflow(serializedEvent);
+                throw e;
+            }
 
         } catch (final Exception e) {
             ThrowableUtils.throwException(e);
         }
     }
+
+    private void deleteOverflow(final String message) {
+        if (null != overflowStore) {
+            final String overflowKey = FailedEventCodec.getOverflowKey(message);
+            if (null != overflowKey) {
+                overflowStore.delete(overflowKey);
+            }
+        }
+    }
+
+    /**
+     * Sends the failed events still queued for a batch.
+     */
+    @Override
+    public void close() {
+        if (null != batchPublisher) {
+            batchPublisher.close();
+        }
+    }
 }
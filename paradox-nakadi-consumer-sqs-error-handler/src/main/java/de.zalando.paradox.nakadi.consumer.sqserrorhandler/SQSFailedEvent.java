@@ -10,6 +10,8 @@ public class SQSFailedEvent extends FailedEvent {
 
     private String receiptHandle;
 
+    private String overflowKey;
+
     public String getReceiptHandle() {
         return receiptHandle;
     }
@@ -17,4 +19,12 @@ public class SQSFailedEvent extends FailedEvent {
     public void setReceiptHandle(final String receiptHandle) {
         this.receiptHandle = receiptHandle;
     }
+
+    public String getOverflowKey() {
+        return overflowKey;
+    }
+
+    public void setOverflowKey(final String overflowKey) {
+        this.overflowKey = overflowKey;
+    }
 }
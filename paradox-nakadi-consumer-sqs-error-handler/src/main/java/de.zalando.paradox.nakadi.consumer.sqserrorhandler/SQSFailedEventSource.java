@@ -24,13 +24,16 @@ public class SQSFailedEventSource implements FailedEventSource<SQSFailedEvent> {
 
     private final AmazonSQS amazonSQS;
 
-    private final ObjectMapper objectMapper;
+    private final FailedEventCodec codec;
+
+    private final SQSOverflowStore overflowStore;
 
     private final String queueUrl;
 
     public SQSFailedEventSource(final SQSConfig sqsConfig, final AmazonSQS amazonSQS, final ObjectMapper objectMapper) {
         this.amazonSQS = amazonSQS;
-        this.objectMapper = objectMapper;
+        this.codec = new FailedEventCodec(sqsConfig, objectMapper);
+        this.overflowStore = sqsConfig.getOverflowStore();
         this.queueUrl = sqsConfig.getQueueUrl();
     }
 
@@ -47,6 +50,9 @@ public class SQSFailedEventSource implements FailedEventSource<SQSFailedEvent> {
     @Override
     public void commit(final SQSFailedEvent sqsFailedEvent) {
         amazonSQS.deleteMessage(queueUrl, sqsFailedEvent.getReceiptHandle());
+        if (null != sqsFailedEvent.getOverflowKey() && null != overflowStore) {
+            overflowStore.delete(sqsFailedEvent.getOverflowKey());
+        }
     }
 
     @Override
@@ -78,10 +84,11 @@ public class SQSFailedEventSource implements FailedEventSource<SQSFailedEvent> {
 
     private SQSFailedEvent mapToSQSFailedEvent(final Message message) {
         try {
-            final FailedEvent failedEvent = objectMapper.readValue(message.getBody(), FailedEvent.class);
+            final FailedEvent failedEvent = codec.decode(message.getBody());
             final SQSFailedEvent sqsFailedEvent = new SQSFailedEvent(failedEvent);
             sqsFailedEvent.setId(message.getMessageId());
             sqsFailedEvent.setReceiptHandle(message.getReceiptHandle());
+            sqsFailedEvent.setOverflowKey(FailedEventCodec.getOverflowKey(message.getBody()));
             return sqsFailedEvent;
         } catch (final Exception e) {
             throw new IllegalStateException(String.format(
@@ -0,0 +1,22 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+/**
+ * Stores failed event messages too large for SQS. The queue receives a reference to the stored message instead.
+ */
+public interface SQSOverflowStore {
+
+    /**
+     * @return  key of the stored message
+     */
+    String put(String message);
+
+    /**
+     * Stores the message under a key derived from its content, a message already stored under the key is kept. Keys
+     * are UUIDs.
+     */
+    void putIfAbsent(String key, String message);
+
+    String get(String key);
+
+    void delete(String key);
+}
@@ -0,0 +1,136 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.FailedEvent;
+
+public class FailedEventCodecTest {
+
+    private static final String QUEUE_URL = "https://sqs.eu-central-1.amazonaws.com/1234567890/app-failed-events";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testShouldDecodeCompactAndPlainMessages() throws Exception {
+        final FailedEvent failedEvent = failedEvent(randomAlphanumeric(1000));
+        final FailedEventCodec compact = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .compactEncoding(true).build(), objectMapper);
+
+        final String message = compact.encode(failedEvent);
+        assertThat(message).startsWith("gzip:");
+        assertThat(compact.decode(message).getRawEvent()).isEqualTo(failedEvent.getRawEvent());
+
+        // messages sent before the compact encoding was enabled
+        assertThat(compact.decode(objectMapper.writeValueAsString(failedEvent)).getOffset()).isEqualTo("42");
+    }
+
+    @Test
+    public void testShouldPutLargeMessagesIntoOverflowStore() throws IOException {
+        final SQSOverflowStore overflowStore = new FileOverflowStore(folder.newFolder().toPath());
+        final FailedEventCodec codec = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .compactEncoding(true).overflowStore(overflowStore).build(), objectMapper);
+
+        // random content does not compress below the limit
+        final FailedEvent failedEvent = failedEvent(randomAlphanumeric(FailedEventCodec.MAX_MESSAGE_BYTES * 2));
+        final String message = codec.encode(failedEvent);
+        assertThat(message.getBytes(UTF_8).length).isLessThan(100);
+        assertThat(FailedEventCodec.getOverflowKey(message)).isNotNull();
+        assertThat(codec.decode(message).getRawEvent()).isEqualTo(failedEvent.getRawEvent());
+
+        final FailedEventCodec withoutStore = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL).build(),
+                objectMapper);
+        assertThatThrownBy(() -> withoutStore.decode(message)).isInstanceOf(IllegalStateException.class);
+
+        overflowStore.delete(FailedEventCodec.getOverflowKey(message));
+        assertThatThrownBy(() -> codec.decode(message)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void testShouldTruncateAndDeduplicateStackTraces() {
+        final FailedEventCodec codec = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .maxStackTraceLength(10).stackTraceDedupMillis(60000).build(), objectMapper);
+        final String stackTrace = "java.lang.RuntimeException: expected";
+
+        final String first = codec.getStackTrace(stackTrace);
+        assertThat(first).startsWith("java.lang.\n... [26 characters truncated]").contains("Stack trace [");
+        assertThat(codec.getStackTrace(stackTrace)).startsWith("Repeated stack trace [");
+        assertThat(codec.getStackTrace("java.lang.IllegalStateException")).doesNotContain("Repeated");
+
+        final FailedEventCodec plain = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL).build(),
+                objectMapper);
+        assertThat(plain.getStackTrace(stackTrace)).isEqualTo(stackTrace);
+        assertThat(plain.getStackTrace(stackTrace)).isEqualTo(stackTrace);
+    }
+
+    @Test
+    public void testShouldRestoreDeduplicatedStackTraces() throws Exception {
+        final SQSOverflowStore overflowStore = new FileOverflowStore(folder.newFolder().toPath());
+        final FailedEventCodec codec = new FailedEventCodec(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .maxStackTraceLength(10).stackTraceDedupMillis(60000).overflowStore(overflowStore).build(),
+                objectMapper);
+        final String stackTrace = "java.lang.RuntimeException: expected";
+
+        final FailedEvent first = failedEvent("{}");
+        first.setStackTrace(codec.getStackTrace(stackTrace));
+
+        final FailedEvent repeated = failedEvent("{}");
+        repeated.setStackTrace(codec.getStackTrace(stackTrace));
+        assertThat(repeated.getStackTrace()).isEqualTo(first.getStackTrace()).doesNotContain("RuntimeException");
+
+        assertThat(codec.decode(codec.encode(first)).getStackTrace()).isEqualTo(stackTrace);
+        assertThat(codec.decode(codec.encode(repeated)).getStackTrace()).isEqualTo(stackTrace);
+    }
+
+    @Test
+    public void testShouldStoreRepeatedStackTraceOnce() throws Exception {
+        final Path directory = folder.newFolder().toPath();
+        final SQSConfig sqsConfig = new SQSConfig.Builder().queueUrl(QUEUE_URL).stackTraceDedupMillis(60000)
+                                                           .overflowStore(new FileOverflowStore(directory)).build();
+        final String stackTrace = "java.lang.RuntimeException: expected";
+
+        // a new codec starts a new deduplication window
+        final String first = new FailedEventCodec(sqsConfig, objectMapper).getStackTrace(stackTrace);
+        final String later = new FailedEventCodec(sqsConfig, objectMapper).getStackTrace(stackTrace);
+        final String other = new FailedEventCodec(sqsConfig, objectMapper).getStackTrace("java.lang.Error");
+
+        assertThat(later).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+        try(Stream<Path> files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+    }
+
+    private static FailedEvent failedEvent(final String rawEvent) {
+        final FailedEvent failedEvent = new FailedEvent();
+        failedEvent.setConsumerName("consumer");
+        failedEvent.setEventType(EventType.of("event"));
+        failedEvent.setPartition("0");
+        failedEvent.setOffset("42");
+        failedEvent.setRawEvent(rawEvent);
+        failedEvent.setStackTrace("java.lang.RuntimeException");
+        return failedEvent;
+    }
+}
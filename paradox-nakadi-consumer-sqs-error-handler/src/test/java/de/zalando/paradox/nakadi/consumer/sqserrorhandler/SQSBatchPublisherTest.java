@@ -0,0 +1,197 @@
+package de.zalando.paradox.nakadi.consumer.sqserrorhandler;
+
+import static org.apache.commons.lang3.RandomStringUtils.randomAlphabetic;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+
+import com.amazonaws.services.sqs.AbstractAmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import de.zalando.paradox.nakadi.consumer.core.domain.EventType;
+import de.zalando.paradox.nakadi.consumer.core.domain.EventTypePartition;
+
+public class SQSBatchPublisherTest {
+
+    private static final String QUEUE_URL = "https://sqs.example.com/queue";
+
+    @Test
+    public void testShouldSendBatchesOfTen() {
+        final FakeSQS sqs = new FakeSQS();
+        final List<String> bodies = IntStream.range(0, 25).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(config(500), sqs);
+        bodies.forEach(publisher::publish);
+        publisher.close();
+
+        assertThat(sqs.batchSizes).containsExactly(10, 10, 5);
+        assertThat(sqs.received).containsExactlyElementsOf(bodies);
+    }
+
+    @Test
+    public void testShouldRetryRejectedEntries() {
+        final FakeSQS sqs = new FakeSQS();
+        sqs.rejectOnce.add("retried");
+        sqs.rejectAsSenderFault.add("invalid");
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(config(0), sqs);
+        publisher.publish("retried");
+        publisher.publish("invalid");
+        publisher.publish("sent");
+        publisher.close();
+
+        assertThat(sqs.received).containsOnly("retried", "sent").hasSize(2);
+    }
+
+    @Test
+    public void testShouldRetryFailedRequestsBeyondMaxRetries() {
+        final FakeSQS sqs = new FakeSQS();
+        sqs.failedRequests = 2;
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .asyncBatching(true).batchLingerMillis(0).batchMaxRetries(0).build(), sqs);
+        publisher.publish("first");
+        publisher.publish("second");
+        publisher.close();
+
+        assertThat(sqs.failedRequests).isZero();
+        assertThat(sqs.received).containsExactly("first", "second");
+    }
+
+    @Test
+    public void testShouldLimitBatchBytes() {
+        final FakeSQS sqs = new FakeSQS();
+        final String body = randomAlphabetic(SQSBatchPublisher.MAX_BATCH_BYTES / 2 + 1);
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(config(500), sqs);
+        publisher.publish(body);
+        publisher.publish(body);
+        publisher.close();
+
+        assertThat(sqs.batchSizes).containsExactly(1, 1);
+    }
+
+    @Test
+    public void testShouldDropOversizeMessages() {
+        final FakeSQS sqs = new FakeSQS();
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(config(0), sqs);
+        publisher.publish(randomAlphabetic(SQSBatchPublisher.MAX_BATCH_BYTES + 1));
+        publisher.publish("sent");
+        publisher.close();
+
+        assertThat(sqs.batchSizes).containsExactly(1);
+        assertThat(sqs.received).containsExactly("sent");
+    }
+
+    @Test
+    public void testShouldDropRequestsRejectedAsClientError() {
+        final FakeSQS sqs = new FakeSQS();
+        sqs.failedRequests = 1;
+        sqs.requestFailure = serviceException(400, "InvalidParameterValue");
+
+        final SQSOverflowStore overflowStore = mock(SQSOverflowStore.class);
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(new SQSConfig.Builder().queueUrl(QUEUE_URL)
+                    .asyncBatching(true).batchLingerMillis(0).overflowStore(overflowStore).build(), sqs);
+        publisher.publish("overflow:key");
+        publisher.close();
+
+        assertThat(sqs.batchSizes).containsExactly(1);
+        assertThat(sqs.received).isEmpty();
+        verify(overflowStore).delete("key");
+    }
+
+    @Test
+    public void testShouldRetryThrottledRequests() {
+        final FakeSQS sqs = new FakeSQS();
+        sqs.failedRequests = 1;
+        sqs.requestFailure = serviceException(400, "Throttling");
+
+        final SQSBatchPublisher publisher = new SQSBatchPublisher(config(0), sqs);
+        publisher.publish("sent");
+        publisher.close();
+
+        assertThat(sqs.batchSizes).containsExactly(1, 1);
+        assertThat(sqs.received).containsExactly("sent");
+    }
+
+    @Test
+    public void testErrorHandlerShouldPublishInBatches() {
+        final FakeSQS sqs = new FakeSQS();
+        final SQSErrorHandler sqsErrorHandler = new SQSErrorHandler(config(500), sqs, new ObjectMapper());
+
+        IntStream.range(0, 3).forEach(i ->
+                sqsErrorHandler.onError("consumer", new RuntimeException(),
+                    EventTypePartition.of(EventType.of("event"), "0"), String.valueOf(i), "{}"));
+        sqsErrorHandler.close();
+
+        assertThat(sqs.batchSizes).containsExactly(3);
+    }
+
+    private static AmazonServiceException serviceException(final int statusCode, final String errorCode) {
+        final AmazonServiceException exception = new AmazonServiceException(errorCode);
+        exception.setStatusCode(statusCode);
+        exception.setErrorCode(errorCode);
+        exception.setErrorType(AmazonServiceException.ErrorType.Client);
+        return exception;
+    }
+
+    private static SQSConfig config(final long lingerMillis) {
+        return new SQSConfig.Builder().queueUrl(QUEUE_URL).asyncBatching(true).batchLingerMillis(lingerMillis).build();
+    }
+
+    private static final class FakeSQS extends AbstractAmazonSQS {
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<String> received = new ArrayList<>();
+        private final Set<String> rejectOnce = new HashSet<>();
+        private final Set<String> rejectAsSenderFault = new HashSet<>();
+        private int failedRequests;
+        private AmazonServiceException requestFailure = new AmazonServiceException("Service unavailable");
+
+        @Override
+        public synchronized SendMessageBatchResult sendMessageBatch(final SendMessageBatchRequest request) {
+            assertThat(request.getQueueUrl()).isEqualTo(QUEUE_URL);
+            assertThat(request.getEntries().size()).isLessThanOrEqualTo(SQSBatchPublisher.MAX_BATCH_ENTRIES);
+            batchSizes.add(request.getEntries().size());
+            if (failedRequests > 0) {
+                failedRequests--;
+                throw requestFailure;
+            }
+
+            final SendMessageBatchResult result = new SendMessageBatchResult();
+            for (final SendMessageBatchRequestEntry entry : request.getEntries()) {
+                if (rejectOnce.remove(entry.getMessageBody())) {
+                    result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withSenderFault(false)
+                            .withCode("ServiceUnavailable"));
+                } else if (rejectAsSenderFault.contains(entry.getMessageBody())) {
+                    result.withFailed(new BatchResultErrorEntry().withId(entry.getId()).withSenderFault(true)
+                            .withCode("InvalidMessageContents"));
+                } else {
+                    received.add(entry.getMessageBody());
+                    result.withSuccessful(new SendMessageBatchResultEntry().withId(entry.getId()));
+                }
+            }
+
+            return result;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,8 +52,9 @@ public class SQSErrorHandlerTest {
     private GetQueueUrlResult mockGetQueueUrlResult;
 
     @Before
-    public void setUp() {
+    public void setUp() throws JsonProcessingException {
         MockitoAnnotations.initMocks(this);
+        when(objectMapper.writeValueAsString(any(FailedEvent.class))).thenReturn("{}");
 
         when(amazonSQS.getQueueUrl(anyString())).thenReturn(mockGetQueueUrlResult);
         when(mockGetQueueUrlResult.getQueueUrl()).thenReturn("https://example.com");
@@ -103,6 +105,36 @@ public class SQSErrorHandlerTest {
             .isInstanceOf(RuntimeException.class).hasMessageContaining("expected");
     }
 
+    @Test
+    public void testShouldDeleteOverflowWhenSendingFails() throws JsonProcessingException {
+        final SQSOverflowStore overflowStore = mock(SQSOverflowStore.class);
+        when(sqsConfig.getOverflowStore()).thenReturn(overflowStore);
+        when(overflowStore.put(anyString())).thenReturn("key");
+        when(objectMapper.writeValueAsString(any(FailedEvent.class))).thenReturn(randomAlphabetic(
+                FailedEventCodec.MAX_MESSAGE_BYTES + 1));
+        when(amazonSQS.sendMessage(any(SendMessageRequest.class))).thenThrow(new RuntimeException("expected"));
+
+        final SQSErrorHandler withOverflow = new SQSErrorHandler(sqsConfig, amazonSQS, objectMapper);
+        assertThatThrownBy(() ->
+                withOverflow.onError(randomAlphabetic(10), new RuntimeException(),
+                    EventTypePartition.of(EventType.of(randomAlphabetic(10)), randomAlphabetic(1)), randomNumeric(10),
+                    randomAlphabetic(50))).isInstanceOf(RuntimeException.class).hasMessageContaining("expected");
+
+        verify(overflowStore).delete("key");
+    }
+
+    @Test
+    public void testShouldDropOversizeEventWithoutOverflowStore() throws JsonProcessingException {
+        when(objectMapper.writeValueAsString(any(FailedEvent.class))).thenReturn(randomAlphabetic(
+                FailedEventCodec.MAX_MESSAGE_BYTES + 1));
+
+        sqsErrorHandler.onError(randomAlphabetic(10), new RuntimeException(),
+            EventTypePartition.of(EventType.of(randomAlphabetic(10)), randomAlphabetic(1)), randomNumeric(10),
+            randomAlphabetic(50));
+
+        verify(amazonSQS, never()).sendMessage(any(SendMessageRequest.class));
+    }
+
     @Test
     public void testShouldSendEventToSQS() throws JsonProcessingException {
         final SendMessageResult sendMessageResult = new SendMessageResult();